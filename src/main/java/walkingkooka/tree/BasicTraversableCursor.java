@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree;
+
+import walkingkooka.Cast;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The {@link TraversableCursor} returned by {@link Traversable#traversableCursor()}. It records each ancestor it
+ * moves through along with the index of the child below it, so moving to a parent or sibling of a node previously
+ * reached through {@link #moveFirstChild()} does not need to call {@link Traversable#parent()} or
+ * {@link Traversable#index()}. Moving above the starting {@link Traversable} falls back to those methods.
+ */
+final class BasicTraversableCursor<T extends Traversable<T>> implements TraversableCursor<T> {
+
+    /**
+     * Package private factory only called by default method {@link Traversable#traversableCursor()}
+     */
+    static <T extends Traversable<T>> BasicTraversableCursor<T> with(final T traversable) {
+        return new BasicTraversableCursor<>(traversable);
+    }
+
+    private BasicTraversableCursor(final T traversable) {
+        this.current = traversable;
+    }
+
+    @Override
+    public T current() {
+        return this.current;
+    }
+
+    private T current;
+
+    @Override
+    public boolean moveParent() {
+        final boolean moved;
+
+        final int depth = this.depth;
+        if (depth > 0) {
+            this.depth = depth - 1;
+            this.current = Cast.to(this.parents[depth - 1]);
+            this.parents[depth - 1] = null;
+            moved = true;
+        } else {
+            final Optional<T> parent = this.current.parent();
+            moved = parent.isPresent();
+            if (moved) {
+                this.current = parent.get();
+            }
+        }
+
+        return moved;
+    }
+
+    @Override
+    public boolean moveFirstChild() {
+        final T current = this.current;
+        final List<T> children = current.children();
+
+        final boolean moved = false == children.isEmpty();
+        if (moved) {
+            this.push(current, 0);
+            this.current = children.get(0);
+        }
+
+        return moved;
+    }
+
+    @Override
+    public boolean moveNextSibling() {
+        return this.moveSibling(+1);
+    }
+
+    @Override
+    public boolean movePreviousSibling() {
+        return this.moveSibling(-1);
+    }
+
+    private boolean moveSibling(final int delta) {
+        boolean moved = false;
+
+        if (0 == this.depth) {
+            final T current = this.current;
+            final Optional<T> parent = current.parent();
+            if (parent.isPresent()) {
+                this.push(
+                    parent.get(),
+                    current.index()
+                );
+            }
+        }
+
+        final int top = this.depth - 1;
+        if (top >= 0) {
+            final T parent = Cast.to(this.parents[top]);
+            final List<T> siblings = parent.children();
+            final int index = this.indices[top] + delta;
+
+            if (index >= 0 && index < siblings.size()) {
+                this.indices[top] = index;
+                this.current = siblings.get(index);
+                moved = true;
+            }
+        }
+
+        return moved;
+    }
+
+    private void push(final T parent,
+                      final int index) {
+        final int depth = this.depth;
+        if (depth == this.parents.length) {
+            this.parents = Arrays.copyOf(this.parents, depth * 2);
+            this.indices = Arrays.copyOf(this.indices, depth * 2);
+        }
+
+        this.parents[depth] = parent;
+        this.indices[depth] = index;
+        this.depth = depth + 1;
+    }
+
+    /**
+     * The ancestors of {@link #current} that have been moved through, with the closest last.
+     */
+    private Object[] parents = new Object[INITIAL_CAPACITY];
+
+    /**
+     * The index of the child within each of {@link #parents} that leads to {@link #current}.
+     */
+    private int[] indices = new int[INITIAL_CAPACITY];
+
+    private int depth;
+
+    private final static int INITIAL_CAPACITY = 16;
+
+    @Override
+    public String toString() {
+        return this.current.toString();
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree;
+
+import walkingkooka.Cast;
+import walkingkooka.naming.Name;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A read only {@link Node} that is a view of a single position within a {@link FlatNodeTable}. The table holds the
+ * entire tree in a few flat arrays, and {@link FlatNode} are only created when a position is first visited using
+ * {@link #children()}, {@link #parent()} or similar, which means queries that only touch a few nodes only create a few
+ * objects. {@link FlatNode} are not cached, two are equal when they are views of the same position in the same table.
+ */
+public final class FlatNode<NAME extends Name, ANAME extends Name, AVALUE> implements Node<FlatNode<NAME, ANAME, AVALUE>, NAME, ANAME, AVALUE> {
+
+    /**
+     * Copies the given {@link Node} and all its descendants into a {@link FlatNodeTable} returning the new root.
+     */
+    public static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> FlatNode<NAME, ANAME, AVALUE> with(final N node) {
+        Objects.requireNonNull(node, "node");
+
+        return FlatNodeTable.with(node)
+            .node(FlatNodeTable.ROOT);
+    }
+
+    /**
+     * Creates a tree directly from flat arrays holding every node in breadth first order, without first building any
+     * other {@link Node} or any per node {@link Map}. The root is first, followed by its children, then the children of
+     * its first child and so on, so only the number of children of each node is required.
+     * <ul>
+     * <li>names, childCounts and attributeCounts have one entry per node, each name is an index into the namePool</li>
+     * <li>attributeNames and attributeValues have one entry per attribute, grouped by node in the same order, each
+     * attribute name is an index into the attributeNamePool</li>
+     * </ul>
+     * None of the arrays or lists are kept, which means a reader can reuse them after loading.
+     */
+    public static <NAME extends Name, ANAME extends Name, AVALUE> FlatNode<NAME, ANAME, AVALUE> withBreadthFirst(final List<NAME> namePool,
+                                                                                                              final int[] names,
+                                                                                                              final int[] childCounts,
+                                                                                                              final int[] attributeCounts,
+                                                                                                              final List<ANAME> attributeNamePool,
+                                                                                                              final int[] attributeNames,
+                                                                                                              final List<AVALUE> attributeValues) {
+        return FlatNodeTable.<NAME, ANAME, AVALUE>withBreadthFirst(
+            namePool,
+            names,
+            childCounts,
+            attributeCounts,
+            attributeNamePool,
+            attributeNames,
+            attributeValues
+        ).node(FlatNodeTable.ROOT);
+    }
+
+    // @VisibleForTesting
+    FlatNode(final FlatNodeTable<NAME, ANAME, AVALUE> table,
+             final int id) {
+        this.table = table;
+        this.id = id;
+    }
+
+    // Node.............................................................................................................
+
+    @Override
+    public NAME name() {
+        return this.table.name(this.id);
+    }
+
+    @Override
+    public int index() {
+        return this.table.index(this.id);
+    }
+
+    @Override
+    public Optional<FlatNode<NAME, ANAME, AVALUE>> parent() {
+        return this.table.parent(this.id);
+    }
+
+    @Override
+    public boolean isRoot() {
+        return FlatNodeTable.ROOT == this.id;
+    }
+
+    /**
+     * Only a root may be returned without its parent, all other nodes are read only.
+     */
+    @Override
+    public FlatNode<NAME, ANAME, AVALUE> removeParent() {
+        if (this.isRoot()) {
+            return this;
+        }
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<FlatNode<NAME, ANAME, AVALUE>> children() {
+        return this.table.children(this.id);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.table.isEmpty(this.id);
+    }
+
+    /**
+     * Returns a {@link TraversableCursor} that moves within the {@link FlatNodeTable} without creating a
+     * {@link FlatNode} for each step.
+     */
+    @Override
+    public TraversableCursor<FlatNode<NAME, ANAME, AVALUE>> traversableCursor() {
+        return FlatNodeCursor.with(
+            this.table,
+            this.id
+        );
+    }
+
+    @Override
+    public FlatNode<NAME, ANAME, AVALUE> setChildren(final List<FlatNode<NAME, ANAME, AVALUE>> children) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<ANAME, AVALUE> attributes() {
+        if (null == this.attributes) {
+            this.attributes = this.table.attributes(this.id);
+        }
+        return this.attributes;
+    }
+
+    /**
+     * Lazily created by {@link #attributes()}.
+     */
+    private Map<ANAME, AVALUE> attributes;
+
+    @Override
+    public FlatNode<NAME, ANAME, AVALUE> setAttributes(final Map<ANAME, AVALUE> attributes) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * The {@link FlatNodeTable} holding all nodes in this tree.
+     */
+    private final FlatNodeTable<NAME, ANAME, AVALUE> table;
+
+    /**
+     * The position of this node within {@link #table}.
+     */
+    private final int id;
+
+    // Object...........................................................................................................
+
+    @Override
+    public int hashCode() {
+        return this.id;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other ||
+            other instanceof FlatNode && this.equals0(Cast.to(other));
+    }
+
+    private boolean equals0(final FlatNode<?, ?, ?> other) {
+        return this.table == other.table &&
+            this.id == other.id;
+    }
+
+    @Override
+    public String toString() {
+        return this.name()
+            .toString();
+    }
+}
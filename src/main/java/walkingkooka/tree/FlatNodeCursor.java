@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree;
+
+import walkingkooka.naming.Name;
+
+/**
+ * The {@link TraversableCursor} returned by {@link FlatNode#traversableCursor()}, which moves by changing a single
+ * id within a {@link FlatNodeTable} and only creates a {@link FlatNode} when {@link #current()} is called.
+ */
+final class FlatNodeCursor<NAME extends Name, ANAME extends Name, AVALUE> implements TraversableCursor<FlatNode<NAME, ANAME, AVALUE>> {
+
+    static <NAME extends Name, ANAME extends Name, AVALUE> FlatNodeCursor<NAME, ANAME, AVALUE> with(final FlatNodeTable<NAME, ANAME, AVALUE> table,
+                                                                                                 final int id) {
+        return new FlatNodeCursor<>(table, id);
+    }
+
+    private FlatNodeCursor(final FlatNodeTable<NAME, ANAME, AVALUE> table,
+                           final int id) {
+        this.table = table;
+        this.id = id;
+    }
+
+    @Override
+    public FlatNode<NAME, ANAME, AVALUE> current() {
+        return this.table.node(this.id);
+    }
+
+    @Override
+    public boolean moveParent() {
+        final int parent = this.table.parentId(this.id);
+
+        final boolean moved = FlatNodeTable.NO_PARENT != parent;
+        if (moved) {
+            this.id = parent;
+        }
+        return moved;
+    }
+
+    @Override
+    public boolean moveFirstChild() {
+        final FlatNodeTable<NAME, ANAME, AVALUE> table = this.table;
+        final int id = this.id;
+
+        final boolean moved = false == table.isEmpty(id);
+        if (moved) {
+            this.id = table.firstChildId(id);
+        }
+        return moved;
+    }
+
+    @Override
+    public boolean moveNextSibling() {
+        final FlatNodeTable<NAME, ANAME, AVALUE> table = this.table;
+        final int id = this.id;
+        final int parent = table.parentId(id);
+
+        final boolean moved = FlatNodeTable.NO_PARENT != parent &&
+            id + 1 < table.firstChildId(parent) + table.childCount(parent);
+        if (moved) {
+            this.id = id + 1;
+        }
+        return moved;
+    }
+
+    @Override
+    public boolean movePreviousSibling() {
+        final FlatNodeTable<NAME, ANAME, AVALUE> table = this.table;
+        final int id = this.id;
+        final int parent = table.parentId(id);
+
+        final boolean moved = FlatNodeTable.NO_PARENT != parent &&
+            id > table.firstChildId(parent);
+        if (moved) {
+            this.id = id - 1;
+        }
+        return moved;
+    }
+
+    private final FlatNodeTable<NAME, ANAME, AVALUE> table;
+
+    private int id;
+
+    @Override
+    public String toString() {
+        return this.table.name(this.id)
+            .toString();
+    }
+}
@@ -0,0 +1,435 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree;
+
+import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.naming.Name;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Holds an entire tree of {@link Node} in flat arrays, one entry per node. Nodes are numbered in breadth first order,
+ * which means the children of any node always have consecutive numbers and only the first child and count need to be
+ * recorded. Names and attribute names are interned into pools, so repeated names are only held once.
+ * {@link FlatNode} are small views holding only the table and an id, created when requested and never cached.
+ */
+final class FlatNodeTable<NAME extends Name, ANAME extends Name, AVALUE> {
+
+    /**
+     * The id of the root node.
+     */
+    final static int ROOT = 0;
+
+    /**
+     * The parent id of the root node.
+     */
+    final static int NO_PARENT = -1;
+
+    /**
+     * Copies the given {@link Node} and all its descendants. Names and attributes are interned as each node is visited,
+     * so no per node copies are made.
+     */
+    static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> FlatNodeTable<NAME, ANAME, AVALUE> with(final N root) {
+        // number all nodes in breadth first order
+        final List<N> nodes = Lists.array();
+        nodes.add(root);
+
+        final List<Name> namePool = Lists.array();
+        final Map<Name, Integer> nameToIndex = Maps.hash();
+        final List<Integer> names = Lists.array();
+        final List<Integer> childCounts = Lists.array();
+
+        final List<Name> attributeNamePool = Lists.array();
+        final Map<Name, Integer> attributeNameToIndex = Maps.hash();
+        final List<Integer> attributeCounts = Lists.array();
+        final List<Integer> attributeNames = Lists.array();
+        final List<Object> attributeValues = Lists.array();
+
+        for (int i = 0; i < nodes.size(); i++) {
+            final N node = nodes.get(i);
+            final List<N> children = node.children();
+
+            names.add(
+                intern(
+                    node.name(),
+                    namePool,
+                    nameToIndex
+                )
+            );
+            childCounts.add(children.size());
+
+            final Map<ANAME, AVALUE> attributes = node.attributes();
+            attributeCounts.add(attributes.size());
+            for (final Map.Entry<ANAME, AVALUE> attribute : attributes.entrySet()) {
+                attributeNames.add(
+                    intern(
+                        attribute.getKey(),
+                        attributeNamePool,
+                        attributeNameToIndex
+                    )
+                );
+                attributeValues.add(attribute.getValue());
+            }
+
+            nodes.addAll(children);
+        }
+
+        return new FlatNodeTable<>(
+            toIntArray(names),
+            namePool.toArray(),
+            toIntArray(childCounts),
+            toIntArray(attributeCounts),
+            toIntArray(attributeNames),
+            attributeNamePool.toArray(),
+            attributeValues.toArray()
+        );
+    }
+
+    private static int intern(final Name name,
+                              final List<Name> pool,
+                              final Map<Name, Integer> nameToIndex) {
+        Integer index = nameToIndex.get(name);
+        if (null == index) {
+            index = pool.size();
+            pool.add(name);
+            nameToIndex.put(name, index);
+        }
+        return index;
+    }
+
+    /**
+     * Loads a tree from flat arrays holding every node in breadth first order, see
+     * {@link FlatNode#withBreadthFirst(List, int[], int[], int[], List, int[], List)}.
+     */
+    static <NAME extends Name, ANAME extends Name, AVALUE> FlatNodeTable<NAME, ANAME, AVALUE> withBreadthFirst(final List<NAME> namePool,
+                                                                                                            final int[] names,
+                                                                                                            final int[] childCounts,
+                                                                                                            final int[] attributeCounts,
+                                                                                                            final List<ANAME> attributeNamePool,
+                                                                                                            final int[] attributeNames,
+                                                                                                            final List<AVALUE> attributeValues) {
+        Objects.requireNonNull(namePool, "namePool");
+        Objects.requireNonNull(names, "names");
+        Objects.requireNonNull(childCounts, "childCounts");
+        Objects.requireNonNull(attributeCounts, "attributeCounts");
+        Objects.requireNonNull(attributeNamePool, "attributeNamePool");
+        Objects.requireNonNull(attributeNames, "attributeNames");
+        Objects.requireNonNull(attributeValues, "attributeValues");
+
+        final int count = names.length;
+        if (0 == count) {
+            throw new IllegalArgumentException("Missing root");
+        }
+        if (childCounts.length != count) {
+            throw new IllegalArgumentException("Expected " + count + " child counts but got " + childCounts.length);
+        }
+        if (attributeCounts.length != count) {
+            throw new IllegalArgumentException("Expected " + count + " attribute counts but got " + attributeCounts.length);
+        }
+        if (attributeValues.size() != attributeNames.length) {
+            throw new IllegalArgumentException("Expected " + attributeNames.length + " attribute values but got " + attributeValues.size());
+        }
+
+        final Object[] namePoolArray = namePool.toArray();
+        for (final Object name : namePoolArray) {
+            Objects.requireNonNull(name, "name");
+        }
+        final Object[] attributeNamePoolArray = attributeNamePool.toArray();
+        for (final Object name : attributeNamePoolArray) {
+            Objects.requireNonNull(name, "attribute name");
+        }
+
+        checkPoolIndices(names, namePoolArray.length, "name");
+        checkPoolIndices(attributeNames, attributeNamePoolArray.length, "attribute name");
+
+        return new FlatNodeTable<>(
+            names.clone(),
+            namePoolArray,
+            childCounts.clone(),
+            attributeCounts,
+            attributeNames.clone(),
+            attributeNamePoolArray,
+            attributeValues.toArray()
+        );
+    }
+
+    private static void checkPoolIndices(final int[] indices,
+                                         final int poolSize,
+                                         final String label) {
+        for (int i = 0; i < indices.length; i++) {
+            final int index = indices[i];
+            if (index < 0 || index >= poolSize) {
+                throw new IllegalArgumentException("Invalid " + label + " " + index + " at " + i + " not between 0 and " + poolSize);
+            }
+        }
+    }
+
+    /**
+     * All arrays are taken without copying.
+     */
+    private FlatNodeTable(final int[] names,
+                          final Object[] namePool,
+                          final int[] childCounts,
+                          final int[] attributeCounts,
+                          final int[] attributeNames,
+                          final Object[] attributeNamePool,
+                          final Object[] attributeValues) {
+        final int count = names.length;
+
+        final int[] parents = new int[count];
+        final int[] firstChildren = new int[count];
+        final int[] firstAttributes = new int[count + 1];
+
+        parents[ROOT] = NO_PARENT;
+        int nextChild = ROOT + 1;
+        int nextAttribute = 0;
+
+        for (int id = 0; id < count; id++) {
+            if (id >= nextChild) {
+                throw new IllegalArgumentException("Node " + id + " has no parent");
+            }
+
+            final int attributeCount = attributeCounts[id];
+            if (attributeCount < 0 || attributeCount > attributeNames.length - nextAttribute) {
+                throw new IllegalArgumentException("Node " + id + " has invalid attribute count " + attributeCount);
+            }
+            firstAttributes[id] = nextAttribute;
+            nextAttribute += attributeCount;
+
+            final int childCount = childCounts[id];
+            if (childCount < 0 || childCount > count - nextChild) {
+                throw new IllegalArgumentException("Node " + id + " has invalid child count " + childCount);
+            }
+            firstChildren[id] = nextChild;
+
+            for (int i = 0; i < childCount; i++) {
+                parents[nextChild + i] = id;
+            }
+            nextChild += childCount;
+        }
+
+        if (nextAttribute != attributeNames.length) {
+            throw new IllegalArgumentException("Expected " + nextAttribute + " attribute names but got " + attributeNames.length);
+        }
+        firstAttributes[count] = nextAttribute;
+
+        this.parents = parents;
+        this.firstChildren = firstChildren;
+        this.childCounts = childCounts;
+        this.names = names;
+        this.namePool = namePool;
+
+        this.firstAttributes = firstAttributes;
+        this.attributeNames = attributeNames;
+        this.attributeNamePool = attributeNamePool;
+        this.attributeValues = attributeValues;
+    }
+
+    private static int[] toIntArray(final List<Integer> values) {
+        final int count = values.size();
+        final int[] array = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            array[i] = values.get(i);
+        }
+
+        return array;
+    }
+
+    // nodes............................................................................................................
+
+    /**
+     * Returns a new {@link FlatNode} for the given id.
+     */
+    FlatNode<NAME, ANAME, AVALUE> node(final int id) {
+        return new FlatNode<>(this, id);
+    }
+
+    /**
+     * The number of nodes in this tree.
+     */
+    int size() {
+        return this.parents.length;
+    }
+
+    // name.............................................................................................................
+
+    NAME name(final int id) {
+        return Cast.to(
+            this.namePool[this.names[id]]
+        );
+    }
+
+    private final int[] names;
+
+    private final Object[] namePool;
+
+    // parent...........................................................................................................
+
+    Optional<FlatNode<NAME, ANAME, AVALUE>> parent(final int id) {
+        final int parent = this.parents[id];
+
+        return NO_PARENT == parent ?
+            Optional.empty() :
+            Optional.of(
+                this.node(parent)
+            );
+    }
+
+    int parentId(final int id) {
+        return this.parents[id];
+    }
+
+    int index(final int id) {
+        final int parent = this.parents[id];
+
+        return NO_PARENT == parent ?
+            Traversable.NO_INDEX :
+            id - this.firstChildren[parent];
+    }
+
+    private final int[] parents;
+
+    // children.........................................................................................................
+
+    /**
+     * Returns a read only {@link List} which only creates a {@link FlatNode} when an element is fetched.
+     */
+    List<FlatNode<NAME, ANAME, AVALUE>> children(final int id) {
+        final int first = this.firstChildren[id];
+        final int count = this.childCounts[id];
+
+        return 0 == count ?
+            Lists.empty() :
+            new AbstractList<FlatNode<NAME, ANAME, AVALUE>>() {
+
+                @Override
+                public FlatNode<NAME, ANAME, AVALUE> get(final int index) {
+                    if (index < 0 || index >= count) {
+                        throw new IndexOutOfBoundsException("Invalid index " + index + " not between 0 and " + count);
+                    }
+                    return FlatNodeTable.this.node(first + index);
+                }
+
+                @Override
+                public int size() {
+                    return count;
+                }
+            };
+    }
+
+    boolean isEmpty(final int id) {
+        return 0 == this.childCounts[id];
+    }
+
+    int firstChildId(final int id) {
+        return this.firstChildren[id];
+    }
+
+    int childCount(final int id) {
+        return this.childCounts[id];
+    }
+
+    private final int[] firstChildren;
+
+    private final int[] childCounts;
+
+    // attributes.......................................................................................................
+
+    /**
+     * Returns a read only {@link Map} view of the attributes of the given node, reading entries directly from the flat
+     * arrays when requested.
+     */
+    Map<ANAME, AVALUE> attributes(final int id) {
+        final int first = this.firstAttributes[id];
+        final int count = this.firstAttributes[id + 1] - first;
+
+        return 0 == count ?
+            Maps.empty() :
+            new AbstractMap<ANAME, AVALUE>() {
+
+                @Override
+                public Set<Entry<ANAME, AVALUE>> entrySet() {
+                    return new AbstractSet<Entry<ANAME, AVALUE>>() {
+
+                        @Override
+                        public Iterator<Entry<ANAME, AVALUE>> iterator() {
+                            return new Iterator<Entry<ANAME, AVALUE>>() {
+
+                                @Override
+                                public boolean hasNext() {
+                                    return this.next < count;
+                                }
+
+                                @Override
+                                public Entry<ANAME, AVALUE> next() {
+                                    if (false == this.hasNext()) {
+                                        throw new NoSuchElementException();
+                                    }
+                                    return FlatNodeTable.this.attribute(first + this.next++);
+                                }
+
+                                private int next;
+                            };
+                        }
+
+                        @Override
+                        public int size() {
+                            return count;
+                        }
+                    };
+                }
+            };
+    }
+
+    private Entry<ANAME, AVALUE> attribute(final int index) {
+        return new AbstractMap.SimpleImmutableEntry<>(
+            Cast.to(this.attributeNamePool[this.attributeNames[index]]),
+            Cast.to(this.attributeValues[index])
+        );
+    }
+
+    /**
+     * The offset of the first attribute of each node, with an extra trailing entry holding the total count.
+     */
+    private final int[] firstAttributes;
+
+    private final int[] attributeNames;
+
+    private final Object[] attributeNamePool;
+
+    private final Object[] attributeValues;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.size() + " node(s)";
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree;
+
+import walkingkooka.naming.Name;
+
+import java.util.Map;
+
+/**
+ * An optional capability of a {@link Node} whose children have unique names, providing a lookup of children by name
+ * which is used by {@link walkingkooka.tree.pointer.NodePointer} and {@link Node#setChild(Name, Node)} instead of
+ * scanning all children. Implementations will typically create the {@link Map} using
+ * {@link Nodes#namedChildren(java.util.List)} the first time it is requested and then cache it.
+ */
+public interface HasNamedChildren<NAME extends Name, N extends Node<N, NAME, ?, ?>> {
+
+    /**
+     * Returns a read only {@link Map} of all children keyed by name.
+     */
+    Map<NAME, N> namedChildren();
+}
@@ -132,6 +132,15 @@ public interface Node<N extends Node<N, NAME, ANAME, AVALUE>,
         Objects.requireNonNull(name, "name");
         Objects.requireNonNull(child, "child");
 
+        if (this instanceof HasNamedChildren) {
+            final HasNamedChildren<NAME, N> named = Cast.to(this);
+            final N existing = named.namedChildren()
+                .get(name);
+            return null != existing ?
+                this.replaceChild(existing, child) :
+                this.appendChild(child);
+        }
+
         return this.children()
             .stream()
             .filter(c -> c.name().equals(name))
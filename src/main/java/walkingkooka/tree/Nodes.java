@@ -17,12 +17,14 @@
 
 package walkingkooka.tree;
 
-import walkingkooka.Cast;
+import walkingkooka.collect.map.Maps;
 import walkingkooka.naming.Name;
 import walkingkooka.reflect.PublicStaticHelper;
 import walkingkooka.tree.pointer.NodePointer;
 
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 final public class Nodes implements PublicStaticHelper {
 
@@ -34,38 +36,32 @@ final public class Nodes implements PublicStaticHelper {
     }
 
     /**
-     * Only called by default method {@link Node#pointer()}. Walks the parent axis, until the axis and then begins
-     * building a {@link NodePointer}.
+     * Creates a read only {@link Map} of the given children keyed by name, for {@link HasNamedChildren} implementations.
+     * If several children share a name the first is kept, matching a scan of the children.
      */
-    static <N extends Node<N, NAME, ANAME, AVALUE>,
-        NAME extends Name,
-        ANAME extends Name,
-        AVALUE> NodePointer<N, NAME> pointer(final N node) {
-
-        return pointer0(node);
-    }
+    public static <N extends Node<N, NAME, ?, ?>, NAME extends Name> Map<NAME, N> namedChildren(final List<N> children) {
+        Objects.requireNonNull(children, "children");
 
-    private static <N extends Node<N, NAME, ANAME, AVALUE>,
-        NAME extends Name,
-        ANAME extends Name,
-        AVALUE> NodePointer<N, NAME> pointer0(final N node) {
+        final Map<NAME, N> nameToChild = Maps.hash();
+        for (final N child : children) {
+            final NAME name = child.name();
+            if (false == nameToChild.containsKey(name)) {
+                nameToChild.put(name, child);
+            }
+        }
 
-        final Optional<N> parent = node.parent();
-        return parent.isPresent() ?
-            pointer1(parent.get(), node) :
-            walkingkooka.tree.pointer.NodePointer.any(Cast.to(node.getClass()));
+        return Maps.readOnly(nameToChild);
     }
 
-    private static <N extends Node<N, NAME, ANAME, AVALUE>,
+    /**
+     * Only called by default method {@link Node#pointer()}. Walks the parent axis building a {@link NodePointer}.
+     */
+    static <N extends Node<N, NAME, ANAME, AVALUE>,
         NAME extends Name,
         ANAME extends Name,
-        AVALUE> NodePointer<N, NAME> pointer1(final N parent,
-                                              final N node) {
+        AVALUE> NodePointer<N, NAME> pointer(final N node) {
 
-        final NodePointer<N, NAME> back = pointer0(parent);
-        return node.hasUniqueNameAmongstSiblings() ?
-            back.named(node.name()) :
-            back.indexed(node.index());
+        return NodePointer.path(node);
     }
 
     /**
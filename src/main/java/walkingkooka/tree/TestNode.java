@@ -45,7 +45,8 @@ import java.util.stream.Collectors;
  * A basic {@link Node} with some simplifications. Note that all node names must be unique and that children have their
  * parent and index properties modified when they get adopted. These considerations should be acocunted for in tests.
  */
-public final class TestNode implements Node<TestNode, StringName, StringName, Object> {
+public final class TestNode implements Node<TestNode, StringName, StringName, Object>,
+    HasNamedChildren<StringName, TestNode> {
 
     /**
      * Should be called before each and every test.
@@ -189,6 +190,21 @@ public final class TestNode implements Node<TestNode, StringName, StringName, Ob
 
     private final List<TestNode> children;
 
+    // HasNamedChildren.................................................................................................
+
+    @Override
+    public Map<StringName, TestNode> namedChildren() {
+        if (null == this.namedChildren) {
+            this.namedChildren = Nodes.namedChildren(this.children);
+        }
+        return this.namedChildren;
+    }
+
+    /**
+     * Lazily created by {@link #namedChildren()}.
+     */
+    private Map<StringName, TestNode> namedChildren;
+
     private TestNode replace(final Optional<TestNode> previousParent, final int index) {
         return previousParent.map(p -> p.setChild(index, this).child(index))
             .orElse(this);
@@ -139,6 +139,13 @@ public interface Traversable<T extends Traversable<T>> extends CanBeEmpty {
         );
     }
 
+    /**
+     * Returns a {@link TraversableCursor} positioned on this {@link Traversable}.
+     */
+    default TraversableCursor<T> traversableCursor() {
+        return BasicTraversableCursor.with(Cast.to(this));
+    }
+
     /**
      * An {@link Iterator} that walks starting at this {@link Traversable} depth first.
      */
@@ -146,6 +153,17 @@ public interface Traversable<T extends Traversable<T>> extends CanBeEmpty {
         return TraversableIterator.with(Cast.to(this));
     }
 
+    /**
+     * An {@link Iterator} that walks this {@link Traversable} and its descendants in the given order, which also
+     * supports pruning subtrees using {@link TraversableIterator#skipChildren()}.
+     */
+    default TraversableIterator<T> traversableIterator(final TraversableIteratorOrder order) {
+        return TraversableIterator.with(
+            Cast.to(this),
+            order
+        );
+    }
+
     // CanBeEmpty.......................................................................................................
 
     /**
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree;
+
+/**
+ * A cursor positioned on a single {@link Traversable} that may be moved around its tree. Unlike
+ * {@link Traversable#parent()}, {@link Traversable#firstChild()} and the sibling methods, moves return a boolean and
+ * leave the cursor unchanged when there is no such node, which means a walk over an entire tree need not create an
+ * {@link java.util.Optional} for every step.
+ */
+public interface TraversableCursor<T extends Traversable<T>> {
+
+    /**
+     * The {@link Traversable} the cursor is currently positioned on.
+     */
+    T current();
+
+    /**
+     * Moves to the parent returning false if the current {@link Traversable} is a root.
+     */
+    boolean moveParent();
+
+    /**
+     * Moves to the first child returning false if there are no children.
+     */
+    boolean moveFirstChild();
+
+    /**
+     * Moves to the next sibling returning false if there is none.
+     */
+    boolean moveNextSibling();
+
+    /**
+     * Moves to the previous sibling returning false if there is none.
+     */
+    boolean movePreviousSibling();
+}
@@ -17,6 +17,7 @@
 
 package walkingkooka.tree;
 
+import walkingkooka.Cast;
 import walkingkooka.text.HasTextLength;
 import walkingkooka.text.HasTextOffset;
 
@@ -28,14 +29,13 @@ public interface TraversableHasTextOffset<T extends HasTextLength & HasTextOffse
     Traversable<T> {
 
     /**
-     * A simple implementation of {@link HasTextOffset#textOffset()} which either queries the previous sibling or parent.
+     * Walks up the ancestors adding the {@link HasTextLength#textLength()} of all previous siblings at each level.
+     * When many offsets within the same tree are required prefer {@link TraversableHasTextOffsetTable}.
      */
     @Override
     default int textOffset() {
-        return this.previousSibling()
-            .map(p -> p.textOffset() + p.textLength())
-            .orElse(this.parent()
-                .map(HasTextOffset::textOffset)
-                .orElse(0));
+        return TraversableHelper.textOffset(
+            Cast.<T>to(this)
+        );
     }
 }
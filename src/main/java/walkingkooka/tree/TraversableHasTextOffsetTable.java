@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree;
+
+import walkingkooka.collect.stack.Stack;
+import walkingkooka.collect.stack.Stacks;
+import walkingkooka.text.HasTextLength;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Holds the text offset of every {@link Traversable} within a single tree, computed in a single pass
+ * starting at the root. Each {@link HasTextLength#textLength()} is queried once, making this useful when offsets for all
+ * tokens in a large tree are required. Because trees are immutable a table may be cached alongside its root.
+ */
+public final class TraversableHasTextOffsetTable<T extends HasTextLength & Traversable<T>> {
+
+    /**
+     * Computes the offsets for the tree holding the given {@link Traversable}.
+     */
+    public static <T extends HasTextLength & Traversable<T>> TraversableHasTextOffsetTable<T> with(final T traversable) {
+        Objects.requireNonNull(traversable, "traversable");
+
+        return new TraversableHasTextOffsetTable<>(traversable.root());
+    }
+
+    private TraversableHasTextOffsetTable(final T root) {
+        this.root = root;
+
+        final Map<T, Integer> offsets = new IdentityHashMap<>();
+        final Stack<T> unprocessed = Stacks.arrayList();
+
+        offsets.put(root, 0);
+        unprocessed.push(root);
+
+        while (unprocessed.isNotEmpty()) {
+            final T parent = unprocessed.peek();
+            unprocessed.pop();
+
+            int offset = offsets.get(parent);
+
+            final List<T> children = parent.children();
+            for (final T child : children) {
+                offsets.put(child, offset);
+                offset += child.textLength();
+
+                unprocessed.push(child);
+            }
+        }
+
+        this.offsets = offsets;
+    }
+
+    /**
+     * Returns the text offset of the given {@link Traversable}, which must belong to the tree of this table.
+     */
+    public int textOffset(final T traversable) {
+        Objects.requireNonNull(traversable, "traversable");
+
+        final Integer offset = this.offsets.get(traversable);
+        if (null == offset) {
+            throw new TraversableException("Unknown traversable " + traversable);
+        }
+        return offset;
+    }
+
+    /**
+     * The root of the tree.
+     */
+    public T root() {
+        return this.root;
+    }
+
+    private final T root;
+
+    /**
+     * Offsets for every {@link Traversable} keyed by identity, as equal nodes may appear at different positions.
+     */
+    private final Map<T, Integer> offsets;
+
+    @Override
+    public String toString() {
+        return this.root.toString();
+    }
+}
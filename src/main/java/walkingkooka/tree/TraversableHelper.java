@@ -18,6 +18,7 @@
 package walkingkooka.tree;
 
 import walkingkooka.reflect.PublicStaticHelper;
+import walkingkooka.text.HasTextLength;
 
 import java.util.List;
 import java.util.Optional;
@@ -60,6 +61,35 @@ final class TraversableHelper implements PublicStaticHelper {
             null;
     }
 
+    /**
+     * Computes the text offset of the given {@link Traversable} without recursion, by summing the
+     * {@link HasTextLength#textLength()} of the previous siblings of the traversable and each of its ancestors.
+     */
+    static <T extends HasTextLength & Traversable<T>> int textOffset(final T traversable) {
+        int offset = 0;
+        T child = traversable;
+
+        for (; ; ) {
+            final Optional<T> maybeParent = child.parent();
+            if (!maybeParent.isPresent()) {
+                break;
+            }
+
+            final T parent = maybeParent.get();
+            final List<T> siblings = parent.children();
+            final int index = child.index();
+
+            for (int i = 0; i < index; i++) {
+                offset += siblings.get(i)
+                    .textLength();
+            }
+
+            child = parent;
+        }
+
+        return offset;
+    }
+
     /**
      * Stop creation
      */
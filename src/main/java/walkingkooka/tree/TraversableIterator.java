@@ -14,32 +14,62 @@
  * limitations under the License.
  *
  */
-
 package walkingkooka.tree;
 
-import walkingkooka.collect.stack.Stack;
-import walkingkooka.collect.stack.Stacks;
-
+import java.util.ArrayDeque;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
 
 /**
- * An {@link Iterator} returned by {@link Traversable#traversableIterator()} that walks all the descendants starting a the beginning {@link Traversable}.
+ * An {@link Iterator} returned by {@link Traversable#traversableIterator(TraversableIteratorOrder)} that walks the
+ * beginning {@link Traversable} and all its descendants. Depth first walks move a {@link TraversableCursor}, which
+ * remembers positions within each list of children rather than calling {@link Traversable#nextSibling()}.
+ * <br>
+ * {@link #depth()} returns the depth of the last {@link Traversable} returned relative to the beginning, and
+ * {@link #skipChildren()} may be used to prune the children of the last {@link Traversable} returned.
  */
-final class TraversableIterator<T extends Traversable<T>> implements Iterator<T> {
+public final class TraversableIterator<T extends Traversable<T>> implements Iterator<T> {
 
     /**
      * Package private factory only called by default method {@link Traversable#traversableIterator()}
      */
     static <T extends Traversable<T>> TraversableIterator<T> with(final T traversable) {
-        return new TraversableIterator<>(traversable);
+        return with(
+            traversable,
+            TraversableIteratorOrder.PRE_ORDER
+        );
     }
 
-    private TraversableIterator(final T traversable) {
-        final Stack<T> unprocessed = Stacks.arrayList();
-        this.unprocessed = unprocessed;
+    /**
+     * Package private factory only called by default method {@link Traversable#traversableIterator(TraversableIteratorOrder)}
+     */
+    static <T extends Traversable<T>> TraversableIterator<T> with(final T traversable,
+                                                                  final TraversableIteratorOrder order) {
+        Objects.requireNonNull(order, "order");
 
-        unprocessed.push(traversable);
+        return new TraversableIterator<>(
+            traversable,
+            order
+        );
+    }
+
+    private TraversableIterator(final T traversable,
+                                final TraversableIteratorOrder order) {
+        this.beginning = traversable;
+        this.order = order;
+
+        if (TraversableIteratorOrder.BREADTH_FIRST == order) {
+            this.cursor = null;
+            this.queue = new ArrayDeque<>();
+            this.queue.add(traversable);
+            this.remainingAtDepth = 1;
+        } else {
+            this.cursor = traversable.traversableCursor();
+            this.queue = null;
+        }
     }
 
     @Override
@@ -65,6 +95,9 @@ final class TraversableIterator<T extends Traversable<T>> implements Iterator<T>
             give = this.next;
             this.next = null;
         }
+
+        this.returned = true;
+        this.depth = this.nextDepth;
         return give;
     }
 
@@ -73,53 +106,229 @@ final class TraversableIterator<T extends Traversable<T>> implements Iterator<T>
      */
     private T next;
 
+    /**
+     * The depth of the last {@link Traversable} returned by {@link #next()}, where the beginning {@link Traversable}
+     * is zero.
+     */
+    public int depth() {
+        this.failIfNothingReturned();
+        return this.depth;
+    }
+
+    private int depth;
+
+    /**
+     * Requests that the children of the last {@link Traversable} returned by {@link #next()} are not walked. This is
+     * not supported by {@link TraversableIteratorOrder#POST_ORDER} because children are returned before their parent.
+     */
+    public void skipChildren() {
+        if (TraversableIteratorOrder.POST_ORDER == this.order) {
+            throw new UnsupportedOperationException("skipChildren not supported by " + this.order);
+        }
+        this.failIfNothingReturned();
+        if (null != this.next) {
+            throw new IllegalStateException("skipChildren must be called before hasNext");
+        }
+        this.skipChildren = true;
+    }
+
+    private boolean skipChildren;
+
+    private void failIfNothingReturned() {
+        if (false == this.returned) {
+            throw new IllegalStateException("next not called");
+        }
+    }
+
+    /**
+     * True once {@link #next()} has returned at least one {@link Traversable}.
+     */
+    private boolean returned;
+
     private T nextOrNull() {
+        final T traversable;
+
+        switch (this.order) {
+            case PRE_ORDER:
+                traversable = this.preOrder();
+                break;
+            case POST_ORDER:
+                traversable = this.postOrder();
+                break;
+            case BREADTH_FIRST:
+                traversable = this.breadthFirst();
+                break;
+            default:
+                throw new IllegalStateException("Unknown order " + this.order);
+        }
+
+        this.skipChildren = false;
+        return traversable;
+    }
+
+    private final TraversableIteratorOrder order;
+
+    /**
+     * The {@link Traversable} the walk began with, only used by {@link #toString()}.
+     */
+    private final T beginning;
+
+    // depth first......................................................................................................
+
+    /**
+     * Moves the cursor to the next {@link Traversable} in depth first order, stopping once all descendants of the
+     * starting {@link Traversable} have been returned.
+     */
+    private T preOrder() {
         T traversable = null;
 
-        final Stack<T> stack = this.unprocessed;
-        if (stack.isNotEmpty()) {
-            traversable = stack.peek();
-            stack.pop();
+        final TraversableCursor<T> cursor = this.cursor;
 
-            this.pushNextSibling(traversable);
-            this.pushFirstChild(traversable);
+        if (false == this.started) {
+            this.started = true;
+            traversable = cursor.current();
+        } else if (false == this.finished) {
+            if (false == this.skipChildren && cursor.moveFirstChild()) {
+                this.nextDepth++;
+                traversable = cursor.current();
+            } else {
+                while (this.nextDepth > 0) {
+                    if (cursor.moveNextSibling()) {
+                        traversable = cursor.current();
+                        break;
+                    }
+                    cursor.moveParent();
+                    this.nextDepth--;
+                }
+                this.finished = null == traversable;
+            }
         }
 
         return traversable;
     }
 
     /**
-     * A {@link Stack} of {@link Traversable} that remain unprocessed and are immediate candidates for match testing.
+     * Returns the deepest first child that has not yet been returned, or the parent once all its children have
+     * been returned.
      */
-    private final Stack<T> unprocessed;
+    private T postOrder() {
+        T traversable = null;
+
+        final TraversableCursor<T> cursor = this.cursor;
+
+        if (false == this.started) {
+            this.started = true;
+            this.moveDeepestFirstChild();
+            traversable = cursor.current();
+        } else if (false == this.finished) {
+            if (0 == this.nextDepth) {
+                this.finished = true;
+            } else {
+                if (cursor.moveNextSibling()) {
+                    this.moveDeepestFirstChild();
+                } else {
+                    cursor.moveParent();
+                    this.nextDepth--;
+                }
+                traversable = cursor.current();
+            }
+        }
+
+        return traversable;
+    }
+
+    private void moveDeepestFirstChild() {
+        final TraversableCursor<T> cursor = this.cursor;
+
+        while (cursor.moveFirstChild()) {
+            this.nextDepth++;
+        }
+    }
+
+    /**
+     * Used by {@link TraversableIteratorOrder#PRE_ORDER} and {@link TraversableIteratorOrder#POST_ORDER}.
+     */
+    private final TraversableCursor<T> cursor;
+
+    /**
+     * The depth of the {@link Traversable} that will be returned by the next call to {@link #next()}.
+     */
+    private int nextDepth;
+
+    private boolean started;
+
+    private boolean finished;
+
+    // breadth first....................................................................................................
 
     /**
-     * Starting at the given {@link Traversable} pushes the next sibling.
+     * Adds the children of the previous {@link Traversable} to the end of the queue unless they are skipped and then
+     * removes the {@link Traversable} at the head of the queue. Entries are removed as they are returned, so the queue
+     * only ever holds the unvisited part of at most two depths.
      */
-    private void pushNextSibling(final T traversable) {
-        if (this.skipNextSibling) {
-            this.skipNextSibling = false;
+    private T breadthFirst() {
+        if (this.finished) {
+            return null;
+        }
+        this.started = true;
+
+        final Queue<T> queue = this.queue;
+
+        final T previous = this.previous;
+        if (null != previous && false == this.skipChildren) {
+            final List<T> children = previous.children();
+            queue.addAll(children);
+            this.nextDepthCount += children.size();
+        }
+
+        final T traversable = queue.poll();
+        if (null == traversable) {
+            this.finished = true;
         } else {
-            traversable.nextSibling()
-                .ifPresent(this.unprocessed::push);
+            if (0 == this.remainingAtDepth) {
+                this.nextDepth++;
+                this.remainingAtDepth = this.nextDepthCount;
+                this.nextDepthCount = 0;
+            }
+            this.remainingAtDepth--;
         }
+
+        this.previous = traversable;
+        return traversable;
     }
 
-    private boolean skipNextSibling = true;
+    /**
+     * Used by {@link TraversableIteratorOrder#BREADTH_FIRST}, holding {@link Traversable} not yet returned.
+     */
+    private final Queue<T> queue;
+
+    /**
+     * The last {@link Traversable} returned by {@link #breadthFirst()} whose children have not yet been queued.
+     */
+    private T previous;
 
     /**
-     * Pushes the first child of the {@link Traversable} if it is a parent.
+     * The number of queued {@link Traversable} at {@link #nextDepth} that have not been returned.
      */
-    private void pushFirstChild(final T traversable) {
-        traversable.firstChild().ifPresent(this.unprocessed::push);
-    }
+    private int remainingAtDepth;
+
+    /**
+     * The number of queued {@link Traversable} one deeper than {@link #nextDepth}.
+     */
+    private int nextDepthCount;
 
+    /**
+     * Returns the next {@link Traversable} if it is already known, without moving, because moving would consume any
+     * pending {@link #skipChildren()}.
+     */
     @Override
     public String toString() {
-        return null != this.next ?
-            this.next.toString() :
-            this.unprocessed.isEmpty() ?
-                "???" :
-                this.unprocessed.peek().toString();
+        final T next = this.next;
+
+        return null != next ?
+            next.toString() :
+            false == this.started && TraversableIteratorOrder.POST_ORDER != this.order ?
+                this.beginning.toString() :
+                "???";
     }
 }
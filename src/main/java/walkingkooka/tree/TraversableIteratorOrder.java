@@ -0,0 +1,38 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree;
+
+/**
+ * The order in which a {@link TraversableIterator} returns a {@link Traversable} and its descendants.
+ */
+public enum TraversableIteratorOrder {
+
+    /**
+     * Each {@link Traversable} is returned before its children, which is document order.
+     */
+    PRE_ORDER,
+
+    /**
+     * Each {@link Traversable} is returned after all its children.
+     */
+    POST_ORDER,
+
+    /**
+     * All {@link Traversable} at one depth are returned before any at the next depth.
+     */
+    BREADTH_FIRST
+}
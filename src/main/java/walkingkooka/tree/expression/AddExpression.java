@@ -65,10 +65,12 @@ public final class AddExpression extends ArithmeticExpression {
     // Visitor .........................................................................................................
 
     @Override
-    public void accept(final ExpressionVisitor visitor) {
-        if (Visiting.CONTINUE == visitor.startVisit(this)) {
-            this.acceptValues(visitor);
-        }
+    Visiting acceptStart(final ExpressionVisitor visitor) {
+        return visitor.startVisit(this);
+    }
+
+    @Override
+    void acceptEnd(final ExpressionVisitor visitor) {
         visitor.endVisit(this);
     }
 
@@ -92,7 +94,7 @@ public final class AddExpression extends ArithmeticExpression {
     // Object .........................................................................................................
 
     @Override
-    void appendSymbol(final StringBuilder b) {
+    void appendSymbol(final ExpressionAppender b) {
         b.append(SYMBOL);
     }
 }
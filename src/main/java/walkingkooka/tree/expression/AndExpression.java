@@ -59,10 +59,12 @@ public final class AndExpression extends LogicalExpression {
     // Visitor .........................................................................................................
 
     @Override
-    public void accept(final ExpressionVisitor visitor) {
-        if (Visiting.CONTINUE == visitor.startVisit(this)) {
-            this.acceptValues(visitor);
-        }
+    Visiting acceptStart(final ExpressionVisitor visitor) {
+        return visitor.startVisit(this);
+    }
+
+    @Override
+    void acceptEnd(final ExpressionVisitor visitor) {
         visitor.endVisit(this);
     }
 
@@ -82,7 +84,7 @@ public final class AndExpression extends LogicalExpression {
     // Object ....................................................................................................
 
     @Override
-    void appendSymbol(final StringBuilder b) {
+    void appendSymbol(final ExpressionAppender b) {
         b.append(SYMBOL);
     }
 }
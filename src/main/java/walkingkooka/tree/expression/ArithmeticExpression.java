@@ -35,6 +35,17 @@ abstract public class ArithmeticExpression extends BinaryExpression {
         return this.toExpressionNumber(context);
     }
 
+    @Override
+    final Object toValue(final Object left,
+                         final Object right,
+                         final ExpressionEvaluationContext context) {
+        return this.apply(
+            left,
+            right,
+            context
+        ).toExpressionNumber(context);
+    }
+
     /**
      * Includes dispatch logic with a special case if the left parameter is text, otherwise both values
      * are converted to {@link ExpressionNumber} and given to {@link #applyExpressionNumber(ExpressionNumber, ExpressionNumber, ExpressionEvaluationContext)}.
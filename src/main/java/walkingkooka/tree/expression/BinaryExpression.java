@@ -18,8 +18,11 @@
 package walkingkooka.tree.expression;
 
 import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.stack.Stack;
+import walkingkooka.collect.stack.Stacks;
 import walkingkooka.text.printer.IndentingPrinter;
 import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.visit.Visiting;
 
 import java.util.List;
 import java.util.Objects;
@@ -72,6 +75,26 @@ abstract class BinaryExpression extends ParentFixedExpression {
 
     // Visitor........................................................................................................
 
+    @Override
+    public final void accept(final ExpressionVisitor visitor) {
+        if (Visiting.CONTINUE == this.acceptStart(visitor)) {
+            this.acceptValues(visitor);
+        }
+        this.acceptEnd(visitor);
+    }
+
+    /**
+     * Sub classes must call the typed {@link ExpressionVisitor} startVisit method.
+     * This is separate from {@link #acceptEnd(ExpressionVisitor)} so {@link ExpressionVisitor#accept(Expression)} can
+     * walk chains of {@link BinaryExpression} without recursion.
+     */
+    abstract Visiting acceptStart(final ExpressionVisitor visitor);
+
+    /**
+     * Sub classes must call the typed {@link ExpressionVisitor} endVisit method.
+     */
+    abstract void acceptEnd(final ExpressionVisitor visitor);
+
     final void acceptValues(final ExpressionVisitor visitor) {
         visitor.accept(this.left());
         visitor.accept(this.right());
@@ -104,8 +127,8 @@ abstract class BinaryExpression extends ParentFixedExpression {
 
     final Expression apply(final ExpressionEvaluationContext context) {
         return this.apply(
-            this.left().toValue(context),
-            this.right().toValue(context),
+            evaluate(this.left(), context),
+            evaluate(this.right(), context),
             context
         );
     }
@@ -117,11 +140,104 @@ abstract class BinaryExpression extends ParentFixedExpression {
                               final Object right,
                               final ExpressionEvaluationContext context);
 
+    /**
+     * Sub classes must return the same value as {@link #toValue(ExpressionEvaluationContext)}, given the already
+     * evaluated left and right values.
+     */
+    abstract Object toValue(final Object left,
+                            final Object right,
+                            final ExpressionEvaluationContext context);
+
+    /**
+     * Evaluates the given {@link Expression} using an explicit stack rather than recursion for chains of
+     * {@link BinaryExpression} such as <code>a+b+c+...</code>, which may be many thousands of levels deep in machine
+     * generated formulas. Left values are always evaluated before right values. All other {@link Expression} are
+     * evaluated using {@link Expression#toValue(ExpressionEvaluationContext)}.
+     */
+    static Object evaluate(final Expression expression,
+                           final ExpressionEvaluationContext context) {
+        final List<BinaryExpression> binaries = Lists.array();
+        final List<Object> lefts = Lists.array();
+
+        Expression next = expression;
+
+        for (; ; ) {
+            while (next instanceof BinaryExpression) {
+                final BinaryExpression binary = (BinaryExpression) next;
+                binaries.add(binary);
+                lefts.add(LEFT_PENDING);
+
+                next = binary.left();
+            }
+
+            Object value = next.toValue(context);
+
+            for (; ; ) {
+                final int top = binaries.size() - 1;
+                if (-1 == top) {
+                    return value;
+                }
+
+                final BinaryExpression binary = binaries.get(top);
+                if (LEFT_PENDING == lefts.get(top)) {
+                    lefts.set(top, value);
+                    next = binary.right();
+                    break;
+                }
+
+                binaries.remove(top);
+                value = binary.toValue(
+                    lefts.remove(top),
+                    value,
+                    context
+                );
+            }
+        }
+    }
+
+    /**
+     * Marks a {@link BinaryExpression} whose left value has not yet been evaluated.
+     */
+    private final static Object LEFT_PENDING = new Object();
+
+    /**
+     * Marks where {@link #printTree(IndentingPrinter)} must outdent after printing both operands.
+     */
+    private final static Object OUTDENT = new Object();
+
+    /**
+     * Marks that the {@link BinaryExpression} below on the stack must append its symbol, after its left operand.
+     */
+    private final static Object SYMBOL = new Object();
+
     // printTree.......................................................................................................
 
+    /**
+     * Prints chains of {@link BinaryExpression} using an explicit stack rather than recursion.
+     */
     @Override
     public final void printTree(final IndentingPrinter printer) {
-        this.printTreeTypeAndChildren(printer);
+        final Stack<Object> pending = Stacks.arrayList();
+        pending.push(this);
+
+        while (pending.isNotEmpty()) {
+            final Object next = pending.peek();
+            pending.pop();
+
+            if (next instanceof BinaryExpression) {
+                final BinaryExpression binary = (BinaryExpression) next;
+                binary.printTreeType(printer);
+                printer.indent();
+
+                pending.push(OUTDENT);
+                pending.push(binary.right());
+                pending.push(binary.left());
+            } else if (OUTDENT == next) {
+                printer.outdent();
+            } else {
+                ((Expression) next).printTree(printer);
+            }
+        }
     }
 
     // Object........................................................................................................
@@ -131,12 +247,34 @@ abstract class BinaryExpression extends ParentFixedExpression {
         return true; // no other properties name was already tested.
     }
 
+    /**
+     * Builds the text of chains of {@link BinaryExpression} using an explicit stack rather than recursion.
+     */
     @Override
-    final void toString0(final StringBuilder b) {
-        this.left().toString0(b);
-        this.appendSymbol(b);
-        this.right().toString0(b);
+    final void toString1(final ExpressionAppender b) {
+        final Stack<Object> pending = Stacks.arrayList();
+        pending.push(this);
+
+        while (pending.isNotEmpty() && Visiting.CONTINUE == b.visiting()) {
+            final Object next = pending.peek();
+            pending.pop();
+
+            if (next instanceof BinaryExpression) {
+                final BinaryExpression binary = (BinaryExpression) next;
+
+                pending.push(binary.right());
+                pending.push(binary);
+                pending.push(SYMBOL);
+                pending.push(binary.left());
+            } else if (SYMBOL == next) {
+                final BinaryExpression binary = (BinaryExpression) pending.peek();
+                pending.pop();
+                binary.appendSymbol(b);
+            } else {
+                ((Expression) next).toString0(b);
+            }
+        }
     }
 
-    abstract void appendSymbol(final StringBuilder b);
+    abstract void appendSymbol(final ExpressionAppender b);
 }
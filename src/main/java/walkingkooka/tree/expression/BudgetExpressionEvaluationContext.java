@@ -0,0 +1,194 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.datetime.DateTimeSymbols;
+import walkingkooka.environment.EnvironmentContext;
+import walkingkooka.locale.LocaleLanguageTag;
+import walkingkooka.math.DecimalNumberSymbols;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * An {@link ExpressionEvaluationContext} that charges an {@link ExpressionEvaluationBudget} a step for every
+ * {@link #evaluateExpression(Expression)}, {@link #evaluateFunction(ExpressionFunction, List)} and reference resolved
+ * through it, and a level of depth for every nested evaluation or function call, which includes recursive lambdas. A
+ * {@link ExpressionEvaluationBudgetExceededException} is never given to {@link #handleException(RuntimeException)} of
+ * the wrapped context, so it cannot be turned into an error value.
+ * <br>
+ * Steps are charged at these boundaries and not per {@link Expression} node, an {@link Expression} and all its
+ * children, such as the operands of a {@link BinaryExpression} or the values of a {@link ListExpression}, are a single
+ * step, with any function calls or references within charged separately.
+ * <br>
+ * {@link #evaluate(String)} is parsed and evaluated by the wrapped context, which does not call back through this
+ * context, so it is charged a single step and level of depth, and the work it performs is not counted.
+ */
+final class BudgetExpressionEvaluationContext implements ExpressionEvaluationContext,
+    ExpressionEvaluationContextDelegator {
+
+    static BudgetExpressionEvaluationContext with(final ExpressionEvaluationBudget budget,
+                                                  final ExpressionEvaluationContext context) {
+        return new BudgetExpressionEvaluationContext(
+            Objects.requireNonNull(budget, "budget"),
+            Objects.requireNonNull(context, "context")
+        );
+    }
+
+    private BudgetExpressionEvaluationContext(final ExpressionEvaluationBudget budget,
+                                              final ExpressionEvaluationContext context) {
+        this.budget = budget;
+        this.context = context;
+    }
+
+    // ExpressionEvaluationContext......................................................................................
+
+    /**
+     * Only charges a single step and level of depth, as parsing and evaluating happens entirely within the wrapped
+     * context.
+     */
+    @Override
+    public Object evaluate(final String expression) {
+        final ExpressionEvaluationBudget budget = this.budget;
+        budget.step();
+        budget.enter();
+        try {
+            return this.context.evaluate(expression);
+        } finally {
+            budget.exit();
+        }
+    }
+
+    @Override
+    public Object evaluateExpression(final Expression expression) {
+        final ExpressionEvaluationBudget budget = this.budget;
+        budget.step();
+        budget.enter();
+        try {
+            return ExpressionEvaluationContextDelegator.super.evaluateExpression(expression);
+        } finally {
+            budget.exit();
+        }
+    }
+
+    @Override
+    public Object evaluateFunction(final ExpressionFunction<?, ? extends ExpressionEvaluationContext> function,
+                                   final List<Object> parameters) {
+        final ExpressionEvaluationBudget budget = this.budget;
+        budget.step();
+        budget.enter();
+        try {
+            return ExpressionEvaluationContextDelegator.super.evaluateFunction(
+                function,
+                parameters
+            );
+        } finally {
+            budget.exit();
+        }
+    }
+
+    @Override
+    public Object handleException(final RuntimeException exception) {
+        if (exception instanceof ExpressionEvaluationBudgetExceededException) {
+            throw exception;
+        }
+        return this.context.handleException(exception);
+    }
+
+    @Override
+    public ExpressionEvaluationContext enterScope(final Function<ExpressionReference, Optional<Optional<Object>>> scoped) {
+        return ScopedExpressionEvaluationContext.with(
+            scoped,
+            this
+        );
+    }
+
+    @Override
+    public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+        this.budget.step();
+        return this.context.reference(reference);
+    }
+
+    @Override
+    public Map<ExpressionReference, Optional<Optional<Object>>> references(final Collection<ExpressionReference> references) {
+        this.budget.step();
+        return this.context.references(references);
+    }
+
+    @Override
+    public Object referenceOrMissing(final ExpressionReference reference) {
+        this.budget.step();
+        return this.context.referenceOrMissing(reference);
+    }
+
+    private final ExpressionEvaluationBudget budget;
+
+    // ExpressionEvaluationContextDelegator.............................................................................
+
+    @Override
+    public ExpressionEvaluationContext cloneEnvironment() {
+        return this.setEnvironmentContext(
+            this.context.cloneEnvironment()
+        );
+    }
+
+    @Override
+    public ExpressionEvaluationContext setEnvironmentContext(final EnvironmentContext environmentContext) {
+        final ExpressionEvaluationContext before = this.context;
+        final ExpressionEvaluationContext after = before.setEnvironmentContext(environmentContext);
+
+        return before == after ?
+            this :
+            new BudgetExpressionEvaluationContext(
+                this.budget,
+                after
+            );
+    }
+
+    @Override
+    public ExpressionEvaluationContext expressionEvaluationContext() {
+        return this.context;
+    }
+
+    @Override
+    public Optional<DateTimeSymbols> dateTimeSymbolsForLocale(final Locale locale) {
+        return this.context.dateTimeSymbolsForLocale(locale);
+    }
+
+    @Override
+    public Optional<DecimalNumberSymbols> decimalNumberSymbolsForLocale(final Locale locale) {
+        return this.context.decimalNumberSymbolsForLocale(locale);
+    }
+
+    @Override
+    public Optional<Locale> localeForLanguageTag(final LocaleLanguageTag languageTag) {
+        return this.context.localeForLanguageTag(languageTag);
+    }
+
+    private final ExpressionEvaluationContext context;
+
+    @Override
+    public String toString() {
+        return this.budget + " " + this.context;
+    }
+}
@@ -212,7 +212,7 @@ public final class CallExpression extends VariableExpression {
     }
 
     @Override
-    void toString0(final StringBuilder b) {
+    void toString1(final ExpressionAppender b) {
         this.callable().toString0(b);
 
         b.append('(');
@@ -220,6 +220,9 @@ public final class CallExpression extends VariableExpression {
         final List<Expression> parameters = this.value();
         int last = parameters.size() - 1;
         for (final Expression parameter : parameters) {
+            if (Visiting.SKIP == b.visiting()) {
+                break;
+            }
             parameter.toString0(b);
             last--;
             if (last >= 0) {
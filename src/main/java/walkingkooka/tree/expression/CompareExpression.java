@@ -36,6 +36,17 @@ public abstract class CompareExpression extends BinaryExpression {
         return this.toBoolean(context);
     }
 
+    @Override
+    final Object toValue(final Object left,
+                         final Object right,
+                         final ExpressionEvaluationContext context) {
+        return this.apply(
+            left,
+            right,
+            context
+        ).toBoolean(context);
+    }
+
     @Override //
     final Expression apply(final Object left,
                            final Object right,
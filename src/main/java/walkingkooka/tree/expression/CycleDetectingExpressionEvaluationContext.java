@@ -18,7 +18,6 @@
 package walkingkooka.tree.expression;
 
 import walkingkooka.Either;
-import walkingkooka.collect.set.Sets;
 import walkingkooka.currency.CurrencyCode;
 import walkingkooka.currency.CurrencyExchange;
 import walkingkooka.datetime.DateTimeContext;
@@ -36,8 +35,11 @@ import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
 
 import java.nio.charset.Charset;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Currency;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -47,6 +49,11 @@ import java.util.function.Function;
  * Wraps another {@link ExpressionEvaluationContext} delegating all methods except for a guard within
  * {@link #reference(ExpressionReference)} to detect cycles between resolving a {@link ExpressionReference} to a
  * {@link Expression}, even indirectly.<br>
+ * The references being resolved are tracked separately for each evaluation, which begins with a call to
+ * {@link #evaluateExpression(Expression)}, {@link #evaluateFunction(ExpressionFunction, List)} or a reference method,
+ * and continues through the context given to the {@link Expression} or {@link ExpressionFunction}, so a single
+ * instance may be shared by concurrent evaluations. Nested evaluations must use the context they were given, rather
+ * than the shared instance, for their references to be checked against those already being resolved.
  */
 final class CycleDetectingExpressionEvaluationContext implements ExpressionEvaluationContext,
     DateTimeContextDelegator,
@@ -60,15 +67,56 @@ final class CycleDetectingExpressionEvaluationContext implements ExpressionEvalu
     static CycleDetectingExpressionEvaluationContext with(final ExpressionEvaluationContext context) {
         Objects.requireNonNull(context, "context");
 
-        return new CycleDetectingExpressionEvaluationContext(context);
+        return new CycleDetectingExpressionEvaluationContext(
+            context,
+            null
+        );
     }
 
     /**
      * Private ctor use factory.
      */
-    private CycleDetectingExpressionEvaluationContext(final ExpressionEvaluationContext context) {
+    private CycleDetectingExpressionEvaluationContext(final ExpressionEvaluationContext context,
+                                                      final CycleDetectingExpressionEvaluationContextStack cycles) {
         this.context = context;
-        this.cycles = Sets.ordered();
+        this.cycles = cycles;
+    }
+
+    /**
+     * Returns this if it belongs to an evaluation, otherwise a new context for a new evaluation.
+     */
+    private CycleDetectingExpressionEvaluationContext evaluation() {
+        return null != this.cycles ?
+            this :
+            new CycleDetectingExpressionEvaluationContext(
+                this.context,
+                CycleDetectingExpressionEvaluationContextStack.empty()
+            );
+    }
+
+    @Override
+    public Object evaluateExpression(final Expression expression) {
+        final CycleDetectingExpressionEvaluationContext evaluation = this.evaluation();
+
+        return this == evaluation ?
+            ExpressionEvaluationContext.super.evaluateExpression(expression) :
+            evaluation.evaluateExpression(expression);
+    }
+
+    @Override
+    public Object evaluateFunction(final ExpressionFunction<?, ? extends ExpressionEvaluationContext> function,
+                                   final List<Object> parameters) {
+        final CycleDetectingExpressionEvaluationContext evaluation = this.evaluation();
+
+        return this == evaluation ?
+            ExpressionEvaluationContext.super.evaluateFunction(
+                function,
+                parameters
+            ) :
+            evaluation.evaluateFunction(
+                function,
+                parameters
+            );
     }
 
     @Override
@@ -104,13 +152,12 @@ final class CycleDetectingExpressionEvaluationContext implements ExpressionEvalu
 
     @Override
     public Optional<Optional<Object>> reference(final ExpressionReference reference) {
-        final Set<ExpressionReference> cycles = this.cycles;
+        final CycleDetectingExpressionEvaluationContextStack cycles = this.evaluation().cycles;
 
         this.cycleCheck(reference, cycles);
+        cycles.push(reference);
 
         try {
-            cycles.add(reference);
-
             final Optional<Optional<Object>> possibleValue = this.context.reference(reference);
             if (possibleValue.isPresent()) {
                 final Object value = possibleValue.get()
@@ -123,23 +170,79 @@ final class CycleDetectingExpressionEvaluationContext implements ExpressionEvalu
 
             return possibleValue;
         } finally {
-            cycles.remove(reference);
+            cycles.pop();
+        }
+    }
+
+    /**
+     * Performs the same checks as {@link #reference(ExpressionReference)} for each {@link ExpressionReference}, while
+     * still resolving all in a single batch.
+     */
+    @Override
+    public Map<ExpressionReference, Optional<Optional<Object>>> references(final Collection<ExpressionReference> references) {
+        Objects.requireNonNull(references, "references");
+
+        final CycleDetectingExpressionEvaluationContextStack cycles = this.evaluation().cycles;
+
+        for (final ExpressionReference reference : references) {
+            this.cycleCheck(reference, cycles);
+        }
+
+        final Map<ExpressionReference, Optional<Optional<Object>>> values = this.context.references(references);
+
+        for (final Map.Entry<ExpressionReference, Optional<Optional<Object>>> referenceAndValue : values.entrySet()) {
+            final Optional<Optional<Object>> possibleValue = referenceAndValue.getValue();
+            if (possibleValue.isPresent()) {
+                final Object value = possibleValue.get()
+                    .orElse(null);
+
+                if (value instanceof ExpressionReference) {
+                    cycles.push(referenceAndValue.getKey());
+                    try {
+                        this.cycleCheck((ExpressionReference) value, cycles);
+                    } finally {
+                        cycles.pop();
+                    }
+                }
+            }
+        }
+
+        return values;
+    }
+
+    @Override
+    public Object referenceOrMissing(final ExpressionReference reference) {
+        final CycleDetectingExpressionEvaluationContextStack cycles = this.evaluation().cycles;
+
+        this.cycleCheck(reference, cycles);
+        cycles.push(reference);
+
+        try {
+            final Object value = this.context.referenceOrMissing(reference);
+            if (value instanceof ExpressionReference) {
+                this.cycleCheck((ExpressionReference) value, cycles);
+            }
+
+            return value;
+        } finally {
+            cycles.pop();
         }
     }
 
     /**
      * If the reference is in {@link #cycles} then there must be a cycle of some sort.
      */
-    private void cycleCheck(final ExpressionReference reference, final Set<ExpressionReference> cycles) {
+    private void cycleCheck(final ExpressionReference reference, final CycleDetectingExpressionEvaluationContextStack cycles) {
         if (cycles.contains(reference)) {
             this.reportCycle(reference);
         }
     }
 
     /**
-     * Used to keep track of references and to detect cycles.
+     * The references being resolved by the current evaluation, or null for the shared instance, which begins a new
+     * evaluation for each call.
      */
-    private final Set<ExpressionReference> cycles;
+    private final CycleDetectingExpressionEvaluationContextStack cycles;
 
     /**
      * Reports a cycle for a given {@link ExpressionReference}
@@ -164,7 +267,10 @@ final class CycleDetectingExpressionEvaluationContext implements ExpressionEvalu
 
         return before == after ?
             this :
-            new CycleDetectingExpressionEvaluationContext(after);
+            new CycleDetectingExpressionEvaluationContext(
+                after,
+                this.cycles
+            );
     }
 
     @Override
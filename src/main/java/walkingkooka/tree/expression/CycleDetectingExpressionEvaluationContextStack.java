@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import walkingkooka.collect.map.Maps;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * An array backed stack of the {@link ExpressionReference} currently being resolved by a single evaluation within a
+ * {@link CycleDetectingExpressionEvaluationContext}. Shallow stacks, which are the common case, are scanned testing
+ * identity before equality, without hashing. Once the stack is deeper than {@link #SCAN_LIMIT} an index of the
+ * references is kept, so {@link #contains(ExpressionReference)} is constant time and a chain of references costs
+ * linear rather than quadratic time.
+ */
+final class CycleDetectingExpressionEvaluationContextStack {
+
+    /**
+     * The depth up to which {@link #contains(ExpressionReference)} scans the stack, beyond which an index is used.
+     */
+    final static int SCAN_LIMIT = 8;
+
+    /**
+     * The initial capacity, allocated by the first {@link #push(ExpressionReference)}.
+     */
+    private final static int INITIAL_CAPACITY = 16;
+
+    private final static ExpressionReference[] EMPTY = new ExpressionReference[0];
+
+    static CycleDetectingExpressionEvaluationContextStack empty() {
+        return new CycleDetectingExpressionEvaluationContextStack();
+    }
+
+    private CycleDetectingExpressionEvaluationContextStack() {
+        super();
+        this.references = EMPTY;
+    }
+
+    /**
+     * Returns true if the {@link ExpressionReference} is currently being resolved.
+     */
+    boolean contains(final ExpressionReference reference) {
+        final Map<ExpressionReference, Integer> index = this.index;
+        return null != index ?
+            index.containsKey(reference) :
+            this.scan(reference);
+    }
+
+    private boolean scan(final ExpressionReference reference) {
+        final ExpressionReference[] references = this.references;
+
+        boolean contains = false;
+
+        for (int i = this.depth - 1; i >= 0; i--) {
+            final ExpressionReference possible = references[i];
+            if (possible == reference || possible.equals(reference)) {
+                contains = true;
+                break;
+            }
+        }
+
+        return contains;
+    }
+
+    void push(final ExpressionReference reference) {
+        final int depth = this.depth;
+
+        ExpressionReference[] references = this.references;
+        if (depth == references.length) {
+            references = Arrays.copyOf(
+                references,
+                Math.max(
+                    INITIAL_CAPACITY,
+                    depth * 2
+                )
+            );
+            this.references = references;
+        }
+
+        references[depth] = reference;
+        this.depth = depth + 1;
+
+        Map<ExpressionReference, Integer> index = this.index;
+        if (null == index) {
+            if (depth == SCAN_LIMIT) {
+                index = Maps.hash();
+                for (int i = 0; i <= depth; i++) {
+                    index(references[i], index);
+                }
+                this.index = index;
+            }
+        } else {
+            index(reference, index);
+        }
+    }
+
+    private static void index(final ExpressionReference reference,
+                              final Map<ExpressionReference, Integer> index) {
+        final Integer count = index.get(reference);
+        index.put(
+            reference,
+            null == count ?
+                1 :
+                count + 1
+        );
+    }
+
+    void pop() {
+        final int depth = this.depth - 1;
+        final ExpressionReference[] references = this.references;
+        final ExpressionReference reference = references[depth];
+
+        references[depth] = null; // allow gc
+        this.depth = depth;
+
+        final Map<ExpressionReference, Integer> index = this.index;
+        if (null != index) {
+            if (0 == depth) {
+                this.index = null;
+            } else {
+                final int count = index.get(reference);
+                if (1 == count) {
+                    index.remove(reference);
+                } else {
+                    index.put(
+                        reference,
+                        count - 1
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * The number of {@link ExpressionReference} on the stack.
+     */
+    int depth() {
+        return this.depth;
+    }
+
+    private ExpressionReference[] references;
+
+    private int depth;
+
+    /**
+     * A count of each {@link ExpressionReference} on the stack, only present once the stack is deeper than
+     * {@link #SCAN_LIMIT}.
+     */
+    private Map<ExpressionReference, Integer> index;
+
+    @Override
+    public String toString() {
+        return Arrays.asList(this.references)
+            .subList(0, this.depth)
+            .toString();
+    }
+}
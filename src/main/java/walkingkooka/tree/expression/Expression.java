@@ -20,6 +20,7 @@ package walkingkooka.tree.expression;
 import walkingkooka.Cast;
 import walkingkooka.collect.list.Lists;
 import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
 import walkingkooka.io.FileExtension;
 import walkingkooka.naming.Name;
 import walkingkooka.net.header.HasContentType;
@@ -32,10 +33,16 @@ import walkingkooka.tree.expression.function.ExpressionFunction;
 import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
 import walkingkooka.tree.select.NodeSelector;
 import walkingkooka.tree.select.parser.ExpressionNodeSelectorParserToken;
+import walkingkooka.visit.Visiting;
 
+import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Predicate;
 
 /**
@@ -244,6 +251,21 @@ public abstract class Expression implements Node<Expression, ExpressionFunctionN
         return ListExpression.with(expressions);
     }
 
+    /**
+     * Reads an {@link Expression} previously written by {@link #toBinary(ExpressionBinaryContext)}.
+     */
+    public static Expression fromBinary(final byte[] bytes,
+                                        final int offset,
+                                        final int length,
+                                        final ExpressionBinaryContext context) {
+        return ExpressionBinaryDecoder.decode(
+            bytes,
+            offset,
+            length,
+            context
+        );
+    }
+
     private final static Optional<Expression> NO_PARENT = Optional.empty();
 
     /**
@@ -518,6 +540,16 @@ public abstract class Expression implements Node<Expression, ExpressionFunctionN
 
     abstract void accept(final ExpressionVisitor visitor);
 
+    /**
+     * Returns all the unique {@link ExpressionReference} within this {@link Expression} in the order they appear, which
+     * may be given to {@link ExpressionEvaluationContext#references(Collection)} to fetch their values before evaluation.
+     */
+    public final Set<ExpressionReference> references() {
+        return Sets.readOnly(
+            ExpressionReferencesExpressionVisitor.references(this)
+        );
+    }
+
     // Eval................................................................................................................
 
     /**
@@ -558,6 +590,19 @@ public abstract class Expression implements Node<Expression, ExpressionFunctionN
      */
     public abstract Object toValue(final ExpressionEvaluationContext context);
 
+    /**
+     * Evaluates this node returning a {@link CompletionStage} with its value, where functions and references may
+     * return {@link CompletionStage} and independent children are started before waiting for any of them.
+     */
+    public final CompletionStage<Object> toValueAsync(final ExpressionEvaluationContext context) {
+        Objects.requireNonNull(context, "context");
+
+        return ExpressionAsyncEvaluator.evaluate(
+            this,
+            context
+        );
+    }
+
     // TreePrintable...................................................................................................
 
     @Override
@@ -605,11 +650,70 @@ public abstract class Expression implements Node<Expression, ExpressionFunctionN
     @Override
     public final String toString() {
         final StringBuilder b = new StringBuilder();
-        this.toString0(b);
+        this.toString0(
+            ExpressionAppender.with(
+                b,
+                ExpressionAppender.UNLIMITED
+            )
+        );
         return b.toString();
     }
 
-    abstract void toString0(final StringBuilder b);
+    /**
+     * Writes the same text as {@link #toString()} to the given {@link Appendable} as it is produced, without first
+     * building the entire text in memory.
+     */
+    public final void appendTo(final Appendable appendable) throws IOException {
+        this.appendTo(
+            appendable,
+            ExpressionAppender.UNLIMITED
+        );
+    }
+
+    /**
+     * Writes at most maxLength characters of the same text as {@link #toString()} to the given {@link Appendable},
+     * returning true if the text was truncated. This is useful when logging very large expressions.
+     */
+    public final boolean appendTo(final Appendable appendable,
+                                  final int maxLength) throws IOException {
+        final ExpressionAppender appender = ExpressionAppender.with(
+            appendable,
+            maxLength
+        );
+        this.toString0(appender);
+
+        final IOException failure = appender.failure();
+        if (null != failure) {
+            throw failure;
+        }
+        return appender.isTruncated();
+    }
+
+    /**
+     * Appends the text of this expression unless the {@link ExpressionAppender} has stopped writing.
+     */
+    final void toString0(final ExpressionAppender b) {
+        if (Visiting.CONTINUE == b.visiting()) {
+            this.toString1(b);
+        }
+    }
+
+    abstract void toString1(final ExpressionAppender b);
+
+    // binary.........................................................................................................
+
+    /**
+     * Writes this {@link Expression} and all its children in a compact versioned binary form, which may be read back
+     * using {@link #fromBinary(byte[], int, int, ExpressionBinaryContext)}.
+     */
+    public final byte[] toBinary(final ExpressionBinaryContext context) {
+        Objects.requireNonNull(context, "context");
+
+        return ExpressionBinaryEncoder.encode(
+            this,
+            context
+        );
+    }
 
     // HasText.. .......................................................................................................
 
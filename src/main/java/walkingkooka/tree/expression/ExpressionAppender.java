@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.visit.Visiting;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Receives the text of an {@link Expression} as it is built, writing it directly to an {@link Appendable} without first
+ * building the entire text. Writes stop after the maximum length has been reached, and any {@link IOException} is
+ * recorded and stops further writes. Once either happens {@link #visiting()} returns {@link Visiting#SKIP} so remaining
+ * expressions are not walked or quoted only to be discarded.
+ */
+final class ExpressionAppender {
+
+    /**
+     * Used when the text should never be truncated.
+     */
+    final static int UNLIMITED = Integer.MAX_VALUE;
+
+    static ExpressionAppender with(final Appendable appendable,
+                                   final int maxLength) {
+        Objects.requireNonNull(appendable, "appendable");
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("Invalid maxLength " + maxLength + " < 0");
+        }
+
+        return new ExpressionAppender(appendable, maxLength);
+    }
+
+    private ExpressionAppender(final Appendable appendable,
+                               final int maxLength) {
+        this.appendable = appendable;
+        this.remaining = maxLength;
+    }
+
+    void append(final char c) {
+        if (this.remaining > 0) {
+            try {
+                this.appendable.append(c);
+                this.remaining--;
+            } catch (final IOException cause) {
+                this.failed(cause);
+            }
+        } else {
+            this.truncated = true;
+        }
+    }
+
+    void append(final CharSequence chars) {
+        final int length = chars.length();
+        if (length > 0) {
+            final int remaining = this.remaining;
+            if (0 == remaining) {
+                this.truncated = true;
+            } else {
+                try {
+                    if (length <= remaining) {
+                        this.appendable.append(chars);
+                        this.remaining = remaining - length;
+                    } else {
+                        this.appendable.append(chars, 0, remaining);
+                        this.remaining = 0;
+                        this.truncated = true;
+                    }
+                } catch (final IOException cause) {
+                    this.failed(cause);
+                }
+            }
+        }
+    }
+
+    void append(final Object value) {
+        this.append(
+            String.valueOf(value)
+        );
+    }
+
+    /**
+     * Returns {@link Visiting#SKIP} once text has been truncated or the {@link Appendable} failed, as nothing more
+     * will be written.
+     */
+    Visiting visiting() {
+        return this.truncated || null != this.failure ?
+            Visiting.SKIP :
+            Visiting.CONTINUE;
+    }
+
+    /**
+     * Returns true if some text was not written because the maximum length was reached.
+     */
+    boolean isTruncated() {
+        return this.truncated;
+    }
+
+    private boolean truncated;
+
+    /**
+     * Returns the {@link IOException} thrown by the {@link Appendable} if any.
+     */
+    IOException failure() {
+        return this.failure;
+    }
+
+    private void failed(final IOException cause) {
+        this.failure = cause;
+        this.remaining = 0;
+    }
+
+    private IOException failure;
+
+    private final Appendable appendable;
+
+    /**
+     * The number of characters that may still be written.
+     */
+    private int remaining;
+
+    @Override
+    public String toString() {
+        return this.appendable.toString();
+    }
+}
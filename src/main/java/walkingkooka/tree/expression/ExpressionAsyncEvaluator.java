@@ -0,0 +1,276 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Evaluates an {@link Expression} where functions, references and values may be {@link CompletionStage}, starting
+ * all independent children before waiting for any of them.
+ * <ul>
+ * <li>{@link ValueExpression} values and {@link ReferenceExpression} values that are {@link CompletionStage} are waited upon</li>
+ * <li>{@link ListExpression} and operator children are all started, and the operator applied to their values once all complete</li>
+ * <li>{@link CallExpression} parameters with both {@link ExpressionFunctionParameterKind#EAGER} and
+ * {@link ExpressionFunctionParameterKind#EVALUATE} are all started before the function is called. Like
+ * {@link Expression#toValue(ExpressionEvaluationContext)} they are evaluated with
+ * {@link Expression#toReferenceOrValue(ExpressionEvaluationContext)} semantics, so references are only resolved for
+ * {@link ExpressionFunctionParameterKind#RESOLVE_REFERENCES} parameters, and any failure is given to
+ * {@link ExpressionEvaluationContext#handleException(RuntimeException)}.</li>
+ * <li>All other parameters are given to the function as {@link Expression} and evaluated only when the function fetches
+ * them, exactly like {@link Expression#toValue(ExpressionEvaluationContext)}. Their values are not waited upon, so a
+ * function that fetches a lazy parameter whose value is a {@link CompletionStage} receives that {@link CompletionStage}.</li>
+ * <li>A function result that is a {@link CompletionStage} is waited upon.</li>
+ * <li>Everything else, including lambdas, is evaluated by {@link ExpressionEvaluationContext#evaluateExpression(Expression)}</li>
+ * </ul>
+ * Nothing blocks, the calling thread only starts work and any waiting is performed by the {@link CompletionStage}
+ * returned by functions and references.
+ */
+final class ExpressionAsyncEvaluator {
+
+    static CompletionStage<Object> evaluate(final Expression expression,
+                                            final ExpressionEvaluationContext context) {
+        return new ExpressionAsyncEvaluator(context)
+            .evaluate(expression);
+    }
+
+    private ExpressionAsyncEvaluator(final ExpressionEvaluationContext context) {
+        this.context = context;
+    }
+
+    private CompletionStage<Object> evaluate(final Expression expression) {
+        CompletionStage<Object> value;
+
+        try {
+            if (expression.isValue()) {
+                value = await(
+                    ((ValueExpression<?>) expression).value()
+                );
+            } else if (expression.isReference()) {
+                value = await(
+                    this.context.referenceOrFail(
+                        ((ReferenceExpression) expression).value()
+                    )
+                );
+            } else if (expression.isCall()) {
+                value = this.call((CallExpression) expression);
+            } else if (expression.isList()) {
+                value = Cast.to(
+                    this.all(expression.children())
+                );
+            } else if (expression.isLambdaFunction() || false == expression instanceof ParentExpression) {
+                value = await(
+                    this.context.evaluateExpression(expression)
+                );
+            } else {
+                value = this.operator(expression);
+            }
+        } catch (final RuntimeException cause) {
+            value = failed(cause);
+        }
+
+        return value;
+    }
+
+    /**
+     * Starts all eager parameters, then calls the function with their values and all other parameters unevaluated.
+     */
+    private CompletionStage<Object> call(final CallExpression call) {
+        final ExpressionEvaluationContext context = this.context;
+
+        final ExpressionFunction<?, ExpressionEvaluationContext> function = call.callable()
+            .function(context);
+        final List<Expression> parameters = call.value();
+        final int count = parameters.size();
+        final List<ExpressionFunctionParameter<?>> metas = function.parameters(count);
+
+        final CompletableFuture<?>[] values = new CompletableFuture<?>[count];
+
+        for (int i = 0; i < count; i++) {
+            final Expression parameter = parameters.get(i);
+            final Set<ExpressionFunctionParameterKind> kinds = kinds(metas, i);
+
+            values[i] = kinds.contains(ExpressionFunctionParameterKind.EAGER) &&
+                kinds.contains(ExpressionFunctionParameterKind.EVALUATE) ?
+                this.parameter(parameter, kinds)
+                    .toCompletableFuture() :
+                CompletableFuture.completedFuture(parameter);
+        }
+
+        return values(values)
+            .thenCompose(
+                (v) -> await(
+                    context.evaluateFunction(
+                        function,
+                        v
+                    )
+                )
+            );
+    }
+
+    /**
+     * Parameters after the last meta belong to the last, which should be a variable parameter.
+     */
+    private static Set<ExpressionFunctionParameterKind> kinds(final List<ExpressionFunctionParameter<?>> metas,
+                                                             final int index) {
+        final int last = metas.size() - 1;
+
+        return last >= 0 ?
+            metas.get(Math.min(index, last))
+                .kinds() :
+            ExpressionFunctionParameter.NO_KINDS;
+    }
+
+    /**
+     * Evaluates an eager parameter the same way as {@link ExpressionEvaluationContext#prepareParameters(ExpressionFunction, List)},
+     * a {@link ReferenceExpression} is its {@link ExpressionReference} which is only resolved for
+     * {@link ExpressionFunctionParameterKind#RESOLVE_REFERENCES}, and failures are given to
+     * {@link ExpressionEvaluationContext#handleException(RuntimeException)}.
+     */
+    private CompletionStage<Object> parameter(final Expression parameter,
+                                              final Set<ExpressionFunctionParameterKind> kinds) {
+        CompletionStage<Object> value;
+
+        if (parameter.isReference()) {
+            final ExpressionReference reference = ((ReferenceExpression) parameter).value();
+
+            if (kinds.contains(ExpressionFunctionParameterKind.RESOLVE_REFERENCES)) {
+                try {
+                    value = await(
+                        this.context.referenceOrFail(reference)
+                    );
+                } catch (final RuntimeException cause) {
+                    value = failed(cause);
+                }
+            } else {
+                value = CompletableFuture.completedFuture(reference);
+            }
+        } else {
+            value = this.evaluate(parameter);
+        }
+
+        return value.handle(this::valueOrHandleException)
+            .thenCompose(ExpressionAsyncEvaluator::await);
+    }
+
+    /**
+     * Gives any {@link RuntimeException} to {@link ExpressionEvaluationContext#handleException(RuntimeException)},
+     * except for {@link UnsupportedOperationException} which is rethrown.
+     */
+    private Object valueOrHandleException(final Object value,
+                                          final Throwable failure) {
+        if (null == failure) {
+            return value;
+        }
+
+        final Throwable cause = failure instanceof CompletionException && null != failure.getCause() ?
+            failure.getCause() :
+            failure;
+        if (cause instanceof RuntimeException && false == cause instanceof UnsupportedOperationException) {
+            return this.context.handleException((RuntimeException) cause);
+        }
+
+        throw failure instanceof CompletionException ?
+            (CompletionException) failure :
+            new CompletionException(cause);
+    }
+
+    /**
+     * Starts all children, then evaluates the operator with each child replaced by its value.
+     */
+    private CompletionStage<Object> operator(final Expression expression) {
+        return this.all(expression.children())
+            .thenCompose(
+                (v) -> {
+                    final List<Expression> children = Lists.array();
+                    for (final Object value : v) {
+                        children.add(
+                            Expression.value(value)
+                        );
+                    }
+
+                    return await(
+                        this.context.evaluateExpression(
+                            expression.setChildren(children)
+                        )
+                    );
+                }
+            );
+    }
+
+    private CompletionStage<List<Object>> all(final List<Expression> expressions) {
+        final int count = expressions.size();
+        final CompletableFuture<?>[] values = new CompletableFuture<?>[count];
+
+        for (int i = 0; i < count; i++) {
+            values[i] = this.evaluate(expressions.get(i))
+                .toCompletableFuture();
+        }
+
+        return values(values);
+    }
+
+    /**
+     * Completes with all values once every {@link CompletableFuture} has completed, or the first failure.
+     */
+    private static CompletionStage<List<Object>> values(final CompletableFuture<?>[] values) {
+        return CompletableFuture.allOf(values)
+            .thenApply(
+                (ignored) -> {
+                    final List<Object> list = Lists.array();
+                    for (final CompletableFuture<?> value : values) {
+                        list.add(
+                            value.join()
+                        );
+                    }
+                    return list;
+                }
+            );
+    }
+
+    /**
+     * Waits upon the value if it is a {@link CompletionStage} including any {@link CompletionStage} it completes with.
+     */
+    private static CompletionStage<Object> await(final Object value) {
+        return value instanceof CompletionStage ?
+            Cast.<CompletionStage<Object>>to(value)
+                .thenCompose(ExpressionAsyncEvaluator::await) :
+            CompletableFuture.completedFuture(value);
+    }
+
+    private static CompletionStage<Object> failed(final RuntimeException cause) {
+        final CompletableFuture<Object> failed = new CompletableFuture<>();
+        failed.completeExceptionally(cause);
+        return failed;
+    }
+
+    private final ExpressionEvaluationContext context;
+
+    @Override
+    public String toString() {
+        return this.context.toString();
+    }
+}
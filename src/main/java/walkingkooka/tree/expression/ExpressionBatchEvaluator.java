@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.collect.list.Lists;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Evaluates many independent {@link Expression} against the same read only references, returning the results in the
+ * same order as the given {@link Expression}. Each worker gets its own {@link ExpressionEvaluationContext} from the
+ * given {@link Supplier}, which might return {@link ExpressionEvaluationContext#cloneEnvironment()} of a shared
+ * context, because contexts such as {@link ExpressionEvaluationContexts#cycleDetecting(ExpressionEvaluationContext)}
+ * are not thread safe. For the same reason a {@link ExpressionEvaluationBudget} or {@link ExpressionEvaluationProfiler}
+ * should be created for each context rather than shared by all workers.
+ * <br>
+ * On the JVM workers run in the common fork join pool with the calling thread also evaluating. Under J2CL all
+ * {@link Expression} are evaluated by the calling thread using a single context.
+ */
+public final class ExpressionBatchEvaluator {
+
+    /**
+     * Creates a new {@link ExpressionBatchEvaluator} with at most the given number of workers.
+     */
+    public static ExpressionBatchEvaluator with(final Supplier<ExpressionEvaluationContext> contexts,
+                                                final int parallelism) {
+        Objects.requireNonNull(contexts, "contexts");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism " + parallelism + " < 1");
+        }
+
+        return new ExpressionBatchEvaluator(
+            contexts,
+            parallelism
+        );
+    }
+
+    private ExpressionBatchEvaluator(final Supplier<ExpressionEvaluationContext> contexts,
+                                     final int parallelism) {
+        this.contexts = contexts;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Evaluates all the given {@link Expression} using {@link ExpressionEvaluationContext#evaluateExpression(Expression)}
+     * returning the values in the same order. Any exception that escapes a context is rethrown once all workers stop.
+     */
+    public List<Object> evaluate(final Collection<Expression> expressions) {
+        Objects.requireNonNull(expressions, "expressions");
+
+        final Expression[] array = expressions.toArray(new Expression[0]);
+        for (final Expression expression : array) {
+            Objects.requireNonNull(expression, "expression");
+        }
+
+        final Object[] values = new Object[array.length];
+        final int workers = Math.min(
+            this.parallelism,
+            array.length
+        );
+
+        if (workers > 1) {
+            ExpressionBatchEvaluatorParallel.evaluate(
+                array,
+                values,
+                this.contexts,
+                workers
+            );
+        } else if (1 == workers) {
+            evaluate(
+                array,
+                values,
+                this.contexts
+            );
+        }
+
+        return Lists.readOnly(
+            Arrays.asList(values)
+        );
+    }
+
+    /**
+     * Evaluates all {@link Expression} in order using a single context.
+     */
+    static void evaluate(final Expression[] expressions,
+                         final Object[] values,
+                         final Supplier<ExpressionEvaluationContext> contexts) {
+        final ExpressionEvaluationContext context = contexts.get();
+
+        final int count = expressions.length;
+        for (int i = 0; i < count; i++) {
+            values[i] = context.evaluateExpression(expressions[i]);
+        }
+    }
+
+    private final Supplier<ExpressionEvaluationContext> contexts;
+
+    private final int parallelism;
+
+    @Override
+    public String toString() {
+        return "parallelism=" + this.parallelism + " " + this.contexts;
+    }
+}
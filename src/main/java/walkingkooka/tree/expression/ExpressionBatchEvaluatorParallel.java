@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import javaemul.internal.annotations.GwtIncompatible;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Evaluates {@link Expression} using several workers in the common {@link ForkJoinPool}. Workers claim the next
+ * unevaluated {@link Expression} one at a time, so slow {@link Expression} do not hold up the others.
+ */
+final class ExpressionBatchEvaluatorParallel extends ExpressionBatchEvaluatorParallelGwt {
+
+    @GwtIncompatible
+    static void evaluate(final Expression[] expressions,
+                         final Object[] values,
+                         final Supplier<ExpressionEvaluationContext> contexts,
+                         final int workers) {
+        final AtomicInteger next = new AtomicInteger();
+        final Runnable worker = () -> {
+            final ExpressionEvaluationContext context = contexts.get();
+            final int count = expressions.length;
+
+            try {
+                for (; ; ) {
+                    final int i = next.getAndIncrement();
+                    if (i >= count) {
+                        break;
+                    }
+                    values[i] = context.evaluateExpression(expressions[i]);
+                }
+            } catch (final RuntimeException cause) {
+                next.set(count); // stop other workers
+                throw cause;
+            }
+        };
+
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        final ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[workers - 1];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = pool.submit(worker);
+        }
+
+        RuntimeException failure = null;
+        try {
+            worker.run();
+        } catch (final RuntimeException cause) {
+            failure = cause;
+        }
+
+        for (final ForkJoinTask<?> task : tasks) {
+            try {
+                task.join();
+            } catch (final RuntimeException cause) {
+                if (null == failure) {
+                    failure = cause;
+                }
+            }
+        }
+
+        if (null != failure) {
+            throw failure;
+        }
+    }
+}
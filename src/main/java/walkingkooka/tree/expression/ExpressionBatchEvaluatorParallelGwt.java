@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import java.util.function.Supplier;
+
+/**
+ * The J2CL version of {@link ExpressionBatchEvaluatorParallel}, which evaluates using the calling thread.
+ */
+class ExpressionBatchEvaluatorParallelGwt {
+
+    static void evaluate(final Expression[] expressions,
+                         final Object[] values,
+                         final Supplier<ExpressionEvaluationContext> contexts,
+                         final int workers) {
+        ExpressionBatchEvaluator.evaluate(
+            expressions,
+            values,
+            contexts
+        );
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+/**
+ * Converts the parts of an {@link Expression} that the binary format cannot encode by itself, such as
+ * {@link ExpressionReference references}, {@link Class types} of lambda parameters and values other than the common
+ * types like {@link String}, {@link Boolean} and {@link ExpressionNumber}, to and from text.
+ */
+public interface ExpressionBinaryContext {
+
+    /**
+     * Returns text that {@link #reference(String)} will later convert back into an equal {@link ExpressionReference}.
+     */
+    String referenceToString(final ExpressionReference reference);
+
+    /**
+     * Converts the text previously returned by {@link #referenceToString(ExpressionReference)} back into a {@link ExpressionReference}.
+     */
+    ExpressionReference reference(final String text);
+
+    /**
+     * Returns text that {@link #type(String)} will later convert back into the same {@link Class}.
+     */
+    String typeToString(final Class<?> type);
+
+    /**
+     * Converts the text previously returned by {@link #typeToString(Class)} back into a {@link Class}.
+     */
+    Class<?> type(final String text);
+
+    /**
+     * Returns text that {@link #value(String, Class)} will later convert back into an equal value.
+     */
+    String valueToString(final Object value);
+
+    /**
+     * Converts the text previously returned by {@link #valueToString(Object)} back into a value of the given type.
+     */
+    Object value(final String text,
+                 final Class<?> type);
+}
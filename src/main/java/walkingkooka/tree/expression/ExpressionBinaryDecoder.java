@@ -0,0 +1,498 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.collect.stack.Stack;
+import walkingkooka.collect.stack.Stacks;
+import walkingkooka.text.CaseSensitivity;
+import walkingkooka.text.CharSequences;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterCardinality;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterName;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Reads an {@link Expression} written by {@link ExpressionBinaryEncoder}. Because children are always written before
+ * their parent, decoding pushes each {@link Expression} onto a stack and parents pop their children, so very deep
+ * expressions may be decoded without recursion.
+ */
+final class ExpressionBinaryDecoder {
+
+    static Expression decode(final byte[] bytes,
+                             final int offset,
+                             final int length,
+                             final ExpressionBinaryContext context) {
+        Objects.requireNonNull(bytes, "bytes");
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IllegalArgumentException("Invalid offset " + offset + " length " + length + " for " + bytes.length + " byte(s)");
+        }
+        Objects.requireNonNull(context, "context");
+
+        return new ExpressionBinaryDecoder(
+            bytes,
+            offset,
+            offset + length,
+            context
+        ).readExpressions();
+    }
+
+    private ExpressionBinaryDecoder(final byte[] bytes,
+                                    final int offset,
+                                    final int end,
+                                    final ExpressionBinaryContext context) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.end = end;
+        this.context = context;
+    }
+
+    // expressions......................................................................................................
+
+    private Expression readExpressions() {
+        final int version = this.readByte();
+        if (ExpressionBinaryFormat.VERSION != version) {
+            throw new IllegalArgumentException("Unsupported version " + version + " expected " + ExpressionBinaryFormat.VERSION);
+        }
+
+        final Stack<Expression> expressions = this.expressions;
+
+        while (this.offset < this.end) {
+            final Expression expression = this.readExpression();
+            expressions.push(expression);
+            this.size++;
+        }
+
+        if (1 != this.size) {
+            throw new IllegalArgumentException("Expected 1 expression but got " + this.size);
+        }
+        return expressions.peek();
+    }
+
+    private Expression readExpression() {
+        final int tag = this.readByte();
+        final Expression expression;
+
+        switch (tag) {
+            case ExpressionBinaryFormat.VALUE:
+                expression = Expression.value(this.readValue());
+                break;
+            case ExpressionBinaryFormat.REFERENCE:
+                expression = Expression.reference(
+                    this.context.reference(this.readString())
+                );
+                break;
+            case ExpressionBinaryFormat.NAMED_FUNCTION:
+                expression = this.readNamedFunction();
+                break;
+            case ExpressionBinaryFormat.NEGATIVE:
+                expression = Expression.negative(this.pop());
+                break;
+            case ExpressionBinaryFormat.NOT:
+                expression = Expression.not(this.pop());
+                break;
+            case ExpressionBinaryFormat.LAMBDA_FUNCTION:
+                expression = this.readLambdaFunction();
+                break;
+            case ExpressionBinaryFormat.LIST:
+                expression = Expression.list(
+                    this.pop(this.readCount())
+                );
+                break;
+            case ExpressionBinaryFormat.CALL:
+                expression = this.readCall();
+                break;
+            case ExpressionBinaryFormat.ADD:
+                expression = this.binary(Expression::add);
+                break;
+            case ExpressionBinaryFormat.SUBTRACT:
+                expression = this.binary(Expression::subtract);
+                break;
+            case ExpressionBinaryFormat.MULTIPLY:
+                expression = this.binary(Expression::multiply);
+                break;
+            case ExpressionBinaryFormat.DIVIDE:
+                expression = this.binary(Expression::divide);
+                break;
+            case ExpressionBinaryFormat.MODULO:
+                expression = this.binary(Expression::modulo);
+                break;
+            case ExpressionBinaryFormat.POWER:
+                expression = this.binary(Expression::power);
+                break;
+            case ExpressionBinaryFormat.AND:
+                expression = this.binary(Expression::and);
+                break;
+            case ExpressionBinaryFormat.OR:
+                expression = this.binary(Expression::or);
+                break;
+            case ExpressionBinaryFormat.XOR:
+                expression = this.binary(Expression::xor);
+                break;
+            case ExpressionBinaryFormat.EQUALS:
+                expression = this.binary(Expression::equalsExpression);
+                break;
+            case ExpressionBinaryFormat.NOT_EQUALS:
+                expression = this.binary(Expression::notEquals);
+                break;
+            case ExpressionBinaryFormat.GREATER_THAN:
+                expression = this.binary(Expression::greaterThan);
+                break;
+            case ExpressionBinaryFormat.GREATER_THAN_EQUALS:
+                expression = this.binary(Expression::greaterThanEquals);
+                break;
+            case ExpressionBinaryFormat.LESS_THAN:
+                expression = this.binary(Expression::lessThan);
+                break;
+            case ExpressionBinaryFormat.LESS_THAN_EQUALS:
+                expression = this.binary(Expression::lessThanEquals);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown expression tag " + tag + " at " + (this.offset - 1));
+        }
+
+        return expression;
+    }
+
+    private NamedFunctionExpression readNamedFunction() {
+        final ExpressionFunctionName name = ExpressionFunctionName.with(this.readString());
+
+        return Expression.namedFunction(
+            name.setCaseSensitivity(
+                this.readBoolean() ?
+                    CaseSensitivity.SENSITIVE :
+                    CaseSensitivity.INSENSITIVE
+            )
+        );
+    }
+
+    private LambdaFunctionExpression readLambdaFunction() {
+        final int count = this.readCount();
+        final List<ExpressionFunctionParameter<?>> parameters = Lists.array();
+
+        for (int i = 0; i < count; i++) {
+            parameters.add(
+                this.readParameter()
+            );
+        }
+
+        return Expression.lambdaFunction(
+            parameters,
+            this.pop()
+        );
+    }
+
+    private ExpressionFunctionParameter<?> readParameter() {
+        final ExpressionFunctionParameterName name = ExpressionFunctionParameterName.with(this.readString());
+        final Class<Object> type = Cast.to(
+            this.context.type(this.readString())
+        );
+        final ExpressionFunctionParameterCardinality cardinality = this.readEnum(
+            ExpressionFunctionParameterCardinality.values(),
+            "cardinality"
+        );
+        final Optional<Object> defaultValue = this.readBoolean() ?
+            Optional.ofNullable(this.readValue()) :
+            Optional.empty();
+
+        final int kindCount = this.readCount();
+        final Set<ExpressionFunctionParameterKind> kinds = Sets.ordered();
+        for (int i = 0; i < kindCount; i++) {
+            kinds.add(
+                this.readEnum(
+                    ExpressionFunctionParameterKind.values(),
+                    "kind"
+                )
+            );
+        }
+
+        return ExpressionFunctionParameter.with(
+            name,
+            type,
+            cardinality,
+            defaultValue,
+            kinds
+        );
+    }
+
+    /**
+     * Reads the name of an enum constant, failing if it is not one of the given values.
+     */
+    private <E extends Enum<E>> E readEnum(final E[] values,
+                                           final String label) {
+        final int offset = this.offset;
+        final String name = this.readString();
+
+        for (final E value : values) {
+            if (value.name().equals(name)) {
+                return value;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown " + label + " " + CharSequences.quoteAndEscape(name) + " at " + offset);
+    }
+
+    private CallExpression readCall() {
+        final List<Expression> parameters = this.pop(this.readCount());
+
+        return Expression.call(
+            this.pop(),
+            parameters
+        );
+    }
+
+    /**
+     * The right operand is on the top of the stack, with the left immediately below it.
+     */
+    private Expression binary(final BiFunction<Expression, Expression, Expression> factory) {
+        final Expression right = this.pop();
+        final Expression left = this.pop();
+        return factory.apply(
+            left,
+            right
+        );
+    }
+
+    /**
+     * Pops the given number of {@link Expression} returning them in the order they were written.
+     */
+    private List<Expression> pop(final int count) {
+        if (count > this.size) {
+            throw new IllegalArgumentException("Expected " + count + " expression(s) but got " + this.size + " at " + this.offset);
+        }
+        final Expression[] popped = new Expression[count];
+
+        for (int i = count - 1; i >= 0; i--) {
+            popped[i] = this.pop();
+        }
+
+        return Lists.of(popped);
+    }
+
+    private Expression pop() {
+        if (0 == this.size) {
+            throw new IllegalArgumentException("Missing expression at " + this.offset);
+        }
+        final Stack<Expression> expressions = this.expressions;
+        final Expression expression = expressions.peek();
+        expressions.pop();
+        this.size--;
+        return expression;
+    }
+
+    private final Stack<Expression> expressions = Stacks.arrayList();
+
+    /**
+     * The number of {@link Expression} on {@link #expressions}.
+     */
+    private int size;
+
+    // values...........................................................................................................
+
+    private Object readValue() {
+        final int tag = this.readByte();
+        final Object value;
+
+        switch (tag) {
+            case ExpressionBinaryFormat.NULL_VALUE:
+                value = null;
+                break;
+            case ExpressionBinaryFormat.TRUE_VALUE:
+                value = Boolean.TRUE;
+                break;
+            case ExpressionBinaryFormat.FALSE_VALUE:
+                value = Boolean.FALSE;
+                break;
+            case ExpressionBinaryFormat.STRING_VALUE:
+                value = this.readString();
+                break;
+            case ExpressionBinaryFormat.CHARACTER_VALUE:
+                value = (char) this.readCount();
+                break;
+            case ExpressionBinaryFormat.EXPRESSION_NUMBER_BIG_DECIMAL_VALUE:
+                value = ExpressionNumberBigDecimal.withBigDecimal(
+                    new BigDecimal(this.readString())
+                );
+                break;
+            case ExpressionBinaryFormat.EXPRESSION_NUMBER_DOUBLE_VALUE:
+                value = ExpressionNumberDouble.withDouble(
+                    this.readDouble()
+                );
+                break;
+            case ExpressionBinaryFormat.INTEGER_VALUE:
+                value = this.readInt();
+                break;
+            case ExpressionBinaryFormat.LONG_VALUE:
+                value = this.readLong();
+                break;
+            case ExpressionBinaryFormat.DOUBLE_VALUE:
+                value = this.readDouble();
+                break;
+            case ExpressionBinaryFormat.BIG_DECIMAL_VALUE:
+                value = new BigDecimal(this.readString());
+                break;
+            case ExpressionBinaryFormat.BIG_INTEGER_VALUE:
+                value = new BigInteger(this.readString());
+                break;
+            case ExpressionBinaryFormat.LOCAL_DATE_VALUE:
+                value = LocalDate.ofEpochDay(this.readLong());
+                break;
+            case ExpressionBinaryFormat.LOCAL_DATE_TIME_VALUE:
+                value = LocalDateTime.of(
+                    LocalDate.ofEpochDay(this.readLong()),
+                    LocalTime.ofNanoOfDay(this.readLong())
+                );
+                break;
+            case ExpressionBinaryFormat.LOCAL_TIME_VALUE:
+                value = LocalTime.ofNanoOfDay(this.readLong());
+                break;
+            case ExpressionBinaryFormat.OTHER_VALUE:
+                final ExpressionBinaryContext context = this.context;
+                final Class<?> type = context.type(this.readString());
+                value = context.value(
+                    this.readString(),
+                    type
+                );
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown value tag " + tag + " at " + (this.offset - 1));
+        }
+
+        return value;
+    }
+
+    private final ExpressionBinaryContext context;
+
+    // primitives.......................................................................................................
+
+    private boolean readBoolean() {
+        return 0 != this.readByte();
+    }
+
+    private int readCount() {
+        int value = 0;
+        int shift = 0;
+
+        for (; ; ) {
+            if (shift > 28) {
+                throw new IllegalArgumentException("Invalid count at " + this.offset);
+            }
+            final int b = this.readByte();
+            value |= (b & 0x7F) << shift;
+            if (0 == (b & 0x80)) {
+                break;
+            }
+            shift += 7;
+        }
+
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid count " + value + " at " + this.offset);
+        }
+        return value;
+    }
+
+    private int readInt() {
+        final int offset = this.offset;
+        final long value = this.readLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid int " + value + " at " + offset);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads a zig-zag encoded variable length long written by {@link ExpressionBinaryEncoder}.
+     */
+    private long readLong() {
+        long value = 0;
+        int shift = 0;
+
+        for (; ; ) {
+            if (shift > 63) {
+                throw new IllegalArgumentException("Invalid long at " + this.offset);
+            }
+            final int b = this.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (0 == (b & 0x80)) {
+                break;
+            }
+            shift += 7;
+        }
+
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private double readDouble() {
+        long bits = 0;
+
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | this.readByte();
+        }
+
+        return Double.longBitsToDouble(bits);
+    }
+
+    private String readString() {
+        final int length = this.readCount();
+        this.require(length);
+
+        final String text = new String(
+            this.bytes,
+            this.offset,
+            length,
+            StandardCharsets.UTF_8
+        );
+        this.offset += length;
+        return text;
+    }
+
+    private int readByte() {
+        this.require(1);
+        return this.bytes[this.offset++] & 0xFF;
+    }
+
+    private void require(final int count) {
+        if (count > this.end - this.offset) {
+            throw new IllegalArgumentException("Unexpected end of bytes at " + this.offset);
+        }
+    }
+
+    private final byte[] bytes;
+
+    private int offset;
+
+    private final int end;
+
+    @Override
+    public String toString() {
+        return this.offset + "/" + this.end;
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.collect.stack.Stack;
+import walkingkooka.collect.stack.Stacks;
+import walkingkooka.text.CaseSensitivity;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Writes an {@link Expression} in the format described by {@link ExpressionBinaryFormat}. Expressions are written in
+ * post order using an explicit stack, so very deep expressions may be encoded.
+ */
+final class ExpressionBinaryEncoder {
+
+    static byte[] encode(final Expression expression,
+                         final ExpressionBinaryContext context) {
+        final ExpressionBinaryEncoder encoder = new ExpressionBinaryEncoder(context);
+        encoder.writeByte(ExpressionBinaryFormat.VERSION);
+        encoder.writeExpressions(expression);
+        return Arrays.copyOf(
+            encoder.bytes,
+            encoder.length
+        );
+    }
+
+    private ExpressionBinaryEncoder(final ExpressionBinaryContext context) {
+        this.context = context;
+    }
+
+    // expressions......................................................................................................
+
+    private void writeExpressions(final Expression expression) {
+        final Stack<Expression> pending = Stacks.arrayList();
+        final Stack<Expression> postOrder = Stacks.arrayList();
+
+        pending.push(expression);
+
+        while (pending.isNotEmpty()) {
+            final Expression next = pending.peek();
+            pending.pop();
+
+            postOrder.push(next);
+
+            if (next instanceof CallExpression) {
+                pending.push(((CallExpression) next).callable());
+            }
+            if (next instanceof ParentExpression) {
+                for (final Expression child : next.children()) {
+                    pending.push(child);
+                }
+            }
+        }
+
+        while (postOrder.isNotEmpty()) {
+            this.writeExpression(postOrder.peek());
+            postOrder.pop();
+        }
+    }
+
+    private void writeExpression(final Expression expression) {
+        if (expression instanceof ValueExpression) {
+            this.writeByte(ExpressionBinaryFormat.VALUE);
+            this.writeValue(((ValueExpression<?>) expression).value());
+        } else if (expression instanceof ReferenceExpression) {
+            this.writeByte(ExpressionBinaryFormat.REFERENCE);
+            this.writeString(
+                this.context.referenceToString(
+                    ((ReferenceExpression) expression).value()
+                )
+            );
+        } else if (expression instanceof NamedFunctionExpression) {
+            final ExpressionFunctionName name = ((NamedFunctionExpression) expression).value();
+
+            this.writeByte(ExpressionBinaryFormat.NAMED_FUNCTION);
+            this.writeString(name.value());
+            this.writeBoolean(CaseSensitivity.SENSITIVE == name.caseSensitivity());
+        } else if (expression instanceof LambdaFunctionExpression) {
+            this.writeByte(ExpressionBinaryFormat.LAMBDA_FUNCTION);
+            this.writeParameters(((LambdaFunctionExpression) expression).parameters());
+        } else if (expression instanceof ListExpression) {
+            this.writeByte(ExpressionBinaryFormat.LIST);
+            this.writeCount(expression.children().size());
+        } else if (expression instanceof CallExpression) {
+            this.writeByte(ExpressionBinaryFormat.CALL);
+            this.writeCount(expression.children().size());
+        } else {
+            this.writeByte(tag(expression));
+        }
+    }
+
+    /**
+     * Returns the tag for an {@link Expression} that has no properties other than its children.
+     */
+    private static byte tag(final Expression expression) {
+        final byte tag;
+
+        if (expression instanceof AddExpression) {
+            tag = ExpressionBinaryFormat.ADD;
+        } else if (expression instanceof SubtractExpression) {
+            tag = ExpressionBinaryFormat.SUBTRACT;
+        } else if (expression instanceof MultiplyExpression) {
+            tag = ExpressionBinaryFormat.MULTIPLY;
+        } else if (expression instanceof DivideExpression) {
+            tag = ExpressionBinaryFormat.DIVIDE;
+        } else if (expression instanceof ModuloExpression) {
+            tag = ExpressionBinaryFormat.MODULO;
+        } else if (expression instanceof PowerExpression) {
+            tag = ExpressionBinaryFormat.POWER;
+        } else if (expression instanceof AndExpression) {
+            tag = ExpressionBinaryFormat.AND;
+        } else if (expression instanceof OrExpression) {
+            tag = ExpressionBinaryFormat.OR;
+        } else if (expression instanceof XorExpression) {
+            tag = ExpressionBinaryFormat.XOR;
+        } else if (expression instanceof EqualsExpression) {
+            tag = ExpressionBinaryFormat.EQUALS;
+        } else if (expression instanceof NotEqualsExpression) {
+            tag = ExpressionBinaryFormat.NOT_EQUALS;
+        } else if (expression instanceof GreaterThanExpression) {
+            tag = ExpressionBinaryFormat.GREATER_THAN;
+        } else if (expression instanceof GreaterThanEqualsExpression) {
+            tag = ExpressionBinaryFormat.GREATER_THAN_EQUALS;
+        } else if (expression instanceof LessThanExpression) {
+            tag = ExpressionBinaryFormat.LESS_THAN;
+        } else if (expression instanceof LessThanEqualsExpression) {
+            tag = ExpressionBinaryFormat.LESS_THAN_EQUALS;
+        } else if (expression instanceof NegativeExpression) {
+            tag = ExpressionBinaryFormat.NEGATIVE;
+        } else if (expression instanceof NotExpression) {
+            tag = ExpressionBinaryFormat.NOT;
+        } else {
+            throw new IllegalArgumentException("Unsupported expression " + expression.getClass().getSimpleName());
+        }
+
+        return tag;
+    }
+
+    private void writeParameters(final List<ExpressionFunctionParameter<?>> parameters) {
+        this.writeCount(parameters.size());
+
+        for (final ExpressionFunctionParameter<?> parameter : parameters) {
+            this.writeString(parameter.name().value());
+            this.writeString(
+                this.context.typeToString(parameter.type())
+            );
+            this.writeString(parameter.cardinality().name());
+
+            final Optional<?> defaultValue = parameter.defaultValue();
+            this.writeBoolean(defaultValue.isPresent());
+            if (defaultValue.isPresent()) {
+                this.writeValue(defaultValue.get());
+            }
+
+            final Set<ExpressionFunctionParameterKind> kinds = parameter.kinds();
+            this.writeCount(kinds.size());
+            for (final ExpressionFunctionParameterKind kind : kinds) {
+                this.writeString(kind.name());
+            }
+        }
+    }
+
+    // values...........................................................................................................
+
+    private void writeValue(final Object value) {
+        if (null == value) {
+            this.writeByte(ExpressionBinaryFormat.NULL_VALUE);
+        } else if (value instanceof Boolean) {
+            this.writeByte(
+                (Boolean) value ?
+                    ExpressionBinaryFormat.TRUE_VALUE :
+                    ExpressionBinaryFormat.FALSE_VALUE
+            );
+        } else if (value instanceof String) {
+            this.writeByte(ExpressionBinaryFormat.STRING_VALUE);
+            this.writeString((String) value);
+        } else if (value instanceof Character) {
+            this.writeByte(ExpressionBinaryFormat.CHARACTER_VALUE);
+            this.writeCount((Character) value);
+        } else if (value instanceof ExpressionNumber) {
+            final ExpressionNumber number = (ExpressionNumber) value;
+            if (number.isBigDecimal()) {
+                this.writeByte(ExpressionBinaryFormat.EXPRESSION_NUMBER_BIG_DECIMAL_VALUE);
+                this.writeString(number.bigDecimal().toString());
+            } else {
+                this.writeByte(ExpressionBinaryFormat.EXPRESSION_NUMBER_DOUBLE_VALUE);
+                this.writeDouble(number.doubleValue());
+            }
+        } else if (value instanceof Integer) {
+            this.writeByte(ExpressionBinaryFormat.INTEGER_VALUE);
+            this.writeLong((Integer) value);
+        } else if (value instanceof Long) {
+            this.writeByte(ExpressionBinaryFormat.LONG_VALUE);
+            this.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            this.writeByte(ExpressionBinaryFormat.DOUBLE_VALUE);
+            this.writeDouble((Double) value);
+        } else if (value instanceof BigDecimal) {
+            this.writeByte(ExpressionBinaryFormat.BIG_DECIMAL_VALUE);
+            this.writeString(value.toString());
+        } else if (value instanceof BigInteger) {
+            this.writeByte(ExpressionBinaryFormat.BIG_INTEGER_VALUE);
+            this.writeString(value.toString());
+        } else if (value instanceof LocalDate) {
+            this.writeByte(ExpressionBinaryFormat.LOCAL_DATE_VALUE);
+            this.writeLong(((LocalDate) value).toEpochDay());
+        } else if (value instanceof LocalDateTime) {
+            final LocalDateTime dateTime = (LocalDateTime) value;
+
+            this.writeByte(ExpressionBinaryFormat.LOCAL_DATE_TIME_VALUE);
+            this.writeLong(dateTime.toLocalDate().toEpochDay());
+            this.writeLong(dateTime.toLocalTime().toNanoOfDay());
+        } else if (value instanceof LocalTime) {
+            this.writeByte(ExpressionBinaryFormat.LOCAL_TIME_VALUE);
+            this.writeLong(((LocalTime) value).toNanoOfDay());
+        } else {
+            final ExpressionBinaryContext context = this.context;
+
+            this.writeByte(ExpressionBinaryFormat.OTHER_VALUE);
+            this.writeString(context.typeToString(value.getClass()));
+            this.writeString(context.valueToString(value));
+        }
+    }
+
+    private final ExpressionBinaryContext context;
+
+    // primitives.......................................................................................................
+
+    private void writeBoolean(final boolean value) {
+        this.writeByte(value ? 1 : 0);
+    }
+
+    /**
+     * Writes a non negative int using 7 bits per byte, with the high bit set on all but the last byte.
+     */
+    private void writeCount(final int value) {
+        int remaining = value;
+
+        while ((remaining & ~0x7F) != 0) {
+            this.writeByte((remaining & 0x7F) | 0x80);
+            remaining = remaining >>> 7;
+        }
+        this.writeByte(remaining);
+    }
+
+    /**
+     * Writes a long using zig-zag encoding so small negative values are also short, followed by 7 bits per byte.
+     */
+    private void writeLong(final long value) {
+        long remaining = (value << 1) ^ (value >> 63);
+
+        while ((remaining & ~0x7FL) != 0) {
+            this.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining = remaining >>> 7;
+        }
+        this.writeByte((int) remaining);
+    }
+
+    private void writeDouble(final double value) {
+        final long bits = Double.doubleToLongBits(value);
+
+        for (int shift = 56; shift >= 0; shift = shift - 8) {
+            this.writeByte((int) (bits >>> shift));
+        }
+    }
+
+    private void writeString(final String text) {
+        final byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        this.writeCount(utf8.length);
+
+        this.ensureCapacity(utf8.length);
+        System.arraycopy(
+            utf8,
+            0,
+            this.bytes,
+            this.length,
+            utf8.length
+        );
+        this.length += utf8.length;
+    }
+
+    private void writeByte(final int value) {
+        this.ensureCapacity(1);
+        this.bytes[this.length++] = (byte) value;
+    }
+
+    private void ensureCapacity(final int count) {
+        final int required = this.length + count;
+        if (required > this.bytes.length) {
+            this.bytes = Arrays.copyOf(
+                this.bytes,
+                Math.max(
+                    required,
+                    this.bytes.length * 2
+                )
+            );
+        }
+    }
+
+    private byte[] bytes = new byte[64];
+
+    private int length;
+
+    @Override
+    public String toString() {
+        return this.length + " byte(s)";
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.reflect.PublicStaticHelper;
+
+/**
+ * Constants shared by {@link ExpressionBinaryEncoder} and {@link ExpressionBinaryDecoder}.
+ * <br>
+ * The format begins with a {@link #VERSION} byte followed by every {@link Expression} in post order, so children are
+ * always written before their parent. Each {@link Expression} begins with one of the tag bytes below followed by any
+ * properties. Counts and lengths are written as unsigned variable length ints, other integral values as zig-zag
+ * variable length longs, doubles as their 8 byte bits, enum constants by name, and text as UTF-8.
+ */
+final class ExpressionBinaryFormat implements PublicStaticHelper {
+
+    /**
+     * The version of the format, which must be incremented whenever the format changes.
+     */
+    final static byte VERSION = 2;
+
+    // expressions......................................................................................................
+
+    final static byte VALUE = 1;
+    final static byte REFERENCE = 2;
+    final static byte NAMED_FUNCTION = 3;
+    final static byte NEGATIVE = 4;
+    final static byte NOT = 5;
+    final static byte LAMBDA_FUNCTION = 6;
+    final static byte LIST = 7;
+    final static byte CALL = 8;
+
+    final static byte ADD = 20;
+    final static byte SUBTRACT = 21;
+    final static byte MULTIPLY = 22;
+    final static byte DIVIDE = 23;
+    final static byte MODULO = 24;
+    final static byte POWER = 25;
+    final static byte AND = 26;
+    final static byte OR = 27;
+    final static byte XOR = 28;
+    final static byte EQUALS = 29;
+    final static byte NOT_EQUALS = 30;
+    final static byte GREATER_THAN = 31;
+    final static byte GREATER_THAN_EQUALS = 32;
+    final static byte LESS_THAN = 33;
+    final static byte LESS_THAN_EQUALS = 34;
+
+    // values...........................................................................................................
+
+    final static byte NULL_VALUE = 0;
+    final static byte TRUE_VALUE = 1;
+    final static byte FALSE_VALUE = 2;
+    final static byte STRING_VALUE = 3;
+    final static byte CHARACTER_VALUE = 4;
+    final static byte EXPRESSION_NUMBER_BIG_DECIMAL_VALUE = 5;
+    final static byte EXPRESSION_NUMBER_DOUBLE_VALUE = 6;
+    final static byte INTEGER_VALUE = 7;
+    final static byte LONG_VALUE = 8;
+    final static byte DOUBLE_VALUE = 9;
+    final static byte BIG_DECIMAL_VALUE = 10;
+    final static byte BIG_INTEGER_VALUE = 11;
+    final static byte LOCAL_DATE_VALUE = 12;
+    final static byte LOCAL_DATE_TIME_VALUE = 13;
+    final static byte LOCAL_TIME_VALUE = 14;
+    final static byte OTHER_VALUE = 15;
+
+    /**
+     * Stop creation
+     */
+    private ExpressionBinaryFormat() {
+        throw new UnsupportedOperationException();
+    }
+}
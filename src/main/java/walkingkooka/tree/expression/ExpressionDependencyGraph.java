@@ -0,0 +1,359 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Records which {@link ExpressionReference} each {@link Expression} reads, along with the reverse edges, so that after
+ * a few edits only the {@link Expression} that could have changed are evaluated again.
+ * <br>
+ * Each {@link Expression} is stored against the {@link ExpressionReference} that holds its value, and every
+ * {@link ReferenceExpression} within it becomes a dependency. Setting, removing or {@link #changed(ExpressionReference)}
+ * marks a reference dirty, and {@link #recalculate(ExpressionBatchEvaluator, BiConsumer)} evaluates the dirty
+ * {@link Expression} and all their transitive dependents, one level at a time, where each level only depends on earlier
+ * levels and may be evaluated in parallel.
+ * <br>
+ * Note this is mutable state and is not thread safe.
+ */
+public final class ExpressionDependencyGraph {
+
+    /**
+     * Creates a new empty {@link ExpressionDependencyGraph}.
+     */
+    public static ExpressionDependencyGraph empty() {
+        return new ExpressionDependencyGraph();
+    }
+
+    private ExpressionDependencyGraph() {
+        super();
+    }
+
+    /**
+     * Returns the {@link Expression} for the given {@link ExpressionReference} if one exists.
+     */
+    public Optional<Expression> expression(final ExpressionReference reference) {
+        Objects.requireNonNull(reference, "reference");
+
+        return Optional.ofNullable(
+            this.expressions.get(reference)
+        );
+    }
+
+    /**
+     * Sets or replaces the {@link Expression} for the given {@link ExpressionReference}, updating its dependencies and
+     * marking it dirty.
+     */
+    public void setExpression(final ExpressionReference reference,
+                              final Expression expression) {
+        Objects.requireNonNull(reference, "reference");
+        Objects.requireNonNull(expression, "expression");
+
+        this.removeDependencies(reference);
+
+        final Set<ExpressionReference> dependencies = expression.references();
+        for (final ExpressionReference dependency : dependencies) {
+            this.dependents.computeIfAbsent(
+                dependency,
+                (r) -> Sets.ordered()
+            ).add(reference);
+        }
+
+        this.expressions.put(
+            reference,
+            expression
+        );
+        this.dependencies.put(
+            reference,
+            dependencies
+        );
+        this.dirty.add(reference);
+    }
+
+    /**
+     * Removes any {@link Expression} for the given {@link ExpressionReference}, marking its dependents dirty.
+     */
+    public void removeExpression(final ExpressionReference reference) {
+        Objects.requireNonNull(reference, "reference");
+
+        if (null != this.expressions.remove(reference)) {
+            this.removeDependencies(reference);
+            this.dirty.add(reference);
+        }
+    }
+
+    private void removeDependencies(final ExpressionReference reference) {
+        final Set<ExpressionReference> previous = this.dependencies.remove(reference);
+        if (null != previous) {
+            for (final ExpressionReference dependency : previous) {
+                final Set<ExpressionReference> dependents = this.dependents.get(dependency);
+                dependents.remove(reference);
+                if (dependents.isEmpty()) {
+                    this.dependents.remove(dependency);
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the given {@link ExpressionReference} dirty, such as after its value was set directly without an
+     * {@link Expression}, so all its dependents are included in the next recalculation.
+     */
+    public void changed(final ExpressionReference reference) {
+        Objects.requireNonNull(reference, "reference");
+
+        this.dirty.add(reference);
+    }
+
+    /**
+     * Returns the {@link ExpressionReference} read by the {@link Expression} at the given {@link ExpressionReference}.
+     */
+    public Set<ExpressionReference> dependencies(final ExpressionReference reference) {
+        Objects.requireNonNull(reference, "reference");
+
+        return readOnly(
+            this.dependencies.get(reference)
+        );
+    }
+
+    /**
+     * Returns the {@link ExpressionReference} of all {@link Expression} that read the given {@link ExpressionReference}.
+     */
+    public Set<ExpressionReference> dependents(final ExpressionReference reference) {
+        Objects.requireNonNull(reference, "reference");
+
+        return readOnly(
+            this.dependents.get(reference)
+        );
+    }
+
+    private static Set<ExpressionReference> readOnly(final Set<ExpressionReference> references) {
+        return null == references ?
+            Sets.empty() :
+            Sets.readOnly(references);
+    }
+
+    /**
+     * Returns all {@link ExpressionReference} with an {@link Expression} that would be evaluated by the next
+     * {@link #recalculate(ExpressionBatchEvaluator, BiConsumer)}, in evaluation order.
+     */
+    public List<ExpressionReference> dirty() {
+        final List<ExpressionReference> dirty = Lists.array();
+        for (final List<ExpressionReference> level : this.levels()) {
+            dirty.addAll(level);
+        }
+        return Lists.readOnly(dirty);
+    }
+
+    /**
+     * Evaluates all dirty {@link Expression} and their transitive dependents, giving each value to the
+     * {@link BiConsumer} before any {@link Expression} that reads it is evaluated. The {@link ExpressionEvaluationContext}
+     * supplied to the {@link ExpressionBatchEvaluator} should resolve references to the values given to the
+     * {@link BiConsumer}. Returns the {@link ExpressionReference} that were evaluated in order.
+     * <br>
+     * If any of the {@link Expression} form a cycle a {@link CycleDetectedExpressionEvaluationConversionException} is
+     * thrown before anything is evaluated, and nothing is marked clean.
+     */
+    public List<ExpressionReference> recalculate(final ExpressionBatchEvaluator evaluator,
+                                                 final BiConsumer<ExpressionReference, Object> values) {
+        Objects.requireNonNull(evaluator, "evaluator");
+        Objects.requireNonNull(values, "values");
+
+        final List<ExpressionReference> recalculated = Lists.array();
+
+        for (final List<ExpressionReference> level : this.levels()) {
+            final List<Expression> expressions = Lists.array();
+            for (final ExpressionReference reference : level) {
+                expressions.add(
+                    this.expressions.get(reference)
+                );
+            }
+
+            final List<Object> levelValues = evaluator.evaluate(expressions);
+
+            final int count = level.size();
+            for (int i = 0; i < count; i++) {
+                final ExpressionReference reference = level.get(i);
+                values.accept(
+                    reference,
+                    levelValues.get(i)
+                );
+                recalculated.add(reference);
+            }
+        }
+
+        this.dirty.clear();
+
+        return Lists.readOnly(recalculated);
+    }
+
+    /**
+     * Finds the dirty {@link Expression} and their transitive dependents and groups them into levels, where each
+     * {@link Expression} only reads values from earlier levels.
+     */
+    private List<List<ExpressionReference>> levels() {
+        final Map<ExpressionReference, Expression> expressions = this.expressions;
+
+        // dirty closure, only references with an expression are evaluated
+        final Set<ExpressionReference> closure = Sets.ordered();
+        final List<ExpressionReference> pending = Lists.array();
+        pending.addAll(this.dirty);
+
+        for (int i = 0; i < pending.size(); i++) {
+            final ExpressionReference reference = pending.get(i);
+
+            // a reference without an expression is only a source of dirtiness
+            if (expressions.containsKey(reference) && false == closure.add(reference)) {
+                continue;
+            }
+
+            final Set<ExpressionReference> dependents = this.dependents.get(reference);
+            if (null != dependents) {
+                for (final ExpressionReference dependent : dependents) {
+                    if (false == closure.contains(dependent)) {
+                        pending.add(dependent);
+                    }
+                }
+            }
+        }
+
+        // count dependencies within the closure, those outside are already calculated
+        final Map<ExpressionReference, Integer> remaining = Maps.hash();
+        List<ExpressionReference> level = Lists.array();
+
+        for (final ExpressionReference reference : closure) {
+            int count = 0;
+            for (final ExpressionReference dependency : this.dependencies.get(reference)) {
+                if (closure.contains(dependency)) {
+                    count++;
+                }
+            }
+
+            if (0 == count) {
+                level.add(reference);
+            } else {
+                remaining.put(
+                    reference,
+                    count
+                );
+            }
+        }
+
+        final List<List<ExpressionReference>> levels = Lists.array();
+
+        while (false == level.isEmpty()) {
+            levels.add(level);
+
+            final List<ExpressionReference> next = Lists.array();
+            for (final ExpressionReference reference : level) {
+                final Set<ExpressionReference> dependents = this.dependents.get(reference);
+                if (null != dependents) {
+                    for (final ExpressionReference dependent : dependents) {
+                        final Integer count = remaining.get(dependent);
+                        if (null != count) {
+                            if (1 == count) {
+                                remaining.remove(dependent);
+                                next.add(dependent);
+                            } else {
+                                remaining.put(
+                                    dependent,
+                                    count - 1
+                                );
+                            }
+                        }
+                    }
+                }
+            }
+            level = next;
+        }
+
+        if (false == remaining.isEmpty()) {
+            reportCycle(
+                this.cycle(
+                    remaining.keySet()
+                )
+            );
+        }
+
+        return levels;
+    }
+
+    /**
+     * Every {@link ExpressionReference} left after levelling reads at least one other left over, so following those
+     * dependencies must eventually return to an {@link ExpressionReference} on the cycle.
+     */
+    private ExpressionReference cycle(final Collection<ExpressionReference> remaining) {
+        final Set<ExpressionReference> visited = Sets.ordered();
+
+        ExpressionReference reference = remaining.iterator()
+            .next();
+        while (visited.add(reference)) {
+            for (final ExpressionReference dependency : this.dependencies.get(reference)) {
+                if (remaining.contains(dependency)) {
+                    reference = dependency;
+                    break;
+                }
+            }
+        }
+
+        return reference;
+    }
+
+    /**
+     * Reports a cycle for a given {@link ExpressionReference} matching {@link CycleDetectingExpressionEvaluationContext}.
+     */
+    private static void reportCycle(final ExpressionReference reference) {
+        throw new CycleDetectedExpressionEvaluationConversionException("Cycle detected to " + reference, reference);
+    }
+
+    /**
+     * The {@link Expression} for each {@link ExpressionReference}.
+     */
+    private final Map<ExpressionReference, Expression> expressions = Maps.hash();
+
+    /**
+     * The forward edges, holding the {@link ExpressionReference} read by each {@link Expression}.
+     */
+    private final Map<ExpressionReference, Set<ExpressionReference>> dependencies = Maps.hash();
+
+    /**
+     * The reverse edges, holding the {@link ExpressionReference} of each {@link Expression} reading a reference.
+     */
+    private final Map<ExpressionReference, Set<ExpressionReference>> dependents = Maps.hash();
+
+    /**
+     * {@link ExpressionReference} that were set, removed or changed since the last recalculation.
+     */
+    private final Set<ExpressionReference> dirty = Sets.ordered();
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.expressions.toString();
+    }
+}
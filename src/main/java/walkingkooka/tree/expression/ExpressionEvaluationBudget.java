@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the work performed by an evaluation, counting steps and depth, and giving up once a deadline passes or
+ * it is cancelled. Contexts such as {@link ExpressionEvaluationContexts#budget(ExpressionEvaluationBudget, ExpressionEvaluationContext)}
+ * call {@link #step()}, {@link #enter()} and {@link #exit()} for each expression evaluated, function called or
+ * reference resolved through them, rather than for every {@link Expression} node, and any limit that is exceeded throws
+ * a {@link ExpressionEvaluationBudgetExceededException}.
+ * <br>
+ * The clock and cancel flag are only read every {@link #CHECK_INTERVAL} steps, keeping each step cheap.
+ * <br>
+ * Steps and depth are plain counters tracking a single call stack, so a budget must not be shared by the workers of a
+ * {@link ExpressionBatchEvaluator}, instead its context {@link java.util.function.Supplier} should create a new budget
+ * for each context it returns.
+ */
+public final class ExpressionEvaluationBudget {
+
+    /**
+     * Constant for no step or depth limit.
+     */
+    public final static long UNLIMITED = Long.MAX_VALUE;
+
+    /**
+     * Constant for no deadline.
+     */
+    public final static long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * The number of steps between reads of the clock and cancel flag, which must be a power of two.
+     */
+    public final static int CHECK_INTERVAL = 256;
+
+    /**
+     * Creates a new {@link ExpressionEvaluationBudget}. The deadline is compared against the given clock, which would
+     * typically be {@link System#currentTimeMillis()}.
+     */
+    public static ExpressionEvaluationBudget with(final long maxSteps,
+                                                  final long maxDepth,
+                                                  final long deadline,
+                                                  final LongSupplier clock,
+                                                  final BooleanSupplier cancelled) {
+        if (maxSteps < 0) {
+            throw new IllegalArgumentException("Invalid maxSteps " + maxSteps + " < 0");
+        }
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Invalid maxDepth " + maxDepth + " < 0");
+        }
+        Objects.requireNonNull(clock, "clock");
+        Objects.requireNonNull(cancelled, "cancelled");
+
+        return new ExpressionEvaluationBudget(
+            maxSteps,
+            maxDepth,
+            deadline,
+            clock,
+            cancelled
+        );
+    }
+
+    private ExpressionEvaluationBudget(final long maxSteps,
+                                       final long maxDepth,
+                                       final long deadline,
+                                       final LongSupplier clock,
+                                       final BooleanSupplier cancelled) {
+        this.maxSteps = maxSteps;
+        this.maxDepth = maxDepth;
+        this.deadline = deadline;
+        this.clock = clock;
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * Counts a single unit of work, failing if there are no steps left, the deadline has passed or the budget was cancelled.
+     */
+    public void step() {
+        final long steps = this.steps;
+        if (steps >= this.maxSteps) {
+            throw new ExpressionEvaluationBudgetExceededException("Exceeded max steps " + this.maxSteps);
+        }
+        this.steps = steps + 1;
+
+        if (0 == (steps & (CHECK_INTERVAL - 1))) {
+            this.checkDeadlineAndCancelled();
+        }
+    }
+
+    private void checkDeadlineAndCancelled() {
+        if (this.cancelled.getAsBoolean()) {
+            throw new ExpressionEvaluationBudgetExceededException("Cancelled");
+        }
+
+        final long deadline = this.deadline;
+        if (NO_DEADLINE != deadline && this.clock.getAsLong() >= deadline) {
+            throw new ExpressionEvaluationBudgetExceededException("Deadline passed");
+        }
+    }
+
+    /**
+     * Enters a nested evaluation, failing if the max depth would be exceeded. Each {@link #enter()} must be followed
+     * by a {@link #exit()}, typically within a finally block.
+     */
+    public void enter() {
+        final long depth = this.depth;
+        if (depth >= this.maxDepth) {
+            throw new ExpressionEvaluationBudgetExceededException("Exceeded max depth " + this.maxDepth);
+        }
+        this.depth = depth + 1;
+    }
+
+    /**
+     * Leaves a nested evaluation previously entered with {@link #enter()}.
+     */
+    public void exit() {
+        final long depth = this.depth;
+        if (0 == depth) {
+            throw new IllegalStateException("Exit without enter");
+        }
+        this.depth = depth - 1;
+    }
+
+    /**
+     * The number of steps taken so far.
+     */
+    public long steps() {
+        return this.steps;
+    }
+
+    private long steps;
+
+    private final long maxSteps;
+
+    /**
+     * The current depth.
+     */
+    public long depth() {
+        return this.depth;
+    }
+
+    private long depth;
+
+    private final long maxDepth;
+
+    private final long deadline;
+
+    private final LongSupplier clock;
+
+    private final BooleanSupplier cancelled;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return "steps=" + this.steps + "/" + this.maxSteps +
+            " depth=" + this.depth + "/" + this.maxDepth +
+            (NO_DEADLINE == this.deadline ? "" : " deadline=" + this.deadline);
+    }
+}
@@ -20,6 +20,7 @@ package walkingkooka.tree.expression;
 import walkingkooka.Cast;
 import walkingkooka.Context;
 import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
 import walkingkooka.environment.EnvironmentContext;
 import walkingkooka.locale.LocaleContext;
 import walkingkooka.text.CaseSensitivity;
@@ -31,11 +32,12 @@ import walkingkooka.tree.expression.function.ExpressionFunctions;
 import walkingkooka.tree.expression.function.HasExpressionFunction;
 import walkingkooka.tree.expression.function.InvalidExpressionFunctionParameterCountException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
-import java.util.function.Supplier;
 
 /**
  * A {@link Context} that travels during any expression evaluation.
@@ -211,6 +213,51 @@ public interface ExpressionEvaluationContext extends CanEvaluateExpression,
      */
     Optional<Optional<Object>> reference(final ExpressionReference reference);
 
+    /**
+     * Locates the values for many {@link ExpressionReference} at once, returning the same value as
+     * {@link #reference(ExpressionReference)} for each. The default calls {@link #reference(ExpressionReference)} for each,
+     * implementations backed by a remote or slow store should override and fetch all in a single batch.
+     * See {@link ExpressionEvaluationContexts#prefetched(Collection, ExpressionEvaluationContext)}.
+     */
+    default Map<ExpressionReference, Optional<Optional<Object>>> references(final Collection<ExpressionReference> references) {
+        Objects.requireNonNull(references, "references");
+
+        final Map<ExpressionReference, Optional<Optional<Object>>> values = Maps.hash();
+        for (final ExpressionReference reference : references) {
+            values.put(
+                reference,
+                this.reference(reference)
+            );
+        }
+        return values;
+    }
+
+    /**
+     * A sentinel returned by {@link #referenceOrMissing(ExpressionReference)} when the reference was not found.
+     */
+    Object REFERENCE_MISSING = ExpressionEvaluationContextReferenceMissing.INSTANCE;
+
+    /**
+     * Locates the value for the given {@link ExpressionReference} without wrapping it in any {@link Optional}.
+     * <pre>
+     *  var missingReference = REFERENCE_MISSING;
+     *
+     *  var referencePresentButNullValue = null;
+     *
+     *  var referenceWithValue = 123;
+     * </pre>
+     * The default adapts {@link #reference(ExpressionReference)}, implementations that resolve references on a hot
+     * path should override both methods and keep them consistent.
+     */
+    default Object referenceOrMissing(final ExpressionReference reference) {
+        final Optional<Optional<Object>> value = this.reference(reference);
+
+        return value.isPresent() ?
+            value.get()
+                .orElse(null) :
+            REFERENCE_MISSING;
+    }
+
     /**
      * Locates the value for the given {@link ExpressionReference} or throws a
      * {@link ExpressionEvaluationReferenceException}.
@@ -219,10 +266,10 @@ public interface ExpressionEvaluationContext extends CanEvaluateExpression,
         Object result;
 
         try {
-            final Supplier<ExpressionEvaluationException> thrower = () -> this.referenceNotFound(reference);
-            result = this.reference(reference)
-                .orElseThrow(thrower)
-                .orElseThrow(thrower);
+            result = this.referenceOrMissing(reference);
+            if (REFERENCE_MISSING == result || null == result) {
+                throw this.referenceNotFound(reference);
+            }
         } catch (final UnsupportedOperationException rethrow) {
             throw rethrow;
         } catch (final RuntimeException exception) {
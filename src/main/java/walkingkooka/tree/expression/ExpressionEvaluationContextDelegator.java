@@ -35,13 +35,16 @@ import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
 
 import java.nio.charset.Charset;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.function.Function;
 
 /**
  * Delegates all {@link ExpressionEvaluationContext} except for {@link #reference(ExpressionReference)} and
- * {@link #enterScope(Function)}.
+ * {@link #enterScope(Function)}. {@link #references(Collection)} is also not delegated and calls
+ * {@link #reference(ExpressionReference)} for each, implementations that simply pass every
+ * {@link #reference(ExpressionReference)} to the wrapped context may override and forward the whole batch.
  */
 public interface ExpressionEvaluationContextDelegator extends ExpressionEvaluationContext,
     CanEvaluateStringDelegator,
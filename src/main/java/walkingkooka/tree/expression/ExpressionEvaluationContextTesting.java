@@ -109,6 +109,25 @@ public interface ExpressionEvaluationContextTesting extends
             context.reference(reference),
             () -> "reference " + reference
         );
+
+        this.referenceOrMissingAndCheck(
+            context,
+            reference,
+            expected.isPresent() ?
+                expected.get()
+                    .orElse(null) :
+                ExpressionEvaluationContext.REFERENCE_MISSING
+        );
+    }
+
+    default void referenceOrMissingAndCheck(final ExpressionEvaluationContext context,
+                                            final ExpressionReference reference,
+                                            final Object expected) {
+        this.checkEquals(
+            expected,
+            context.referenceOrMissing(reference),
+            () -> "referenceOrMissing " + reference
+        );
     }
 
     default void referenceFails(final ExpressionEvaluationContext context,
@@ -24,9 +24,11 @@ import walkingkooka.reflect.PublicStaticHelper;
 import walkingkooka.text.CaseSensitivity;
 import walkingkooka.tree.expression.function.ExpressionFunction;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 public final class ExpressionEvaluationContexts implements PublicStaticHelper {
 
@@ -57,6 +59,17 @@ public final class ExpressionEvaluationContexts implements PublicStaticHelper {
         );
     }
 
+    /**
+     * {@see BudgetExpressionEvaluationContext}
+     */
+    public static ExpressionEvaluationContext budget(final ExpressionEvaluationBudget budget,
+                                                     final ExpressionEvaluationContext context) {
+        return BudgetExpressionEvaluationContext.with(
+            budget,
+            context
+        );
+    }
+
     /**
      * {@see CycleDetectingExpressionEvaluationContext}
      */
@@ -81,6 +94,41 @@ public final class ExpressionEvaluationContexts implements PublicStaticHelper {
         );
     }
 
+    /**
+     * {@see MetricsExpressionEvaluationContext}
+     */
+    public static ExpressionEvaluationContext metrics(final ExpressionEvaluationMetrics metrics,
+                                                      final LongSupplier clock,
+                                                      final ExpressionEvaluationContext context) {
+        return MetricsExpressionEvaluationContext.with(
+            metrics,
+            clock,
+            context
+        );
+    }
+
+    /**
+     * {@see PrefetchedExpressionEvaluationContext}
+     */
+    public static ExpressionEvaluationContext prefetched(final Collection<Expression> expressions,
+                                                         final ExpressionEvaluationContext context) {
+        return PrefetchedExpressionEvaluationContext.with(
+            expressions,
+            context
+        );
+    }
+
+    /**
+     * {@see ProfilingExpressionEvaluationContext}
+     */
+    public static ExpressionEvaluationContext profiling(final ExpressionEvaluationProfiler profiler,
+                                                        final ExpressionEvaluationContext context) {
+        return ProfilingExpressionEvaluationContext.with(
+            profiler,
+            context
+        );
+    }
+
     /**
      * {@see ScopedExpressionEvaluationContext}
      */
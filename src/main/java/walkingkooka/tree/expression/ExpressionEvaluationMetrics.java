@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.Optional;
+
+/**
+ * Receives counts and times from an {@link ExpressionEvaluationContext} created by
+ * {@link ExpressionEvaluationContexts#metrics(ExpressionEvaluationMetrics, java.util.function.LongSupplier, ExpressionEvaluationContext)}.
+ * Implementations would typically forward to counters and timers of a metrics library, tagged by function name or
+ * target type.
+ */
+public interface ExpressionEvaluationMetrics {
+
+    /**
+     * Records a single call to {@link ExpressionEvaluationContext#evaluateFunction(ExpressionFunction, java.util.List)},
+     * with failed true if it threw, even when {@link ExpressionEvaluationContext#handleException(RuntimeException)}
+     * then turned the exception into a value.
+     */
+    void function(final Optional<ExpressionFunctionName> name,
+                  final long nanos,
+                  final boolean failed);
+
+    /**
+     * Records a conversion attempt to the given type, with failed true if the value could not be converted.
+     */
+    void conversion(final Class<?> target,
+                    final boolean failed);
+
+    /**
+     * Records an exception given to {@link ExpressionEvaluationContext#handleException(RuntimeException)}.
+     */
+    void exception(final RuntimeException exception);
+}
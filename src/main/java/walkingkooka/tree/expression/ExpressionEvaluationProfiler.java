@@ -0,0 +1,264 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.collect.stack.Stack;
+import walkingkooka.collect.stack.Stacks;
+import walkingkooka.text.printer.IndentingPrinter;
+import walkingkooka.text.printer.TreePrintable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Records a call tree of {@link Expression}, function calls and reference lookups along with their counts and times,
+ * when used with {@link ExpressionEvaluationContexts#profiling(ExpressionEvaluationProfiler, ExpressionEvaluationContext)}.
+ * Nothing is recorded and nothing is slowed down unless a context is wrapped. A function that calls itself directly
+ * is folded into the frame of the outermost call, while any other recursion records one frame per call path.
+ * <br>
+ * The result may be printed with {@link #printTree(IndentingPrinter)}, summed for each function with
+ * {@link #functions()}, or written in the folded stack format read by flame graph tools with {@link #folded()}.
+ * <br>
+ * Frames are pushed and popped on a single stack as calls enter and exit, so each worker of a
+ * {@link ExpressionBatchEvaluator} needs its own profiler, with the results of each printed or summed separately.
+ */
+public final class ExpressionEvaluationProfiler implements TreePrintable {
+
+    /**
+     * Creates a new {@link ExpressionEvaluationProfiler} using the given clock, which would typically be {@link System#nanoTime()}.
+     */
+    public static ExpressionEvaluationProfiler with(final LongSupplier clock) {
+        Objects.requireNonNull(clock, "clock");
+
+        return new ExpressionEvaluationProfiler(clock);
+    }
+
+    private ExpressionEvaluationProfiler(final LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Enters a new frame as a child of the current frame, unless the current frame has the same key, which happens when
+     * a function calls itself directly, in which case the current frame is entered again so the call tree does not
+     * grow with the depth of the recursion. All other recursion records a frame for each call path, so the time of a
+     * child is only ever subtracted once from its parent.
+     * The key is either an {@link Expression}, which is matched by identity, or any other value which is matched by
+     * equality, see {@link ExpressionEvaluationProfilerFrame#label()}.
+     */
+    void enter(final Object key,
+               final Optional<ExpressionFunctionName> function) {
+        final Stack<ExpressionEvaluationProfilerFrame> frames = this.frames;
+
+        final ExpressionEvaluationProfilerFrame frame;
+        if (frames.isEmpty()) {
+            frame = this.root.child(
+                key,
+                function
+            );
+        } else {
+            final ExpressionEvaluationProfilerFrame parent = frames.peek();
+            frame = parent.isKey(key) ?
+                parent :
+                parent.child(
+                    key,
+                    function
+                );
+        }
+        frame.active++;
+
+        frames.push(frame);
+        this.starts.push(
+            this.clock.getAsLong()
+        );
+    }
+
+    /**
+     * Leaves the current frame, adding the elapsed time if this was its outermost entry, as the time of any recursive
+     * entries is already included.
+     */
+    void exit() {
+        final long now = this.clock.getAsLong();
+
+        final ExpressionEvaluationProfilerFrame frame = this.frames.pop();
+        final long elapsed = now - this.starts.pop();
+
+        frame.active--;
+        if (0 == frame.active) {
+            frame.add(elapsed);
+        } else {
+            frame.add(
+                1,
+                0
+            );
+        }
+    }
+
+    private final LongSupplier clock;
+
+    private final Stack<ExpressionEvaluationProfilerFrame> frames = Stacks.arrayList();
+
+    private final Stack<Long> starts = Stacks.arrayList();
+
+    /**
+     * The top level frames in the order they were first entered.
+     */
+    public List<ExpressionEvaluationProfilerFrame> frames() {
+        return this.root.children();
+    }
+
+    /**
+     * Container for the top level frames, which is never entered.
+     */
+    private final ExpressionEvaluationProfilerFrame root = ExpressionEvaluationProfilerFrame.with(
+        "",
+        Optional.empty()
+    );
+
+    /**
+     * Sums the counts and times of each function wherever it was called. Recursive calls are counted but their time
+     * is only added once, from the outermost call.
+     */
+    public Map<ExpressionFunctionName, ExpressionEvaluationProfilerFrame> functions() {
+        final Map<ExpressionFunctionName, ExpressionEvaluationProfilerFrame> functions = Maps.sorted();
+
+        for (final ExpressionEvaluationProfilerFrame frame : this.frames()) {
+            functions(
+                frame,
+                Sets.empty(),
+                functions
+            );
+        }
+
+        return Maps.readOnly(functions);
+    }
+
+    private static void functions(final ExpressionEvaluationProfilerFrame frame,
+                                  final Set<ExpressionFunctionName> active,
+                                  final Map<ExpressionFunctionName, ExpressionEvaluationProfilerFrame> functions) {
+        Set<ExpressionFunctionName> childActive = active;
+
+        final Optional<ExpressionFunctionName> maybeFunction = frame.function();
+        if (maybeFunction.isPresent()) {
+            final ExpressionFunctionName function = maybeFunction.get();
+
+            ExpressionEvaluationProfilerFrame sum = functions.get(function);
+            if (null == sum) {
+                sum = ExpressionEvaluationProfilerFrame.with(
+                    frame.label(),
+                    maybeFunction
+                );
+                functions.put(
+                    function,
+                    sum
+                );
+            }
+
+            // recursive calls are already included in the time of the outer call
+            final boolean recursive = active.contains(function);
+            sum.add(
+                frame.count(),
+                recursive ?
+                    0 :
+                    frame.nanos()
+            );
+            if (false == recursive) {
+                childActive = Sets.ordered();
+                childActive.addAll(active);
+                childActive.add(function);
+            }
+        }
+
+        for (final ExpressionEvaluationProfilerFrame child : frame.children()) {
+            functions(
+                child,
+                childActive,
+                functions
+            );
+        }
+    }
+
+    /**
+     * Returns each call path, with frame labels separated by semicolons followed by the self time, one per line.
+     * This is the format read by flamegraph.pl and similar tools.
+     */
+    public String folded() {
+        final StringBuilder b = new StringBuilder();
+
+        for (final ExpressionEvaluationProfilerFrame frame : this.frames()) {
+            folded(
+                frame,
+                "",
+                b
+            );
+        }
+
+        return b.toString();
+    }
+
+    private static void folded(final ExpressionEvaluationProfilerFrame frame,
+                               final String parent,
+                               final StringBuilder b) {
+        final String path = parent.isEmpty() ?
+            foldedLabel(frame) :
+            parent + ';' + foldedLabel(frame);
+
+        b.append(path)
+            .append(' ')
+            .append(frame.selfNanos())
+            .append('\n');
+
+        for (final ExpressionEvaluationProfilerFrame child : frame.children()) {
+            folded(
+                child,
+                path,
+                b
+            );
+        }
+    }
+
+    /**
+     * Semicolons separate frames and the last space separates the time, so both are replaced.
+     */
+    private static String foldedLabel(final ExpressionEvaluationProfilerFrame frame) {
+        return frame.label()
+            .replace(';', ',')
+            .replace(' ', '_')
+            .replace('\n', '_');
+    }
+
+    // TreePrintable....................................................................................................
+
+    @Override
+    public void printTree(final IndentingPrinter printer) {
+        for (final ExpressionEvaluationProfilerFrame frame : this.frames()) {
+            frame.printTree(printer);
+        }
+    }
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.frames().toString();
+    }
+}
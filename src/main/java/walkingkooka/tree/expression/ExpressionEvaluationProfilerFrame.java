@@ -0,0 +1,217 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.text.printer.IndentingPrinter;
+import walkingkooka.text.printer.TreePrintable;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A single entry within a call tree recorded by a {@link ExpressionEvaluationProfiler}, holding the number of times
+ * it was entered from the same parent and the total time spent within, including its children.
+ */
+public final class ExpressionEvaluationProfilerFrame implements TreePrintable {
+
+    static ExpressionEvaluationProfilerFrame with(final Object key,
+                                                  final Optional<ExpressionFunctionName> function) {
+        return new ExpressionEvaluationProfilerFrame(
+            key,
+            function
+        );
+    }
+
+    private ExpressionEvaluationProfilerFrame(final Object key,
+                                              final Optional<ExpressionFunctionName> function) {
+        this.key = key;
+        this.function = function;
+    }
+
+    /**
+     * The function name or reference that was profiled, or for an {@link Expression} its type followed by its
+     * position within its root, eg <code>AddExpression /1/0</code>. The label is only computed when first requested.
+     */
+    public String label() {
+        if (null == this.label) {
+            final Object key = this.key;
+            this.label = key instanceof Expression ?
+                expressionLabel((Expression) key) :
+                key.toString();
+        }
+        return this.label;
+    }
+
+    private static String expressionLabel(final Expression expression) {
+        final StringBuilder path = new StringBuilder();
+
+        Expression child = expression;
+        for (; ; ) {
+            final Optional<Expression> parent = child.parent();
+            if (false == parent.isPresent()) {
+                break;
+            }
+            path.insert(
+                0,
+                "/" + child.index()
+            );
+            child = parent.get();
+        }
+
+        return expression.getClass().getSimpleName() +
+            " " +
+            (0 == path.length() ? "/" : path);
+    }
+
+    private String label;
+
+    /**
+     * Tests if this frame was created for the given key, an {@link Expression} is only matched by identity.
+     */
+    boolean isKey(final Object key) {
+        return key instanceof Expression ?
+            this.key == key :
+            this.key.equals(key);
+    }
+
+    private final Object key;
+
+    /**
+     * The {@link ExpressionFunctionName} if this frame records a function call.
+     */
+    public Optional<ExpressionFunctionName> function() {
+        return this.function;
+    }
+
+    private final Optional<ExpressionFunctionName> function;
+
+    /**
+     * The number of times this frame was entered.
+     */
+    public long count() {
+        return this.count;
+    }
+
+    private long count;
+
+    /**
+     * The total time including all children.
+     */
+    public long nanos() {
+        return this.nanos;
+    }
+
+    private long nanos;
+
+    /**
+     * The number of times this frame has been entered and not yet exited, which is only greater than one during
+     * recursion.
+     */
+    int active;
+
+    /**
+     * The time spent within this frame, excluding any children.
+     */
+    public long selfNanos() {
+        long self = this.nanos;
+        for (final ExpressionEvaluationProfilerFrame child : this.children) {
+            self -= child.nanos;
+        }
+        return self;
+    }
+
+    void add(final long nanos) {
+        this.add(
+            1,
+            nanos
+        );
+    }
+
+    void add(final long count,
+             final long nanos) {
+        this.count += count;
+        this.nanos += nanos;
+    }
+
+    /**
+     * Children in the order they were first entered.
+     */
+    public List<ExpressionEvaluationProfilerFrame> children() {
+        return Lists.readOnly(this.children);
+    }
+
+    /**
+     * Finds or creates the child with the given key, see {@link #isKey(Object)}.
+     */
+    ExpressionEvaluationProfilerFrame child(final Object key,
+                                            final Optional<ExpressionFunctionName> function) {
+        final Map<Object, ExpressionEvaluationProfilerFrame> keyToChild = key instanceof Expression ?
+            this.expressionToChild :
+            this.keyToChild;
+
+        ExpressionEvaluationProfilerFrame child = keyToChild.get(key);
+        if (null == child) {
+            child = with(
+                key,
+                function
+            );
+            keyToChild.put(
+                key,
+                child
+            );
+            this.children.add(child);
+        }
+        return child;
+    }
+
+    private final List<ExpressionEvaluationProfilerFrame> children = Lists.array();
+
+    private final Map<Object, ExpressionEvaluationProfilerFrame> keyToChild = Maps.hash();
+
+    /**
+     * {@link Expression} equality compares children and not position, so different positions holding equal
+     * {@link Expression} would otherwise share a frame.
+     */
+    private final Map<Object, ExpressionEvaluationProfilerFrame> expressionToChild = new IdentityHashMap<>();
+
+    // TreePrintable....................................................................................................
+
+    @Override
+    public void printTree(final IndentingPrinter printer) {
+        printer.println(this.toString());
+
+        printer.indent();
+        for (final ExpressionEvaluationProfilerFrame child : this.children) {
+            child.printTree(printer);
+        }
+        printer.outdent();
+    }
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.label() +
+            " count=" + this.count +
+            " nanos=" + this.nanos +
+            " self=" + this.selfNanos();
+    }
+}
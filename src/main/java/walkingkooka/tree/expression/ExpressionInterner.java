@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import walkingkooka.Cast;
+import walkingkooka.collect.map.Maps;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Hash-conses root {@link Expression expressions}, so equal formulas, for example the same formula shared by many cells,
+ * share a single instance. Only roots are interned, because a child {@link Expression} always points back to its
+ * own parent and therefore cannot be shared between trees.
+ * <br>
+ * Lookups are cheap because {@link Expression#hashCode()} is cached and unequal hash codes fail
+ * {@link Expression#equals(Object)} without walking either tree.
+ * <br>
+ * Instances are not thread safe.
+ */
+public final class ExpressionInterner {
+
+    /**
+     * Creates a new empty {@link ExpressionInterner}.
+     */
+    public static ExpressionInterner empty() {
+        return new ExpressionInterner();
+    }
+
+    private ExpressionInterner() {
+        super();
+    }
+
+    /**
+     * Returns the canonical root equal to the given {@link Expression}, removing any parent first. The first
+     * {@link Expression} seen becomes the canonical instance.
+     */
+    public <E extends Expression> E intern(final E expression) {
+        Objects.requireNonNull(expression, "expression");
+
+        final Expression root = expression.removeParent0();
+        final Expression canonical = this.expressions.get(root);
+        final Expression result;
+        if (null != canonical) {
+            result = canonical;
+        } else {
+            this.expressions.put(root, root);
+            result = root;
+        }
+        return Cast.to(result);
+    }
+
+    /**
+     * Returns the number of unique {@link Expression expressions} interned.
+     */
+    public int size() {
+        return this.expressions.size();
+    }
+
+    private final Map<Expression, Expression> expressions = Maps.hash();
+
+    @Override
+    public String toString() {
+        return this.expressions.keySet().toString();
+    }
+}
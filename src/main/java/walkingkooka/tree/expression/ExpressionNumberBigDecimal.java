@@ -36,7 +36,40 @@ final class ExpressionNumberBigDecimal extends ExpressionNumber {
 
     static ExpressionNumberBigDecimal withBigDecimal(final BigDecimal value) {
         Objects.requireNonNull(value, "value");
-        return new ExpressionNumberBigDecimal(value);
+
+        final ExpressionNumberBigDecimal cached = cached(value);
+        return null != cached ?
+            cached :
+            new ExpressionNumberBigDecimal(value);
+    }
+
+    /**
+     * Returns the interned instance for small integral values with a scale of zero, otherwise returns null.
+     * Values with any other scale are never interned, because the scale is visible via {@link #value()} and {@link #hashCode()}.
+     */
+    private static ExpressionNumberBigDecimal cached(final BigDecimal value) {
+        ExpressionNumberBigDecimal cached = null;
+
+        if (0 == value.scale() && value.compareTo(CACHE_MIN_BIG_DECIMAL) >= 0 && value.compareTo(CACHE_MAX_BIG_DECIMAL) <= 0) {
+            cached = CACHE[value.intValue() - ExpressionNumberDouble.CACHE_MIN];
+        }
+
+        return cached;
+    }
+
+    private final static BigDecimal CACHE_MIN_BIG_DECIMAL = BigDecimal.valueOf(ExpressionNumberDouble.CACHE_MIN);
+
+    private final static BigDecimal CACHE_MAX_BIG_DECIMAL = BigDecimal.valueOf(ExpressionNumberDouble.CACHE_MAX);
+
+    /**
+     * Cache of small integral values, using the same range as {@link ExpressionNumberDouble}.
+     */
+    private final static ExpressionNumberBigDecimal[] CACHE = new ExpressionNumberBigDecimal[ExpressionNumberDouble.CACHE_MAX - ExpressionNumberDouble.CACHE_MIN + 1];
+
+    static {
+        for (int i = ExpressionNumberDouble.CACHE_MIN; i <= ExpressionNumberDouble.CACHE_MAX; i++) {
+            CACHE[i - ExpressionNumberDouble.CACHE_MIN] = new ExpressionNumberBigDecimal(BigDecimal.valueOf(i));
+        }
     }
 
     private ExpressionNumberBigDecimal(final BigDecimal value) {
@@ -398,7 +431,7 @@ final class ExpressionNumberBigDecimal extends ExpressionNumber {
     ExpressionNumber setValue(final BigDecimal value) {
         return this.equalsValue(value) ?
             this :
-            new ExpressionNumberBigDecimal(value);
+            withBigDecimal(value);
     }
 
     final BigDecimal value;
@@ -32,7 +32,33 @@ final class ExpressionNumberDouble extends ExpressionNumber {
     private static final long serialVersionUID = 0L;
 
     static ExpressionNumberDouble withDouble(final double value) {
-        return new ExpressionNumberDouble(value);
+        final int intValue = (int) value;
+
+        return intValue == value && intValue >= CACHE_MIN && intValue <= CACHE_MAX && (0 != intValue || 1 / value > 0) ?
+            CACHE[intValue - CACHE_MIN] :
+            new ExpressionNumberDouble(value);
+    }
+
+    /**
+     * The smallest integral value that is interned.
+     */
+    final static int CACHE_MIN = -128;
+
+    /**
+     * The largest integral value that is interned.
+     */
+    final static int CACHE_MAX = 1024;
+
+    /**
+     * Cache of small integral values, shared by counters, flags and other common results. Note negative zero is never
+     * interned so its sign is preserved.
+     */
+    private final static ExpressionNumberDouble[] CACHE = new ExpressionNumberDouble[CACHE_MAX - CACHE_MIN + 1];
+
+    static {
+        for (int i = CACHE_MIN; i <= CACHE_MAX; i++) {
+            CACHE[i - CACHE_MIN] = new ExpressionNumberDouble(i);
+        }
     }
 
     private ExpressionNumberDouble(final double value) {
@@ -355,7 +381,7 @@ final class ExpressionNumberDouble extends ExpressionNumber {
     private ExpressionNumber setValue(final double value) {
         return this.value == value ?
             this :
-            new ExpressionNumberDouble(value);
+            withDouble(value);
     }
 
     private final double value;
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.collect.set.Sets;
+
+import java.util.Set;
+
+/**
+ * Collects the unique {@link ExpressionReference} within an {@link Expression}.
+ */
+final class ExpressionReferencesExpressionVisitor extends ExpressionVisitor {
+
+    static Set<ExpressionReference> references(final Expression expression) {
+        final ExpressionReferencesExpressionVisitor visitor = new ExpressionReferencesExpressionVisitor();
+        visitor.accept(expression);
+        return visitor.references;
+    }
+
+    // @VisibleForTesting
+    ExpressionReferencesExpressionVisitor() {
+        super();
+    }
+
+    @Override
+    protected void visit(final ReferenceExpression node) {
+        this.references.add(
+            node.value()
+        );
+    }
+
+    private final Set<ExpressionReference> references = Sets.ordered();
+
+    @Override
+    public String toString() {
+        return this.references.toString();
+    }
+}
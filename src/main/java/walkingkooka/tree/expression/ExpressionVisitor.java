@@ -17,6 +17,8 @@
 
 package walkingkooka.tree.expression;
 
+import walkingkooka.collect.stack.Stack;
+import walkingkooka.collect.stack.Stacks;
 import walkingkooka.visit.Visiting;
 import walkingkooka.visit.Visitor;
 
@@ -29,16 +31,71 @@ public abstract class ExpressionVisitor extends Visitor<Expression> {
 
     // Expression.......................................................................................................
 
+    /**
+     * Chains of {@link BinaryExpression} such as <code>a+b+c+...</code> are visited using an explicit stack rather than
+     * recursion, giving the same sequence of startVisit and endVisit calls. All other {@link Expression} are visited
+     * without allocating anything.
+     */
     @Override
     public final void accept(final Expression node) {
         Objects.requireNonNull(node, "node");
 
-        if (Visiting.CONTINUE == this.startVisit(node)) {
-            node.accept(this);
+        if (node instanceof BinaryExpression) {
+            this.acceptBinary((BinaryExpression) node);
+        } else {
+            if (Visiting.CONTINUE == this.startVisit(node)) {
+                node.accept(this);
+            }
+            this.endVisit(node);
         }
-        this.endVisit(node);
     }
 
+    private void acceptBinary(final BinaryExpression node) {
+        final Stack<Object> pending = Stacks.arrayList();
+        pending.push(node);
+
+        while (pending.isNotEmpty()) {
+            final Object next = pending.peek();
+            pending.pop();
+
+            if (END_VISIT == next || END_VISIT_BINARY == next) {
+                final Expression expression = (Expression) pending.peek();
+                pending.pop();
+
+                if (END_VISIT_BINARY == next) {
+                    ((BinaryExpression) expression).acceptEnd(this);
+                }
+                this.endVisit(expression);
+            } else if (next instanceof BinaryExpression) {
+                final BinaryExpression binary = (BinaryExpression) next;
+                pending.push(binary);
+
+                if (Visiting.CONTINUE == this.startVisit(binary)) {
+                    pending.push(END_VISIT_BINARY);
+
+                    if (Visiting.CONTINUE == binary.acceptStart(this)) {
+                        pending.push(binary.right());
+                        pending.push(binary.left());
+                    }
+                } else {
+                    pending.push(END_VISIT);
+                }
+            } else {
+                this.accept((Expression) next);
+            }
+        }
+    }
+
+    /**
+     * Marks that the {@link Expression} below on the stack only needs {@link #endVisit(Expression)}.
+     */
+    private final static Object END_VISIT = new Object();
+
+    /**
+     * Marks that the {@link BinaryExpression} below on the stack needs its typed endVisit and then {@link #endVisit(Expression)}.
+     */
+    private final static Object END_VISIT_BINARY = new Object();
+
     protected Visiting startVisit(final Expression node) {
         return Visiting.CONTINUE;
     }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+public class FakeExpressionBinaryContext implements ExpressionBinaryContext {
+
+    public FakeExpressionBinaryContext() {
+        super();
+    }
+
+    @Override
+    public String referenceToString(final ExpressionReference reference) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ExpressionReference reference(final String text) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String typeToString(final Class<?> type) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Class<?> type(final String text) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String valueToString(final Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object value(final String text,
+                        final Class<?> type) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -60,10 +60,12 @@ public final class GreaterThanEqualsExpression extends CompareExpression {
     // Visitor .........................................................................................................
 
     @Override
-    public void accept(final ExpressionVisitor visitor) {
-        if (Visiting.CONTINUE == visitor.startVisit(this)) {
-            this.acceptValues(visitor);
-        }
+    Visiting acceptStart(final ExpressionVisitor visitor) {
+        return visitor.startVisit(this);
+    }
+
+    @Override
+    void acceptEnd(final ExpressionVisitor visitor) {
         visitor.endVisit(this);
     }
 
@@ -77,7 +79,7 @@ public final class GreaterThanEqualsExpression extends CompareExpression {
     // Object .........................................................................................................
 
     @Override
-    void appendSymbol(final StringBuilder b) {
+    void appendSymbol(final ExpressionAppender b) {
         b.append(SYMBOL);
     }
 }
@@ -190,7 +190,7 @@ public final class LambdaFunctionExpression extends UnaryExpression {
 
     // (x, y)->{}
     @Override
-    void toString0(final StringBuilder b) {
+    void toString1(final ExpressionAppender b) {
         b.append('(');
 
         String separator = "";
@@ -151,13 +151,16 @@ public final class ListExpression extends VariableExpression {
      * Returns a csv {@link String} of the values.
      */
     @Override
-    void toString0(final StringBuilder b) {
+    void toString1(final ExpressionAppender b) {
         b.append('[');
 
         final List<Expression> expressions = this.value();
         int last = expressions.size() - 1;
 
         for (final Expression value : expressions) {
+            if (Visiting.SKIP == b.visiting()) {
+                break;
+            }
             value.toString0(b);
             last--;
             if (last >= 0) {
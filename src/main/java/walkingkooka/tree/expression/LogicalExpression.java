@@ -40,6 +40,17 @@ public abstract class LogicalExpression extends BinaryExpression {
             .toValue(context);
     }
 
+    @Override
+    final Object toValue(final Object left,
+                         final Object right,
+                         final ExpressionEvaluationContext context) {
+        return this.apply(
+            left,
+            right,
+            context
+        ).toValue(context);
+    }
+
     @Override final Expression apply(final Object left,
                                      final Object right,
                                      final ExpressionEvaluationContext context) {
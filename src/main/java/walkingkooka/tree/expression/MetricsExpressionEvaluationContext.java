@@ -0,0 +1,206 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.Either;
+import walkingkooka.datetime.DateTimeSymbols;
+import walkingkooka.environment.EnvironmentContext;
+import walkingkooka.locale.LocaleLanguageTag;
+import walkingkooka.math.DecimalNumberSymbols;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * An {@link ExpressionEvaluationContext} that reports every function call with its time, every conversion attempt and
+ * every exception given to {@link #handleException(RuntimeException)} to a {@link ExpressionEvaluationMetrics}.
+ * Parameters are still prepared by the wrapped context, so only conversions requested through this context, such as by
+ * a function converting with the context it was given, are reported.
+ */
+final class MetricsExpressionEvaluationContext implements ExpressionEvaluationContext,
+    ExpressionEvaluationContextDelegator {
+
+    static MetricsExpressionEvaluationContext with(final ExpressionEvaluationMetrics metrics,
+                                                   final LongSupplier clock,
+                                                   final ExpressionEvaluationContext context) {
+        return new MetricsExpressionEvaluationContext(
+            Objects.requireNonNull(metrics, "metrics"),
+            Objects.requireNonNull(clock, "clock"),
+            Objects.requireNonNull(context, "context")
+        );
+    }
+
+    private MetricsExpressionEvaluationContext(final ExpressionEvaluationMetrics metrics,
+                                               final LongSupplier clock,
+                                               final ExpressionEvaluationContext context) {
+        this.metrics = metrics;
+        this.clock = clock;
+        this.context = context;
+    }
+
+    // ExpressionEvaluationContext......................................................................................
+
+    /**
+     * Times the call, which is failed if it threw or an exception was given to {@link #handleException(RuntimeException)}
+     * during the call, even when that turned the exception into a value.
+     */
+    @Override
+    public Object evaluateFunction(final ExpressionFunction<?, ? extends ExpressionEvaluationContext> function,
+                                   final List<Object> parameters) {
+        final LongSupplier clock = this.clock;
+        final long start = clock.getAsLong();
+
+        final boolean handledBefore = this.handled;
+        this.handled = false;
+
+        boolean failed = true;
+        try {
+            final Object result = ExpressionEvaluationContextDelegator.super.evaluateFunction(
+                function,
+                parameters
+            );
+            failed = this.handled;
+            return result;
+        } finally {
+            this.metrics.function(
+                function.name(),
+                clock.getAsLong() - start,
+                failed
+            );
+            this.handled = handledBefore;
+        }
+    }
+
+    /**
+     * Set when {@link #handleException(RuntimeException)} is called, and saved and restored around each function call,
+     * so only exceptions during the current call mark it as failed.
+     */
+    private boolean handled;
+
+    @Override
+    public Object handleException(final RuntimeException exception) {
+        this.handled = true;
+        this.metrics.exception(exception);
+        return this.context.handleException(exception);
+    }
+
+    @Override
+    public <T> Either<T, String> convert(final Object value,
+                                         final Class<T> target) {
+        boolean failed = true;
+        try {
+            final Either<T, String> converted = this.context.convert(
+                value,
+                target
+            );
+            failed = converted.isRight();
+            return converted;
+        } finally {
+            this.metrics.conversion(
+                target,
+                failed
+            );
+        }
+    }
+
+    @Override
+    public ExpressionEvaluationContext enterScope(final Function<ExpressionReference, Optional<Optional<Object>>> scoped) {
+        return ScopedExpressionEvaluationContext.with(
+            scoped,
+            this
+        );
+    }
+
+    @Override
+    public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+        return this.context.reference(reference);
+    }
+
+    /**
+     * References are not reported, so the whole batch is given to the wrapped context.
+     */
+    @Override
+    public Map<ExpressionReference, Optional<Optional<Object>>> references(final Collection<ExpressionReference> references) {
+        return this.context.references(references);
+    }
+
+    @Override
+    public Object referenceOrMissing(final ExpressionReference reference) {
+        return this.context.referenceOrMissing(reference);
+    }
+
+    private final ExpressionEvaluationMetrics metrics;
+
+    private final LongSupplier clock;
+
+    // ExpressionEvaluationContextDelegator.............................................................................
+
+    @Override
+    public ExpressionEvaluationContext cloneEnvironment() {
+        return this.setEnvironmentContext(
+            this.context.cloneEnvironment()
+        );
+    }
+
+    @Override
+    public ExpressionEvaluationContext setEnvironmentContext(final EnvironmentContext environmentContext) {
+        final ExpressionEvaluationContext before = this.context;
+        final ExpressionEvaluationContext after = before.setEnvironmentContext(environmentContext);
+
+        return before == after ?
+            this :
+            new MetricsExpressionEvaluationContext(
+                this.metrics,
+                this.clock,
+                after
+            );
+    }
+
+    @Override
+    public ExpressionEvaluationContext expressionEvaluationContext() {
+        return this.context;
+    }
+
+    @Override
+    public Optional<DateTimeSymbols> dateTimeSymbolsForLocale(final Locale locale) {
+        return this.context.dateTimeSymbolsForLocale(locale);
+    }
+
+    @Override
+    public Optional<DecimalNumberSymbols> decimalNumberSymbolsForLocale(final Locale locale) {
+        return this.context.decimalNumberSymbolsForLocale(locale);
+    }
+
+    @Override
+    public Optional<Locale> localeForLanguageTag(final LocaleLanguageTag languageTag) {
+        return this.context.localeForLanguageTag(languageTag);
+    }
+
+    private final ExpressionEvaluationContext context;
+
+    @Override
+    public String toString() {
+        return this.context.toString();
+    }
+}
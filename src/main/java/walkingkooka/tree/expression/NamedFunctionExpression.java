@@ -133,7 +133,7 @@ final public class NamedFunctionExpression extends LeafExpression<ExpressionFunc
     // Object ..........................................................................................................
 
     @Override
-    void toString0(final StringBuilder b) {
+    void toString1(final ExpressionAppender b) {
         b.append(this.value);
     }
 }
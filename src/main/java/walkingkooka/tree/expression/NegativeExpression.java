@@ -114,7 +114,7 @@ public final class NegativeExpression extends UnaryExpression {
     }
 
     @Override
-    void toString0(final StringBuilder b) {
+    void toString1(final ExpressionAppender b) {
         b.append(SYMBOL);
         this.value().toString0(b);
     }
@@ -34,24 +34,51 @@ abstract class ParentExpression extends Expression {
     ParentExpression(final int index, final List<Expression> children) {
         super(index);
 
-        final Optional<Expression> p = Optional.of(this);
-
-        final List<Expression> copy = Lists.array();
-        this.children = Lists.readOnly(copy);
-
-        int i = 0;
-        for (Expression child : children) {
-            copy.add(child.setParent(p, i));
-            i++;
+        final List<Expression> unadopted = Lists.array();
+        for (final Expression child : children) {
+            unadopted.add(
+                Objects.requireNonNull(child, "child")
+            );
         }
+        this.unadopted = unadopted;
+
+        // expressions are immutable, children have already computed their own hash codes, so this is O(children)
+        this.hashCode = unadopted.hashCode();
     }
 
+    /**
+     * Children are adopted, which copies each child setting its parent, only when first requested. Adopting a child
+     * copies only that child, its own children remain unadopted until they are requested, so neither construction
+     * nor adoption recurses through descendants, and very deep trees do not overflow the stack.
+     * <br>
+     * Expressions are immutable, threads that race to adopt produce equal copies, so no locking is necessary.
+     */
     @Override
     public final List<Expression> children() {
-        return this.children;
+        List<Expression> children = this.children;
+        if (null == children) {
+            final Optional<Expression> p = Optional.of(this);
+
+            final List<Expression> copy = Lists.array();
+
+            int i = 0;
+            for (final Expression child : this.unadopted) {
+                copy.add(child.setParent(p, i));
+                i++;
+            }
+
+            children = Lists.readOnly(copy);
+            this.children = children;
+        }
+        return children;
     }
 
-    private final List<Expression> children;
+    private List<Expression> children;
+
+    /**
+     * The children given to the constructor, which are given to any copy so it may adopt them when required.
+     */
+    private final List<Expression> unadopted;
 
     final Expression setChildren0(final List<Expression> children) {
         Objects.requireNonNull(children, "children");
@@ -91,8 +118,11 @@ abstract class ParentExpression extends Expression {
 
     abstract void replaceChildrenCheck(final List<Expression> children);
 
+    /**
+     * Copies this node with its unadopted children, so the copy adopts them only when its children are requested.
+     */
     @Override final Expression replace(final int index) {
-        return this.replace0(index, this.children());
+        return this.replace0(index, this.unadopted);
     }
 
     abstract ParentExpression replace0(final int index, final List<Expression> children);
@@ -150,10 +180,19 @@ abstract class ParentExpression extends Expression {
 
     @Override
     public final int hashCode() {
-        return this.children().hashCode();
+        return this.hashCode;
     }
 
+    /**
+     * The hash code of the {@link #children}, computed once during construction.
+     */
+    private final int hashCode;
+
+    /**
+     * Different cached hash codes mean the children cannot be equal, which avoids walking both subtrees.
+     */
     @Override final boolean equalsChildren(final Expression other) {
-        return this.children.equals(other.children());
+        return this.hashCode == other.hashCode() &&
+            this.children().equals(other.children());
     }
 }
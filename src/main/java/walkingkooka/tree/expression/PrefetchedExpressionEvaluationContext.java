@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.datetime.DateTimeSymbols;
+import walkingkooka.environment.EnvironmentContext;
+import walkingkooka.locale.LocaleLanguageTag;
+import walkingkooka.math.DecimalNumberSymbols;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * An {@link ExpressionEvaluationContext} that collects every {@link ExpressionReference} within some {@link Expression}
+ * and resolves them using a single {@link ExpressionEvaluationContext#references(Collection)} before any evaluation.
+ * {@link #reference(ExpressionReference)} then answers from those values, and only references that were not
+ * prefetched, such as those returned as the value of another reference, are given to the wrapped context.
+ * References to the parameters of a {@link LambdaFunctionExpression} are never prefetched.
+ */
+final class PrefetchedExpressionEvaluationContext implements ExpressionEvaluationContext,
+    ExpressionEvaluationContextDelegator {
+
+    static PrefetchedExpressionEvaluationContext with(final Collection<Expression> expressions,
+                                                      final ExpressionEvaluationContext context) {
+        Objects.requireNonNull(expressions, "expressions");
+        Objects.requireNonNull(context, "context");
+
+        final Set<ExpressionReference> references = Sets.ordered();
+        for (final Expression expression : expressions) {
+            PrefetchedExpressionEvaluationContextExpressionVisitor.references(
+                Objects.requireNonNull(expression, "expression"),
+                references
+            );
+        }
+
+        return new PrefetchedExpressionEvaluationContext(
+            references.isEmpty() ?
+                Maps.empty() :
+                Maps.immutable(
+                    context.references(references)
+                ),
+            context
+        );
+    }
+
+    private PrefetchedExpressionEvaluationContext(final Map<ExpressionReference, Optional<Optional<Object>>> values,
+                                                  final ExpressionEvaluationContext context) {
+        this.values = values;
+        this.context = context;
+    }
+
+    // ExpressionEvaluationContext......................................................................................
+
+    @Override
+    public ExpressionEvaluationContext enterScope(final Function<ExpressionReference, Optional<Optional<Object>>> scoped) {
+        return ScopedExpressionEvaluationContext.with(
+            scoped,
+            this
+        );
+    }
+
+    @Override
+    public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+        final Optional<Optional<Object>> value = this.values.get(reference);
+
+        return null != value ?
+            value :
+            this.context.reference(reference);
+    }
+
+    @Override
+    public Object referenceOrMissing(final ExpressionReference reference) {
+        final Optional<Optional<Object>> value = this.values.get(reference);
+
+        return null != value ?
+            value.isPresent() ?
+                value.get()
+                    .orElse(null) :
+                REFERENCE_MISSING :
+            this.context.referenceOrMissing(reference);
+    }
+
+    /**
+     * Answers prefetched {@link ExpressionReference} from {@link #values} and fetches the remainder from the wrapped
+     * context in a single batch.
+     */
+    @Override
+    public Map<ExpressionReference, Optional<Optional<Object>>> references(final Collection<ExpressionReference> references) {
+        Objects.requireNonNull(references, "references");
+
+        final Map<ExpressionReference, Optional<Optional<Object>>> values = Maps.hash();
+        final List<ExpressionReference> notPrefetched = Lists.array();
+
+        for (final ExpressionReference reference : references) {
+            final Optional<Optional<Object>> value = this.values.get(reference);
+            if (null != value) {
+                values.put(
+                    reference,
+                    value
+                );
+            } else {
+                notPrefetched.add(reference);
+            }
+        }
+
+        if (false == notPrefetched.isEmpty()) {
+            values.putAll(
+                this.context.references(notPrefetched)
+            );
+        }
+        return values;
+    }
+
+    /**
+     * The values for all prefetched {@link ExpressionReference}, including those that were missing.
+     */
+    private final Map<ExpressionReference, Optional<Optional<Object>>> values;
+
+    // ExpressionEvaluationContextDelegator.............................................................................
+
+    @Override
+    public ExpressionEvaluationContext cloneEnvironment() {
+        return this.setEnvironmentContext(
+            this.context.cloneEnvironment()
+        );
+    }
+
+    @Override
+    public ExpressionEvaluationContext setEnvironmentContext(final EnvironmentContext environmentContext) {
+        final ExpressionEvaluationContext before = this.context;
+        final ExpressionEvaluationContext after = before.setEnvironmentContext(environmentContext);
+
+        return before == after ?
+            this :
+            new PrefetchedExpressionEvaluationContext(
+                this.values,
+                after
+            );
+    }
+
+    @Override
+    public ExpressionEvaluationContext expressionEvaluationContext() {
+        return this.context;
+    }
+
+    @Override
+    public Optional<DateTimeSymbols> dateTimeSymbolsForLocale(final Locale locale) {
+        return this.context.dateTimeSymbolsForLocale(locale);
+    }
+
+    @Override
+    public Optional<DecimalNumberSymbols> decimalNumberSymbolsForLocale(final Locale locale) {
+        return this.context.decimalNumberSymbolsForLocale(locale);
+    }
+
+    @Override
+    public Optional<Locale> localeForLanguageTag(final LocaleLanguageTag languageTag) {
+        return this.context.localeForLanguageTag(languageTag);
+    }
+
+    private final ExpressionEvaluationContext context;
+
+    @Override
+    public String toString() {
+        return this.context.toString();
+    }
+}
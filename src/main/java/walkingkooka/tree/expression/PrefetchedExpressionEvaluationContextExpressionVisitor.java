@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterName;
+import walkingkooka.visit.Visiting;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the unique {@link ExpressionReference} within an {@link Expression} that should be prefetched, skipping any
+ * within a {@link LambdaFunctionExpression} that name one of its parameters, as those are only known when the lambda
+ * is called.
+ */
+final class PrefetchedExpressionEvaluationContextExpressionVisitor extends ExpressionVisitor {
+
+    static void references(final Expression expression,
+                           final Set<ExpressionReference> references) {
+        new PrefetchedExpressionEvaluationContextExpressionVisitor(references)
+            .accept(expression);
+    }
+
+    // @VisibleForTesting
+    PrefetchedExpressionEvaluationContextExpressionVisitor(final Set<ExpressionReference> references) {
+        super();
+        this.references = references;
+    }
+
+    @Override
+    protected Visiting startVisit(final LambdaFunctionExpression node) {
+        for (final ExpressionFunctionParameter<?> parameter : node.parameters()) {
+            this.parameterNames.add(
+                parameter.name()
+            );
+        }
+        return Visiting.CONTINUE;
+    }
+
+    @Override
+    protected void endVisit(final LambdaFunctionExpression node) {
+        final List<ExpressionFunctionParameterName> parameterNames = this.parameterNames;
+        final int count = node.parameters()
+            .size();
+        parameterNames.subList(
+            parameterNames.size() - count,
+            parameterNames.size()
+        ).clear();
+    }
+
+    @Override
+    protected void visit(final ReferenceExpression node) {
+        final ExpressionReference reference = node.value();
+        if (false == this.isParameter(reference)) {
+            this.references.add(reference);
+        }
+    }
+
+    private boolean isParameter(final ExpressionReference reference) {
+        boolean parameter = false;
+
+        for (final ExpressionFunctionParameterName parameterName : this.parameterNames) {
+            if (reference.testParameterName(parameterName)) {
+                parameter = true;
+                break;
+            }
+        }
+
+        return parameter;
+    }
+
+    /**
+     * The parameter names of all enclosing {@link LambdaFunctionExpression}, innermost last.
+     */
+    private final List<ExpressionFunctionParameterName> parameterNames = Lists.array();
+
+    private final Set<ExpressionReference> references;
+
+    @Override
+    public String toString() {
+        return this.references.toString();
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.datetime.DateTimeSymbols;
+import walkingkooka.environment.EnvironmentContext;
+import walkingkooka.locale.LocaleLanguageTag;
+import walkingkooka.math.DecimalNumberSymbols;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * An {@link ExpressionEvaluationContext} that records every {@link Expression} evaluated, function called and reference
+ * resolved through it as a frame within a {@link ExpressionEvaluationProfiler}. Parameters that are themselves function
+ * calls appear as children of the calling function, while operators and values are included in the time of the
+ * {@link Expression} or function that contains them.
+ * <br>
+ * Frames for an {@link Expression} are labelled with its type and position within its root rather than its text,
+ * and like references only when the label is first read, so nothing is formatted for every evaluation.
+ */
+final class ProfilingExpressionEvaluationContext implements ExpressionEvaluationContext,
+    ExpressionEvaluationContextDelegator {
+
+    static ProfilingExpressionEvaluationContext with(final ExpressionEvaluationProfiler profiler,
+                                                     final ExpressionEvaluationContext context) {
+        return new ProfilingExpressionEvaluationContext(
+            Objects.requireNonNull(profiler, "profiler"),
+            Objects.requireNonNull(context, "context")
+        );
+    }
+
+    private ProfilingExpressionEvaluationContext(final ExpressionEvaluationProfiler profiler,
+                                                 final ExpressionEvaluationContext context) {
+        this.profiler = profiler;
+        this.context = context;
+    }
+
+    // ExpressionEvaluationContext......................................................................................
+
+    @Override
+    public Object evaluate(final String expression) {
+        final ExpressionEvaluationProfiler profiler = this.profiler;
+        profiler.enter(
+            expression,
+            ExpressionFunction.ANONYMOUS_NAME
+        );
+        try {
+            return this.context.evaluate(expression);
+        } finally {
+            profiler.exit();
+        }
+    }
+
+    @Override
+    public Object evaluateExpression(final Expression expression) {
+        final ExpressionEvaluationProfiler profiler = this.profiler;
+        profiler.enter(
+            expression,
+            ExpressionFunction.ANONYMOUS_NAME
+        );
+        try {
+            return ExpressionEvaluationContextDelegator.super.evaluateExpression(expression);
+        } finally {
+            profiler.exit();
+        }
+    }
+
+    @Override
+    public Object evaluateFunction(final ExpressionFunction<?, ? extends ExpressionEvaluationContext> function,
+                                   final List<Object> parameters) {
+        final Optional<ExpressionFunctionName> name = function.name();
+
+        final ExpressionEvaluationProfiler profiler = this.profiler;
+        profiler.enter(
+            name.map(ExpressionFunctionName::value)
+                .orElse(ExpressionFunction.ANONYMOUS),
+            name
+        );
+        try {
+            return ExpressionEvaluationContextDelegator.super.evaluateFunction(
+                function,
+                parameters
+            );
+        } finally {
+            profiler.exit();
+        }
+    }
+
+    @Override
+    public ExpressionEvaluationContext enterScope(final Function<ExpressionReference, Optional<Optional<Object>>> scoped) {
+        return ScopedExpressionEvaluationContext.with(
+            scoped,
+            this
+        );
+    }
+
+    @Override
+    public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+        final ExpressionEvaluationProfiler profiler = this.profiler;
+        profiler.enter(
+            reference,
+            ExpressionFunction.ANONYMOUS_NAME
+        );
+        try {
+            return this.context.reference(reference);
+        } finally {
+            profiler.exit();
+        }
+    }
+
+    /**
+     * Records a single frame for the entire batch, so the wrapped context may still fetch all at once.
+     */
+    @Override
+    public Map<ExpressionReference, Optional<Optional<Object>>> references(final Collection<ExpressionReference> references) {
+        final ExpressionEvaluationProfiler profiler = this.profiler;
+        profiler.enter(
+            REFERENCES,
+            ExpressionFunction.ANONYMOUS_NAME
+        );
+        try {
+            return this.context.references(references);
+        } finally {
+            profiler.exit();
+        }
+    }
+
+    /**
+     * The label of frames recorded by {@link #references(Collection)}.
+     */
+    private final static String REFERENCES = "references";
+
+    @Override
+    public Object referenceOrMissing(final ExpressionReference reference) {
+        final ExpressionEvaluationProfiler profiler = this.profiler;
+        profiler.enter(
+            reference,
+            ExpressionFunction.ANONYMOUS_NAME
+        );
+        try {
+            return this.context.referenceOrMissing(reference);
+        } finally {
+            profiler.exit();
+        }
+    }
+
+    private final ExpressionEvaluationProfiler profiler;
+
+    // ExpressionEvaluationContextDelegator.............................................................................
+
+    @Override
+    public ExpressionEvaluationContext cloneEnvironment() {
+        return this.setEnvironmentContext(
+            this.context.cloneEnvironment()
+        );
+    }
+
+    @Override
+    public ExpressionEvaluationContext setEnvironmentContext(final EnvironmentContext environmentContext) {
+        final ExpressionEvaluationContext before = this.context;
+        final ExpressionEvaluationContext after = before.setEnvironmentContext(environmentContext);
+
+        return before == after ?
+            this :
+            new ProfilingExpressionEvaluationContext(
+                this.profiler,
+                after
+            );
+    }
+
+    @Override
+    public ExpressionEvaluationContext expressionEvaluationContext() {
+        return this.context;
+    }
+
+    @Override
+    public Optional<DateTimeSymbols> dateTimeSymbolsForLocale(final Locale locale) {
+        return this.context.dateTimeSymbolsForLocale(locale);
+    }
+
+    @Override
+    public Optional<DecimalNumberSymbols> decimalNumberSymbolsForLocale(final Locale locale) {
+        return this.context.decimalNumberSymbolsForLocale(locale);
+    }
+
+    @Override
+    public Optional<Locale> localeForLanguageTag(final LocaleLanguageTag languageTag) {
+        return this.context.localeForLanguageTag(languageTag);
+    }
+
+    private final ExpressionEvaluationContext context;
+
+    @Override
+    public String toString() {
+        return this.profiler + " " + this.context;
+    }
+}
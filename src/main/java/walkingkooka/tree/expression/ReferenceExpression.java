@@ -128,7 +128,7 @@ public final class ReferenceExpression extends LeafExpression<ExpressionReferenc
     // Object ....................................................................................................
 
     @Override
-    void toString0(final StringBuilder b) {
+    void toString1(final ExpressionAppender b) {
         b.append(this.value);
     }
 }
@@ -17,12 +17,17 @@
 
 package walkingkooka.tree.expression;
 
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
 import walkingkooka.datetime.DateTimeSymbols;
 import walkingkooka.environment.EnvironmentContext;
 import walkingkooka.locale.LocaleLanguageTag;
 import walkingkooka.math.DecimalNumberSymbols;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
@@ -68,6 +73,47 @@ final class ScopedExpressionEvaluationContext implements ExpressionEvaluationCon
         return value;
     }
 
+    @Override
+    public Object referenceOrMissing(final ExpressionReference reference) {
+        final Optional<Optional<Object>> value = this.referenceToValue.apply(reference);
+
+        return value.isPresent() ?
+            value.get()
+                .orElse(null) :
+            this.context.referenceOrMissing(reference);
+    }
+
+    /**
+     * Scoped references are resolved locally, with only the remainder given to the wrapped context in a single batch.
+     */
+    @Override
+    public Map<ExpressionReference, Optional<Optional<Object>>> references(final Collection<ExpressionReference> references) {
+        Objects.requireNonNull(references, "references");
+
+        final Map<ExpressionReference, Optional<Optional<Object>>> values = Maps.hash();
+        final List<ExpressionReference> global = Lists.array();
+
+        for (final ExpressionReference reference : references) {
+            final Optional<Optional<Object>> value = this.referenceToValue.apply(reference);
+            if (value.isPresent()) {
+                values.put(
+                    reference,
+                    value
+                );
+            } else {
+                global.add(reference);
+            }
+        }
+
+        if (false == global.isEmpty()) {
+            values.putAll(
+                this.context.references(global)
+            );
+        }
+
+        return values;
+    }
+
     private final Function<ExpressionReference, Optional<Optional<Object>>> referenceToValue;
 
     // ExpressionEvaluationContextDelegator.............................................................................
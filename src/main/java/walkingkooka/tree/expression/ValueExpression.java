@@ -117,7 +117,7 @@ final public class ValueExpression<V> extends LeafExpression<V> {
     // Object ..........................................................................................................
 
     @Override
-    void toString0(final StringBuilder b) {
+    void toString1(final ExpressionAppender b) {
         b.append(CharSequences.quoteIfChars(this.value));
     }
 }
@@ -159,6 +159,11 @@ final class BasicExpressionNumberConverterContext implements ExpressionNumberCon
 
     private final Converter<ExpressionNumberConverterContext> converter;
 
+    /**
+     * Conversions within this context, shared by the converters it calls.
+     */
+    final ExpressionNumberConverterRouteCache routes = ExpressionNumberConverterRouteCache.empty();
+
     // CanCurrencyExchangeRate..........................................................................................
 
     @Override
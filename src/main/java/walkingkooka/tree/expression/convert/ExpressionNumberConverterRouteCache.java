@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression.convert;
+
+import walkingkooka.Either;
+import walkingkooka.convert.Converter;
+import walkingkooka.tree.expression.ExpressionNumber;
+
+/**
+ * A cache held by each {@link BasicExpressionNumberConverterContext}, keyed by value class and target type, that
+ * remembers the {@link ExpressionNumber} a value was converted to on the way to the target type. A chain of converters
+ * asks {@link Converter#canConvert(Object, Class, walkingkooka.convert.ConverterContext)} before converting the same
+ * value, and the cache allows the intermediate conversion to be performed once for both.
+ * <br>
+ * Each slot holds an immutable entry that is replaced as a whole, so a context shared by concurrent evaluations at
+ * worst misses and converts again. Entries also check the value and converter by identity, so a slot shared by
+ * several value classes and target types never returns the wrong result.
+ */
+final class ExpressionNumberConverterRouteCache {
+
+    /**
+     * The number of slots, which must be a power of two.
+     */
+    final static int SIZE = 16;
+
+    static ExpressionNumberConverterRouteCache empty() {
+        return new ExpressionNumberConverterRouteCache();
+    }
+
+    /**
+     * Returns the cache of the given context or null if it does not have one.
+     */
+    static ExpressionNumberConverterRouteCache with(final ExpressionNumberConverterContext context) {
+        return context instanceof BasicExpressionNumberConverterContext ?
+            ((BasicExpressionNumberConverterContext) context).routes :
+            null;
+    }
+
+    private ExpressionNumberConverterRouteCache() {
+        super();
+    }
+
+    /**
+     * Returns the cached result of converting the value to {@link ExpressionNumber} using the given converter,
+     * or null if it is not present.
+     */
+    Either<?, String> get(final Converter<?> converter,
+                          final Object value,
+                          final Class<?> type) {
+        final ExpressionNumberConverterRouteCacheEntry entry = this.entries[slot(value, type)];
+        return null != entry && entry.converter == converter && entry.value == value && entry.type == type ?
+            entry.result :
+            null;
+    }
+
+    void put(final Converter<?> converter,
+             final Object value,
+             final Class<?> type,
+             final Either<?, String> result) {
+        this.entries[slot(value, type)] = new ExpressionNumberConverterRouteCacheEntry(
+            converter,
+            value,
+            type,
+            result
+        );
+    }
+
+    private static int slot(final Object value,
+                            final Class<?> type) {
+        return ((null == value ? 0 : value.getClass().hashCode()) * 31 + type.hashCode()) & (SIZE - 1);
+    }
+
+    private final ExpressionNumberConverterRouteCacheEntry[] entries = new ExpressionNumberConverterRouteCacheEntry[SIZE];
+}
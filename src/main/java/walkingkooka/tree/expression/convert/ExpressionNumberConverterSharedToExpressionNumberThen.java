@@ -78,9 +78,9 @@ final class ExpressionNumberConverterSharedToExpressionNumberThen<C extends Expr
                                           final Class<?> type,
                                           final C context) {
         // need to convert value to ExpressionNumber.
-        final Either<?, String> asExpressionNumber = this.toExpressionNumber.convert(
+        final Either<?, String> asExpressionNumber = this.toExpressionNumber(
             value,
-            ExpressionNumber.class,
+            type,
             context
         );
 
@@ -120,9 +120,9 @@ final class ExpressionNumberConverterSharedToExpressionNumberThen<C extends Expr
                                                      final Class<T> type,
                                                      final C context) {
         // need to convert value to ExpressionNumber.
-        final Either<?, String> asExpressionNumber = this.toExpressionNumber.convert(
+        final Either<?, String> asExpressionNumber = this.toExpressionNumber(
             value,
-            ExpressionNumber.class,
+            type,
             context
         );
 
@@ -157,6 +157,43 @@ final class ExpressionNumberConverterSharedToExpressionNumberThen<C extends Expr
         return result;
     }
 
+    /**
+     * Converts the value to an {@link ExpressionNumber}, reusing the result of the previous
+     * {@link #canConvert(Object, Class, ExpressionNumberConverterContext)} for the same value and type held by the
+     * context, so a chain that asks before converting only converts once.
+     */
+    private Either<?, String> toExpressionNumber(final Object value,
+                                                 final Class<?> type,
+                                                 final C context) {
+        final Converter<C> toExpressionNumber = this.toExpressionNumber;
+        final ExpressionNumberConverterRouteCache routes = ExpressionNumberConverterRouteCache.with(context);
+
+        Either<?, String> result = null != routes ?
+            routes.get(
+                toExpressionNumber,
+                value,
+                type
+            ) :
+            null;
+        if (null == result) {
+            result = toExpressionNumber.convert(
+                value,
+                ExpressionNumber.class,
+                context
+            );
+            if (null != routes) {
+                routes.put(
+                    toExpressionNumber,
+                    value,
+                    type,
+                    result
+                );
+            }
+        }
+
+        return result;
+    }
+
     /**
      * This {@link Converter} handles converting the value to an {@link ExpressionNumber}.
      */
@@ -32,6 +32,15 @@ public enum ExpressionFunctionParameterKind {
      */
     CONVERT,
 
+    /**
+     * Indicates that a {@link #EVALUATE} parameter is always required by the function, so
+     * {@link walkingkooka.tree.expression.Expression#toValueAsync(walkingkooka.tree.expression.ExpressionEvaluationContext)}
+     * may start evaluating it together with other eager parameters before the function is called. Parameters without
+     * this kind are only evaluated when the function fetches them, so functions like IF never evaluate branches that
+     * are not taken. All the parameters of the built in functions in {@link ExpressionFunctions} are eager.
+     */
+    EAGER,
+
     /**
      * Indicates that any parameter value that are {@link walkingkooka.tree.expression.Expression} must be evaluated
      * into a non {@link walkingkooka.tree.expression.Expression} value. For the vast majority of cases all functions
@@ -65,6 +74,19 @@ public enum ExpressionFunctionParameterKind {
         return "@" + this.name();
     }
 
+    public final static Set<ExpressionFunctionParameterKind> CONVERT_EAGER_EVALUATE = Sets.of(
+        CONVERT,
+        EAGER,
+        EVALUATE
+    );
+
+    public final static Set<ExpressionFunctionParameterKind> CONVERT_EAGER_EVALUATE_RESOLVE_REFERENCES = Sets.of(
+        CONVERT,
+        EAGER,
+        EVALUATE,
+        RESOLVE_REFERENCES
+    );
+
     public final static Set<ExpressionFunctionParameterKind> CONVERT_EVALUATE = Sets.of(
         CONVERT,
         EVALUATE
@@ -83,6 +105,12 @@ public enum ExpressionFunctionParameterKind {
         RESOLVE_REFERENCES
     );
 
+    public final static Set<ExpressionFunctionParameterKind> EAGER_EVALUATE_RESOLVE_REFERENCES = Sets.of(
+        EAGER,
+        EVALUATE,
+        RESOLVE_REFERENCES
+    );
+
     public final static Set<ExpressionFunctionParameterKind> EVALUATE_FLATTEN_RESOLVE_REFERENCES = Sets.of(
         EVALUATE,
         FLATTEN,
@@ -32,7 +32,7 @@ final class TreeExpressionFunctionCurrency<C extends ExpressionEvaluationContext
 
     final static ExpressionFunctionParameter<Currency> CURRENCY = ExpressionFunctionParameterName.with("currency")
         .required(Currency.class)
-        .setKinds(ExpressionFunctionParameterKind.CONVERT_EVALUATE);
+        .setKinds(ExpressionFunctionParameterKind.CONVERT_EAGER_EVALUATE);
 
     private final static List<ExpressionFunctionParameter<?>> PARAMETERS = ExpressionFunctionParameter.list(
         CURRENCY
@@ -32,7 +32,7 @@ final class TreeExpressionFunctionCurrencyCode<C extends ExpressionEvaluationCon
 
     final static ExpressionFunctionParameter<CurrencyCode> CURRENCY_CODE = ExpressionFunctionParameterName.with("currencyCode")
         .required(CurrencyCode.class)
-        .setKinds(ExpressionFunctionParameterKind.CONVERT_EVALUATE);
+        .setKinds(ExpressionFunctionParameterKind.CONVERT_EAGER_EVALUATE);
 
     private final static List<ExpressionFunctionParameter<?>> PARAMETERS = ExpressionFunctionParameter.list(
         CURRENCY_CODE
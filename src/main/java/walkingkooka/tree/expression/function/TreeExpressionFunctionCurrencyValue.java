@@ -32,7 +32,7 @@ final class TreeExpressionFunctionCurrencyValue<C extends ExpressionEvaluationCo
 
     final static ExpressionFunctionParameter<CurrencyValue> CURRENCY_VALUE = ExpressionFunctionParameterName.with("currencyValue")
         .required(CurrencyValue.class)
-        .setKinds(ExpressionFunctionParameterKind.CONVERT_EVALUATE);
+        .setKinds(ExpressionFunctionParameterKind.CONVERT_EAGER_EVALUATE);
 
     private final static List<ExpressionFunctionParameter<?>> PARAMETERS = ExpressionFunctionParameter.list(
         CURRENCY_VALUE
@@ -67,7 +67,7 @@ final class TreeExpressionFunctionEval<C extends ExpressionEvaluationContext> ex
     private final static ExpressionFunctionParameter<Expression> EXPRESSION = ExpressionFunctionParameterName.with("expression")
         .required(Expression.class)
         .setKinds(
-            ExpressionFunctionParameterKind.CONVERT_EVALUATE
+            ExpressionFunctionParameterKind.CONVERT_EAGER_EVALUATE
         );
 
     final static List<ExpressionFunctionParameter<?>> PARAMETERS = ExpressionFunctionParameter.list(
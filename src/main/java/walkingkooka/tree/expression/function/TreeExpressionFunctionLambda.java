@@ -52,6 +52,10 @@ final class TreeExpressionFunctionLambda<T, C extends ExpressionEvaluationContex
         this.parameters = parameters;
         this.returnType = returnType;
         this.expression = expression;
+        this.slots = TreeExpressionFunctionLambdaSlots.with(
+            parameters,
+            expression
+        );
     }
 
     @Override
@@ -69,6 +73,12 @@ final class TreeExpressionFunctionLambda<T, C extends ExpressionEvaluationContex
      */
     private final List<ExpressionFunctionParameter<?>> parameters;
 
+    /**
+     * Parameter references within the {@link #expression} resolved to parameter indices once, rather than for every
+     * {@link #apply(List, ExpressionEvaluationContext)}.
+     */
+    private final TreeExpressionFunctionLambdaSlots slots;
+
     @Override
     public Class<T> returnType() {
         return this.returnType;
@@ -76,6 +86,10 @@ final class TreeExpressionFunctionLambda<T, C extends ExpressionEvaluationContex
 
     private final Class<T> returnType;
 
+    /**
+     * A new scope and frame of parameter values is created for each call, as the same lambda may be called again
+     * before this call completes, either recursively or by another evaluation, each with their own parameter values.
+     */
     @Override
     public T apply(final List<Object> values,
                    final C context) {
@@ -84,7 +98,7 @@ final class TreeExpressionFunctionLambda<T, C extends ExpressionEvaluationContex
         return context.convertOrFail(
             context.enterScope(
                 TreeExpressionFunctionLambdaExpressionEvaluationContextFunction.with(
-                    this.parameters,
+                    this.slots,
                     values
                 )
             ).evaluateExpression(this.expression),
@@ -17,6 +17,8 @@
 
 package walkingkooka.tree.expression.function;
 
+import walkingkooka.Cast;
+import walkingkooka.tree.expression.ExpressionEvaluationContext;
 import walkingkooka.tree.expression.ExpressionReference;
 
 import java.util.List;
@@ -29,53 +31,68 @@ import java.util.function.Function;
  */
 final class TreeExpressionFunctionLambdaExpressionEvaluationContextFunction implements Function<ExpressionReference, Optional<Optional<Object>>> {
 
-    static TreeExpressionFunctionLambdaExpressionEvaluationContextFunction with(final List<ExpressionFunctionParameter<?>> parameters,
+    static TreeExpressionFunctionLambdaExpressionEvaluationContextFunction with(final TreeExpressionFunctionLambdaSlots slots,
                                                                                 final List<Object> values) {
         return new TreeExpressionFunctionLambdaExpressionEvaluationContextFunction(
-            parameters,
+            slots,
             values
         );
     }
 
-    private TreeExpressionFunctionLambdaExpressionEvaluationContextFunction(final List<ExpressionFunctionParameter<?>> parameters,
+    private TreeExpressionFunctionLambdaExpressionEvaluationContextFunction(final TreeExpressionFunctionLambdaSlots slots,
                                                                             final List<Object> values) {
-        this.parameters = parameters;
+        this.slots = slots;
         this.values = values;
+        this.frame = Cast.to(
+            new Optional[values.size()]
+        );
     }
 
     @Override
     public Optional<Optional<Object>> apply(final ExpressionReference reference) {
-        Optional<Object> value = null;
+        final int slot = this.slots.slot(reference);
+
+        final Optional<Optional<Object>> result;
 
-        int i = 0;
+        if (TreeExpressionFunctionLambdaSlots.NOT_A_PARAMETER == slot) {
+            result = ExpressionEvaluationContext.REFERENCE_NOT_FOUND_VALUE;
+        } else {
+            final Optional<Optional<Object>>[] frame = this.frame;
 
-        for (final ExpressionFunctionParameter<?> parameter : this.parameters) {
-            if (reference.testParameterName(
-                parameter.name()
-            )) {
-                value = Optional.ofNullable(
-                    this.values.get(i)
-                );
-                break;
+            Optional<Optional<Object>> wrapped = frame[slot];
+            if (null == wrapped) {
+                final Object value = this.values.get(slot);
+                wrapped = null == value ?
+                    ExpressionEvaluationContext.REFERENCE_NULL_VALUE :
+                    Optional.of(
+                        Optional.of(value)
+                    );
+                frame[slot] = wrapped;
             }
-            i++;
+            result = wrapped;
         }
 
-        return Optional.ofNullable(value);
+        return result;
     }
 
     /**
-     * Provides the names for each parameter, and the type
+     * Maps references to the index of the parameter value.
      */
-    private final List<ExpressionFunctionParameter<?>> parameters;
+    private final TreeExpressionFunctionLambdaSlots slots;
 
     /**
-     * The values to the lambda function when executed.
+     * The values to the lambda function when executed, indexed by parameter slot.
      */
     private final List<Object> values;
 
+    /**
+     * The wrapped value for each parameter slot, filled the first time a slot is read so parameters that are never
+     * referenced are never evaluated and each is wrapped once per invocation.
+     */
+    private final Optional<Optional<Object>>[] frame;
+
     @Override
     public String toString() {
-        return this.parameters.toString();
+        return this.slots.toString();
     }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression.function;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.tree.expression.Expression;
+import walkingkooka.tree.expression.ExpressionReference;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps each {@link ExpressionReference} found within a lambda body to the index of the {@link ExpressionFunctionParameter}
+ * it names, or -1 if it does not name a parameter. The mapping is computed once when the lambda is created, so each
+ * invocation only needs a single map lookup, rather than testing every parameter name.
+ */
+final class TreeExpressionFunctionLambdaSlots {
+
+    /**
+     * Indicates the {@link ExpressionReference} is not a parameter.
+     */
+    final static int NOT_A_PARAMETER = -1;
+
+    static TreeExpressionFunctionLambdaSlots with(final List<ExpressionFunctionParameter<?>> parameters,
+                                                  final Expression expression) {
+        final int count = parameters.size();
+        final ExpressionFunctionParameterName[] names = new ExpressionFunctionParameterName[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = parameters.get(i).name();
+        }
+
+        final Map<ExpressionReference, Integer> referenceToSlot = Maps.hash();
+        for (final ExpressionReference reference : expression.references()) {
+            referenceToSlot.put(
+                reference,
+                slot(
+                    reference,
+                    names
+                )
+            );
+        }
+
+        return new TreeExpressionFunctionLambdaSlots(
+            names,
+            referenceToSlot
+        );
+    }
+
+    private TreeExpressionFunctionLambdaSlots(final ExpressionFunctionParameterName[] names,
+                                              final Map<ExpressionReference, Integer> referenceToSlot) {
+        this.names = names;
+        this.referenceToSlot = referenceToSlot;
+    }
+
+    /**
+     * Returns the index of the parameter for the given {@link ExpressionReference} or {@link #NOT_A_PARAMETER}.
+     * References that were not present in the lambda body when it was created, fallback to testing each parameter name.
+     */
+    int slot(final ExpressionReference reference) {
+        final Integer slot = this.referenceToSlot.get(reference);
+        return null != slot ?
+            slot :
+            slot(
+                reference,
+                this.names
+            );
+    }
+
+    private static int slot(final ExpressionReference reference,
+                            final ExpressionFunctionParameterName[] names) {
+        int slot = NOT_A_PARAMETER;
+
+        final int count = names.length;
+        for (int i = 0; i < count; i++) {
+            if (reference.testParameterName(names[i])) {
+                slot = i;
+                break;
+            }
+        }
+
+        return slot;
+    }
+
+    /**
+     * The parameter names in parameter order.
+     */
+    private final ExpressionFunctionParameterName[] names;
+
+    /**
+     * The parameter index for every {@link ExpressionReference} within the lambda body, including
+     * {@link #NOT_A_PARAMETER} for those that are not parameters.
+     */
+    private final Map<ExpressionReference, Integer> referenceToSlot;
+
+    @Override
+    public String toString() {
+        return Lists.of(this.names).toString();
+    }
+}
@@ -52,7 +52,7 @@ abstract class TreeExpressionFunctionListShared<C extends ExpressionEvaluationCo
     final static ExpressionFunctionParameter<Object> ELEMENTS = ExpressionFunctionParameterName.with("elements")
         .variable(Object.class)
         .setKinds(
-            ExpressionFunctionParameterKind.EVALUATE_RESOLVE_REFERENCES
+            ExpressionFunctionParameterKind.EAGER_EVALUATE_RESOLVE_REFERENCES
         );
 
     final static List<ExpressionFunctionParameter<?>> PARAMETERS = ExpressionFunctionParameter.list(
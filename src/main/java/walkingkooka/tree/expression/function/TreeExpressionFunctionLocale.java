@@ -32,7 +32,7 @@ final class TreeExpressionFunctionLocale<C extends ExpressionEvaluationContext>
 
     final static ExpressionFunctionParameter<Locale> LOCALE = ExpressionFunctionParameterName.with("locale")
         .required(Locale.class)
-        .setKinds(ExpressionFunctionParameterKind.CONVERT_EVALUATE);
+        .setKinds(ExpressionFunctionParameterKind.CONVERT_EAGER_EVALUATE);
 
     private final static List<ExpressionFunctionParameter<?>> PARAMETERS = ExpressionFunctionParameter.list(
         LOCALE
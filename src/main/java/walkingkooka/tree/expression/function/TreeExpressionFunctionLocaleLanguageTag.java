@@ -32,7 +32,7 @@ final class TreeExpressionFunctionLocaleLanguageTag<C extends ExpressionEvaluati
 
     final static ExpressionFunctionParameter<LocaleLanguageTag> LOCALE_LANGUAGE_TAG = ExpressionFunctionParameterName.with("localeLanguageTag")
         .required(LocaleLanguageTag.class)
-        .setKinds(ExpressionFunctionParameterKind.CONVERT_EVALUATE);
+        .setKinds(ExpressionFunctionParameterKind.CONVERT_EAGER_EVALUATE);
 
     private final static List<ExpressionFunctionParameter<?>> PARAMETERS = ExpressionFunctionParameter.list(
         LOCALE_LANGUAGE_TAG
@@ -56,7 +56,7 @@ final class TreeExpressionFunctionNodeName<C extends ExpressionEvaluationContext
     @SuppressWarnings("rawtypes")
     private final static ExpressionFunctionParameter<Node> NODE = ExpressionFunctionParameterName.with("node")
         .required(Node.class)
-        .setKinds(ExpressionFunctionParameterKind.EVALUATE_RESOLVE_REFERENCES);
+        .setKinds(ExpressionFunctionParameterKind.EAGER_EVALUATE_RESOLVE_REFERENCES);
 
     private final static List<ExpressionFunctionParameter<?>> PARAMETERS = ExpressionFunctionParameter.list(NODE);
 
@@ -36,15 +36,15 @@ final class TreeExpressionFunctionTreeText<C extends ExpressionEvaluationContext
 
     final static ExpressionFunctionParameter<Object> VALUE = ExpressionFunctionParameterName.with("value")
         .required(Object.class)
-        .setKinds(ExpressionFunctionParameterKind.EVALUATE_RESOLVE_REFERENCES);
+        .setKinds(ExpressionFunctionParameterKind.EAGER_EVALUATE_RESOLVE_REFERENCES);
 
     final static ExpressionFunctionParameter<Indentation> INDENTATION = ExpressionFunctionParameterName.with("indentation")
         .optional(Indentation.class)
-        .setKinds(ExpressionFunctionParameterKind.CONVERT_EVALUATE_RESOLVE_REFERENCES);
+        .setKinds(ExpressionFunctionParameterKind.CONVERT_EAGER_EVALUATE_RESOLVE_REFERENCES);
 
     final static ExpressionFunctionParameter<LineEnding> LINE_ENDING = ExpressionFunctionParameterName.with("lineEnding")
         .optional(LineEnding.class)
-        .setKinds(ExpressionFunctionParameterKind.CONVERT_EVALUATE_RESOLVE_REFERENCES);
+        .setKinds(ExpressionFunctionParameterKind.CONVERT_EAGER_EVALUATE_RESOLVE_REFERENCES);
 
     private final static List<ExpressionFunctionParameter<?>> PARAMETERS = ExpressionFunctionParameter.list(
         VALUE,
@@ -18,6 +18,7 @@
 package walkingkooka.tree.pointer;
 
 import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
 import walkingkooka.naming.Name;
 import walkingkooka.text.CharSequences;
 import walkingkooka.text.CharacterConstant;
@@ -26,6 +27,7 @@ import walkingkooka.text.printer.TreePrintable;
 import walkingkooka.tree.Node;
 import walkingkooka.visit.Visitable;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
@@ -52,8 +54,8 @@ public abstract class NodePointer<N extends Node<N, NAME, ?, ?>, NAME extends Na
         Objects.requireNonNull(nameFactory, "name factory");
         Objects.requireNonNull(nodeType, "nodeType");
 
-        final String[] components = pointer.split(SEPARATOR.string());
-        NodePointer<N, NAME> result = any(nodeType);
+        final List<String> components = split(pointer);
+        final List<NodePointer<N, NAME>> pointers = Lists.array();
         boolean relative = true;
         boolean hash = false;
 
@@ -72,27 +74,175 @@ public abstract class NodePointer<N extends Node<N, NAME, ?, ?>, NAME extends Na
                 throw new IllegalArgumentException("Empty component found within pointer=" + CharSequences.quote(pointer));
             }
 
-            try {
-                final int number = Integer.parseInt(component);
-                result = result.appendToLast(relative ?
+            final Integer number = parseNumberOrNull(component);
+            final NodePointer<N, NAME> next;
+            if (null != number) {
+                next = relative ?
                     NodePointerRelative.with(number, hash) :
-                    indexed(number, nodeType));
-            } catch (final NumberFormatException mustBeName) {
-                if (relative) {
-                    throw new IllegalArgumentException("Relative pointer expected number but got=" + CharSequences.quote(pointer));
-                }
-                if (APPEND.equals(component)) {
-                    result = result.append();
-                } else {
-                    final NAME name = nameFactory.apply(component.replace("~1", "/")
-                        .replace("~0", "~"));
-                    result = result.named(name);
-                }
+                    NodePointerIndexedChild.with(number);
+            } else {
+                next = parseName(component, relative, pointer, nameFactory);
             }
+            pointers.add(next);
             relative = false;
         }
 
-        return result;
+        return pointers.isEmpty() ?
+            any(nodeType) :
+            link(pointers);
+    }
+
+    /**
+     * Splits the pointer text at each separator, without using a regular expression. Like {@link String#split(String)}
+     * trailing empty components are dropped.
+     */
+    private static List<String> split(final String pointer) {
+        final List<String> components = Lists.array();
+        final char separator = SEPARATOR.character();
+        final int length = pointer.length();
+
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            if (separator == pointer.charAt(i)) {
+                components.add(pointer.substring(start, i));
+                start = i + 1;
+            }
+        }
+        components.add(pointer.substring(start));
+
+        int last = components.size() - 1;
+        while (last >= 0 && components.get(last).isEmpty()) {
+            components.remove(last);
+            last--;
+        }
+
+        return components;
+    }
+
+    /**
+     * Returns the number if the component is an optional sign followed by one or more digits, which is the text
+     * accepted by {@link Integer#parseInt(String)}, otherwise returns null and the component is a name. Checking the
+     * characters first avoids throwing a {@link NumberFormatException} for every name.
+     */
+    private static Integer parseNumberOrNull(final String component) {
+        final int length = component.length();
+        final char first = component.charAt(0);
+        int i = '-' == first || '+' == first ? 1 : 0;
+
+        boolean number = i < length;
+        for (; number && i < length; i++) {
+            final char c = component.charAt(i);
+            number = c >= '0' && c <= '9';
+        }
+
+        Integer value = null;
+        if (number) {
+            try {
+                value = Integer.parseInt(component);
+            } catch (final NumberFormatException tooBig) {
+                // too many digits treat as a name
+            }
+        }
+        return value;
+    }
+
+    private static <N extends Node<N, NAME, ?, ?>, NAME extends Name> NodePointer<N, NAME> parseName(final String component,
+                                                                                                     final boolean relative,
+                                                                                                     final String pointer,
+                                                                                                     final Function<String, NAME> nameFactory) {
+        if (relative) {
+            throw new IllegalArgumentException("Relative pointer expected number but got=" + CharSequences.quote(pointer));
+        }
+
+        return APPEND.equals(component) ?
+            NodePointerAppend.create() :
+            NodePointerNamedChild.with(
+                nameFactory.apply(
+                    unescape(component)
+                )
+            );
+    }
+
+    /**
+     * Replaces the escape sequences ~1 with a slash and ~0 with a tilde.
+     */
+    private static String unescape(final String component) {
+        String unescaped = component;
+
+        if (-1 != component.indexOf('~')) {
+            final int length = component.length();
+            final StringBuilder b = new StringBuilder(length);
+
+            for (int i = 0; i < length; i++) {
+                final char c = component.charAt(i);
+                if ('~' == c && i + 1 < length) {
+                    final char next = component.charAt(i + 1);
+                    if ('1' == next) {
+                        b.append('/');
+                        i++;
+                        continue;
+                    }
+                    if ('0' == next) {
+                        b.append('~');
+                        i++;
+                        continue;
+                    }
+                }
+                b.append(c);
+            }
+
+            unescaped = b.toString();
+        }
+
+        return unescaped;
+    }
+
+    /**
+     * Creates a chain of the given pointers, each of which must not have a next. The chain is built once starting
+     * with the last pointer, rather than repeatedly appending.
+     */
+    static <N extends Node<N, NAME, ?, ?>, NAME extends Name> NodePointer<N, NAME> link(final List<NodePointer<N, NAME>> pointers) {
+        final int last = pointers.size() - 1;
+
+        NodePointer<N, NAME> chain = pointers.get(last);
+        for (int i = last - 1; i >= 0; i--) {
+            chain = pointers.get(i)
+                .setNext(chain);
+        }
+
+        return chain;
+    }
+
+    /**
+     * Creates an absolute pointer from the root to the given {@link Node}, using names for nodes with
+     * {@link Node#hasUniqueNameAmongstSiblings()} and indices for all others. Ancestors are visited using a loop and
+     * the chain is built once starting with the given {@link Node}.
+     */
+    public static <N extends Node<N, NAME, ?, ?>, NAME extends Name> NodePointer<N, NAME> path(final N node) {
+        Objects.requireNonNull((Node<?, ?, ?, ?>) node, "node");
+
+        NodePointer<N, NAME> chain = absent();
+        N child = node;
+
+        for (; ; ) {
+            final Optional<N> parent = child.parent();
+            if (false == parent.isPresent()) {
+                break;
+            }
+
+            final NodePointer<N, NAME> component = child.hasUniqueNameAmongstSiblings() ?
+                NodePointerNamedChild.with(child.name()) :
+                NodePointerIndexedChild.with(child.index());
+            chain = null == chain ?
+                component :
+                component.setNext(chain);
+
+            child = parent.get();
+        }
+
+        return null == chain ?
+            NodePointerAny.get() :
+            chain;
     }
 
     /**
@@ -131,6 +281,16 @@ public abstract class NodePointer<N extends Node<N, NAME, ?, ?>, NAME extends Na
         return NodePointerNamedChild.with(name);
     }
 
+    /**
+     * Creates an empty {@link NodePointerBuilder}, which should be preferred over repeated calls to
+     * {@link #named(Name)} and {@link #indexed(int)} when building pointers with many components.
+     */
+    public static <N extends Node<N, NAME, ?, ?>, NAME extends Name> NodePointerBuilder<N, NAME> builder(final Class<N> nodeType) {
+        Objects.requireNonNull(nodeType, "nodeType");
+
+        return NodePointerBuilder.empty();
+    }
+
     /**
      * Creates an relative.
      */
@@ -180,16 +340,28 @@ public abstract class NodePointer<N extends Node<N, NAME, ?, ?>, NAME extends Na
     }
 
     /**
-     * Appends one pointer to end.
+     * Appends one pointer to end, copying each component of this pointer once. Because every append copies the
+     * entire chain, {@link NodePointerBuilder} should be used to build pointers with many components.
      */
-    abstract NodePointer<N, NAME> appendToLast(final NodePointer<N, NAME> pointer);
+    final NodePointer<N, NAME> appendToLast(final NodePointer<N, NAME> pointer) {
+        final List<NodePointer<N, NAME>> pointers = Lists.array();
+
+        NodePointer<N, NAME> component = this;
+        do {
+            pointers.add(component);
+            component = component.next;
+        } while (null != component);
 
-    final NodePointer<N, NAME> appendToLast0(final NodePointer<N, NAME> pointer) {
-        return null == this.next ?
-            pointer :
-            this.next.appendToLast(pointer);
+        pointers.add(pointer);
+
+        return link(pointers);
     }
 
+    /**
+     * Returns a copy of this component with the given next, ignoring any current next.
+     */
+    abstract NodePointer<N, NAME> setNext(final NodePointer<N, NAME> next);
+
     /**
      * Walks this pointer and returns the matching {@link Node}
      */
@@ -45,9 +45,14 @@ final class NodePointerAny<N extends Node<N, NAME, ?, ?>, NAME extends Name> ext
         super(null);
     }
 
+    /**
+     * {@link NodePointerAny} only ever appears by itself, and is replaced by any following pointer.
+     */
     @Override
-    NodePointer<N, NAME> appendToLast(final NodePointer<N, NAME> pointer) {
-        return pointer;
+    NodePointer<N, NAME> setNext(final NodePointer<N, NAME> next) {
+        return null == next ?
+            this :
+            next;
     }
 
     @Override
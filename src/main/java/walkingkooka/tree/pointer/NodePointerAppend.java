@@ -51,9 +51,15 @@ final class NodePointerAppend<N extends Node<N, NAME, ?, ?>, NAME extends Name>
         super(next);
     }
 
+    /**
+     * A {@link NodePointerAppend} must always be the last component.
+     */
     @Override
-    NodePointer<N, NAME> appendToLast(final NodePointer<N, NAME> pointer) {
-        throw new UnsupportedOperationException();
+    NodePointer<N, NAME> setNext(final NodePointer<N, NAME> next) {
+        if (null != next) {
+            throw new UnsupportedOperationException();
+        }
+        return this;
     }
 
     @Override
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.pointer;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.naming.Name;
+import walkingkooka.tree.Node;
+
+import java.util.List;
+
+/**
+ * Accumulates the components of a {@link NodePointer} and links them once when {@link #build()} is called. Appending
+ * with {@link NodePointer#named(Name)} and similar must copy the entire immutable chain every time, so building a
+ * pointer with many components that way is quadratic.
+ */
+public final class NodePointerBuilder<N extends Node<N, NAME, ?, ?>, NAME extends Name> {
+
+    /**
+     * Creates an empty {@link NodePointerBuilder}.
+     */
+    static <N extends Node<N, NAME, ?, ?>, NAME extends Name> NodePointerBuilder<N, NAME> empty() {
+        return new NodePointerBuilder<>();
+    }
+
+    private NodePointerBuilder() {
+        super();
+    }
+
+    /**
+     * Adds a component equivalent to the "-" token within a string pointer.
+     */
+    public NodePointerBuilder<N, NAME> append() {
+        return this.add(NodePointerAppend.create());
+    }
+
+    /**
+     * Adds a child name component.
+     */
+    public NodePointerBuilder<N, NAME> named(final NAME name) {
+        return this.add(NodePointerNamedChild.with(name));
+    }
+
+    /**
+     * Adds a child index component.
+     */
+    public NodePointerBuilder<N, NAME> indexed(final int index) {
+        return this.add(NodePointerIndexedChild.with(index));
+    }
+
+    private NodePointerBuilder<N, NAME> add(final NodePointer<N, NAME> component) {
+        this.components.add(component);
+        return this;
+    }
+
+    /**
+     * Links all components added so far into a {@link NodePointer}, returning a pointer matching any node when none
+     * were added. The builder may continue to be used afterwards.
+     */
+    public NodePointer<N, NAME> build() {
+        final List<NodePointer<N, NAME>> components = this.components;
+
+        return components.isEmpty() ?
+            NodePointerAny.get() :
+            NodePointer.link(components);
+    }
+
+    private final List<NodePointer<N, NAME>> components = Lists.array();
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.build()
+            .toString();
+    }
+}
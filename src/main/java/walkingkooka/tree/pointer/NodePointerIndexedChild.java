@@ -58,10 +58,10 @@ final class NodePointerIndexedChild<N extends Node<N, NAME, ?, ?>, NAME extends
     final int index;
 
     @Override
-    NodePointer<N, NAME> appendToLast(final NodePointer<N, NAME> pointer) {
+    NodePointer<N, NAME> setNext(final NodePointer<N, NAME> next) {
         return new NodePointerIndexedChild<>(
             this.index,
-            this.appendToLast0(pointer)
+            next
         );
     }
 
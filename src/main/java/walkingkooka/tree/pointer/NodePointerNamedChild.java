@@ -19,6 +19,7 @@ package walkingkooka.tree.pointer;
 
 import walkingkooka.Cast;
 import walkingkooka.naming.Name;
+import walkingkooka.tree.HasNamedChildren;
 import walkingkooka.tree.Node;
 import walkingkooka.visit.Visiting;
 
@@ -54,15 +55,24 @@ final class NodePointerNamedChild<N extends Node<N, NAME, ?, ?>, NAME extends Na
     final NAME name;
 
     @Override
-    NodePointer<N, NAME> appendToLast(final NodePointer<N, NAME> pointer) {
+    NodePointer<N, NAME> setNext(final NodePointer<N, NAME> next) {
         return new NodePointerNamedChild<>(
             this.name,
-            this.appendToLast0(pointer)
+            next
         );
     }
 
+    /**
+     * Uses {@link HasNamedChildren} when available, otherwise scans all children.
+     */
     @Override
     N nextNodeOrNull(final N node) {
+        if (node instanceof HasNamedChildren) {
+            final HasNamedChildren<NAME, N> named = Cast.to(node);
+            return named.namedChildren()
+                .get(this.name);
+        }
+
         N matched = null;
 
         for (N child : node.children()) {
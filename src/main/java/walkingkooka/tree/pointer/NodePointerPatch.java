@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.pointer;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.naming.Name;
+import walkingkooka.tree.Node;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Applies many {@link NodePointerPatchOperation} to a tree, producing the same result as applying each one at a time
+ * using {@link NodePointer#add(Node, Node)} or {@link NodePointer#remove(Node)}, but rebuilding each touched
+ * {@link Node} only once.
+ * <br>
+ * Each edit uses the same {@link Node} method as the sequential operation, {@link Node#appendChild(Node)},
+ * {@link Node#setChild(int, Node)}, {@link Node#setChild(Name, Node)} or {@link Node#parentWithout()}, and fails with
+ * the same exception. Every {@link Node} an operation passes through is detached from its parent while it is edited,
+ * so an edit never rebuilds ancestors, and operations that share a prefix share those copies. Once all operations are
+ * applied each touched {@link Node} is put back into its parent with {@link Node#setChild(int, Node)}, starting with
+ * the deepest, so the ancestors are rebuilt once.
+ * <br>
+ * Relative pointers are not supported.
+ */
+public final class NodePointerPatch<N extends Node<N, NAME, ?, ?>, NAME extends Name> {
+
+    /**
+     * Creates a {@link NodePointerPatch} holding the given operations, which will be applied in order.
+     */
+    public static <N extends Node<N, NAME, ?, ?>, NAME extends Name> NodePointerPatch<N, NAME> with(final List<NodePointerPatchOperation<N, NAME>> operations) {
+        Objects.requireNonNull(operations, "operations");
+
+        final List<NodePointerPatchOperation<N, NAME>> copy = Lists.immutable(operations);
+        for (final NodePointerPatchOperation<N, NAME> operation : copy) {
+            Objects.requireNonNull(operation, "operation");
+
+            if (operation.pointer().isRelative()) {
+                throw new IllegalArgumentException("Relative pointers are not supported " + operation);
+            }
+        }
+
+        return new NodePointerPatch<>(copy);
+    }
+
+    private NodePointerPatch(final List<NodePointerPatchOperation<N, NAME>> operations) {
+        this.operations = operations;
+    }
+
+    /**
+     * Applies all operations returning the given {@link Node} with all changes.
+     */
+    public N apply(final N node) {
+        Objects.requireNonNull((Node<?, ?, ?, ?>) node, "node");
+
+        N patched = node;
+
+        if (false == this.operations.isEmpty()) {
+            final boolean isRoot = node.isRoot();
+            final NodePointerPatchNode<N, NAME> root = NodePointerPatchNode.with(
+                isRoot ?
+                    node :
+                    node.removeParent()
+            );
+
+            for (final NodePointerPatchOperation<N, NAME> operation : this.operations) {
+                this.apply0(
+                    operation,
+                    root,
+                    node
+                );
+            }
+
+            patched = root.build();
+            if (false == isRoot) {
+                patched = node.equals(patched) ?
+                    node :
+                    node.replace(patched);
+            }
+        }
+
+        return patched;
+    }
+
+    private void apply0(final NodePointerPatchOperation<N, NAME> operation,
+                        final NodePointerPatchNode<N, NAME> root,
+                        final N node) {
+        final boolean remove = operation.isRemove();
+        final NodePointer<N, NAME> first = operation.pointer();
+
+        // NodePointerAny and NodePointerAppend#remove0 always fail
+        if (first instanceof NodePointerAny || remove && first instanceof NodePointerAppend) {
+            throw new UnsupportedOperationException(
+                (remove ? "Remove" : "Add") + " not supported for " + first
+            );
+        }
+
+        NodePointerPatchNode<N, NAME> parent = root;
+        NodePointer<N, NAME> pointer = first;
+
+        for (; ; ) {
+            final NodePointer<N, NAME> next = pointer.next;
+
+            if (null == next) {
+                if (remove) {
+                    if (false == parent.remove(pointer)) {
+                        throw notFound(first, node);
+                    }
+                } else {
+                    parent.add(
+                        pointer,
+                        operation.value()
+                            .get()
+                    );
+                }
+                break;
+            }
+
+            final NodePointerPatchNode<N, NAME> child = parent.child(pointer);
+            if (null == child) {
+                throw notFound(remove ? first : pointer, node);
+            }
+
+            parent = child;
+            pointer = next;
+        }
+    }
+
+    private static NodePointerException notFound(final NodePointer<?, ?> pointer,
+                                                 final Node<?, ?, ?, ?> node) {
+        return new NodePointerException("Unable to find " + pointer + " starting at " + node);
+    }
+
+    private final List<NodePointerPatchOperation<N, NAME>> operations;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.operations.toString();
+    }
+}
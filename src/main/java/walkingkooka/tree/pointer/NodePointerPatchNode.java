@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.pointer;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.naming.Name;
+import walkingkooka.tree.Node;
+
+import java.util.Map;
+
+/**
+ * A {@link Node} touched by a {@link NodePointerPatch}, detached from its parent so each edit only rebuilds the
+ * {@link Node} itself and never its ancestors. Children that are themselves touched are held as
+ * {@link NodePointerPatchNode} by index, and are only put back into this {@link Node} when it is next edited or built.
+ */
+final class NodePointerPatchNode<N extends Node<N, NAME, ?, ?>, NAME extends Name> {
+
+    static <N extends Node<N, NAME, ?, ?>, NAME extends Name> NodePointerPatchNode<N, NAME> with(final N node) {
+        return new NodePointerPatchNode<>(node);
+    }
+
+    private NodePointerPatchNode(final N node) {
+        this.node = node;
+    }
+
+    /**
+     * Returns the copy of the child matched by the pointer component, using the same lookup as
+     * {@link NodePointer#traverse(Node)}, or null if no child matched.
+     */
+    NodePointerPatchNode<N, NAME> child(final NodePointer<N, NAME> pointer) {
+        final N child = pointer.nextNodeOrNull(this.node);
+
+        NodePointerPatchNode<N, NAME> patch = null;
+        if (null != child) {
+            final int index = child.index();
+
+            patch = this.children.get(index);
+            if (null == patch) {
+                patch = with(child.removeParent());
+                this.children.put(
+                    index,
+                    patch
+                );
+            }
+        }
+        return patch;
+    }
+
+    /**
+     * Adds the value using {@link NodePointer#add0(Node, Node)}, just like {@link NodePointer#add(Node, Node)}.
+     */
+    void add(final NodePointer<N, NAME> pointer,
+             final N value) {
+        this.node = pointer.add0(
+            this.build(),
+            value
+        );
+    }
+
+    /**
+     * Removes the child matched by the pointer component using {@link Node#parentWithout()}, just like
+     * {@link NodePointer#remove(Node)}, returning false if no child matched.
+     */
+    boolean remove(final NodePointer<N, NAME> pointer) {
+        final N child = pointer.nextNodeOrNull(
+            this.build()
+        );
+
+        final boolean removed = null != child;
+        if (removed) {
+            this.node = child.parentWithout()
+                .get();
+        }
+        return removed;
+    }
+
+    /**
+     * Puts every touched child back using {@link Node#setChild(int, Node)} and returns the {@link Node}.
+     */
+    N build() {
+        N node = this.node;
+
+        final Map<Integer, NodePointerPatchNode<N, NAME>> children = this.children;
+        if (false == children.isEmpty()) {
+            for (final Map.Entry<Integer, NodePointerPatchNode<N, NAME>> child : children.entrySet()) {
+                node = node.setChild(
+                    child.getKey(),
+                    child.getValue()
+                        .build()
+                );
+            }
+            children.clear();
+            this.node = node;
+        }
+
+        return node;
+    }
+
+    /**
+     * The {@link Node} with all edits so far, except for those within {@link #children}.
+     */
+    private N node;
+
+    /**
+     * Touched children by their index within {@link #node}.
+     */
+    private final Map<Integer, NodePointerPatchNode<N, NAME>> children = Maps.sorted();
+
+    @Override
+    public String toString() {
+        return this.node.toString();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.pointer;
+
+import walkingkooka.naming.Name;
+import walkingkooka.tree.Node;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A single add or remove within a {@link NodePointerPatch}, equivalent to calling {@link NodePointer#add(Node, Node)}
+ * or {@link NodePointer#remove(Node)}.
+ */
+public final class NodePointerPatchOperation<N extends Node<N, NAME, ?, ?>, NAME extends Name> {
+
+    /**
+     * Creates an operation that adds or replaces the given value.
+     */
+    public static <N extends Node<N, NAME, ?, ?>, NAME extends Name> NodePointerPatchOperation<N, NAME> add(final NodePointer<N, NAME> pointer,
+                                                                                                            final N value) {
+        Objects.requireNonNull(pointer, "pointer");
+        Objects.requireNonNull(value, "value");
+
+        return new NodePointerPatchOperation<>(
+            pointer,
+            Optional.of(value)
+        );
+    }
+
+    /**
+     * Creates an operation that removes the node matched by the pointer.
+     */
+    public static <N extends Node<N, NAME, ?, ?>, NAME extends Name> NodePointerPatchOperation<N, NAME> remove(final NodePointer<N, NAME> pointer) {
+        Objects.requireNonNull(pointer, "pointer");
+
+        return new NodePointerPatchOperation<>(
+            pointer,
+            Optional.empty()
+        );
+    }
+
+    private NodePointerPatchOperation(final NodePointer<N, NAME> pointer,
+                                      final Optional<N> value) {
+        this.pointer = pointer;
+        this.value = value;
+    }
+
+    public NodePointer<N, NAME> pointer() {
+        return this.pointer;
+    }
+
+    private final NodePointer<N, NAME> pointer;
+
+    /**
+     * The value being added, or empty for a remove.
+     */
+    public Optional<N> value() {
+        return this.value;
+    }
+
+    private final Optional<N> value;
+
+    /**
+     * Returns true if this is a remove.
+     */
+    public boolean isRemove() {
+        return false == this.value.isPresent();
+    }
+
+    // Object...........................................................................................................
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+            this.pointer,
+            this.value
+        );
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other ||
+            other instanceof NodePointerPatchOperation && this.equals0((NodePointerPatchOperation<?, ?>) other);
+    }
+
+    private boolean equals0(final NodePointerPatchOperation<?, ?> other) {
+        return this.pointer.equals(other.pointer) &&
+            this.value.equals(other.value);
+    }
+
+    @Override
+    public String toString() {
+        return this.isRemove() ?
+            "remove " + this.pointer :
+            "add " + this.pointer + " " + this.value.get();
+    }
+}
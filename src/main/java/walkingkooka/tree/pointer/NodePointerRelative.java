@@ -63,11 +63,11 @@ final class NodePointerRelative<N extends Node<N, NAME, ?, ?>, NAME extends Name
     }
 
     @Override
-    NodePointer<N, NAME> appendToLast(final NodePointer<N, NAME> pointer) {
+    NodePointer<N, NAME> setNext(final NodePointer<N, NAME> next) {
         return new NodePointerRelative<>(
             this.ancestorCount,
             this.hash,
-            this.appendToLast0(pointer)
+            next
         );
     }
 
@@ -61,9 +61,7 @@ final class AncestorNodeSelector<N extends Node<N, NAME, ANAME, AVALUE>, NAME ex
 
     @Override
     N select(final N node, final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
-        final N node2 = this.selectNext(node, context);
-
-        return this.selectParent(node2, context);
+        return this.selectNextThenAncestors(node, context);
     }
 
     // NodeSelectorVisitor..............................................................................................
@@ -45,6 +45,7 @@ import walkingkooka.tree.select.parser.NodeSelectorAttributeName;
 import java.nio.charset.Charset;
 import java.time.LocalDateTime;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
@@ -143,6 +144,18 @@ final class BasicNodeSelectorExpressionEvaluationContext<N extends Node<N, NAME,
      */
     @Override
     public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+        return Optional.of(
+            Optional.of(
+                this.referenceOrMissing(reference)
+            )
+        );
+    }
+
+    /**
+     * Attributes are never missing, absent attributes have an empty {@link String} value.
+     */
+    @Override
+    public Object referenceOrMissing(final ExpressionReference reference) {
         Objects.requireNonNull(reference, "reference");
 
         if (false == reference instanceof NodeSelectorAttributeName) {
@@ -151,18 +164,16 @@ final class BasicNodeSelectorExpressionEvaluationContext<N extends Node<N, NAME,
         final NodeSelectorAttributeName attributeName = Cast.to(reference);
         final String attributeNameString = attributeName.value();
 
-        final Object attributeValue = this.node.attributes()
-            .entrySet()
-            .stream()
-            .filter(nameAndValue -> nameAndValue.getKey().value().equals(attributeNameString))
-            .map(e -> wrapIfNumber(e.getValue()))
-            .findFirst()
-            .orElse(ABSENT);
-        return Optional.of(
-            Optional.of(
-                attributeValue
-            )
-        );
+        Object attributeValue = ABSENT;
+
+        for (final Map.Entry<ANAME, AVALUE> nameAndValue : this.node.attributes().entrySet()) {
+            if (nameAndValue.getKey().value().equals(attributeNameString)) {
+                attributeValue = this.wrapIfNumber(nameAndValue.getValue());
+                break;
+            }
+        }
+
+        return attributeValue;
     }
 
     private Object wrapIfNumber(final Object value) {
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.select;
+
+import walkingkooka.naming.Name;
+import walkingkooka.tree.Node;
+import walkingkooka.tree.expression.Expression;
+import walkingkooka.tree.expression.ExpressionEvaluationBudget;
+import walkingkooka.tree.expression.ExpressionEvaluationBudgetExceededException;
+import walkingkooka.tree.expression.ExpressionEvaluationContexts;
+
+import java.util.Objects;
+
+/**
+ * A {@link NodeSelectorContext} that charges an {@link ExpressionEvaluationBudget} a step every time
+ * {@link #isFinished()} is checked, which happens before each {@link Node} is visited, and a step and a level of depth
+ * for each {@link Expression} evaluated. Once the budget is exceeded a
+ * {@link ExpressionEvaluationBudgetExceededException} is thrown, aborting the select. Functions within the
+ * {@link Expression} may be charged to the same budget by wrapping the {@link walkingkooka.tree.expression.ExpressionEvaluationContext}
+ * with {@link ExpressionEvaluationContexts#budget(ExpressionEvaluationBudget, walkingkooka.tree.expression.ExpressionEvaluationContext)}.
+ */
+final class BudgetNodeSelectorContext<N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE>
+    implements NodeSelectorContext<N, NAME, ANAME, AVALUE> {
+
+    static <N extends Node<N, NAME, ANAME, AVALUE>,
+        NAME extends Name,
+        ANAME extends Name,
+        AVALUE> BudgetNodeSelectorContext<N, NAME, ANAME, AVALUE> with(final ExpressionEvaluationBudget budget,
+                                                                       final NodeSelectorContext<N, NAME, ANAME, AVALUE> context) {
+        Objects.requireNonNull(budget, "budget");
+        Objects.requireNonNull(context, "context");
+
+        return new BudgetNodeSelectorContext<>(
+            budget,
+            context
+        );
+    }
+
+    private BudgetNodeSelectorContext(final ExpressionEvaluationBudget budget,
+                                      final NodeSelectorContext<N, NAME, ANAME, AVALUE> context) {
+        this.budget = budget;
+        this.context = context;
+    }
+
+    @Override
+    public boolean isFinished() {
+        this.budget.step();
+        return this.context.isFinished();
+    }
+
+    @Override
+    public boolean test(final N node) {
+        return this.context.test(node);
+    }
+
+    @Override
+    public N node() {
+        return this.context.node();
+    }
+
+    @Override
+    public void setNode(final N node) {
+        this.context.setNode(node);
+    }
+
+    @Override
+    public N selected(final N node) {
+        return this.context.selected(node);
+    }
+
+    @Override
+    public Object evaluate(final Expression expression) {
+        final ExpressionEvaluationBudget budget = this.budget;
+        budget.step();
+        budget.enter();
+        try {
+            return this.context.evaluate(expression);
+        } finally {
+            budget.exit();
+        }
+    }
+
+    private final ExpressionEvaluationBudget budget;
+
+    private final NodeSelectorContext<N, NAME, ANAME, AVALUE> context;
+
+    @Override
+    public String toString() {
+        return this.budget + " " + this.context;
+    }
+}
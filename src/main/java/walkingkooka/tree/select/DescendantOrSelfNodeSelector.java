@@ -62,9 +62,7 @@ final class DescendantOrSelfNodeSelector<N extends Node<N, NAME, ANAME, AVALUE>,
 
     @Override
     N select(final N node, final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
-        final N node2 = this.selectNext(node, context);
-
-        return this.selectChildren(node2, context);
+        return this.selectNextThenDescendants(node, context);
     }
 
     // NodeSelectorVisitor..............................................................................................
@@ -38,6 +38,7 @@ import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -292,6 +293,34 @@ public abstract class NodeSelector<N extends Node<N, NAME, ANAME, AVALUE>,
             node;
     }
 
+    /**
+     * Applies this {@link NodeSelector} just like {@link #apply(Node, NodeSelectorContext)}, but records for each step
+     * the {@link Node nodes} visited, tested, selected and {@link Expression expressions} evaluated along with the time
+     * taken, using the given clock which would typically be {@link System#nanoTime()}.
+     */
+    public final NodeSelectorStatistics explain(final N node,
+                                                final NodeSelectorContext<N, NAME, ANAME, AVALUE> context,
+                                                final LongSupplier clock) {
+        Objects.requireNonNull(node, "node");
+        Objects.requireNonNull(context, "context");
+        Objects.requireNonNull(clock, "clock");
+
+        final NodeSelectorStatistics statistics = NodeSelectorStatistics.with(clock);
+
+        StatisticsNodeSelector.wrap(
+            this,
+            statistics
+        ).apply(
+            node,
+            StatisticsNodeSelectorContext.with(
+                statistics,
+                context
+            )
+        );
+
+        return statistics;
+    }
+
     /**
      * Sub classes must call this method which calls the observer and then immediately calls {@link #apply1(Node, NodeSelectorContext2)}
      * This method assumes that {@link NodeSelectorContext#test(Node)} was previously called for the given {@link Node}.
@@ -19,6 +19,7 @@ package walkingkooka.tree.select;
 import walkingkooka.naming.Name;
 import walkingkooka.reflect.PublicStaticHelper;
 import walkingkooka.tree.Node;
+import walkingkooka.tree.expression.ExpressionEvaluationBudget;
 import walkingkooka.tree.expression.ExpressionEvaluationContext;
 import walkingkooka.tree.expression.ExpressionFunctionName;
 import walkingkooka.tree.expression.function.ExpressionFunction;
@@ -58,6 +59,20 @@ public final class NodeSelectorContexts implements PublicStaticHelper {
         return BasicNodeSelectorContextFunction.INSTANCE;
     }
 
+    /**
+     * {@see BudgetNodeSelectorContext}
+     */
+    public static <N extends Node<N, NAME, ANAME, AVALUE>,
+        NAME extends Name,
+        ANAME extends Name,
+        AVALUE> NodeSelectorContext<N, NAME, ANAME, AVALUE> budget(final ExpressionEvaluationBudget budget,
+                                                                   final NodeSelectorContext<N, NAME, ANAME, AVALUE> context) {
+        return BudgetNodeSelectorContext.with(
+            budget,
+            context
+        );
+    }
+
     /**
      * {@see FakeNodeSelectorContext}
      */
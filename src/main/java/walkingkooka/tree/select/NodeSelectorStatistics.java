@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.select;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.text.printer.IndentingPrinter;
+import walkingkooka.text.printer.TreePrintable;
+import walkingkooka.tree.Node;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * The statistics for each step of a {@link NodeSelector} gathered by
+ * {@link NodeSelector#explain(Node, NodeSelectorContext, LongSupplier)}, along with any suggested rewrites.
+ */
+public final class NodeSelectorStatistics implements TreePrintable {
+
+    static NodeSelectorStatistics with(final LongSupplier clock) {
+        return new NodeSelectorStatistics(clock);
+    }
+
+    private NodeSelectorStatistics(final LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Adds a new step, steps must be added in the order they appear in the {@link NodeSelector}.
+     */
+    NodeSelectorStepStatistics add(final String label) {
+        final NodeSelectorStepStatistics step = NodeSelectorStepStatistics.with(label);
+
+        final List<NodeSelectorStepStatistics> steps = this.steps;
+        if (steps.isEmpty()) {
+            this.current = step; // the initial test performed by NodeSelector#apply
+        } else {
+            steps.get(steps.size() - 1).next = step;
+        }
+        steps.add(step);
+
+        return step;
+    }
+
+    /**
+     * All steps in order, the last step will be the terminal which records all selected {@link Node nodes}.
+     */
+    public List<NodeSelectorStepStatistics> steps() {
+        return Lists.readOnly(this.steps);
+    }
+
+    private final List<NodeSelectorStepStatistics> steps = Lists.array();
+
+    /**
+     * Suggested rewrites that may make the {@link NodeSelector} cheaper.
+     */
+    public List<String> suggestions() {
+        return Lists.readOnly(this.suggestions);
+    }
+
+    void suggest(final String suggestion) {
+        this.suggestions.add(suggestion);
+    }
+
+    private final List<String> suggestions = Lists.array();
+
+    /**
+     * The step that receives any counted {@link NodeSelectorContext} calls.
+     */
+    NodeSelectorStepStatistics current;
+
+    long now() {
+        return this.clock.getAsLong();
+    }
+
+    private final LongSupplier clock;
+
+    // TreePrintable....................................................................................................
+
+    @Override
+    public void printTree(final IndentingPrinter printer) {
+        for (final NodeSelectorStepStatistics step : this.steps) {
+            printer.println(step.toString());
+            printer.indent();
+        }
+        for (int i = 0; i < this.steps.size(); i++) {
+            printer.outdent();
+        }
+
+        for (final String suggestion : this.suggestions) {
+            printer.println(suggestion);
+        }
+    }
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.steps.toString();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.select;
+
+import walkingkooka.tree.Node;
+
+/**
+ * The counts and time recorded for a single step of a {@link NodeSelector} by
+ * {@link NodeSelector#explain(Node, NodeSelectorContext, java.util.function.LongSupplier)}.
+ */
+public final class NodeSelectorStepStatistics {
+
+    static NodeSelectorStepStatistics with(final String label) {
+        return new NodeSelectorStepStatistics(label);
+    }
+
+    private NodeSelectorStepStatistics(final String label) {
+        this.label = label;
+    }
+
+    /**
+     * A short description of the step, such as its type and name or {@link walkingkooka.tree.expression.Expression}.
+     */
+    public String label() {
+        return this.label;
+    }
+
+    private final String label;
+
+    /**
+     * The number of {@link Node nodes} given to this step, for name and predicate steps this is the number of tests.
+     */
+    public long visited() {
+        return this.visited;
+    }
+
+    long visited;
+
+    /**
+     * The number of {@link Node nodes} given to {@link NodeSelectorContext#test(Node)}.
+     */
+    public long tested() {
+        return this.tested;
+    }
+
+    long tested;
+
+    /**
+     * The number of {@link walkingkooka.tree.expression.Expression} predicates evaluated.
+     */
+    public long evaluated() {
+        return this.evaluated;
+    }
+
+    long evaluated;
+
+    /**
+     * The number of {@link Node nodes} given to {@link NodeSelectorContext#selected(Node)}.
+     */
+    public long selected() {
+        return this.selected;
+    }
+
+    long selected;
+
+    /**
+     * The total time including all following steps.
+     */
+    public long nanos() {
+        return this.nanos;
+    }
+
+    long nanos;
+
+    /**
+     * The time spent within this step excluding all following steps.
+     */
+    public long selfNanos() {
+        final NodeSelectorStepStatistics next = this.next;
+        return null != next ?
+            this.nanos - next.nanos :
+            this.nanos;
+    }
+
+    /**
+     * The following step or null if this is the last.
+     */
+    NodeSelectorStepStatistics next;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.label +
+            " visited=" + this.visited +
+            " tested=" + this.tested +
+            " evaluated=" + this.evaluated +
+            " selected=" + this.selected +
+            " nanos=" + this.nanos +
+            " self=" + this.selfNanos();
+    }
+}
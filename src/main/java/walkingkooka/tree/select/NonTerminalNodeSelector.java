@@ -18,12 +18,15 @@
 package walkingkooka.tree.select;
 
 import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
 import walkingkooka.naming.Name;
 import walkingkooka.text.CharSequences;
 import walkingkooka.text.printer.IndentingPrinter;
 import walkingkooka.tree.Node;
+import walkingkooka.tree.TraversableCursor;
 import walkingkooka.visit.Visiting;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -60,6 +63,112 @@ abstract class NonTerminalNodeSelector<N extends Node<N, NAME, ANAME, AVALUE>, N
         return this.next.apply0(node, context);
     }
 
+    /**
+     * Selects the given {@link Node} using {@link #selectNext(Node, NodeSelectorContext2)} and then tests and selects all
+     * its descendants in document order. This is equivalent to recursively calling {@link #selectChildren(Node, NodeSelectorContext2)}
+     * with {@link #select(Node, NodeSelectorContext2)} selecting the next node and then its children, but uses a loop
+     * so very deep trees cannot overflow the stack. Nodes are walked using a {@link TraversableCursor} which avoids
+     * creating an {@link Optional} for each sibling or parent.
+     */
+    final N selectNextThenDescendants(final N node,
+                                      final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
+        TraversableCursor<N> cursor = null;
+        int depth = 0; // the depth of the cursor relative to node
+        N begin = node; // a selected node that must be given to selectNext and then have its children processed
+        boolean test = false; // when true the cursor is on a child that must be tested, otherwise it has been completed
+
+        for (; ; ) {
+            if (null != begin) {
+                final N selected = this.selectNext(begin, context);
+                begin = null;
+
+                // selectNext may have replaced the node, continue from the replacement
+                if (null == cursor || selected != cursor.current()) {
+                    cursor = selected.traversableCursor();
+                }
+
+                test = cursor.moveFirstChild();
+                if (test) {
+                    depth++;
+                }
+            }
+
+            if (test) {
+                test = false;
+
+                if (context.isFinished()) {
+                    cursor.moveParent();
+                    depth--;
+                } else {
+                    final N child = cursor.current();
+                    if (context.test(child)) {
+                        begin = child;
+                        continue;
+                    }
+                }
+            }
+
+            if (0 == depth) {
+                break;
+            }
+
+            if (cursor.moveNextSibling()) {
+                test = true;
+            } else {
+                cursor.moveParent();
+                depth--;
+            }
+        }
+
+        return cursor.current();
+    }
+
+    /**
+     * Selects the given {@link Node} using {@link #selectNext(Node, NodeSelectorContext2)} and then tests and selects each
+     * of its ancestors. This is equivalent to recursively calling {@link #selectParent(Node, NodeSelectorContext2)}
+     * with {@link #select(Node, NodeSelectorContext2)} selecting the next node and then its parent, but uses a loop
+     * so very deep trees cannot overflow the stack.
+     */
+    final N selectNextThenAncestors(final N node,
+                                    final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
+        final List<Integer> indices = Lists.array();
+        TraversableCursor<N> cursor = null;
+        N current = node;
+
+        for (; ; ) {
+            final N selected = this.selectNext(current, context);
+            current = selected;
+
+            if (context.isFinished()) {
+                break;
+            }
+
+            if (null == cursor || selected != cursor.current()) {
+                cursor = selected.traversableCursor();
+            }
+
+            final int index = selected.index();
+            if (false == cursor.moveParent()) {
+                break;
+            }
+
+            indices.add(index);
+            current = cursor.current();
+
+            if (false == context.test(current)) {
+                break;
+            }
+        }
+
+        // return the equivalent of the original node within the possibly replaced ancestors
+        for (int i = indices.size() - 1; i >= 0; i--) {
+            current = current.children()
+                .get(indices.get(i));
+        }
+
+        return current;
+    }
+
     // Testing...
     final NodeSelector<N, NAME, ANAME, AVALUE> next;
 
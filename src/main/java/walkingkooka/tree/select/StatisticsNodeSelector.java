@@ -0,0 +1,198 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.select;
+
+import walkingkooka.Cast;
+import walkingkooka.naming.Name;
+import walkingkooka.text.CharSequences;
+import walkingkooka.text.printer.IndentingPrinter;
+import walkingkooka.tree.Node;
+
+/**
+ * A {@link NodeSelector} that wraps a single step recording the number of {@link Node nodes} it visits and the time
+ * taken into a {@link NodeSelectorStepStatistics}, and makes it the current step for
+ * {@link StatisticsNodeSelectorContext}. The following steps are also wrapped, so each step is counted separately.
+ */
+final class StatisticsNodeSelector<N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE>
+    extends
+    NodeSelector<N, NAME, ANAME, AVALUE> {
+
+    /**
+     * Wraps the given {@link NodeSelector} and all its following steps, adding a {@link NodeSelectorStepStatistics}
+     * for each and any suggestions.
+     */
+    static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> StatisticsNodeSelector<N, NAME, ANAME, AVALUE> wrap(final NodeSelector<N, NAME, ANAME, AVALUE> selector,
+                                                                                                                                                          final NodeSelectorStatistics statistics) {
+        final NodeSelector<N, NAME, ANAME, AVALUE> unwrapped = selector.unwrapIfCustomToStringNodeSelector();
+        final NodeSelectorStepStatistics step = statistics.add(
+            label(unwrapped)
+        );
+
+        NodeSelector<N, NAME, ANAME, AVALUE> wrapped = unwrapped;
+        if (unwrapped instanceof NonTerminalNodeSelector) {
+            final NonTerminalNodeSelector<N, NAME, ANAME, AVALUE> nonTerminal = Cast.to(unwrapped);
+            suggest(
+                nonTerminal,
+                statistics
+            );
+            wrapped = nonTerminal.append1(
+                wrap(
+                    nonTerminal.next,
+                    statistics
+                )
+            );
+        }
+
+        return new StatisticsNodeSelector<>(
+            wrapped,
+            step,
+            statistics
+        );
+    }
+
+    /**
+     * Returns the name of the step without the common suffix, including the name or {@link walkingkooka.tree.expression.Expression} if present.
+     */
+    private static String label(final NodeSelector<?, ?, ?, ?> selector) {
+        final String label = CharSequences.subSequence(
+            selector.getClass().getSimpleName(),
+            0,
+            -NODE_SELECTOR_LENGTH
+        ).toString();
+
+        return selector instanceof NamedNodeSelector ?
+            label + " " + ((NamedNodeSelector<?, ?, ?, ?>) selector).name :
+            selector instanceof ExpressionNodeSelector ?
+                label + " " + ((ExpressionNodeSelector<?, ?, ?, ?>) selector).expression :
+                label;
+    }
+
+    private final static int NODE_SELECTOR_LENGTH = NodeSelector.class.getSimpleName()
+        .length();
+
+    /**
+     * A name test immediately after an {@link ExpressionNodeSelector} tests the same {@link Node nodes}, testing the
+     * name first avoids evaluating the expression for {@link Node nodes} that have a different name.
+     */
+    private static void suggest(final NonTerminalNodeSelector<?, ?, ?, ?> selector,
+                                final NodeSelectorStatistics statistics) {
+        if (selector instanceof ExpressionNodeSelector) {
+            final NodeSelector<?, ?, ?, ?> next = selector.next.unwrapIfCustomToStringNodeSelector();
+
+            if (next instanceof NamedNodeSelector) {
+                statistics.suggest(
+                    "Move " + label(next) +
+                        " before " + label(selector) +
+                        " unless the expression uses the node position, to avoid evaluating it for nodes with other names"
+                );
+            }
+        }
+    }
+
+    private StatisticsNodeSelector(final NodeSelector<N, NAME, ANAME, AVALUE> selector,
+                                   final NodeSelectorStepStatistics step,
+                                   final NodeSelectorStatistics statistics) {
+        super();
+        this.selector = selector;
+        this.step = step;
+        this.statistics = statistics;
+    }
+
+    @Override
+    NodeSelector<N, NAME, ANAME, AVALUE> append0(final NodeSelector<N, NAME, ANAME, AVALUE> selector) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Delegate to the wrapped {@link NodeSelector}
+     */
+    @Override
+    NodeSelectorContext2<N, NAME, ANAME, AVALUE> beginPrepareContext(final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
+        return this.selector.beginPrepareContext(context);
+    }
+
+    /**
+     * Delegate to the wrapped {@link NodeSelector}
+     */
+    @Override
+    NodeSelectorContext2<N, NAME, ANAME, AVALUE> finishPrepareContext(final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
+        return this.selector.finishPrepareContext(context);
+    }
+
+    @Override
+    N apply1(final N node, final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
+        final NodeSelectorStatistics statistics = this.statistics;
+        final NodeSelectorStepStatistics step = this.step;
+        final NodeSelectorStepStatistics previous = statistics.current;
+
+        statistics.current = step;
+        step.visited++;
+
+        final long start = statistics.now();
+        try {
+            return this.selector.apply1(node, context);
+        } finally {
+            step.nanos += statistics.now() - start;
+            statistics.current = previous;
+        }
+    }
+
+    @Override
+    N select(final N node, final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
+        return this.selector.select(node, context);
+    }
+
+    // @VisibleForTesting
+    final NodeSelector<N, NAME, ANAME, AVALUE> selector;
+
+    private final NodeSelectorStepStatistics step;
+
+    private final NodeSelectorStatistics statistics;
+
+    // NodeSelectorVisitor..............................................................................................
+
+    @Override
+    void accept0(final NodeSelectorVisitor<N, NAME, ANAME, AVALUE> visitor) {
+        this.selector.traverse(visitor);
+    }
+
+    // Object...........................................................................................................
+
+    @Override
+    void toString0(final NodeSelectorToStringBuilder b) {
+        this.selector.toString0(b);
+    }
+
+    // CustomToStringNodeSelector........................................................................................
+
+    @Override
+    NodeSelector<N, NAME, ANAME, AVALUE> unwrapIfCustomToStringNodeSelector() {
+        return this;
+    }
+
+    // TreePrintable....................................................................................................
+
+    @Override
+    void printTree0(final IndentingPrinter printer) {
+        this.selector.printTree0(printer);
+    }
+
+    @Override
+    void printTreeNext(final IndentingPrinter printer) {
+        this.selector.printTreeNext(printer);
+    }
+}
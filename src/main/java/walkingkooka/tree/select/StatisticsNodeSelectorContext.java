@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.select;
+
+import walkingkooka.naming.Name;
+import walkingkooka.tree.Node;
+import walkingkooka.tree.expression.Expression;
+
+/**
+ * A {@link NodeSelectorContext} that counts tests, selections and {@link Expression} evaluations against the current
+ * step of a {@link NodeSelectorStatistics}, which is maintained by {@link StatisticsNodeSelector}.
+ */
+final class StatisticsNodeSelectorContext<N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE>
+    implements NodeSelectorContext<N, NAME, ANAME, AVALUE> {
+
+    static <N extends Node<N, NAME, ANAME, AVALUE>,
+        NAME extends Name,
+        ANAME extends Name,
+        AVALUE> StatisticsNodeSelectorContext<N, NAME, ANAME, AVALUE> with(final NodeSelectorStatistics statistics,
+                                                                           final NodeSelectorContext<N, NAME, ANAME, AVALUE> context) {
+        return new StatisticsNodeSelectorContext<>(
+            statistics,
+            context
+        );
+    }
+
+    private StatisticsNodeSelectorContext(final NodeSelectorStatistics statistics,
+                                          final NodeSelectorContext<N, NAME, ANAME, AVALUE> context) {
+        this.statistics = statistics;
+        this.context = context;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return this.context.isFinished();
+    }
+
+    @Override
+    public boolean test(final N node) {
+        this.statistics.current.tested++;
+        return this.context.test(node);
+    }
+
+    @Override
+    public N node() {
+        return this.context.node();
+    }
+
+    @Override
+    public void setNode(final N node) {
+        this.context.setNode(node);
+    }
+
+    @Override
+    public N selected(final N node) {
+        this.statistics.current.selected++;
+        return this.context.selected(node);
+    }
+
+    @Override
+    public Object evaluate(final Expression expression) {
+        this.statistics.current.evaluated++;
+        return this.context.evaluate(expression);
+    }
+
+    private final NodeSelectorStatistics statistics;
+
+    private final NodeSelectorContext<N, NAME, ANAME, AVALUE> context;
+
+    @Override
+    public String toString() {
+        return this.context.toString();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class BasicTraversableCursorTest implements ClassTesting2<BasicTraversableCursor<TestNode>>,
+    ToStringTesting<BasicTraversableCursor<TestNode>> {
+
+    @BeforeEach
+    public void beforeEachTest() {
+        TestNode.clear();
+    }
+
+    @Test
+    public void testCurrent() {
+        final TestNode root = TestNode.with("root");
+
+        assertSame(
+            root,
+            root.traversableCursor()
+                .current()
+        );
+    }
+
+    @Test
+    public void testRootMovesFail() {
+        final TestNode root = TestNode.with("root");
+        final TraversableCursor<TestNode> cursor = root.traversableCursor();
+
+        this.checkEquals(false, cursor.moveParent(), "moveParent");
+        this.checkEquals(false, cursor.moveFirstChild(), "moveFirstChild");
+        this.checkEquals(false, cursor.moveNextSibling(), "moveNextSibling");
+        this.checkEquals(false, cursor.movePreviousSibling(), "movePreviousSibling");
+        assertSame(root, cursor.current());
+    }
+
+    @Test
+    public void testMoveFirstChildAndSiblingsAndParent() {
+        final TestNode root = tree();
+        final TraversableCursor<TestNode> cursor = root.traversableCursor();
+
+        this.checkEquals(true, cursor.moveFirstChild(), "moveFirstChild");
+        this.checkEquals("a", cursor.current().name().value());
+
+        this.checkEquals(true, cursor.moveFirstChild(), "moveFirstChild");
+        this.checkEquals("a1", cursor.current().name().value());
+
+        this.checkEquals(false, cursor.movePreviousSibling(), "movePreviousSibling");
+        this.checkEquals(true, cursor.moveNextSibling(), "moveNextSibling");
+        this.checkEquals("a2", cursor.current().name().value());
+        this.checkEquals(false, cursor.moveNextSibling(), "moveNextSibling");
+        this.checkEquals(true, cursor.movePreviousSibling(), "movePreviousSibling");
+        this.checkEquals("a1", cursor.current().name().value());
+
+        this.checkEquals(true, cursor.moveParent(), "moveParent");
+        this.checkEquals("a", cursor.current().name().value());
+
+        this.checkEquals(true, cursor.moveNextSibling(), "moveNextSibling");
+        this.checkEquals("b", cursor.current().name().value());
+
+        this.checkEquals(true, cursor.moveParent(), "moveParent");
+        assertSame(root, cursor.current());
+        this.checkEquals(false, cursor.moveParent(), "moveParent");
+    }
+
+    @Test
+    public void testMoveAboveStart() {
+        final TestNode a2 = tree()
+            .child(0)
+            .child(1);
+        final TraversableCursor<TestNode> cursor = a2.traversableCursor();
+
+        this.checkEquals(true, cursor.movePreviousSibling(), "movePreviousSibling");
+        this.checkEquals("a1", cursor.current().name().value());
+
+        this.checkEquals(true, cursor.moveParent(), "moveParent");
+        this.checkEquals("a", cursor.current().name().value());
+
+        this.checkEquals(true, cursor.moveNextSibling(), "moveNextSibling");
+        this.checkEquals("b", cursor.current().name().value());
+
+        this.checkEquals(true, cursor.moveParent(), "moveParent");
+        this.checkEquals("root", cursor.current().name().value());
+        this.checkEquals(false, cursor.moveParent(), "moveParent");
+    }
+
+    @Test
+    public void testDeep() {
+        TestNode.disableUniqueNameChecks();
+
+        TestNode node = TestNode.with("leaf");
+        for (int i = 0; i < 100; i++) {
+            node = TestNode.with("parent", node);
+        }
+
+        final TraversableCursor<TestNode> cursor = node.traversableCursor();
+        int depth = 0;
+        while (cursor.moveFirstChild()) {
+            depth++;
+        }
+        this.checkEquals(100, depth, "depth");
+        this.checkEquals("leaf", cursor.current().name().value());
+
+        while (cursor.moveParent()) {
+            depth--;
+        }
+        this.checkEquals(0, depth, "depth");
+    }
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            BasicTraversableCursor.with(TestNode.with("root")),
+            "root"
+        );
+    }
+
+    private static TestNode tree() {
+        return TestNode.with(
+            "root",
+            TestNode.with(
+                "a",
+                TestNode.with("a1"),
+                TestNode.with("a2")
+            ),
+            TestNode.with("b")
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<BasicTraversableCursor<TestNode>> type() {
+        return Cast.to(BasicTraversableCursor.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
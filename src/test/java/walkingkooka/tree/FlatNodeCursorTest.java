@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.ToStringTesting;
+import walkingkooka.naming.StringName;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+public final class FlatNodeCursorTest implements ClassTesting2<FlatNodeCursor<StringName, StringName, Object>>,
+    ToStringTesting<FlatNodeCursor<StringName, StringName, Object>> {
+
+    @BeforeEach
+    public void beforeEachTest() {
+        TestNode.clear();
+    }
+
+    @Test
+    public void testRootMovesFail() {
+        final FlatNode<StringName, StringName, Object> root = FlatNode.with(TestNode.with("root"));
+        final TraversableCursor<FlatNode<StringName, StringName, Object>> cursor = root.traversableCursor();
+
+        this.checkEquals(false, cursor.moveParent(), "moveParent");
+        this.checkEquals(false, cursor.moveFirstChild(), "moveFirstChild");
+        this.checkEquals(false, cursor.moveNextSibling(), "moveNextSibling");
+        this.checkEquals(false, cursor.movePreviousSibling(), "movePreviousSibling");
+        this.checkEquals(root, cursor.current());
+    }
+
+    @Test
+    public void testMoves() {
+        final FlatNode<StringName, StringName, Object> root = FlatNode.with(tree());
+        final TraversableCursor<FlatNode<StringName, StringName, Object>> cursor = root.traversableCursor();
+
+        this.checkEquals(true, cursor.moveFirstChild(), "moveFirstChild");
+        this.checkEquals("a", cursor.current().name().value());
+
+        this.checkEquals(true, cursor.moveFirstChild(), "moveFirstChild");
+        this.checkEquals("a1", cursor.current().name().value());
+
+        this.checkEquals(false, cursor.movePreviousSibling(), "movePreviousSibling");
+        this.checkEquals(true, cursor.moveNextSibling(), "moveNextSibling");
+        this.checkEquals("a2", cursor.current().name().value());
+
+        // b1 immediately follows a2 in the table but is not a sibling
+        this.checkEquals(false, cursor.moveNextSibling(), "moveNextSibling");
+
+        this.checkEquals(true, cursor.moveParent(), "moveParent");
+        this.checkEquals(true, cursor.moveNextSibling(), "moveNextSibling");
+        this.checkEquals("b", cursor.current().name().value());
+
+        this.checkEquals(true, cursor.moveFirstChild(), "moveFirstChild");
+        this.checkEquals("b1", cursor.current().name().value());
+        this.checkEquals(false, cursor.movePreviousSibling(), "movePreviousSibling");
+
+        this.checkEquals(true, cursor.moveParent(), "moveParent");
+        this.checkEquals(true, cursor.moveParent(), "moveParent");
+        this.checkEquals(root, cursor.current());
+    }
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            FlatNodeCursor.with(
+                FlatNodeTable.with(tree()),
+                FlatNodeTable.ROOT
+            ),
+            "root"
+        );
+    }
+
+    private static TestNode tree() {
+        return TestNode.with(
+            "root",
+            TestNode.with(
+                "a",
+                TestNode.with("a1"),
+                TestNode.with("a2")
+            ),
+            TestNode.with(
+                "b",
+                TestNode.with("b1")
+            )
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<FlatNodeCursor<StringName, StringName, Object>> type() {
+        return Cast.to(FlatNodeCursor.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.naming.Names;
+import walkingkooka.naming.StringName;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class FlatNodeTest implements ClassTesting2<FlatNode<StringName, StringName, Object>>,
+    ToStringTesting<FlatNode<StringName, StringName, Object>> {
+
+    @BeforeEach
+    public void beforeEachTest() {
+        TestNode.clear();
+    }
+
+    @Test
+    public void testWithNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> FlatNode.with(null)
+        );
+    }
+
+    @Test
+    public void testWithLeaf() {
+        final FlatNode<StringName, StringName, Object> root = FlatNode.with(
+            TestNode.with("leaf")
+        );
+
+        this.checkEquals(Names.string("leaf"), root.name(), "name");
+        this.checkEquals(Optional.empty(), root.parent(), "parent");
+        this.checkEquals(Traversable.NO_INDEX, root.index(), "index");
+        this.checkEquals(Lists.empty(), root.children(), "children");
+        this.checkEquals(true, root.isRoot(), "isRoot");
+        this.checkEquals(true, root.isEmpty(), "isEmpty");
+        this.checkEquals(Maps.empty(), root.attributes(), "attributes");
+    }
+
+    @Test
+    public void testWithNonRootCopiesSubtree() {
+        final TestNode child = TestNode.with("child", TestNode.with("grandChild"));
+        final TestNode parent = TestNode.with("parent", child);
+
+        final FlatNode<StringName, StringName, Object> root = FlatNode.with(
+            parent.children().get(0)
+        );
+        this.checkEquals(Names.string("child"), root.name(), "name");
+        this.checkEquals(true, root.isRoot(), "isRoot");
+        this.checkEquals(1, root.children().size(), "children");
+    }
+
+    @Test
+    public void testChildrenAndParents() {
+        final FlatNode<StringName, StringName, Object> root = FlatNode.with(tree());
+
+        final List<FlatNode<StringName, StringName, Object>> children = root.children();
+        this.checkEquals(2, children.size(), "children");
+
+        final FlatNode<StringName, StringName, Object> a = children.get(0);
+        final FlatNode<StringName, StringName, Object> b = children.get(1);
+
+        this.checkEquals(Names.string("a"), a.name());
+        this.checkEquals(0, a.index(), "index");
+        this.checkEquals(Names.string("b"), b.name());
+        this.checkEquals(1, b.index(), "index");
+
+        this.checkEquals(root, a.parentOrFail(), "parent");
+        this.checkEquals(root, b.parentOrFail(), "parent");
+
+        final List<FlatNode<StringName, StringName, Object>> grandChildren = a.children();
+        this.checkEquals(3, grandChildren.size(), "grandChildren");
+        this.checkEquals(Names.string("a3"), grandChildren.get(2).name());
+        this.checkEquals(2, grandChildren.get(2).index(), "index");
+        this.checkEquals(a, grandChildren.get(2).parentOrFail(), "parent");
+
+        this.checkEquals(Names.string("b1"), b.children().get(0).name());
+    }
+
+    @Test
+    public void testChildrenGetInvalidIndexFails() {
+        final FlatNode<StringName, StringName, Object> root = FlatNode.with(tree());
+
+        assertThrows(
+            IndexOutOfBoundsException.class,
+            () -> root.children().get(2)
+        );
+    }
+
+    @Test
+    public void testSiblings() {
+        final FlatNode<StringName, StringName, Object> a1 = FlatNode.with(tree())
+            .children()
+            .get(0)
+            .children()
+            .get(0);
+
+        this.checkEquals(Optional.empty(), a1.previousSibling(), "previousSibling");
+        this.checkEquals(Names.string("a2"), a1.nextSibling().get().name(), "nextSibling");
+    }
+
+    @Test
+    public void testEqualsSamePosition() {
+        final FlatNode<StringName, StringName, Object> root = FlatNode.with(tree());
+
+        this.checkEquals(
+            root.children().get(1),
+            root.children().get(1)
+        );
+    }
+
+    @Test
+    public void testEqualsDifferentPosition() {
+        final FlatNode<StringName, StringName, Object> root = FlatNode.with(tree());
+
+        this.checkNotEquals(
+            root.children().get(0),
+            root.children().get(1)
+        );
+    }
+
+    @Test
+    public void testEqualsDifferentTable() {
+        this.checkNotEquals(
+            FlatNode.with(tree()),
+            FlatNode.with(tree())
+        );
+    }
+
+    // withBreadthFirst.................................................................................................
+
+    @Test
+    public void testWithBreadthFirst() {
+        final FlatNode<StringName, StringName, Object> root = FlatNode.withBreadthFirst(
+            Lists.of(
+                Names.string("root"),
+                Names.string("a"),
+                Names.string("b")
+            ),
+            new int[]{0, 1, 2, 1},
+            new int[]{2, 1, 0, 0},
+            new int[]{0, 2, 0, 1},
+            Lists.of(
+                Names.string("attribute1"),
+                Names.string("attribute2")
+            ),
+            new int[]{0, 1, 0},
+            Lists.of(
+                "value1",
+                "value2",
+                "value3"
+            )
+        );
+
+        final FlatNode<StringName, StringName, Object> a = root.children().get(0);
+        this.checkEquals(Names.string("a"), a.name(), "name");
+        this.checkEquals(
+            Maps.of(
+                Names.string("attribute1"),
+                "value1",
+                Names.string("attribute2"),
+                "value2"
+            ),
+            a.attributes(),
+            "attributes"
+        );
+        this.checkEquals(Names.string("b"), root.children().get(1).name(), "name");
+
+        final FlatNode<StringName, StringName, Object> a1 = a.children().get(0);
+        this.checkEquals(Names.string("a"), a1.name(), "name");
+        this.checkEquals(Maps.of(Names.string("attribute1"), "value3"), a1.attributes(), "attributes");
+        this.checkEquals(a, a1.parentOrFail(), "parent");
+    }
+
+    @Test
+    public void testWithBreadthFirstSameAsWith() {
+        final TestNode node = TestNode.with("root")
+            .setAttributes(
+                Maps.of(
+                    Names.string("attribute1"),
+                    "value1"
+                )
+            ).setChildren(
+                Lists.of(
+                    TestNode.with("child1"),
+                    TestNode.with("child2")
+                )
+            );
+
+        final FlatNode<StringName, StringName, Object> copied = FlatNode.with(node);
+        final FlatNode<StringName, StringName, Object> loaded = FlatNode.withBreadthFirst(
+            Lists.of(
+                Names.string("root"),
+                Names.string("child1"),
+                Names.string("child2")
+            ),
+            new int[]{0, 1, 2},
+            new int[]{2, 0, 0},
+            new int[]{1, 0, 0},
+            Lists.of(
+                Names.string("attribute1")
+            ),
+            new int[]{0},
+            Lists.of("value1")
+        );
+
+        this.checkEquals(copied.name(), loaded.name(), "name");
+        this.checkEquals(copied.attributes(), loaded.attributes(), "attributes");
+        this.checkEquals(copied.children().toString(), loaded.children().toString(), "children");
+    }
+
+    @Test
+    public void testWithBreadthFirstMissingRootFails() {
+        this.withBreadthFirstFails(
+            Lists.empty(),
+            new int[0],
+            new int[0],
+            new int[0],
+            "Missing root"
+        );
+    }
+
+    @Test
+    public void testWithBreadthFirstChildCountsLengthFails() {
+        this.withBreadthFirstFails(
+            Lists.of(Names.string("root")),
+            new int[1],
+            new int[2],
+            new int[1],
+            "Expected 1 child counts but got 2"
+        );
+    }
+
+    @Test
+    public void testWithBreadthFirstAttributeCountsLengthFails() {
+        this.withBreadthFirstFails(
+            Lists.of(Names.string("root")),
+            new int[1],
+            new int[1],
+            new int[2],
+            "Expected 1 attribute counts but got 2"
+        );
+    }
+
+    @Test
+    public void testWithBreadthFirstInvalidNameFails() {
+        this.withBreadthFirstFails(
+            Lists.of(Names.string("root")),
+            new int[]{1},
+            new int[1],
+            new int[1],
+            "Invalid name 1 at 0 not between 0 and 1"
+        );
+    }
+
+    @Test
+    public void testWithBreadthFirstInvalidAttributeCountFails() {
+        this.withBreadthFirstFails(
+            Lists.of(Names.string("root")),
+            new int[1],
+            new int[1],
+            new int[]{1},
+            "Node 0 has invalid attribute count 1"
+        );
+    }
+
+    @Test
+    public void testWithBreadthFirstNodeWithoutParentFails() {
+        this.withBreadthFirstFails(
+            Lists.of(Names.string("root"), Names.string("orphan")),
+            new int[]{0, 1},
+            new int[]{0, 0},
+            new int[2],
+            "Node 1 has no parent"
+        );
+    }
+
+    @Test
+    public void testWithBreadthFirstTooManyChildrenFails() {
+        this.withBreadthFirstFails(
+            Lists.of(Names.string("root"), Names.string("child")),
+            new int[]{0, 1},
+            new int[]{2, 0},
+            new int[2],
+            "Node 0 has invalid child count 2"
+        );
+    }
+
+    private void withBreadthFirstFails(final List<StringName> namePool,
+                                       final int[] names,
+                                       final int[] childCounts,
+                                       final int[] attributeCounts,
+                                       final String message) {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> FlatNode.<StringName, StringName, Object>withBreadthFirst(
+                namePool,
+                names,
+                childCounts,
+                attributeCounts,
+                Lists.empty(),
+                new int[0],
+                Lists.empty()
+            )
+        );
+        this.checkEquals(
+            message,
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testAttributes() {
+        final TestNode node = TestNode.with("root")
+            .setAttributes(
+                Maps.of(
+                    Names.string("attribute1"),
+                    "value1"
+                )
+            );
+        final FlatNode<StringName, StringName, Object> root = FlatNode.with(node);
+
+        this.checkEquals(
+            node.attributes(),
+            root.attributes()
+        );
+    }
+
+    @Test
+    public void testTraversableIterator() {
+        final Iterator<FlatNode<StringName, StringName, Object>> iterator = FlatNode.with(tree())
+            .traversableIterator();
+
+        final StringBuilder b = new StringBuilder();
+        while (iterator.hasNext()) {
+            b.append(iterator.next()).append(' ');
+        }
+
+        this.checkEquals(
+            "root a a1 a2 a3 b b1 ",
+            b.toString()
+        );
+    }
+
+    @Test
+    public void testPointer() {
+        final FlatNode<StringName, StringName, Object> root = FlatNode.with(tree());
+        final FlatNode<StringName, StringName, Object> b1 = root.children()
+            .get(1)
+            .children()
+            .get(0);
+
+        this.checkEquals(
+            Optional.of(b1),
+            b1.pointer()
+                .traverse(root)
+        );
+    }
+
+    @Test
+    public void testSetChildrenFails() {
+        assertThrows(
+            UnsupportedOperationException.class,
+            () -> FlatNode.with(tree())
+                .setChildren(Lists.empty())
+        );
+    }
+
+    @Test
+    public void testSetAttributesFails() {
+        assertThrows(
+            UnsupportedOperationException.class,
+            () -> FlatNode.with(tree())
+                .setAttributes(Maps.empty())
+        );
+    }
+
+    @Test
+    public void testRemoveParentRoot() {
+        final FlatNode<StringName, StringName, Object> root = FlatNode.with(tree());
+
+        assertSame(
+            root,
+            root.removeParent()
+        );
+    }
+
+    @Test
+    public void testRemoveParentChildFails() {
+        final FlatNode<StringName, StringName, Object> root = FlatNode.with(tree());
+
+        assertThrows(
+            UnsupportedOperationException.class,
+            () -> root.children()
+                .get(0)
+                .removeParent()
+        );
+    }
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            FlatNode.with(tree()),
+            "root"
+        );
+    }
+
+    private static TestNode tree() {
+        return TestNode.with(
+            "root",
+            TestNode.with(
+                "a",
+                TestNode.with("a1"),
+                TestNode.with("a2"),
+                TestNode.with("a3")
+            ),
+            TestNode.with(
+                "b",
+                TestNode.with("b1")
+            )
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<FlatNode<StringName, StringName, Object>> type() {
+        return Cast.to(FlatNode.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
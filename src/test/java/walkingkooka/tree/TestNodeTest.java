@@ -32,6 +32,8 @@ import java.util.Arrays;
 import java.util.Map;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertSame;
+
 public class TestNodeTest implements ClassTesting2<TestNode>,
     ParentNodeTesting<TestNode, StringName, StringName, Object>,
     ResourceTesting {
@@ -253,6 +255,30 @@ public class TestNodeTest implements ClassTesting2<TestNode>,
             root.setChild(Names.string("unknown"), child3));
     }
 
+    @Test
+    public void testNamedChildren() {
+        final TestNode root = TestNode.with("root", TestNode.with("child1"), TestNode.with("child2"));
+
+        final Map<StringName, TestNode> namedChildren = root.namedChildren();
+        this.checkEquals(2, namedChildren.size(), "size");
+        assertSame(root.child(0), namedChildren.get(Names.string("child1")));
+        assertSame(root.child(1), namedChildren.get(Names.string("child2")));
+        assertSame(namedChildren, root.namedChildren());
+    }
+
+    @Test
+    public void testNamedChildrenDuplicateNameFirst() {
+        TestNode.disableUniqueNameChecks();
+
+        final TestNode root = TestNode.with("root", TestNode.with("child"), TestNode.with("child"));
+
+        assertSame(
+            root.child(0),
+            root.namedChildren()
+                .get(Names.string("child"))
+        );
+    }
+
     @Test
     public void testSetChildren() {
         final TestNode child1 = TestNode.with("child1");
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TraversableHasTextOffsetTableTest implements ClassTesting2<TraversableHasTextOffsetTable<TraversableHasTextOffsetTableTest.TextNode>>,
+    HasTextOffsetTesting,
+    ToStringTesting<TraversableHasTextOffsetTable<TraversableHasTextOffsetTableTest.TextNode>> {
+
+    @Test
+    public void testWithNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> TraversableHasTextOffsetTable.with(null)
+        );
+    }
+
+    @Test
+    public void testTextOffsetUnknownFails() {
+        final TraversableHasTextOffsetTable<TextNode> table = TraversableHasTextOffsetTable.with(
+            leaf("abc")
+        );
+
+        assertThrows(
+            TraversableException.class,
+            () -> table.textOffset(leaf("abc"))
+        );
+    }
+
+    @Test
+    public void testRoot() {
+        final TextNode root = leaf("abc");
+        final TraversableHasTextOffsetTable<TextNode> table = TraversableHasTextOffsetTable.with(root);
+
+        this.textOffsetAndCheck(
+            table,
+            root,
+            0
+        );
+        this.checkEquals(
+            root,
+            table.root()
+        );
+    }
+
+    @Test
+    public void testTree() {
+        final TextNode a = leaf("a");
+        final TextNode bc = leaf("bc");
+        final TextNode def = leaf("def");
+        final TextNode gh = leaf("gh");
+        final TextNode ijkl = leaf("ijkl");
+
+        final TextNode parent1 = parent(a, bc);
+        final TextNode parent2 = parent(def, gh);
+        final TextNode root = parent(parent1, parent2, ijkl);
+
+        final TraversableHasTextOffsetTable<TextNode> table = TraversableHasTextOffsetTable.with(a);
+        this.checkEquals(
+            root,
+            table.root()
+        );
+
+        this.textOffsetAndCheck(table, root, 0);
+        this.textOffsetAndCheck(table, parent1, 0);
+        this.textOffsetAndCheck(table, a, 0);
+        this.textOffsetAndCheck(table, bc, 1);
+        this.textOffsetAndCheck(table, parent2, 3);
+        this.textOffsetAndCheck(table, def, 3);
+        this.textOffsetAndCheck(table, gh, 6);
+        this.textOffsetAndCheck(table, ijkl, 8);
+    }
+
+    @Test
+    public void testDeepTreeTextOffset() {
+        TextNode node = leaf("abc");
+        final TextNode leaf = node;
+
+        for (int i = 0; i < 100000; i++) {
+            node = parent(
+                leaf("!"),
+                node
+            );
+        }
+
+        final TraversableHasTextOffsetTable<TextNode> table = TraversableHasTextOffsetTable.with(node);
+        this.textOffsetAndCheck(table, leaf, 100000);
+    }
+
+    private void textOffsetAndCheck(final TraversableHasTextOffsetTable<TextNode> table,
+                                    final TextNode node,
+                                    final int offset) {
+        this.checkEquals(
+            offset,
+            table.textOffset(node),
+            () -> "table textOffset " + node
+        );
+        this.textOffsetAndCheck(
+            node,
+            offset
+        );
+    }
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            TraversableHasTextOffsetTable.with(
+                parent(
+                    leaf("a"),
+                    leaf("bc")
+                )
+            ),
+            "abc"
+        );
+    }
+
+    private static TextNode leaf(final String text) {
+        return new TextNode(
+            text,
+            Lists.empty()
+        );
+    }
+
+    private static TextNode parent(final TextNode... children) {
+        final StringBuilder text = new StringBuilder();
+        for (final TextNode child : children) {
+            text.append(child.text);
+        }
+
+        final TextNode parent = new TextNode(
+            text.toString(),
+            Lists.of(children)
+        );
+        for (final TextNode child : children) {
+            child.parent = Optional.of(parent);
+        }
+        return parent;
+    }
+
+    static final class TextNode implements TraversableHasTextOffset<TextNode> {
+
+        TextNode(final String text,
+                 final List<TextNode> children) {
+            this.text = text;
+            this.children = children;
+        }
+
+        @Override
+        public Optional<TextNode> parent() {
+            return this.parent;
+        }
+
+        Optional<TextNode> parent = Optional.empty();
+
+        @Override
+        public List<TextNode> children() {
+            return this.children;
+        }
+
+        private final List<TextNode> children;
+
+        @Override
+        public int textLength() {
+            return this.text.length();
+        }
+
+        final String text;
+
+        @Override
+        public String toString() {
+            return this.text;
+        }
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<TraversableHasTextOffsetTable<TextNode>> type() {
+        return Cast.to(TraversableHasTextOffsetTable.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -162,6 +162,220 @@ public final class TraversableIteratorTest implements ClassTesting2<TraversableI
             parent.child(2));
     }
 
+    @Test
+    public void testWithNullOrderFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> TestNode.with("root")
+                .traversableIterator(null)
+        );
+    }
+
+    @Test
+    public void testPreOrderDepth() {
+        final TestNode parent = tree();
+        final TraversableIterator<TestNode> iterator = parent.traversableIterator(TraversableIteratorOrder.PRE_ORDER);
+
+        this.checkEquals(
+            "parent0 child1 grandChild1A2 grandChild1B2 child21 grandChild22 child31 ",
+            namesAndDepths(iterator)
+        );
+    }
+
+    @Test
+    public void testPreOrderSkipChildren() {
+        final TestNode parent = tree();
+        final TraversableIterator<TestNode> iterator = parent.traversableIterator(TraversableIteratorOrder.PRE_ORDER);
+
+        final StringBuilder b = new StringBuilder();
+        while (iterator.hasNext()) {
+            final TestNode next = iterator.next();
+            b.append(next.name()).append(' ');
+
+            if (next.name().value().equals("child1")) {
+                iterator.skipChildren();
+            }
+        }
+
+        this.checkEquals(
+            "parent child1 child2 grandChild2 child3 ",
+            b.toString()
+        );
+    }
+
+    @Test
+    public void testPreOrderSkipChildrenBeginning() {
+        final TestNode parent = tree();
+        final TraversableIterator<TestNode> iterator = parent.traversableIterator(TraversableIteratorOrder.PRE_ORDER);
+
+        iterator.next();
+        iterator.skipChildren();
+
+        this.checkEquals(false, iterator.hasNext());
+    }
+
+    @Test
+    public void testSkipChildrenBeforeNextFails() {
+        final TraversableIterator<TestNode> iterator = TestNode.with("root")
+            .traversableIterator(TraversableIteratorOrder.PRE_ORDER);
+
+        assertThrows(
+            IllegalStateException.class,
+            iterator::skipChildren
+        );
+    }
+
+    @Test
+    public void testSkipChildrenAfterHasNextFails() {
+        final TraversableIterator<TestNode> iterator = tree()
+            .traversableIterator(TraversableIteratorOrder.PRE_ORDER);
+        iterator.next();
+        iterator.hasNext();
+
+        assertThrows(
+            IllegalStateException.class,
+            iterator::skipChildren
+        );
+    }
+
+    @Test
+    public void testDepthBeforeNextFails() {
+        final TraversableIterator<TestNode> iterator = TestNode.with("root")
+            .traversableIterator(TraversableIteratorOrder.PRE_ORDER);
+
+        assertThrows(
+            IllegalStateException.class,
+            iterator::depth
+        );
+    }
+
+    @Test
+    public void testPostOrder() {
+        final TestNode parent = tree();
+
+        this.checkEquals(
+            "grandChild1A2 grandChild1B2 child11 grandChild22 child21 child31 parent0 ",
+            namesAndDepths(parent.traversableIterator(TraversableIteratorOrder.POST_ORDER))
+        );
+    }
+
+    @Test
+    public void testPostOrderLeaf() {
+        final TestNode leaf = TestNode.with("leaf");
+
+        this.iterateAndCheck(
+            leaf.traversableIterator(TraversableIteratorOrder.POST_ORDER),
+            leaf
+        );
+    }
+
+    @Test
+    public void testPostOrderIgnoresParent() {
+        final TestNode child = tree().child(0);
+
+        this.checkEquals(
+            "grandChild1A1 grandChild1B1 child10 ",
+            namesAndDepths(child.traversableIterator(TraversableIteratorOrder.POST_ORDER))
+        );
+    }
+
+    @Test
+    public void testPostOrderSkipChildrenFails() {
+        final TraversableIterator<TestNode> iterator = tree()
+            .traversableIterator(TraversableIteratorOrder.POST_ORDER);
+        iterator.next();
+
+        assertThrows(
+            UnsupportedOperationException.class,
+            iterator::skipChildren
+        );
+    }
+
+    @Test
+    public void testBreadthFirst() {
+        final TestNode parent = tree();
+
+        this.checkEquals(
+            "parent0 child11 child21 child31 grandChild1A2 grandChild1B2 grandChild22 ",
+            namesAndDepths(parent.traversableIterator(TraversableIteratorOrder.BREADTH_FIRST))
+        );
+    }
+
+    @Test
+    public void testBreadthFirstUsingHasNext() {
+        final TestNode parent = TestNode.with("parent",
+            TestNode.with("child1", TestNode.with("grandChild1")),
+            TestNode.with("child2"));
+
+        this.iterateUsingHasNextAndCheck(
+            parent.traversableIterator(TraversableIteratorOrder.BREADTH_FIRST),
+            parent,
+            parent.child(0),
+            parent.child(1),
+            parent.child(0).child(0)
+        );
+    }
+
+    @Test
+    public void testBreadthFirstSkipChildren() {
+        final TestNode parent = tree();
+        final TraversableIterator<TestNode> iterator = parent.traversableIterator(TraversableIteratorOrder.BREADTH_FIRST);
+
+        final StringBuilder b = new StringBuilder();
+        while (iterator.hasNext()) {
+            final TestNode next = iterator.next();
+            b.append(next.name()).append(' ');
+
+            if (next.name().value().equals("child1")) {
+                iterator.skipChildren();
+            }
+        }
+
+        this.checkEquals(
+            "parent child1 child2 child3 grandChild2 ",
+            b.toString()
+        );
+    }
+
+    @Test
+    public void testPreOrderDeep() {
+        TestNode.disableUniqueNameChecks();
+
+        TestNode node = TestNode.with("leaf");
+        for (int i = 0; i < 100; i++) {
+            node = TestNode.with("parent", node);
+        }
+
+        final TraversableIterator<TestNode> iterator = node.traversableIterator(TraversableIteratorOrder.PRE_ORDER);
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            this.checkEquals(count, iterator.depth(), "depth");
+            count++;
+        }
+        this.checkEquals(101, count, "count");
+    }
+
+    private static TestNode tree() {
+        return TestNode.with("parent",
+            TestNode.with("child1", TestNode.with("grandChild1A"), TestNode.with("grandChild1B")),
+            TestNode.with("child2", TestNode.with("grandChild2")),
+            TestNode.with("child3"));
+    }
+
+    private static String namesAndDepths(final TraversableIterator<TestNode> iterator) {
+        final StringBuilder b = new StringBuilder();
+
+        while (iterator.hasNext()) {
+            final TestNode next = iterator.next();
+            b.append(next.name())
+                .append(iterator.depth())
+                .append(' ');
+        }
+
+        return b.toString();
+    }
+
     @Test
     public void testRemoveFails() {
         final Iterator<TestNode> iterator = this.createIterator();
@@ -182,6 +396,38 @@ public final class TraversableIteratorTest implements ClassTesting2<TraversableI
         this.toStringAndCheck(iterator, "root");
     }
 
+    @Test
+    public void testToStringKeepsSkipChildren() {
+        final TraversableIterator<TestNode> iterator = tree()
+            .traversableIterator(TraversableIteratorOrder.PRE_ORDER);
+        iterator.next();
+        iterator.skipChildren();
+
+        this.toStringAndCheck(iterator, "???");
+        this.checkEquals(
+            false,
+            iterator.hasNext(),
+            "children of root should be skipped"
+        );
+    }
+
+    @Test
+    public void testToStringBreadthFirstKeepsSkipChildren() {
+        final TraversableIterator<TestNode> iterator = tree()
+            .traversableIterator(TraversableIteratorOrder.BREADTH_FIRST);
+        this.toStringAndCheck(iterator, "parent");
+
+        iterator.next();
+        iterator.skipChildren();
+
+        this.toStringAndCheck(iterator, "???");
+        this.checkEquals(
+            false,
+            iterator.hasNext(),
+            "children of parent should be skipped"
+        );
+    }
+
     private TraversableIterator<TestNode> createIterator() {
         return TraversableIterator.with(TestNode.with("root"));
     }
@@ -193,7 +439,7 @@ public final class TraversableIteratorTest implements ClassTesting2<TraversableI
 
     @Override
     public JavaVisibility typeVisibility() {
-        return JavaVisibility.PACKAGE_PRIVATE;
+        return JavaVisibility.PUBLIC;
     }
 
     @Override
@@ -19,6 +19,9 @@ package walkingkooka.tree.expression;
 
 import org.junit.jupiter.api.Test;
 import walkingkooka.collect.list.Lists;
+import walkingkooka.text.Indentation;
+import walkingkooka.text.LineEnding;
+import walkingkooka.text.printer.Printers;
 import walkingkooka.visit.Visiting;
 
 import java.util.List;
@@ -372,6 +375,90 @@ public final class AddExpressionTest extends ArithmeticExpressionTestCase<AddExp
         );
     }
 
+    // deep.............................................................................................................
+
+    private final static int DEEP = 100000;
+
+    private Expression deep() {
+        Expression expression = expressionNumber(1);
+
+        for (int i = 1; i < DEEP; i++) {
+            expression = this.createExpression(
+                expression,
+                expressionNumber(1)
+            );
+        }
+
+        return expression;
+    }
+
+    @Test
+    public void testToExpressionNumberDeep() {
+        this.toExpressionNumberAndCheck(
+            this.deep(),
+            DEEP
+        );
+    }
+
+    @Test
+    public void testToStringDeep() {
+        this.checkEquals(
+            DEEP * expressionNumber(1).toString().length() + DEEP - 1,
+            this.deep()
+                .toString()
+                .length()
+        );
+    }
+
+    @Test
+    public void testAcceptDeep() {
+        final int[] startAndEnd = new int[2];
+
+        new FakeExpressionVisitor() {
+            @Override
+            protected Visiting startVisit(final AddExpression t) {
+                startAndEnd[0]++;
+                return Visiting.CONTINUE;
+            }
+
+            @Override
+            protected void endVisit(final AddExpression t) {
+                startAndEnd[1]++;
+            }
+        }.accept(this.deep());
+
+        this.checkEquals(
+            DEEP - 1,
+            startAndEnd[0],
+            "startVisit"
+        );
+        this.checkEquals(
+            DEEP - 1,
+            startAndEnd[1],
+            "endVisit"
+        );
+    }
+
+    @Test
+    public void testPrintTreeDeep() {
+        final StringBuilder b = new StringBuilder();
+
+        this.deep()
+            .printTree(
+                Printers.stringBuilder(
+                    b,
+                    LineEnding.NL
+                ).indenting(Indentation.SPACES2)
+            );
+
+        this.checkEquals(
+            true,
+            b.toString()
+                .startsWith("AddExpression\n  AddExpression\n    AddExpression\n"),
+            () -> b.substring(0, 100)
+        );
+    }
+
     // helpers.........................................................................................................
 
     @Override
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.convert.BinaryNumberConverterFunctions;
+import walkingkooka.convert.ConverterContexts;
+import walkingkooka.convert.Converters;
+import walkingkooka.currency.CurrencyLocaleContextTesting;
+import walkingkooka.currency.CurrencyLocaleContexts;
+import walkingkooka.datetime.DateTimeContextTesting;
+import walkingkooka.math.DecimalNumberContext;
+import walkingkooka.math.DecimalNumberContextDelegator;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.CaseSensitivity;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+
+import java.math.MathContext;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class BudgetExpressionEvaluationContextTest implements ExpressionEvaluationContextTesting2<BudgetExpressionEvaluationContext>,
+    CurrencyLocaleContextTesting,
+    DateTimeContextTesting,
+    DecimalNumberContextDelegator {
+
+    @Test
+    public void testWithNullBudgetFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> BudgetExpressionEvaluationContext.with(
+                null,
+                ExpressionEvaluationContexts.fake()
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullContextFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> BudgetExpressionEvaluationContext.with(
+                this.budget(1, 1),
+                null
+            )
+        );
+    }
+
+    @Test
+    public void testEvaluateExpression() {
+        final ExpressionEvaluationBudget budget = this.budget(1, 1);
+
+        this.checkEquals(
+            123,
+            BudgetExpressionEvaluationContext.with(
+                budget,
+                ExpressionEvaluationContexts.fake()
+            ).evaluateExpression(
+                Expression.value(123)
+            )
+        );
+        this.checkEquals(1L, budget.steps(), "steps");
+        this.checkEquals(0L, budget.depth(), "depth");
+    }
+
+    @Test
+    public void testEvaluateExpressionChildrenSingleStep() {
+        final ExpressionEvaluationBudget budget = this.budget(1, 1);
+
+        this.checkEquals(
+            Lists.of(
+                1,
+                Lists.of(2, 3)
+            ),
+            BudgetExpressionEvaluationContext.with(
+                budget,
+                ExpressionEvaluationContexts.fake()
+            ).evaluateExpression(
+                Expression.list(
+                    Lists.of(
+                        Expression.value(1),
+                        Expression.list(
+                            Lists.of(
+                                Expression.value(2),
+                                Expression.value(3)
+                            )
+                        )
+                    )
+                )
+            )
+        );
+        this.checkEquals(1L, budget.steps(), "steps");
+    }
+
+    @Test
+    public void testEvaluateStringSingleStep() {
+        final ExpressionEvaluationBudget budget = this.budget(1, 1);
+
+        this.checkEquals(
+            "evaluated",
+            BudgetExpressionEvaluationContext.with(
+                budget,
+                new FakeExpressionEvaluationContext() {
+                    @Override
+                    public Object evaluate(final String expression) {
+                        // work within the wrapped context is not charged
+                        for (int i = 0; i < 10; i++) {
+                            this.evaluateExpression(
+                                Expression.value(i)
+                            );
+                        }
+                        return "evaluated";
+                    }
+
+                    @Override
+                    public Object evaluateExpression(final Expression expression) {
+                        return expression.toValue(this);
+                    }
+                }
+            ).evaluate("1+2")
+        );
+        this.checkEquals(1L, budget.steps(), "steps");
+        this.checkEquals(0L, budget.depth(), "depth");
+    }
+
+    @Test
+    public void testEvaluateExpressionExceedsMaxSteps() {
+        final ExpressionEvaluationContext context = BudgetExpressionEvaluationContext.with(
+            this.budget(1, 1),
+            ExpressionEvaluationContexts.fake()
+        );
+        context.evaluateExpression(
+            Expression.value(1)
+        );
+
+        assertThrows(
+            ExpressionEvaluationBudgetExceededException.class,
+            () -> context.evaluateExpression(
+                Expression.value(2)
+            )
+        );
+    }
+
+    @Test
+    public void testReferenceChargesStep() {
+        final ExpressionEvaluationBudget budget = this.budget(10, 1);
+
+        BudgetExpressionEvaluationContext.with(
+            budget,
+            new FakeExpressionEvaluationContext() {
+                @Override
+                public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+                    return REFERENCE_NULL_VALUE;
+                }
+            }
+        ).reference(new FakeExpressionReference());
+
+        this.checkEquals(1L, budget.steps(), "steps");
+    }
+
+    @Test
+    public void testEvaluateFunctionRecursiveExceedsMaxDepth() {
+        final ExpressionEvaluationBudget budget = this.budget(
+            ExpressionEvaluationBudget.UNLIMITED,
+            100
+        );
+
+        final ExpressionFunction<Object, ExpressionEvaluationContext> function = new FakeExpressionFunction<>() {
+            @Override
+            public Optional<ExpressionFunctionName> name() {
+                return Optional.of(
+                    ExpressionFunctionName.with("recursive")
+                );
+            }
+
+            @Override
+            public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+                return NO_PARAMETERS;
+            }
+
+            @Override
+            public Object apply(final List<Object> parameters,
+                                final ExpressionEvaluationContext context) {
+                return context.evaluateFunction(
+                    this,
+                    parameters
+                );
+            }
+        };
+
+        // wrapped context handleException is never called, fake would throw UnsupportedOperationException
+        final ExpressionEvaluationBudgetExceededException thrown = assertThrows(
+            ExpressionEvaluationBudgetExceededException.class,
+            () -> BudgetExpressionEvaluationContext.with(
+                budget,
+                ExpressionEvaluationContexts.fake()
+            ).evaluateFunction(
+                function,
+                ExpressionFunction.NO_PARAMETER_VALUES
+            )
+        );
+        this.checkEquals(
+            "Exceeded max depth 100",
+            thrown.getMessage()
+        );
+        this.checkEquals(0L, budget.depth(), "depth");
+    }
+
+    private ExpressionEvaluationBudget budget(final long maxSteps,
+                                              final long maxDepth) {
+        return ExpressionEvaluationBudget.with(
+            maxSteps,
+            maxDepth,
+            ExpressionEvaluationBudget.NO_DEADLINE,
+            () -> 0,
+            () -> false
+        );
+    }
+
+    // ExpressionEvaluationContext......................................................................................
+
+    @Override
+    public void testEnterScopeGivesDifferentInstance() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testDateTimeSymbolsForLocaleWithNullFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testDecimalNumberSymbolsForLocaleWithNullFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testFindByLocaleTextWithNullTextFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testFindByLocaleTextWithNegativeOffsetFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testFindByLocaleTextWithInvalidCountFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testLocaleTextWithNullFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public BudgetExpressionEvaluationContext createContext() {
+        return BudgetExpressionEvaluationContext.with(
+            this.budget(
+                ExpressionEvaluationBudget.UNLIMITED,
+                ExpressionEvaluationBudget.UNLIMITED
+            ),
+            ExpressionEvaluationContexts.basic(
+                EXPRESSION_NUMBER_KIND,
+                (e, c) -> {
+                    Objects.requireNonNull(e, "expression");
+                    throw new UnsupportedOperationException();
+                },
+                (functionName) -> {
+                    Objects.requireNonNull(functionName, "functionName");
+                    throw functionName.unknownExpressionFunctionException();
+                },
+                (exception) -> exception,
+                (reference) -> {
+                    Objects.requireNonNull(reference, "reference");
+                    throw new UnsupportedOperationException();
+                },
+                (referenceNotFound) -> {
+                    throw new UnsupportedOperationException();
+                },
+                CaseSensitivity.SENSITIVE,
+                ConverterContexts.basic(
+                    false, // canNumbersHaveGroupSeparator
+                    Converters.JAVA_EPOCH_OFFSET,
+                    ',', // valueSeparator
+                    Converters.simple(), // converter
+                    BinaryNumberConverterFunctions.fake(), // multiplier
+                    BINARY_TEXT_CONTEXT,
+                    CurrencyLocaleContexts.fake(),
+                    DATE_TIME_CONTEXT,
+                    this.decimalNumberContext()
+                ),
+                ENVIRONMENT_CONTEXT.cloneEnvironment(),
+                LOCALE_CONTEXT
+            )
+        );
+    }
+
+    // DecimalNumberContextDelegator....................................................................................
+
+    @Override
+    public int decimalNumberDigitCount() {
+        return this.decimalNumberContext()
+            .decimalNumberDigitCount();
+    }
+
+    @Override
+    public DecimalNumberContext decimalNumberContext() {
+        return DECIMAL_NUMBER_CONTEXT;
+    }
+
+    @Override
+    public MathContext mathContext() {
+        return MATH_CONTEXT;
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<BudgetExpressionEvaluationContext> type() {
+        return BudgetExpressionEvaluationContext.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
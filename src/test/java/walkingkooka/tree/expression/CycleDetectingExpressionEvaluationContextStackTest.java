@@ -0,0 +1,267 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+public final class CycleDetectingExpressionEvaluationContextStackTest implements ClassTesting<CycleDetectingExpressionEvaluationContextStack>,
+    ToStringTesting<CycleDetectingExpressionEvaluationContextStack> {
+
+    private final static ExpressionReference A1 = reference("A1");
+
+    private final static ExpressionReference B2 = reference("B2");
+
+    private static ExpressionReference reference(final String toString) {
+        return new FakeExpressionReference() {
+            @Override
+            public String toString() {
+                return toString;
+            }
+        };
+    }
+
+    @Test
+    public void testEmpty() {
+        final CycleDetectingExpressionEvaluationContextStack stack = CycleDetectingExpressionEvaluationContextStack.empty();
+
+        this.containsAndCheck(
+            stack,
+            A1,
+            false
+        );
+        this.depthAndCheck(
+            stack,
+            0
+        );
+    }
+
+    @Test
+    public void testPush() {
+        final CycleDetectingExpressionEvaluationContextStack stack = CycleDetectingExpressionEvaluationContextStack.empty();
+        stack.push(A1);
+
+        this.containsAndCheck(
+            stack,
+            A1,
+            true
+        );
+        this.containsAndCheck(
+            stack,
+            B2,
+            false
+        );
+        this.depthAndCheck(
+            stack,
+            1
+        );
+    }
+
+    @Test
+    public void testPushPop() {
+        final CycleDetectingExpressionEvaluationContextStack stack = CycleDetectingExpressionEvaluationContextStack.empty();
+        stack.push(A1);
+        stack.push(B2);
+        stack.pop();
+
+        this.containsAndCheck(
+            stack,
+            A1,
+            true
+        );
+        this.containsAndCheck(
+            stack,
+            B2,
+            false
+        );
+        this.depthAndCheck(
+            stack,
+            1
+        );
+    }
+
+    @Test
+    public void testContainsEqualNotSame() {
+        final CycleDetectingExpressionEvaluationContextStack stack = CycleDetectingExpressionEvaluationContextStack.empty();
+        stack.push(new TestExpressionReference("A1"));
+
+        this.containsAndCheck(
+            stack,
+            new TestExpressionReference("A1"),
+            true
+        );
+    }
+
+    @Test
+    public void testPushGrows() {
+        final CycleDetectingExpressionEvaluationContextStack stack = CycleDetectingExpressionEvaluationContextStack.empty();
+
+        final int count = 100;
+        for (int i = 0; i < count; i++) {
+            stack.push(reference("" + i));
+        }
+        stack.push(A1);
+
+        this.containsAndCheck(
+            stack,
+            A1,
+            true
+        );
+        this.depthAndCheck(
+            stack,
+            count + 1
+        );
+    }
+
+    @Test
+    public void testPushBeyondScanLimitThenPop() {
+        final CycleDetectingExpressionEvaluationContextStack stack = CycleDetectingExpressionEvaluationContextStack.empty();
+
+        final int count = CycleDetectingExpressionEvaluationContextStack.SCAN_LIMIT * 2;
+        for (int i = 0; i < count; i++) {
+            stack.push(new TestExpressionReference("" + i));
+        }
+
+        this.containsAndCheck(
+            stack,
+            new TestExpressionReference("0"),
+            true
+        );
+        this.containsAndCheck(
+            stack,
+            new TestExpressionReference("" + (count - 1)),
+            true
+        );
+
+        stack.pop();
+
+        this.containsAndCheck(
+            stack,
+            new TestExpressionReference("" + (count - 1)),
+            false
+        );
+        this.containsAndCheck(
+            stack,
+            new TestExpressionReference("" + (count - 2)),
+            true
+        );
+
+        for (int i = 1; i < count; i++) {
+            stack.pop();
+        }
+
+        this.containsAndCheck(
+            stack,
+            new TestExpressionReference("0"),
+            false
+        );
+        this.depthAndCheck(
+            stack,
+            0
+        );
+    }
+
+    @Test
+    public void testPushSameTwiceBeyondScanLimitThenPop() {
+        final CycleDetectingExpressionEvaluationContextStack stack = CycleDetectingExpressionEvaluationContextStack.empty();
+
+        stack.push(A1);
+        for (int i = 0; i < CycleDetectingExpressionEvaluationContextStack.SCAN_LIMIT; i++) {
+            stack.push(reference("" + i));
+        }
+        stack.push(A1);
+        stack.pop();
+
+        this.containsAndCheck(
+            stack,
+            A1,
+            true
+        );
+    }
+
+    private void containsAndCheck(final CycleDetectingExpressionEvaluationContextStack stack,
+                                  final ExpressionReference reference,
+                                  final boolean expected) {
+        this.checkEquals(
+            expected,
+            stack.contains(reference),
+            () -> stack + " contains " + reference
+        );
+    }
+
+    private void depthAndCheck(final CycleDetectingExpressionEvaluationContextStack stack,
+                               final int expected) {
+        this.checkEquals(
+            expected,
+            stack.depth(),
+            () -> stack + " depth"
+        );
+    }
+
+    static final class TestExpressionReference extends FakeExpressionReference {
+
+        TestExpressionReference(final String value) {
+            this.value = value;
+        }
+
+        private final String value;
+
+        @Override
+        public int hashCode() {
+            return this.value.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof TestExpressionReference && this.value.equals(((TestExpressionReference) other).value);
+        }
+
+        @Override
+        public String toString() {
+            return this.value;
+        }
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        final CycleDetectingExpressionEvaluationContextStack stack = CycleDetectingExpressionEvaluationContextStack.empty();
+        stack.push(A1);
+        stack.push(B2);
+
+        this.toStringAndCheck(
+            stack,
+            "[A1, B2]"
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<CycleDetectingExpressionEvaluationContextStack> type() {
+        return CycleDetectingExpressionEvaluationContextStack.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
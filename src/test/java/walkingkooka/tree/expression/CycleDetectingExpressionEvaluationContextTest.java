@@ -128,6 +128,59 @@ public final class CycleDetectingExpressionEvaluationContextTest implements Clas
         );
     }
 
+    @Test
+    public void testEvaluateFunctionNestedReferenceCycleFails() {
+        final ExpressionEvaluationContext[] evaluation = new ExpressionEvaluationContext[1];
+
+        final CycleDetectingExpressionEvaluationContext context = this.createContext(
+            new FakeExpressionEvaluationContext() {
+                @Override
+                public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+                    // resolving A1 resolves A1 again through the same evaluation
+                    return evaluation[0].reference(reference);
+                }
+
+                @Override
+                public Object handleException(final RuntimeException exception) {
+                    throw exception;
+                }
+            }
+        );
+
+        final ExpressionFunction<Object, ExpressionEvaluationContext> function = new FakeExpressionFunction<>() {
+
+            @Override
+            public Optional<ExpressionFunctionName> name() {
+                return ExpressionFunction.ANONYMOUS_NAME;
+            }
+
+            @Override
+            public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+                return Lists.empty();
+            }
+
+            @Override
+            public Object apply(final List<Object> parameters,
+                                final ExpressionEvaluationContext c) {
+                evaluation[0] = c;
+                return c.reference(A1);
+            }
+        };
+
+        assertThrows(
+            CycleDetectedExpressionEvaluationConversionException.class,
+            () -> context.evaluateFunction(
+                function,
+                ExpressionFunction.NO_PARAMETER_VALUES
+            )
+        );
+        this.checkNotEquals(
+            context,
+            evaluation[0],
+            "evaluation context"
+        );
+    }
+
     @Test
     public void testReference() {
         final String target = "Text123";
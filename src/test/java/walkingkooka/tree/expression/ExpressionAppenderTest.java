@@ -0,0 +1,238 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.visit.Visiting;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ExpressionAppenderTest implements ClassTesting<ExpressionAppender>,
+    ToStringTesting<ExpressionAppender> {
+
+    @Test
+    public void testWithNullAppendableFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> ExpressionAppender.with(
+                null,
+                1
+            )
+        );
+    }
+
+    @Test
+    public void testWithNegativeMaxLengthFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> ExpressionAppender.with(
+                new StringBuilder(),
+                -1
+            )
+        );
+    }
+
+    @Test
+    public void testAppend() {
+        final StringBuilder b = new StringBuilder();
+        final ExpressionAppender appender = ExpressionAppender.with(
+            b,
+            ExpressionAppender.UNLIMITED
+        );
+
+        appender.append('1');
+        appender.append("23");
+        appender.append(Boolean.TRUE);
+
+        this.appendAndCheck(
+            appender,
+            b,
+            "123true",
+            false
+        );
+    }
+
+    @Test
+    public void testAppendCharTruncated() {
+        final StringBuilder b = new StringBuilder();
+        final ExpressionAppender appender = ExpressionAppender.with(
+            b,
+            2
+        );
+
+        appender.append('1');
+        appender.append('2');
+
+        this.appendAndCheck(
+            appender,
+            b,
+            "12",
+            false
+        );
+
+        appender.append('3');
+
+        this.appendAndCheck(
+            appender,
+            b,
+            "12",
+            true
+        );
+    }
+
+    @Test
+    public void testAppendCharSequenceTruncated() {
+        final StringBuilder b = new StringBuilder();
+        final ExpressionAppender appender = ExpressionAppender.with(
+            b,
+            4
+        );
+
+        appender.append("12");
+        appender.append("345");
+        appender.append("678");
+
+        this.appendAndCheck(
+            appender,
+            b,
+            "1234",
+            true
+        );
+    }
+
+    @Test
+    public void testAppendEmptyNotTruncated() {
+        final StringBuilder b = new StringBuilder();
+        final ExpressionAppender appender = ExpressionAppender.with(
+            b,
+            0
+        );
+
+        appender.append("");
+
+        this.appendAndCheck(
+            appender,
+            b,
+            "",
+            false
+        );
+    }
+
+    private void appendAndCheck(final ExpressionAppender appender,
+                                final StringBuilder b,
+                                final String text,
+                                final boolean truncated) {
+        this.checkEquals(
+            text,
+            b.toString(),
+            "text"
+        );
+        this.checkEquals(
+            truncated,
+            appender.isTruncated(),
+            "truncated"
+        );
+        this.checkEquals(
+            null,
+            appender.failure(),
+            "failure"
+        );
+        this.checkEquals(
+            truncated ? Visiting.SKIP : Visiting.CONTINUE,
+            appender.visiting(),
+            "visiting"
+        );
+    }
+
+    @Test
+    public void testAppendFailsSkips() {
+        final IOException thrown = new IOException("Failed!");
+
+        final ExpressionAppender appender = ExpressionAppender.with(
+            new Appendable() {
+                @Override
+                public Appendable append(final CharSequence chars) throws IOException {
+                    throw thrown;
+                }
+
+                @Override
+                public Appendable append(final CharSequence chars,
+                                         final int start,
+                                         final int end) throws IOException {
+                    throw thrown;
+                }
+
+                @Override
+                public Appendable append(final char c) throws IOException {
+                    throw thrown;
+                }
+            },
+            ExpressionAppender.UNLIMITED
+        );
+
+        this.checkEquals(
+            Visiting.CONTINUE,
+            appender.visiting(),
+            "visiting before"
+        );
+
+        appender.append("abc");
+
+        assertSame(
+            thrown,
+            appender.failure(),
+            "failure"
+        );
+        this.checkEquals(
+            Visiting.SKIP,
+            appender.visiting(),
+            "visiting after"
+        );
+    }
+
+    @Test
+    public void testToString() {
+        final StringBuilder b = new StringBuilder();
+        b.append("abc");
+
+        this.toStringAndCheck(
+            ExpressionAppender.with(
+                b,
+                1
+            ),
+            "abc"
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<ExpressionAppender> type() {
+        return ExpressionAppender.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
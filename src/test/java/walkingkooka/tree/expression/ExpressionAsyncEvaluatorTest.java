@@ -0,0 +1,475 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterName;
+import walkingkooka.tree.expression.function.ExpressionFunctions;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ExpressionAsyncEvaluatorTest implements ClassTesting2<ExpressionAsyncEvaluator> {
+
+    private final static ExpressionReference A1 = reference("A1");
+    private final static ExpressionReference B2 = reference("B2");
+
+    private final static ExpressionFunctionName EVALUATE = ExpressionFunctionName.with("evaluate");
+    private final static ExpressionFunctionName LAZY = ExpressionFunctionName.with("lazy");
+    private final static ExpressionFunctionName FIRST = ExpressionFunctionName.with("first");
+    private final static ExpressionFunctionName EAGER_REFERENCE = ExpressionFunctionName.with("eagerReference");
+    private final static ExpressionFunctionName FAIL = ExpressionFunctionName.with("fail");
+    private final static ExpressionFunctionName LIST = ExpressionFunctions.list()
+        .name()
+        .get();
+
+    private static ExpressionReference reference(final String label) {
+        return new FakeExpressionReference() {
+            @Override
+            public String toString() {
+                return label;
+            }
+        };
+    }
+
+    @Test
+    public void testToValueAsyncNullContextFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> Expression.value(1)
+                .toValueAsync(null)
+        );
+    }
+
+    @Test
+    public void testValue() {
+        this.checkEquals(
+            123,
+            Expression.value(123)
+                .toValueAsync(this.context())
+                .toCompletableFuture()
+                .join()
+        );
+    }
+
+    @Test
+    public void testValueCompletionStage() {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        final CompletableFuture<Object> value = Expression.value(future)
+            .toValueAsync(this.context())
+            .toCompletableFuture();
+        this.checkEquals(false, value.isDone(), "done");
+
+        future.complete(123);
+        this.checkEquals(123, value.join());
+    }
+
+    @Test
+    public void testReference() {
+        this.references.put(A1, CompletableFuture.completedFuture("a1"));
+
+        this.checkEquals(
+            "a1",
+            Expression.reference(A1)
+                .toValueAsync(this.context())
+                .toCompletableFuture()
+                .join()
+        );
+    }
+
+    @Test
+    public void testReferenceFails() {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        this.references.put(A1, future);
+
+        final RuntimeException cause = new IllegalStateException("fail");
+        future.completeExceptionally(cause);
+
+        final CompletionException thrown = assertThrows(
+            CompletionException.class,
+            () -> Expression.reference(A1)
+                .toValueAsync(this.context())
+                .toCompletableFuture()
+                .join()
+        );
+        assertSame(
+            cause,
+            thrown.getCause()
+        );
+    }
+
+    @Test
+    public void testListStartsAllBeforeWaiting() {
+        final CompletableFuture<Object> a1 = new CompletableFuture<>();
+        final CompletableFuture<Object> b2 = new CompletableFuture<>();
+        this.references.put(A1, a1);
+        this.references.put(B2, b2);
+
+        final CompletableFuture<Object> value = Expression.list(
+            Lists.of(
+                Expression.reference(A1),
+                Expression.reference(B2)
+            )
+        ).toValueAsync(this.context())
+            .toCompletableFuture();
+
+        this.checkEquals(
+            Lists.of(A1, B2),
+            this.resolved,
+            "references resolved before any completed"
+        );
+
+        b2.complete("b2");
+        this.checkEquals(false, value.isDone(), "done");
+
+        a1.complete("a1");
+        this.checkEquals(
+            Lists.of("a1", "b2"),
+            value.join()
+        );
+    }
+
+    @Test
+    public void testCallStartsAllParametersBeforeWaiting() {
+        final CompletableFuture<Object> a1 = new CompletableFuture<>();
+        final CompletableFuture<Object> b2 = new CompletableFuture<>();
+        this.references.put(A1, a1);
+        this.references.put(B2, b2);
+
+        final CompletableFuture<Object> value = Expression.call(
+            Expression.namedFunction(EVALUATE),
+            Lists.of(
+                Expression.reference(A1),
+                Expression.reference(B2),
+                Expression.value("c3")
+            )
+        ).toValueAsync(this.context())
+            .toCompletableFuture();
+
+        this.checkEquals(
+            Lists.of(A1, B2),
+            this.resolved,
+            "references resolved before any completed"
+        );
+
+        a1.complete("a1");
+        b2.complete("b2");
+
+        this.checkEquals(
+            "a1b2c3",
+            value.join()
+        );
+    }
+
+    @Test
+    public void testCallBuiltInFunctionStartsAllParametersBeforeWaiting() {
+        final CompletableFuture<Object> a1 = new CompletableFuture<>();
+        final CompletableFuture<Object> b2 = new CompletableFuture<>();
+        this.references.put(A1, a1);
+        this.references.put(B2, b2);
+
+        final CompletableFuture<Object> value = Expression.call(
+            Expression.namedFunction(LIST),
+            Lists.of(
+                Expression.reference(A1),
+                Expression.reference(B2)
+            )
+        ).toValueAsync(this.context())
+            .toCompletableFuture();
+
+        this.checkEquals(
+            Lists.of(A1, B2),
+            this.resolved,
+            "references resolved before any completed"
+        );
+
+        b2.complete("b2");
+        this.checkEquals(false, value.isDone(), "done");
+
+        a1.complete("a1");
+        this.checkEquals(
+            Lists.of("a1", "b2"),
+            value.join()
+        );
+    }
+
+    @Test
+    public void testCallParameterNotEvaluated() {
+        final Expression parameter = Expression.reference(A1);
+
+        this.checkEquals(
+            parameter,
+            Expression.call(
+                Expression.namedFunction(LAZY),
+                Lists.of(parameter)
+            ).toValueAsync(this.context())
+                .toCompletableFuture()
+                .join()
+        );
+        this.checkEquals(
+            Lists.empty(),
+            this.resolved,
+            "resolved"
+        );
+    }
+
+    @Test
+    public void testCallNested() {
+        this.references.put(A1, CompletableFuture.completedFuture("a1"));
+
+        this.checkEquals(
+            "a1b2c3",
+            Expression.call(
+                Expression.namedFunction(EVALUATE),
+                Lists.of(
+                    Expression.call(
+                        Expression.namedFunction(EVALUATE),
+                        Lists.of(
+                            Expression.reference(A1),
+                            Expression.value("b2")
+                        )
+                    ),
+                    Expression.value("c3")
+                )
+            ).toValueAsync(this.context())
+                .toCompletableFuture()
+                .join()
+        );
+    }
+
+    @Test
+    public void testCallEagerParameterReferenceNotResolved() {
+        this.checkEquals(
+            A1,
+            Expression.call(
+                Expression.namedFunction(EAGER_REFERENCE),
+                Lists.of(
+                    Expression.reference(A1)
+                )
+            ).toValueAsync(this.context())
+                .toCompletableFuture()
+                .join()
+        );
+        this.checkEquals(
+            Lists.empty(),
+            this.resolved,
+            "resolved"
+        );
+    }
+
+    @Test
+    public void testCallNotEagerParameterOnlyEvaluatedWhenFetched() {
+        this.checkEquals(
+            "first",
+            Expression.call(
+                Expression.namedFunction(FIRST),
+                Lists.of(
+                    Expression.value("first"),
+                    Expression.call(
+                        Expression.namedFunction(FAIL),
+                        Lists.empty()
+                    )
+                )
+            ).toValueAsync(this.context())
+                .toCompletableFuture()
+                .join()
+        );
+        this.checkEquals(
+            0,
+            this.failed,
+            "failing parameter should not be evaluated"
+        );
+    }
+
+    @Test
+    public void testCallEagerParameterFailureHandled() {
+        this.checkEquals(
+            "handled fail!c3",
+            Expression.call(
+                Expression.namedFunction(EVALUATE),
+                Lists.of(
+                    Expression.call(
+                        Expression.namedFunction(FAIL),
+                        Lists.empty()
+                    ),
+                    Expression.value("c3")
+                )
+            ).toValueAsync(this.context())
+                .toCompletableFuture()
+                .join()
+        );
+        this.checkEquals(
+            1,
+            this.failed,
+            "failed"
+        );
+    }
+
+    private ExpressionEvaluationContext context() {
+        final Map<ExpressionReference, CompletionStage<Object>> references = this.references;
+        final List<ExpressionReference> resolved = this.resolved;
+
+        return new FakeExpressionEvaluationContext() {
+
+            @Override
+            public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+                resolved.add(reference);
+
+                return Optional.ofNullable(
+                    references.get(reference)
+                ).map(Optional::of);
+            }
+
+            @Override
+            public ExpressionFunction<?, ExpressionEvaluationContext> expressionFunction(final ExpressionFunctionName name) {
+                if (LIST.equals(name)) {
+                    return ExpressionFunctions.list();
+                }
+
+                return new FakeExpressionFunction<Object, ExpressionEvaluationContext>() {
+
+                    @Override
+                    public Optional<ExpressionFunctionName> name() {
+                        return Optional.of(name);
+                    }
+
+                    @Override
+                    public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+                        return Lists.of(
+                            ExpressionFunctionParameterName.VALUE.variable(Object.class)
+                                .setKinds(
+                                    kinds(name)
+                                )
+                        );
+                    }
+
+                    @Override
+                    public Object apply(final List<Object> parameters,
+                                        final ExpressionEvaluationContext context) {
+                        if (FAIL.equals(name)) {
+                            ExpressionAsyncEvaluatorTest.this.failed++;
+                            throw new IllegalStateException("fail!");
+                        }
+                        if (LAZY.equals(name) || FIRST.equals(name) || EAGER_REFERENCE.equals(name)) {
+                            return parameters.get(0);
+                        }
+
+                        final StringBuilder b = new StringBuilder();
+                        for (final Object parameter : parameters) {
+                            b.append(parameter);
+                        }
+
+                        // functions may also complete later
+                        return CompletableFuture.completedFuture(b.toString());
+                    }
+                };
+            }
+
+            @Override
+            public <T> T prepareParameter(final ExpressionFunctionParameter<T> parameter,
+                                          final Object value) {
+                return Cast.to(value);
+            }
+
+            @Override
+            public Object handleException(final RuntimeException exception) {
+                return "handled " + exception.getMessage();
+            }
+
+            @Override
+            public Object evaluateFunction(final ExpressionFunction<?, ? extends ExpressionEvaluationContext> function,
+                                           final List<Object> parameters) {
+                return function.apply(
+                    this.prepareParameters(
+                        function,
+                        parameters
+                    ),
+                    Cast.to(this)
+                );
+            }
+        };
+    }
+
+    /**
+     * Returns the parameter kinds for each test function.
+     */
+    private static Set<ExpressionFunctionParameterKind> kinds(final ExpressionFunctionName name) {
+        final Set<ExpressionFunctionParameterKind> kinds;
+
+        if (EVALUATE.equals(name)) {
+            kinds = Sets.of(
+                ExpressionFunctionParameterKind.CONVERT,
+                ExpressionFunctionParameterKind.EAGER,
+                ExpressionFunctionParameterKind.EVALUATE,
+                ExpressionFunctionParameterKind.RESOLVE_REFERENCES
+            );
+        } else if (FIRST.equals(name)) {
+            kinds = Sets.of(
+                ExpressionFunctionParameterKind.EVALUATE
+            );
+        } else if (EAGER_REFERENCE.equals(name)) {
+            kinds = Sets.of(
+                ExpressionFunctionParameterKind.EAGER,
+                ExpressionFunctionParameterKind.EVALUATE
+            );
+        } else {
+            kinds = ExpressionFunctionParameter.NO_KINDS;
+        }
+
+        return kinds;
+    }
+
+    private final Map<ExpressionReference, CompletionStage<Object>> references = Maps.hash();
+
+    private final List<ExpressionReference> resolved = Lists.array();
+
+    /**
+     * The number of times the {@link #FAIL} function was called.
+     */
+    private int failed;
+
+    // class............................................................................................................
+
+    @Override
+    public Class<ExpressionAsyncEvaluator> type() {
+        return ExpressionAsyncEvaluator.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ExpressionBatchEvaluatorTest implements ClassTesting<ExpressionBatchEvaluator>,
+    ToStringTesting<ExpressionBatchEvaluator> {
+
+    private final static int COUNT = 1000;
+
+    @Test
+    public void testWithNullContextsFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> ExpressionBatchEvaluator.with(
+                null,
+                1
+            )
+        );
+    }
+
+    @Test
+    public void testWithInvalidParallelismFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> ExpressionBatchEvaluator.with(
+                ExpressionBatchEvaluatorTest::context,
+                0
+            )
+        );
+    }
+
+    @Test
+    public void testEvaluateNullExpressionsFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> ExpressionBatchEvaluator.with(
+                ExpressionBatchEvaluatorTest::context,
+                1
+            ).evaluate(null)
+        );
+    }
+
+    @Test
+    public void testEvaluateNullExpressionFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> ExpressionBatchEvaluator.with(
+                ExpressionBatchEvaluatorTest::context,
+                1
+            ).evaluate(
+                Lists.of(
+                    Expression.value(1),
+                    null
+                )
+            )
+        );
+    }
+
+    @Test
+    public void testEvaluateEmpty() {
+        final AtomicInteger contexts = new AtomicInteger();
+
+        this.checkEquals(
+            Lists.empty(),
+            ExpressionBatchEvaluator.with(
+                counting(contexts),
+                4
+            ).evaluate(Lists.empty())
+        );
+        this.checkEquals(0, contexts.get(), "contexts");
+    }
+
+    @Test
+    public void testEvaluateSequential() {
+        final AtomicInteger contexts = new AtomicInteger();
+
+        this.evaluateAndCheck(
+            ExpressionBatchEvaluator.with(
+                counting(contexts),
+                1
+            )
+        );
+        this.checkEquals(1, contexts.get(), "contexts");
+    }
+
+    @Test
+    public void testEvaluateParallel() {
+        final AtomicInteger contexts = new AtomicInteger();
+
+        this.evaluateAndCheck(
+            ExpressionBatchEvaluator.with(
+                counting(contexts),
+                4
+            )
+        );
+        this.checkEquals(4, contexts.get(), "contexts");
+    }
+
+    @Test
+    public void testEvaluateParallelismGreaterThanCount() {
+        final AtomicInteger contexts = new AtomicInteger();
+
+        this.checkEquals(
+            Lists.of(1, 2),
+            ExpressionBatchEvaluator.with(
+                counting(contexts),
+                8
+            ).evaluate(
+                Lists.of(
+                    Expression.value(1),
+                    Expression.value(2)
+                )
+            )
+        );
+        this.checkEquals(2, contexts.get(), "contexts");
+    }
+
+    @Test
+    public void testEvaluateNullValue() {
+        this.checkEquals(
+            Arrays.asList(1, null),
+            ExpressionBatchEvaluator.with(
+                ExpressionBatchEvaluatorTest::context,
+                2
+            ).evaluate(
+                Lists.of(
+                    Expression.value(1),
+                    Expression.value(null)
+                )
+            )
+        );
+    }
+
+    @Test
+    public void testEvaluateParallelFailure() {
+        final List<Expression> expressions = Lists.array();
+        for (int i = 0; i < COUNT; i++) {
+            expressions.add(
+                Expression.value(
+                    COUNT / 2 == i ?
+                        "fail" :
+                        i
+                )
+            );
+        }
+
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> ExpressionBatchEvaluator.with(
+                ExpressionBatchEvaluatorTest::context,
+                4
+            ).evaluate(expressions)
+        );
+        this.checkEquals(
+            "fail",
+            thrown.getMessage()
+        );
+    }
+
+    private void evaluateAndCheck(final ExpressionBatchEvaluator evaluator) {
+        final List<Expression> expressions = Lists.array();
+        final List<Object> expected = Lists.array();
+
+        for (int i = 0; i < COUNT; i++) {
+            expressions.add(Expression.value(i));
+            expected.add(i);
+        }
+
+        this.checkEquals(
+            expected,
+            evaluator.evaluate(expressions)
+        );
+    }
+
+    private static Supplier<ExpressionEvaluationContext> counting(final AtomicInteger count) {
+        return () -> {
+            count.incrementAndGet();
+            return context();
+        };
+    }
+
+    private static ExpressionEvaluationContext context() {
+        return new FakeExpressionEvaluationContext() {
+            @Override
+            public Object evaluateExpression(final Expression expression) {
+                final Object value = ((ValueExpression<?>) expression).value();
+                if ("fail".equals(value)) {
+                    throw new IllegalArgumentException("fail");
+                }
+                return value;
+            }
+        };
+    }
+
+    @Test
+    public void testToString() {
+        final Supplier<ExpressionEvaluationContext> contexts = ExpressionBatchEvaluatorTest::context;
+
+        this.toStringAndCheck(
+            ExpressionBatchEvaluator.with(
+                contexts,
+                2
+            ),
+            "parallelism=2 " + contexts
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<ExpressionBatchEvaluator> type() {
+        return ExpressionBatchEvaluator.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
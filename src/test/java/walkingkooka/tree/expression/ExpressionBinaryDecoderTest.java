@@ -0,0 +1,570 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.CaseSensitivity;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterCardinality;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterName;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ExpressionBinaryDecoderTest implements ClassTesting<ExpressionBinaryDecoder> {
+
+    private final static int DEEP = 100000;
+
+    // fromBinary.......................................................................................................
+
+    @Test
+    public void testFromBinaryNullBytesFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> Expression.fromBinary(
+                null,
+                0,
+                0,
+                CONTEXT
+            )
+        );
+    }
+
+    @Test
+    public void testFromBinaryNullContextFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> Expression.fromBinary(
+                new byte[1],
+                0,
+                1,
+                null
+            )
+        );
+    }
+
+    @Test
+    public void testFromBinaryInvalidLengthFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> Expression.fromBinary(
+                new byte[1],
+                0,
+                2,
+                CONTEXT
+            )
+        );
+    }
+
+    @Test
+    public void testFromBinaryUnsupportedVersionFails() {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> Expression.fromBinary(
+                new byte[]{99},
+                0,
+                1,
+                CONTEXT
+            )
+        );
+        this.checkEquals(
+            "Unsupported version 99 expected 2",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testFromBinaryMissingExpressionFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> Expression.fromBinary(
+                new byte[]{ExpressionBinaryFormat.VERSION},
+                0,
+                1,
+                CONTEXT
+            )
+        );
+    }
+
+    @Test
+    public void testFromBinaryTruncatedFails() {
+        final byte[] bytes = Expression.value("Hello").toBinary(CONTEXT);
+
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> Expression.fromBinary(
+                bytes,
+                0,
+                bytes.length - 1,
+                CONTEXT
+            )
+        );
+    }
+
+    @Test
+    public void testFromBinaryTrailingExpressionFails() {
+        final byte[] bytes = Expression.value(1).toBinary(CONTEXT);
+        final byte[] twice = Arrays.copyOf(bytes, bytes.length * 2 - 1);
+        System.arraycopy(
+            bytes,
+            1,
+            twice,
+            bytes.length,
+            bytes.length - 1
+        );
+
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> Expression.fromBinary(
+                twice,
+                0,
+                twice.length,
+                CONTEXT
+            )
+        );
+        this.checkEquals(
+            "Expected 1 expression but got 2",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testFromBinaryCountGreaterThanExpressionsFails() {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> Expression.fromBinary(
+                new byte[]{
+                    ExpressionBinaryFormat.VERSION,
+                    ExpressionBinaryFormat.LIST,
+                    (byte) 0xFF,
+                    (byte) 0xFF,
+                    (byte) 0xFF,
+                    (byte) 0xFF,
+                    0x07
+                },
+                0,
+                7,
+                CONTEXT
+            )
+        );
+        this.checkEquals(
+            "Expected 2147483647 expression(s) but got 0 at 7",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testFromBinaryUnknownCardinalityFails() {
+        final byte[] bytes = new byte[]{
+            ExpressionBinaryFormat.VERSION,
+            ExpressionBinaryFormat.LAMBDA_FUNCTION,
+            1, // parameter count
+            1, 'x', // name
+            16, 'j', 'a', 'v', 'a', '.', 'l', 'a', 'n', 'g', '.', 'S', 't', 'r', 'i', 'n', 'g', // type
+            3, 'B', 'A', 'D' // cardinality
+        };
+
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> Expression.fromBinary(
+                bytes,
+                0,
+                bytes.length,
+                CONTEXT
+            )
+        );
+        this.checkEquals(
+            "Unknown cardinality \"BAD\" at 22",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testToBinarySmallIntegerIsShort() {
+        this.checkEquals(
+            4,
+            Expression.value(-1)
+                .toBinary(CONTEXT)
+                .length,
+            "version, expression tag, value tag and one byte"
+        );
+    }
+
+    @Test
+    public void testFromBinaryOffset() {
+        final Expression expression = Expression.add(
+            Expression.value(1),
+            Expression.value(2)
+        );
+        final byte[] bytes = expression.toBinary(CONTEXT);
+        final byte[] padded = new byte[bytes.length + 3];
+        System.arraycopy(
+            bytes,
+            0,
+            padded,
+            2,
+            bytes.length
+        );
+
+        this.checkEquals(
+            expression,
+            Expression.fromBinary(
+                padded,
+                2,
+                bytes.length,
+                CONTEXT
+            )
+        );
+    }
+
+    // values...........................................................................................................
+
+    @Test
+    public void testValueNull() {
+        this.toBinaryAndFromBinaryAndCheck(
+            Expression.value(null)
+        );
+    }
+
+    @Test
+    public void testValueBoolean() {
+        this.toBinaryAndFromBinaryAndCheck(
+            Expression.value(true)
+        );
+        this.toBinaryAndFromBinaryAndCheck(
+            Expression.value(false)
+        );
+    }
+
+    @Test
+    public void testValueString() {
+        this.toBinaryAndFromBinaryAndCheck(
+            Expression.value("Hello é世 \"world\"")
+        );
+    }
+
+    @Test
+    public void testValueCharacter() {
+        this.toBinaryAndFromBinaryAndCheck(
+            Expression.value('世')
+        );
+    }
+
+    @Test
+    public void testValueExpressionNumberBigDecimal() {
+        this.toBinaryAndFromBinaryAndCheck(
+            Expression.value(
+                ExpressionNumberKind.BIG_DECIMAL.create(
+                    new BigDecimal("12345678901234567890.125")
+                )
+            )
+        );
+    }
+
+    @Test
+    public void testValueExpressionNumberDouble() {
+        this.toBinaryAndFromBinaryAndCheck(
+            Expression.value(
+                ExpressionNumberKind.DOUBLE.create(-1.25)
+            )
+        );
+    }
+
+    @Test
+    public void testValueNumbers() {
+        this.toBinaryAndFromBinaryAndCheck(Expression.value(Integer.MIN_VALUE));
+        this.toBinaryAndFromBinaryAndCheck(Expression.value(Long.MAX_VALUE));
+        this.toBinaryAndFromBinaryAndCheck(Expression.value(Double.NaN));
+        this.toBinaryAndFromBinaryAndCheck(Expression.value(new BigDecimal("-1.50")));
+        this.toBinaryAndFromBinaryAndCheck(Expression.value(new BigInteger("123456789012345678901234567890")));
+    }
+
+    @Test
+    public void testValueDateTimes() {
+        this.toBinaryAndFromBinaryAndCheck(Expression.value(LocalDate.of(1999, 12, 31)));
+        this.toBinaryAndFromBinaryAndCheck(Expression.value(LocalTime.of(12, 58, 59, 123)));
+        this.toBinaryAndFromBinaryAndCheck(Expression.value(LocalDateTime.of(1950, 1, 2, 3, 4, 5, 6)));
+    }
+
+    @Test
+    public void testValueOther() {
+        this.toBinaryAndFromBinaryAndCheck(
+            Expression.value(CaseSensitivity.INSENSITIVE)
+        );
+    }
+
+    // expressions......................................................................................................
+
+    @Test
+    public void testReference() {
+        this.toBinaryAndFromBinaryAndCheck(
+            Expression.reference(
+                new TestExpressionReference("A1")
+            )
+        );
+    }
+
+    @Test
+    public void testNamedFunction() {
+        this.toBinaryAndFromBinaryAndCheck(
+            Expression.namedFunction(
+                ExpressionFunctionName.with("hello")
+                    .setCaseSensitivity(CaseSensitivity.SENSITIVE)
+            )
+        );
+        this.toBinaryAndFromBinaryAndCheck(
+            Expression.namedFunction(
+                ExpressionFunctionName.with("hello")
+                    .setCaseSensitivity(CaseSensitivity.INSENSITIVE)
+            )
+        );
+    }
+
+    @Test
+    public void testUnary() {
+        this.toBinaryAndFromBinaryAndCheck(
+            Expression.negative(
+                Expression.not(
+                    Expression.value(true)
+                )
+            )
+        );
+    }
+
+    @Test
+    public void testBinary() {
+        final Expression left = Expression.value(1);
+        final Expression right = Expression.value("right");
+
+        this.toBinaryAndFromBinaryAndCheck(Expression.add(left, right));
+        this.toBinaryAndFromBinaryAndCheck(Expression.and(left, right));
+        this.toBinaryAndFromBinaryAndCheck(Expression.divide(left, right));
+        this.toBinaryAndFromBinaryAndCheck(Expression.equalsExpression(left, right));
+        this.toBinaryAndFromBinaryAndCheck(Expression.greaterThan(left, right));
+        this.toBinaryAndFromBinaryAndCheck(Expression.greaterThanEquals(left, right));
+        this.toBinaryAndFromBinaryAndCheck(Expression.lessThan(left, right));
+        this.toBinaryAndFromBinaryAndCheck(Expression.lessThanEquals(left, right));
+        this.toBinaryAndFromBinaryAndCheck(Expression.modulo(left, right));
+        this.toBinaryAndFromBinaryAndCheck(Expression.multiply(left, right));
+        this.toBinaryAndFromBinaryAndCheck(Expression.notEquals(left, right));
+        this.toBinaryAndFromBinaryAndCheck(Expression.or(left, right));
+        this.toBinaryAndFromBinaryAndCheck(Expression.power(left, right));
+        this.toBinaryAndFromBinaryAndCheck(Expression.subtract(left, right));
+        this.toBinaryAndFromBinaryAndCheck(Expression.xor(left, right));
+    }
+
+    @Test
+    public void testList() {
+        this.toBinaryAndFromBinaryAndCheck(
+            Expression.list(
+                Lists.of(
+                    Expression.value(1),
+                    Expression.list(Lists.empty()),
+                    Expression.value(3)
+                )
+            )
+        );
+    }
+
+    @Test
+    public void testCall() {
+        this.toBinaryAndFromBinaryAndCheck(
+            Expression.call(
+                Expression.namedFunction(
+                    ExpressionFunctionName.with("sum")
+                ),
+                Lists.of(
+                    Expression.value(1),
+                    Expression.reference(
+                        new TestExpressionReference("B2")
+                    )
+                )
+            )
+        );
+    }
+
+    @Test
+    public void testLambdaFunction() {
+        this.toBinaryAndFromBinaryAndCheck(
+            Expression.call(
+                Expression.lambdaFunction(
+                    Lists.of(
+                        ExpressionFunctionParameter.with(
+                            ExpressionFunctionParameterName.with("x"),
+                            ExpressionNumber.class,
+                            ExpressionFunctionParameterCardinality.OPTIONAL,
+                            Optional.of(
+                                ExpressionNumberKind.DOUBLE.create(1)
+                            ),
+                            Sets.of(
+                                ExpressionFunctionParameterKind.CONVERT,
+                                ExpressionFunctionParameterKind.RESOLVE_REFERENCES
+                            )
+                        ),
+                        ExpressionFunctionParameter.with(
+                            ExpressionFunctionParameterName.with("y"),
+                            String.class,
+                            ExpressionFunctionParameterCardinality.VARIABLE,
+                            Optional.empty(),
+                            ExpressionFunctionParameter.NO_KINDS
+                        )
+                    ),
+                    Expression.add(
+                        Expression.reference(new TestExpressionReference("x")),
+                        Expression.reference(new TestExpressionReference("y"))
+                    )
+                ),
+                Lists.of(
+                    Expression.value(1)
+                )
+            )
+        );
+    }
+
+    @Test
+    public void testDeep() {
+        Expression expression = Expression.value(0);
+        for (int i = 1; i < DEEP; i++) {
+            expression = Expression.add(
+                expression,
+                Expression.value(i)
+            );
+        }
+
+        final Expression decoded = this.toBinaryAndFromBinary(expression);
+
+        Expression left = decoded;
+        for (int i = DEEP - 1; i > 0; i--) {
+            final AddExpression add = (AddExpression) left;
+            this.checkEquals(
+                Expression.value(i),
+                add.right()
+            );
+            left = add.left();
+        }
+        this.checkEquals(
+            Expression.value(0),
+            left
+        );
+    }
+
+    private void toBinaryAndFromBinaryAndCheck(final Expression expression) {
+        this.checkEquals(
+            expression,
+            this.toBinaryAndFromBinary(expression),
+            expression.toString()
+        );
+    }
+
+    private Expression toBinaryAndFromBinary(final Expression expression) {
+        final byte[] bytes = expression.toBinary(CONTEXT);
+
+        return Expression.fromBinary(
+            bytes,
+            0,
+            bytes.length,
+            CONTEXT
+        );
+    }
+
+    private final static ExpressionBinaryContext CONTEXT = new FakeExpressionBinaryContext() {
+
+        @Override
+        public String referenceToString(final ExpressionReference reference) {
+            return reference.toString();
+        }
+
+        @Override
+        public ExpressionReference reference(final String text) {
+            return new TestExpressionReference(text);
+        }
+
+        @Override
+        public String typeToString(final Class<?> type) {
+            return type.getName();
+        }
+
+        @Override
+        public Class<?> type(final String text) {
+            try {
+                return Class.forName(text);
+            } catch (final ClassNotFoundException cause) {
+                throw new IllegalArgumentException(cause);
+            }
+        }
+
+        @Override
+        public String valueToString(final Object value) {
+            return ((CaseSensitivity) value).name();
+        }
+
+        @Override
+        public Object value(final String text,
+                            final Class<?> type) {
+            return CaseSensitivity.valueOf(text);
+        }
+    };
+
+    private static class TestExpressionReference extends FakeExpressionReference {
+
+        TestExpressionReference(final String name) {
+            super();
+            this.name = name;
+        }
+
+        private final String name;
+
+        @Override
+        public int hashCode() {
+            return this.name.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof TestExpressionReference && this.name.equals(other.toString());
+        }
+
+        @Override
+        public String toString() {
+            return this.name;
+        }
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<ExpressionBinaryDecoder> type() {
+        return ExpressionBinaryDecoder.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,436 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ExpressionDependencyGraphTest implements ClassTesting<ExpressionDependencyGraph> {
+
+    private final static ExpressionReference A1 = reference("A1");
+    private final static ExpressionReference B2 = reference("B2");
+    private final static ExpressionReference C3 = reference("C3");
+    private final static ExpressionReference D4 = reference("D4");
+    private final static ExpressionReference E5 = reference("E5");
+
+    private static ExpressionReference reference(final String label) {
+        return new FakeExpressionReference() {
+            @Override
+            public String toString() {
+                return label;
+            }
+        };
+    }
+
+    @Test
+    public void testSetExpressionNullReferenceFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> ExpressionDependencyGraph.empty()
+                .setExpression(
+                    null,
+                    Expression.value(1)
+                )
+        );
+    }
+
+    @Test
+    public void testSetExpressionNullExpressionFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> ExpressionDependencyGraph.empty()
+                .setExpression(
+                    A1,
+                    null
+                )
+        );
+    }
+
+    @Test
+    public void testRecalculateNullEvaluatorFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> ExpressionDependencyGraph.empty()
+                .recalculate(
+                    null,
+                    (r, v) -> {
+                    }
+                )
+        );
+    }
+
+    @Test
+    public void testSetExpressionDependenciesAndDependents() {
+        final ExpressionDependencyGraph graph = ExpressionDependencyGraph.empty();
+        graph.setExpression(
+            C3,
+            add(
+                Expression.reference(A1),
+                Expression.reference(B2)
+            )
+        );
+
+        this.checkEquals(
+            Sets.of(A1, B2),
+            graph.dependencies(C3),
+            "dependencies"
+        );
+        this.checkEquals(
+            Sets.of(C3),
+            graph.dependents(A1),
+            "dependents"
+        );
+        this.checkEquals(
+            Sets.empty(),
+            graph.dependents(C3),
+            "dependents C3"
+        );
+    }
+
+    @Test
+    public void testSetExpressionReplacesDependencies() {
+        final ExpressionDependencyGraph graph = ExpressionDependencyGraph.empty();
+        graph.setExpression(
+            C3,
+            Expression.reference(A1)
+        );
+        graph.setExpression(
+            C3,
+            Expression.reference(B2)
+        );
+
+        this.checkEquals(
+            Sets.of(B2),
+            graph.dependencies(C3),
+            "dependencies"
+        );
+        this.checkEquals(
+            Sets.empty(),
+            graph.dependents(A1),
+            "dependents A1"
+        );
+        this.checkEquals(
+            Sets.of(C3),
+            graph.dependents(B2),
+            "dependents B2"
+        );
+    }
+
+    @Test
+    public void testRemoveExpression() {
+        final ExpressionDependencyGraph graph = ExpressionDependencyGraph.empty();
+        graph.setExpression(
+            C3,
+            Expression.reference(A1)
+        );
+        graph.removeExpression(C3);
+
+        this.checkEquals(
+            Sets.empty(),
+            graph.dependents(A1),
+            "dependents"
+        );
+        this.checkEquals(
+            Lists.empty(),
+            graph.dirty(),
+            "dirty"
+        );
+    }
+
+    @Test
+    public void testRecalculate() {
+        this.recalculateAndCheck(1);
+    }
+
+    @Test
+    public void testRecalculateParallel() {
+        this.recalculateAndCheck(4);
+    }
+
+    private void recalculateAndCheck(final int parallelism) {
+        final Map<ExpressionReference, Object> values = Maps.hash();
+        final ExpressionDependencyGraph graph = ExpressionDependencyGraph.empty();
+
+        graph.setExpression(A1, Expression.value(1));
+        graph.setExpression(B2, add(Expression.reference(A1), Expression.value(10)));
+        graph.setExpression(C3, add(Expression.reference(A1), Expression.value(100)));
+        graph.setExpression(D4, add(Expression.reference(B2), Expression.reference(C3)));
+
+        this.recalculateAndCheck(
+            graph,
+            parallelism,
+            values,
+            A1, B2, C3, D4
+        );
+        this.checkEquals(112, values.get(D4), "D4");
+
+        // nothing dirty
+        this.recalculateAndCheck(
+            graph,
+            parallelism,
+            values
+        );
+
+        graph.setExpression(C3, add(Expression.reference(A1), Expression.value(1000)));
+
+        this.recalculateAndCheck(
+            graph,
+            parallelism,
+            values,
+            C3, D4
+        );
+        this.checkEquals(1012, values.get(D4), "D4");
+    }
+
+    @Test
+    public void testRecalculateChanged() {
+        final Map<ExpressionReference, Object> values = Maps.hash();
+        values.put(A1, 1);
+
+        final ExpressionDependencyGraph graph = ExpressionDependencyGraph.empty();
+        graph.setExpression(B2, add(Expression.reference(A1), Expression.value(10)));
+        graph.setExpression(C3, Expression.value(100));
+
+        this.recalculateAndCheck(
+            graph,
+            1,
+            values,
+            B2, C3
+        );
+
+        values.put(A1, 2);
+        graph.changed(A1);
+
+        this.recalculateAndCheck(
+            graph,
+            1,
+            values,
+            B2
+        );
+        this.checkEquals(12, values.get(B2), "B2");
+    }
+
+    @Test
+    public void testRecalculateRemovedDependency() {
+        final Map<ExpressionReference, Object> values = Maps.hash();
+        final ExpressionDependencyGraph graph = ExpressionDependencyGraph.empty();
+
+        graph.setExpression(A1, Expression.value(1));
+        graph.setExpression(B2, add(Expression.reference(A1), Expression.value(10)));
+        graph.setExpression(C3, Expression.value(100));
+
+        this.recalculateAndCheck(
+            graph,
+            1,
+            values,
+            A1, C3, B2
+        );
+
+        graph.removeExpression(A1);
+        values.put(A1, 5);
+
+        this.recalculateAndCheck(
+            graph,
+            1,
+            values,
+            B2
+        );
+        this.checkEquals(15, values.get(B2), "B2");
+    }
+
+    @Test
+    public void testRecalculateCycleFails() {
+        final ExpressionDependencyGraph graph = ExpressionDependencyGraph.empty();
+
+        graph.setExpression(A1, Expression.value(1));
+        graph.setExpression(B2, add(Expression.reference(A1), Expression.reference(D4)));
+        graph.setExpression(C3, Expression.reference(B2));
+        graph.setExpression(D4, Expression.reference(C3));
+        graph.setExpression(E5, Expression.reference(D4));
+
+        final CycleDetectedExpressionEvaluationConversionException thrown = assertThrows(
+            CycleDetectedExpressionEvaluationConversionException.class,
+            () -> graph.recalculate(
+                ExpressionBatchEvaluator.with(
+                    () -> context(Maps.empty()),
+                    1
+                ),
+                (r, v) -> {
+                    throw new UnsupportedOperationException();
+                }
+            )
+        );
+
+        this.checkEquals(
+            true,
+            Lists.of(B2, C3, D4).contains(thrown.reference()),
+            () -> "reference " + thrown.reference()
+        );
+        this.checkEquals(
+            "Cycle detected to " + thrown.reference(),
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testDirtySelfReferenceFails() {
+        final ExpressionDependencyGraph graph = ExpressionDependencyGraph.empty();
+        graph.setExpression(A1, Expression.reference(A1));
+
+        final CycleDetectedExpressionEvaluationConversionException thrown = assertThrows(
+            CycleDetectedExpressionEvaluationConversionException.class,
+            graph::dirty
+        );
+        this.checkEquals(
+            A1,
+            thrown.reference()
+        );
+    }
+
+    @Test
+    public void testRecalculateWide() {
+        final Map<ExpressionReference, Object> values = Maps.hash();
+        final ExpressionDependencyGraph graph = ExpressionDependencyGraph.empty();
+
+        graph.setExpression(A1, Expression.value(1));
+
+        final List<ExpressionReference> references = Lists.array();
+        for (int i = 0; i < 1000; i++) {
+            final ExpressionReference reference = reference("X" + i);
+            graph.setExpression(
+                reference,
+                add(
+                    Expression.reference(A1),
+                    Expression.value(i)
+                )
+            );
+            references.add(reference);
+        }
+
+        graph.recalculate(
+            ExpressionBatchEvaluator.with(
+                () -> context(values),
+                4
+            ),
+            values::put
+        );
+
+        graph.setExpression(A1, Expression.value(2));
+
+        this.checkEquals(
+            1001,
+            graph.recalculate(
+                ExpressionBatchEvaluator.with(
+                    () -> context(values),
+                    4
+                ),
+                values::put
+            ).size()
+        );
+
+        for (int i = 0; i < 1000; i++) {
+            this.checkEquals(
+                2 + i,
+                values.get(references.get(i))
+            );
+        }
+    }
+
+    private void recalculateAndCheck(final ExpressionDependencyGraph graph,
+                                     final int parallelism,
+                                     final Map<ExpressionReference, Object> values,
+                                     final ExpressionReference... expected) {
+        this.checkEquals(
+            Lists.of(expected),
+            graph.dirty(),
+            "dirty"
+        );
+        this.checkEquals(
+            Lists.of(expected),
+            graph.recalculate(
+                ExpressionBatchEvaluator.with(
+                    () -> context(values),
+                    parallelism
+                ),
+                values::put
+            ),
+            "recalculate"
+        );
+        this.checkEquals(
+            Lists.empty(),
+            graph.dirty(),
+            "dirty after"
+        );
+    }
+
+    private static Expression add(final Expression left,
+                                  final Expression right) {
+        return Expression.add(
+            left,
+            right
+        );
+    }
+
+    /**
+     * A context that only understands integer values, references and add.
+     */
+    private static ExpressionEvaluationContext context(final Map<ExpressionReference, Object> values) {
+        return new FakeExpressionEvaluationContext() {
+            @Override
+            public Object evaluateExpression(final Expression expression) {
+                final Object value;
+
+                if (expression instanceof ValueExpression) {
+                    value = ((ValueExpression<?>) expression).value();
+                } else if (expression instanceof ReferenceExpression) {
+                    final ExpressionReference reference = ((ReferenceExpression) expression).value();
+                    if (false == values.containsKey(reference)) {
+                        throw new IllegalStateException("Missing " + reference);
+                    }
+                    value = values.get(reference);
+                } else {
+                    final AddExpression add = (AddExpression) expression;
+                    value = (Integer) this.evaluateExpression(add.left()) +
+                        (Integer) this.evaluateExpression(add.right());
+                }
+
+                return value;
+            }
+        };
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<ExpressionDependencyGraph> type() {
+        return ExpressionDependencyGraph.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ExpressionEvaluationBudgetTest implements ClassTesting<ExpressionEvaluationBudget>,
+    ToStringTesting<ExpressionEvaluationBudget> {
+
+    private final static LongSupplier CLOCK = () -> 0;
+
+    private final static BooleanSupplier NOT_CANCELLED = () -> false;
+
+    @Test
+    public void testWithInvalidMaxStepsFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> ExpressionEvaluationBudget.with(
+                -1,
+                1,
+                ExpressionEvaluationBudget.NO_DEADLINE,
+                CLOCK,
+                NOT_CANCELLED
+            )
+        );
+    }
+
+    @Test
+    public void testWithInvalidMaxDepthFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> ExpressionEvaluationBudget.with(
+                1,
+                -1,
+                ExpressionEvaluationBudget.NO_DEADLINE,
+                CLOCK,
+                NOT_CANCELLED
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullClockFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> ExpressionEvaluationBudget.with(
+                1,
+                1,
+                ExpressionEvaluationBudget.NO_DEADLINE,
+                null,
+                NOT_CANCELLED
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullCancelledFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> ExpressionEvaluationBudget.with(
+                1,
+                1,
+                ExpressionEvaluationBudget.NO_DEADLINE,
+                CLOCK,
+                null
+            )
+        );
+    }
+
+    @Test
+    public void testStepExceedsMaxSteps() {
+        final ExpressionEvaluationBudget budget = this.budget(3, 1);
+        budget.step();
+        budget.step();
+        budget.step();
+
+        this.checkEquals(3L, budget.steps(), "steps");
+
+        final ExpressionEvaluationBudgetExceededException thrown = assertThrows(
+            ExpressionEvaluationBudgetExceededException.class,
+            budget::step
+        );
+        this.checkEquals(
+            "Exceeded max steps 3",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testEnterExceedsMaxDepth() {
+        final ExpressionEvaluationBudget budget = this.budget(1, 2);
+        budget.enter();
+        budget.enter();
+
+        this.checkEquals(2L, budget.depth(), "depth");
+
+        final ExpressionEvaluationBudgetExceededException thrown = assertThrows(
+            ExpressionEvaluationBudgetExceededException.class,
+            budget::enter
+        );
+        this.checkEquals(
+            "Exceeded max depth 2",
+            thrown.getMessage()
+        );
+
+        budget.exit();
+        budget.enter();
+    }
+
+    @Test
+    public void testExitWithoutEnterFails() {
+        assertThrows(
+            IllegalStateException.class,
+            () -> this.budget(1, 1)
+                .exit()
+        );
+    }
+
+    @Test
+    public void testStepDeadlinePassed() {
+        final AtomicLong now = new AtomicLong(100);
+
+        final ExpressionEvaluationBudget budget = ExpressionEvaluationBudget.with(
+            ExpressionEvaluationBudget.UNLIMITED,
+            ExpressionEvaluationBudget.UNLIMITED,
+            200,
+            now::get,
+            NOT_CANCELLED
+        );
+        budget.step();
+
+        now.set(200);
+
+        // clock only read every CHECK_INTERVAL steps
+        for (int i = 1; i < ExpressionEvaluationBudget.CHECK_INTERVAL; i++) {
+            budget.step();
+        }
+
+        final ExpressionEvaluationBudgetExceededException thrown = assertThrows(
+            ExpressionEvaluationBudgetExceededException.class,
+            budget::step
+        );
+        this.checkEquals(
+            "Deadline passed",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testStepCancelled() {
+        final AtomicBoolean cancelled = new AtomicBoolean(true);
+
+        final ExpressionEvaluationBudgetExceededException thrown = assertThrows(
+            ExpressionEvaluationBudgetExceededException.class,
+            () -> ExpressionEvaluationBudget.with(
+                ExpressionEvaluationBudget.UNLIMITED,
+                ExpressionEvaluationBudget.UNLIMITED,
+                ExpressionEvaluationBudget.NO_DEADLINE,
+                CLOCK,
+                cancelled::get
+            ).step()
+        );
+        this.checkEquals(
+            "Cancelled",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testStepChecksCancelledEveryInterval() {
+        final AtomicInteger reads = new AtomicInteger();
+
+        final ExpressionEvaluationBudget budget = ExpressionEvaluationBudget.with(
+            ExpressionEvaluationBudget.UNLIMITED,
+            ExpressionEvaluationBudget.UNLIMITED,
+            ExpressionEvaluationBudget.NO_DEADLINE,
+            CLOCK,
+            () -> {
+                reads.incrementAndGet();
+                return false;
+            }
+        );
+
+        for (int i = 0; i < ExpressionEvaluationBudget.CHECK_INTERVAL * 4; i++) {
+            budget.step();
+        }
+
+        this.checkEquals(4, reads.get(), "reads");
+    }
+
+    private ExpressionEvaluationBudget budget(final long maxSteps,
+                                              final long maxDepth) {
+        return ExpressionEvaluationBudget.with(
+            maxSteps,
+            maxDepth,
+            ExpressionEvaluationBudget.NO_DEADLINE,
+            CLOCK,
+            NOT_CANCELLED
+        );
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        final ExpressionEvaluationBudget budget = this.budget(10, 5);
+        budget.step();
+        budget.enter();
+
+        this.toStringAndCheck(
+            budget,
+            "steps=1/10 depth=1/5"
+        );
+    }
+
+    @Test
+    public void testToStringDeadline() {
+        this.toStringAndCheck(
+            ExpressionEvaluationBudget.with(
+                10,
+                5,
+                123,
+                CLOCK,
+                NOT_CANCELLED
+            ),
+            "steps=0/10 depth=0/5 deadline=123"
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<ExpressionEvaluationBudget> type() {
+        return ExpressionEvaluationBudget.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -18,6 +18,8 @@
 package walkingkooka.tree.expression;
 
 import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
 import walkingkooka.convert.BinaryNumberConverterFunctions;
 import walkingkooka.convert.ConverterContexts;
 import walkingkooka.convert.Converters;
@@ -31,6 +33,8 @@ import walkingkooka.text.CaseSensitivity;
 import walkingkooka.tree.expression.ExpressionEvaluationContextDelegatorTest.TestExpressionEvaluationContextDelegator;
 
 import java.math.MathContext;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
@@ -58,6 +62,37 @@ public final class ExpressionEvaluationContextDelegatorTest implements Expressio
         );
     }
 
+    @Test
+    public void testReferencesCallsReference() {
+        final ExpressionReference reference = new FakeExpressionReference();
+        final Optional<Optional<Object>> value = Optional.of(
+            Optional.of("value")
+        );
+
+        this.checkEquals(
+            Maps.of(
+                reference,
+                value
+            ),
+            new TestExpressionEvaluationContextDelegator(
+                new FakeExpressionEvaluationContext() {
+                    @Override
+                    public Optional<Optional<Object>> reference(final ExpressionReference r) {
+                        checkEquals(reference, r, "reference");
+                        return value;
+                    }
+
+                    @Override
+                    public Map<ExpressionReference, Optional<Optional<Object>>> references(final Collection<ExpressionReference> references) {
+                        throw new UnsupportedOperationException();
+                    }
+                }
+            ).references(
+                Lists.of(reference)
+            )
+        );
+    }
+
     @Override
     public TestExpressionEvaluationContextDelegator createContext() {
         return new TestExpressionEvaluationContextDelegator();
@@ -90,6 +125,10 @@ public final class ExpressionEvaluationContextDelegatorTest implements Expressio
 
     static final class TestExpressionEvaluationContextDelegator implements ExpressionEvaluationContextDelegator {
 
+        TestExpressionEvaluationContextDelegator(final ExpressionEvaluationContext context) {
+            this.expressionEvaluationContext = context;
+        }
+
         TestExpressionEvaluationContextDelegator() {
             this.expressionEvaluationContext = ExpressionEvaluationContexts.basic(
                 ExpressionNumberKind.BIG_DECIMAL,
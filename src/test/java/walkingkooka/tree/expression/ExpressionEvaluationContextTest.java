@@ -20,6 +20,7 @@ package walkingkooka.tree.expression;
 import org.junit.jupiter.api.Test;
 import walkingkooka.Either;
 import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
 import walkingkooka.reflect.ClassTesting;
 import walkingkooka.reflect.JavaVisibility;
 import walkingkooka.reflect.ThrowableTesting;
@@ -32,6 +33,7 @@ import walkingkooka.tree.expression.function.FakeExpressionFunction;
 import walkingkooka.tree.expression.function.InvalidExpressionFunctionParameterCountException;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -149,6 +151,50 @@ public final class ExpressionEvaluationContextTest implements ClassTesting<Expre
         );
     }
 
+    // references......................................................................................................
+
+    @Test
+    public void testReferencesNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> ExpressionEvaluationContexts.fake()
+                .references(null)
+        );
+    }
+
+    @Test
+    public void testReferences() {
+        final ExpressionReference found = new FakeExpressionReference();
+        final ExpressionReference missing = new FakeExpressionReference();
+
+        final Map<ExpressionReference, Optional<Optional<Object>>> expected = Maps.hash();
+        expected.put(
+            found,
+            Optional.of(
+                Optional.of("Found123")
+            )
+        );
+        expected.put(
+            missing,
+            ExpressionEvaluationContext.REFERENCE_NOT_FOUND_VALUE
+        );
+
+        this.checkEquals(
+            expected,
+            new FakeExpressionEvaluationContext() {
+                @Override
+                public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+                    return expected.get(reference);
+                }
+            }.references(
+                Lists.of(
+                    found,
+                    missing
+                )
+            )
+        );
+    }
+
     private void evaluateIfNecessary(final ExpressionEvaluationContext context,
                                      final Object value,
                                      final Object expected) {
@@ -329,6 +375,102 @@ public final class ExpressionEvaluationContextTest implements ClassTesting<Expre
         );
     }
 
+    // referenceOrMissing...............................................................................................
+
+    @Test
+    public void testReferenceOrMissingNotFound() {
+        this.referenceOrMissingAndCheck(
+            ExpressionEvaluationContext.REFERENCE_NOT_FOUND_VALUE,
+            ExpressionEvaluationContext.REFERENCE_MISSING
+        );
+    }
+
+    @Test
+    public void testReferenceOrMissingNullValue() {
+        this.referenceOrMissingAndCheck(
+            ExpressionEvaluationContext.REFERENCE_NULL_VALUE,
+            null
+        );
+    }
+
+    @Test
+    public void testReferenceOrMissingValue() {
+        final Object value = "Value123";
+
+        this.referenceOrMissingAndCheck(
+            Optional.of(
+                Optional.of(value)
+            ),
+            value
+        );
+    }
+
+    private void referenceOrMissingAndCheck(final Optional<Optional<Object>> referenceValue,
+                                            final Object expected) {
+        this.checkEquals(
+            expected,
+            new FakeExpressionEvaluationContext() {
+                @Override
+                public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+                    return referenceValue;
+                }
+            }.referenceOrMissing(new FakeExpressionReference())
+        );
+    }
+
+    // referenceOrFail..................................................................................................
+
+    @Test
+    public void testReferenceOrFailNotFound() {
+        this.referenceOrFailFails(ExpressionEvaluationContext.REFERENCE_NOT_FOUND_VALUE);
+    }
+
+    @Test
+    public void testReferenceOrFailNullValue() {
+        this.referenceOrFailFails(ExpressionEvaluationContext.REFERENCE_NULL_VALUE);
+    }
+
+    private void referenceOrFailFails(final Optional<Optional<Object>> referenceValue) {
+        final ExpressionEvaluationException thrown = new ExpressionEvaluationException("Reference not found 123");
+
+        this.checkEquals(
+            thrown,
+            new FakeExpressionEvaluationContext() {
+                @Override
+                public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+                    return referenceValue;
+                }
+
+                @Override
+                public ExpressionEvaluationException referenceNotFound(final ExpressionReference reference) {
+                    return thrown;
+                }
+
+                @Override
+                public Object handleException(final RuntimeException exception) {
+                    return exception;
+                }
+            }.referenceOrFail(new FakeExpressionReference())
+        );
+    }
+
+    @Test
+    public void testReferenceOrFailValue() {
+        final Object value = "Value123";
+
+        this.checkEquals(
+            value,
+            new FakeExpressionEvaluationContext() {
+                @Override
+                public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+                    return Optional.of(
+                        Optional.of(value)
+                    );
+                }
+            }.referenceOrFail(new FakeExpressionReference())
+        );
+    }
+
     // evaluateExpression.................................................................................................
 
     @Test
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.Optional;
+
+public final class ExpressionEvaluationProfilerFrameTest implements ClassTesting2<ExpressionEvaluationProfilerFrame>,
+    ToStringTesting<ExpressionEvaluationProfilerFrame> {
+
+    @Test
+    public void testChildSameLabel() {
+        final ExpressionEvaluationProfilerFrame frame = this.createFrame();
+
+        this.checkEquals(
+            frame.child("child", Optional.empty()),
+            frame.child("child", Optional.empty())
+        );
+        this.checkEquals(
+            1,
+            frame.children()
+                .size(),
+            "children"
+        );
+    }
+
+    @Test
+    public void testSelfNanos() {
+        final ExpressionEvaluationProfilerFrame frame = this.createFrame();
+        frame.add(10);
+        frame.child("child1", Optional.empty())
+            .add(3);
+        frame.child("child2", Optional.empty())
+            .add(2);
+
+        this.checkEquals(5L, frame.selfNanos());
+    }
+
+    @Test
+    public void testToString() {
+        final ExpressionEvaluationProfilerFrame frame = this.createFrame();
+        frame.add(10);
+        frame.add(5);
+        frame.child("child", Optional.empty())
+            .add(4);
+
+        this.toStringAndCheck(
+            frame,
+            "label1 count=2 nanos=15 self=11"
+        );
+    }
+
+    private ExpressionEvaluationProfilerFrame createFrame() {
+        return ExpressionEvaluationProfilerFrame.with(
+            "label1",
+            Optional.empty()
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<ExpressionEvaluationProfilerFrame> type() {
+        return ExpressionEvaluationProfilerFrame.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.printer.TreePrintableTesting;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ExpressionEvaluationProfilerTest implements ClassTesting2<ExpressionEvaluationProfiler>,
+    TreePrintableTesting {
+
+    private final static ExpressionFunctionName FUNCTION = ExpressionFunctionName.with("function1");
+
+    @Test
+    public void testWithNullClockFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> ExpressionEvaluationProfiler.with(null)
+        );
+    }
+
+    @Test
+    public void testEnterExit() {
+        final ExpressionEvaluationProfiler profiler = this.profiler();
+        profiler.enter("a", Optional.empty()); // 0
+        profiler.enter("b", Optional.empty()); // 1
+        profiler.exit(); // 2
+        profiler.enter("b", Optional.empty()); // 3
+        profiler.exit(); // 4
+        profiler.exit(); // 5
+
+        this.checkEquals(
+            1,
+            profiler.frames().size(),
+            "frames"
+        );
+
+        final ExpressionEvaluationProfilerFrame a = profiler.frames().get(0);
+        this.checkEquals("a", a.label(), "label");
+        this.checkEquals(1L, a.count(), "count");
+        this.checkEquals(5L, a.nanos(), "nanos");
+        this.checkEquals(3L, a.selfNanos(), "selfNanos");
+
+        final ExpressionEvaluationProfilerFrame b = a.children().get(0);
+        this.checkEquals("b", b.label(), "label");
+        this.checkEquals(2L, b.count(), "count");
+        this.checkEquals(2L, b.nanos(), "nanos");
+    }
+
+    @Test
+    public void testEnterDirectRecursionFolded() {
+        final ExpressionEvaluationProfiler profiler = this.profiler();
+        profiler.enter("a", Optional.empty()); // 0
+        profiler.enter("a", Optional.empty()); // 1
+        profiler.enter("b", Optional.empty()); // 2
+        profiler.exit(); // 3
+        profiler.exit(); // 4
+        profiler.exit(); // 5
+
+        this.treePrintAndCheck(
+            profiler,
+            "a count=2 nanos=5 self=4\n" +
+                "  b count=1 nanos=1 self=1\n"
+        );
+    }
+
+    @Test
+    public void testEnterIndirectRecursionPerPath() {
+        final ExpressionEvaluationProfiler profiler = this.profiler();
+        profiler.enter("a", Optional.empty()); // 0
+        profiler.enter("b", Optional.empty()); // 1
+        profiler.enter("a", Optional.empty()); // 2
+        profiler.exit(); // 3
+        profiler.exit(); // 4
+        profiler.exit(); // 5
+
+        this.treePrintAndCheck(
+            profiler,
+            "a count=1 nanos=5 self=2\n" +
+                "  b count=1 nanos=3 self=2\n" +
+                "    a count=1 nanos=1 self=1\n"
+        );
+    }
+
+    @Test
+    public void testEnterIndirectRecursionChildSubtractedOnce() {
+        final ExpressionEvaluationProfiler profiler = this.profiler();
+        profiler.enter("f", Optional.empty()); // 0
+        profiler.enter("if", Optional.empty()); // 1
+        profiler.enter("f", Optional.empty()); // 2
+        profiler.enter("p", Optional.empty()); // 3
+        profiler.exit(); // 4
+        profiler.exit(); // 5
+        profiler.exit(); // 6
+        profiler.enter("p", Optional.empty()); // 7
+        profiler.exit(); // 8
+        profiler.exit(); // 9
+
+        this.checkEquals(
+            "f 3\n" +
+                "f;if 2\n" +
+                "f;if;f 2\n" +
+                "f;if;f;p 1\n" +
+                "f;p 1\n",
+            profiler.folded()
+        );
+    }
+
+    @Test
+    public void testEnterSameExpressionFolded() {
+        final Expression expression = Expression.value(1);
+
+        final ExpressionEvaluationProfiler profiler = this.profiler();
+        profiler.enter(expression, Optional.empty()); // 0
+        profiler.exit(); // 1
+        profiler.enter(expression, Optional.empty()); // 2
+        profiler.exit(); // 3
+
+        this.treePrintAndCheck(
+            profiler,
+            "ValueExpression / count=2 nanos=2 self=2\n"
+        );
+    }
+
+    @Test
+    public void testEnterEqualExpressionsDifferentPositions() {
+        final Expression add = Expression.add(
+            Expression.value(1),
+            Expression.value(1)
+        );
+
+        final ExpressionEvaluationProfiler profiler = this.profiler();
+        profiler.enter(add, Optional.empty()); // 0
+        profiler.enter(add.children().get(0), Optional.empty()); // 1
+        profiler.exit(); // 2
+        profiler.enter(add.children().get(1), Optional.empty()); // 3
+        profiler.exit(); // 4
+        profiler.exit(); // 5
+
+        this.treePrintAndCheck(
+            profiler,
+            "AddExpression / count=1 nanos=5 self=3\n" +
+                "  ValueExpression /0 count=1 nanos=1 self=1\n" +
+                "  ValueExpression /1 count=1 nanos=1 self=1\n"
+        );
+    }
+
+    @Test
+    public void testPrintTree() {
+        this.treePrintAndCheck(
+            this.profilerAB(),
+            "a count=1 nanos=5 self=3\n" +
+                "  b count=2 nanos=2 self=2\n"
+        );
+    }
+
+    @Test
+    public void testFolded() {
+        this.checkEquals(
+            "a 3\n" +
+                "a;b 2\n",
+            this.profilerAB()
+                .folded()
+        );
+    }
+
+    @Test
+    public void testFoldedLabelEscaped() {
+        final ExpressionEvaluationProfiler profiler = this.profiler();
+        profiler.enter("1 + 2;x", Optional.empty());
+        profiler.exit();
+
+        this.checkEquals(
+            "1_+_2,x 1\n",
+            profiler.folded()
+        );
+    }
+
+    @Test
+    public void testFunctions() {
+        final ExpressionEvaluationProfiler profiler = this.profiler();
+        profiler.enter("a", Optional.empty()); // 0
+        profiler.enter(FUNCTION.value(), Optional.of(FUNCTION)); // 1
+        profiler.exit(); // 2
+        profiler.exit(); // 3
+        profiler.enter("b", Optional.empty()); // 4
+        profiler.enter(FUNCTION.value(), Optional.of(FUNCTION)); // 5
+        profiler.exit(); // 6
+        profiler.exit(); // 7
+
+        final Map<ExpressionFunctionName, ExpressionEvaluationProfilerFrame> functions = profiler.functions();
+        this.checkEquals(
+            Sets.of(FUNCTION),
+            functions.keySet(),
+            "functions"
+        );
+
+        final ExpressionEvaluationProfilerFrame function = functions.get(FUNCTION);
+        this.checkEquals(2L, function.count(), "count");
+        this.checkEquals(2L, function.nanos(), "nanos");
+    }
+
+    @Test
+    public void testFunctionsRecursive() {
+        final ExpressionEvaluationProfiler profiler = this.profiler();
+        profiler.enter(FUNCTION.value(), Optional.of(FUNCTION)); // 0
+        profiler.enter(FUNCTION.value(), Optional.of(FUNCTION)); // 1
+        profiler.exit(); // 2
+        profiler.exit(); // 3
+
+        final ExpressionEvaluationProfilerFrame function = profiler.functions()
+            .get(FUNCTION);
+        this.checkEquals(2L, function.count(), "count");
+        this.checkEquals(3L, function.nanos(), "nanos");
+    }
+
+    private ExpressionEvaluationProfiler profilerAB() {
+        final ExpressionEvaluationProfiler profiler = this.profiler();
+        profiler.enter("a", Optional.empty());
+        profiler.enter("b", Optional.empty());
+        profiler.exit();
+        profiler.enter("b", Optional.empty());
+        profiler.exit();
+        profiler.exit();
+        return profiler;
+    }
+
+    /**
+     * A clock that advances by one every time it is read.
+     */
+    private ExpressionEvaluationProfiler profiler() {
+        return ExpressionEvaluationProfiler.with(
+            new LongSupplier() {
+                @Override
+                public long getAsLong() {
+                    return this.now++;
+                }
+
+                private long now;
+            }
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<ExpressionEvaluationProfiler> type() {
+        return ExpressionEvaluationProfiler.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
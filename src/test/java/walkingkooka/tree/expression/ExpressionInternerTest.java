@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ExpressionInternerTest implements ClassTesting<ExpressionInterner>,
+    ToStringTesting<ExpressionInterner> {
+
+    @Test
+    public void testInternNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> ExpressionInterner.empty()
+                .intern(null)
+        );
+    }
+
+    @Test
+    public void testInternFirst() {
+        final ExpressionInterner interner = ExpressionInterner.empty();
+        final AddExpression add = add();
+
+        assertSame(
+            add,
+            interner.intern(add)
+        );
+        this.checkEquals(
+            1,
+            interner.size()
+        );
+    }
+
+    @Test
+    public void testInternEqual() {
+        final ExpressionInterner interner = ExpressionInterner.empty();
+        final AddExpression add = add();
+        final AddExpression add2 = add();
+        assertNotSame(add, add2);
+
+        interner.intern(add);
+
+        assertSame(
+            add,
+            interner.intern(add2)
+        );
+        this.checkEquals(
+            1,
+            interner.size()
+        );
+    }
+
+    @Test
+    public void testInternDifferent() {
+        final ExpressionInterner interner = ExpressionInterner.empty();
+        final AddExpression add = add();
+        final SubtractExpression subtract = Expression.subtract(
+            Expression.value(1),
+            Expression.value(2)
+        );
+
+        assertSame(
+            add,
+            interner.intern(add)
+        );
+        assertSame(
+            subtract,
+            interner.intern(subtract)
+        );
+        this.checkEquals(
+            2,
+            interner.size()
+        );
+    }
+
+    @Test
+    public void testInternChildRemovesParent() {
+        final ExpressionInterner interner = ExpressionInterner.empty();
+        final AddExpression add = add();
+        final Expression nested = Expression.negative(add)
+            .children()
+            .get(0);
+        this.checkEquals(
+            true,
+            nested.parent().isPresent()
+        );
+
+        final Expression interned = interner.intern(nested);
+        this.checkEquals(
+            false,
+            interned.parent().isPresent()
+        );
+        this.checkEquals(
+            add,
+            interned
+        );
+
+        assertSame(
+            interned,
+            interner.intern(add)
+        );
+    }
+
+    private static AddExpression add() {
+        return Expression.add(
+            Expression.value(1),
+            Expression.value(2)
+        );
+    }
+
+    @Test
+    public void testToString() {
+        final ExpressionInterner interner = ExpressionInterner.empty();
+        interner.intern(add());
+
+        this.toStringAndCheck(
+            interner,
+            "[1+2]"
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<ExpressionInterner> type() {
+        return ExpressionInterner.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -35,6 +35,47 @@ public final class ExpressionNumberBigDecimalTest extends ExpressionNumberTestCa
         assertThrows(NullPointerException.class, () -> ExpressionNumberBigDecimal.withBigDecimal(null));
     }
 
+    @Test
+    public void testWithBigDecimalSmallIntegerInterned() {
+        assertSame(
+            ExpressionNumberBigDecimal.withBigDecimal(BigDecimal.ONE),
+            ExpressionNumberBigDecimal.withBigDecimal(new BigDecimal("1"))
+        );
+    }
+
+    @Test
+    public void testWithBigDecimalNegativeSmallIntegerInterned() {
+        assertSame(
+            ExpressionNumberBigDecimal.withBigDecimal(BigDecimal.valueOf(-1)),
+            ExpressionNumberBigDecimal.withBigDecimal(new BigDecimal("-1"))
+        );
+    }
+
+    @Test
+    public void testWithBigDecimalNonZeroScaleNotInterned() {
+        final BigDecimal value = new BigDecimal("1.0");
+        final ExpressionNumberBigDecimal number = ExpressionNumberBigDecimal.withBigDecimal(value);
+
+        assertNotSame(
+            ExpressionNumberBigDecimal.withBigDecimal(BigDecimal.ONE),
+            number
+        );
+        assertSame(
+            value,
+            number.value()
+        );
+    }
+
+    @Test
+    public void testWithBigDecimalLargeIntegerNotInterned() {
+        final BigDecimal value = BigDecimal.valueOf(ExpressionNumberDouble.CACHE_MAX + 1);
+
+        assertNotSame(
+            ExpressionNumberBigDecimal.withBigDecimal(value),
+            ExpressionNumberBigDecimal.withBigDecimal(value)
+        );
+    }
+
     @Override
     @Test
     public void testSetKindDifferent() {
@@ -44,6 +44,69 @@ public final class ExpressionNumberDoubleTest extends ExpressionNumberTestCase<E
         );
     }
 
+    // withDouble......................................................................................................
+
+    @Test
+    public void testWithDoubleSmallIntegerInterned() {
+        assertSame(
+            ExpressionNumberDouble.withDouble(1),
+            ExpressionNumberDouble.withDouble(1.0)
+        );
+    }
+
+    @Test
+    public void testWithDoubleNegativeSmallIntegerInterned() {
+        assertSame(
+            ExpressionNumberDouble.withDouble(-1),
+            ExpressionNumberDouble.withDouble(-1.0)
+        );
+    }
+
+    @Test
+    public void testWithDoubleNegativeZeroNotInterned() {
+        final ExpressionNumberDouble negativeZero = ExpressionNumberDouble.withDouble(-0.0);
+
+        assertNotSame(
+            ExpressionNumberDouble.withDouble(0),
+            negativeZero
+        );
+        this.checkEquals(
+            "-0.0",
+            negativeZero.value()
+                .toString()
+        );
+    }
+
+    @Test
+    public void testWithDoubleFractionNotInterned() {
+        assertNotSame(
+            ExpressionNumberDouble.withDouble(1.5),
+            ExpressionNumberDouble.withDouble(1.5)
+        );
+    }
+
+    @Test
+    public void testWithDoubleLargeIntegerNotInterned() {
+        final double value = ExpressionNumberDouble.CACHE_MAX + 1;
+
+        assertNotSame(
+            ExpressionNumberDouble.withDouble(value),
+            ExpressionNumberDouble.withDouble(value)
+        );
+    }
+
+    @Test
+    public void testAddResultInterned() {
+        assertSame(
+            ExpressionNumberDouble.withDouble(3),
+            ExpressionNumberDouble.withDouble(1)
+                .add(
+                    ExpressionNumberDouble.withDouble(2),
+                    CONTEXT
+                )
+        );
+    }
+
     // exp...............................................................................................................
 
     @Test
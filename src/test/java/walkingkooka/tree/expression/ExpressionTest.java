@@ -18,6 +18,8 @@
 package walkingkooka.tree.expression;
 
 import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
 import walkingkooka.naming.Name;
 import walkingkooka.reflect.ClassTesting;
 import walkingkooka.reflect.JavaVisibility;
@@ -27,6 +29,12 @@ import walkingkooka.text.printer.IndentingPrinter;
 import walkingkooka.text.printer.Printers;
 import walkingkooka.tree.NodeTesting;
 
+import java.io.IOException;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 public final class ExpressionTest implements NodeTesting<Expression, ExpressionFunctionName, Name, Object>,
     ClassTesting<Expression> {
 
@@ -215,6 +223,166 @@ public final class ExpressionTest implements NodeTesting<Expression, ExpressionF
         }
     }
 
+    // appendTo.........................................................................................................
+
+    @Test
+    public void testAppendTo() throws IOException {
+        final Expression expression = this.appendToExpression();
+        final StringBuilder b = new StringBuilder();
+
+        expression.appendTo(b);
+
+        this.checkEquals(
+            expression.toString(),
+            b.toString()
+        );
+    }
+
+    @Test
+    public void testAppendToMaxLengthNotTruncated() throws IOException {
+        final Expression expression = this.appendToExpression();
+        final String toString = expression.toString();
+        final StringBuilder b = new StringBuilder();
+
+        this.checkEquals(
+            false,
+            expression.appendTo(
+                b,
+                toString.length()
+            )
+        );
+        this.checkEquals(
+            toString,
+            b.toString()
+        );
+    }
+
+    @Test
+    public void testAppendToMaxLengthTruncated() throws IOException {
+        final Expression expression = this.appendToExpression();
+        final StringBuilder b = new StringBuilder();
+
+        this.checkEquals(
+            true,
+            expression.appendTo(
+                b,
+                5
+            )
+        );
+        this.checkEquals(
+            expression.toString()
+                .substring(0, 5),
+            b.toString()
+        );
+    }
+
+    @Test
+    public void testAppendToMaxLengthTruncatedSkipsRemaining() throws IOException {
+        final StringBuilder b = new StringBuilder();
+
+        this.checkEquals(
+            true,
+            Expression.list(
+                Lists.of(
+                    Expression.value("abc"),
+                    Expression.value(
+                        new Object() {
+                            @Override
+                            public String toString() {
+                                throw new UnsupportedOperationException("Value after truncation should be skipped");
+                            }
+                        }
+                    )
+                )
+            ).appendTo(
+                b,
+                3
+            )
+        );
+        this.checkEquals(
+            "[\"a",
+            b.toString()
+        );
+    }
+
+    @Test
+    public void testAppendToFails() {
+        final IOException thrown = new IOException("Failed!");
+
+        final IOException caught = assertThrows(
+            IOException.class,
+            () -> this.appendToExpression()
+                .appendTo(
+                    new Appendable() {
+                        @Override
+                        public Appendable append(final CharSequence chars) throws IOException {
+                            throw thrown;
+                        }
+
+                        @Override
+                        public Appendable append(final CharSequence chars,
+                                                 final int start,
+                                                 final int end) throws IOException {
+                            throw thrown;
+                        }
+
+                        @Override
+                        public Appendable append(final char c) throws IOException {
+                            throw thrown;
+                        }
+                    }
+                )
+        );
+        assertSame(
+            thrown,
+            caught
+        );
+    }
+
+    // references......................................................................................................
+
+    @Test
+    public void testReferencesNone() {
+        this.checkEquals(
+            Sets.empty(),
+            Expression.value(123)
+                .references()
+        );
+    }
+
+    @Test
+    public void testReferences() {
+        final ExpressionReference a = new FakeExpressionReference();
+        final ExpressionReference b = new FakeExpressionReference();
+
+        this.checkEquals(
+            Lists.of(a, b),
+            new ArrayList<>(
+                Expression.add(
+                    Expression.reference(a),
+                    Expression.list(
+                        Lists.of(
+                            Expression.reference(b),
+                            Expression.reference(a)
+                        )
+                    )
+                ).references()
+            )
+        );
+    }
+
+    private Expression appendToExpression() {
+        return Expression.add(
+            Expression.value(123),
+            Expression.list(
+                Lists.of(
+                    Expression.value("abc"),
+                    Expression.value(456)
+                )
+            )
+        );
+    }
+
     // ClassTesting......................................................................................................
 
     @Override
@@ -0,0 +1,558 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.Either;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.convert.BinaryNumberConverterFunctions;
+import walkingkooka.convert.ConverterContexts;
+import walkingkooka.convert.Converters;
+import walkingkooka.currency.CurrencyLocaleContextTesting;
+import walkingkooka.currency.CurrencyLocaleContexts;
+import walkingkooka.datetime.DateTimeContextTesting;
+import walkingkooka.math.DecimalNumberContext;
+import walkingkooka.math.DecimalNumberContextDelegator;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.CaseSensitivity;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterName;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+
+import java.math.MathContext;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class MetricsExpressionEvaluationContextTest implements ExpressionEvaluationContextTesting2<MetricsExpressionEvaluationContext>,
+    CurrencyLocaleContextTesting,
+    DateTimeContextTesting,
+    DecimalNumberContextDelegator {
+
+    private final static ExpressionFunctionName NAME = ExpressionFunctionName.with("function1");
+
+    @Test
+    public void testWithNullMetricsFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> MetricsExpressionEvaluationContext.with(
+                null,
+                () -> 0,
+                ExpressionEvaluationContexts.fake()
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullClockFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> MetricsExpressionEvaluationContext.with(
+                new FakeExpressionEvaluationMetrics(),
+                null,
+                ExpressionEvaluationContexts.fake()
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullContextFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> MetricsExpressionEvaluationContext.with(
+                new FakeExpressionEvaluationMetrics(),
+                () -> 0,
+                null
+            )
+        );
+    }
+
+    @Test
+    public void testEvaluateFunction() {
+        final List<String> recorded = Lists.array();
+
+        this.checkEquals(
+            "result",
+            this.createContext(
+                recorded,
+                ExpressionEvaluationContexts.fake()
+            ).evaluateFunction(
+                this.function(null),
+                ExpressionFunction.NO_PARAMETER_VALUES
+            )
+        );
+
+        this.checkEquals(
+            Lists.of("function " + Optional.of(NAME) + " 1 false"),
+            recorded
+        );
+    }
+
+    @Test
+    public void testEvaluateFunctionHandledException() {
+        final List<String> recorded = Lists.array();
+        final IllegalArgumentException thrown = new IllegalArgumentException("thrown");
+
+        this.checkEquals(
+            "handled",
+            this.createContext(
+                recorded,
+                new FakeExpressionEvaluationContext() {
+                    @Override
+                    public Object handleException(final RuntimeException exception) {
+                        return "handled";
+                    }
+                }
+            ).evaluateFunction(
+                this.function(thrown),
+                ExpressionFunction.NO_PARAMETER_VALUES
+            )
+        );
+
+        this.checkEquals(
+            Lists.of(
+                "exception " + thrown,
+                "function " + Optional.of(NAME) + " 1 true"
+            ),
+            recorded
+        );
+    }
+
+    @Test
+    public void testEvaluateFunctionFailed() {
+        final List<String> recorded = Lists.array();
+        final IllegalArgumentException thrown = new IllegalArgumentException("thrown");
+
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createContext(
+                recorded,
+                new FakeExpressionEvaluationContext() {
+                    @Override
+                    public Object handleException(final RuntimeException exception) {
+                        throw exception;
+                    }
+                }
+            ).evaluateFunction(
+                this.function(thrown),
+                ExpressionFunction.NO_PARAMETER_VALUES
+            )
+        );
+
+        this.checkEquals(
+            Lists.of(
+                "exception " + thrown,
+                "function " + Optional.of(NAME) + " 1 true"
+            ),
+            recorded
+        );
+    }
+
+    @Test
+    public void testEvaluateFunctionConvert() {
+        final List<String> recorded = Lists.array();
+
+        this.checkEquals(
+            123,
+            this.createContext(
+                recorded,
+                new FakeExpressionEvaluationContext() {
+                    @Override
+                    public <T> Either<T, String> convert(final Object value,
+                                                         final Class<T> target) {
+                        checkEquals("123", value, "value");
+                        return Cast.to(
+                            Either.left(123)
+                        );
+                    }
+                }
+            ).evaluateFunction(
+                new FakeExpressionFunction<>() {
+                    @Override
+                    public Optional<ExpressionFunctionName> name() {
+                        return Optional.of(NAME);
+                    }
+
+                    @Override
+                    public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+                        return NO_PARAMETERS;
+                    }
+
+                    @Override
+                    public Object apply(final List<Object> parameters,
+                                        final ExpressionEvaluationContext context) {
+                        return context.convertOrFail(
+                            "123",
+                            Integer.class
+                        );
+                    }
+                },
+                ExpressionFunction.NO_PARAMETER_VALUES
+            )
+        );
+
+        this.checkEquals(
+            Lists.of(
+                "conversion java.lang.Integer false",
+                "function " + Optional.of(NAME) + " 1 false"
+            ),
+            recorded
+        );
+    }
+
+    @Test
+    public void testEvaluateFunctionNestedHandledExceptionOnlyFailsInner() {
+        final List<String> recorded = Lists.array();
+        final IllegalArgumentException thrown = new IllegalArgumentException("thrown");
+
+        final ExpressionFunction<Object, ExpressionEvaluationContext> inner = this.function(thrown);
+
+        this.checkEquals(
+            "handled",
+            this.createContext(
+                recorded,
+                new FakeExpressionEvaluationContext() {
+                    @Override
+                    public Object handleException(final RuntimeException exception) {
+                        return "handled";
+                    }
+                }
+            ).evaluateFunction(
+                new FakeExpressionFunction<>() {
+                    @Override
+                    public Optional<ExpressionFunctionName> name() {
+                        return Optional.of(OUTER);
+                    }
+
+                    @Override
+                    public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+                        return NO_PARAMETERS;
+                    }
+
+                    @Override
+                    public Object apply(final List<Object> parameters,
+                                        final ExpressionEvaluationContext context) {
+                        return context.evaluateFunction(
+                            inner,
+                            parameters
+                        );
+                    }
+                },
+                ExpressionFunction.NO_PARAMETER_VALUES
+            )
+        );
+
+        this.checkEquals(
+            Lists.of(
+                "exception " + thrown,
+                "function " + Optional.of(NAME) + " 1 true",
+                "function " + Optional.of(OUTER) + " 3 false"
+            ),
+            recorded
+        );
+    }
+
+    private final static ExpressionFunctionName OUTER = ExpressionFunctionName.with("outer");
+
+    @Test
+    public void testPrepareParameterDelegates() {
+        final List<String> recorded = Lists.array();
+
+        final ExpressionFunctionParameter<Integer> parameter = ExpressionFunctionParameterName.with("number")
+            .required(Integer.class)
+            .setKinds(
+                Sets.of(ExpressionFunctionParameterKind.CONVERT)
+            );
+
+        this.checkEquals(
+            123,
+            this.createContext(
+                recorded,
+                new FakeExpressionEvaluationContext() {
+                    @Override
+                    public <T> T prepareParameter(final ExpressionFunctionParameter<T> p,
+                                                  final Object value) {
+                        checkEquals(parameter, p, "parameter");
+                        checkEquals("123", value, "value");
+                        return Cast.to(123);
+                    }
+                }
+            ).prepareParameter(
+                parameter,
+                "123"
+            )
+        );
+
+        this.checkEquals(
+            Lists.empty(),
+            recorded
+        );
+    }
+
+    @Test
+    public void testReferences() {
+        final List<String> recorded = Lists.array();
+
+        final ExpressionReference reference = new FakeExpressionReference();
+        final Map<ExpressionReference, Optional<Optional<Object>>> values = Maps.of(
+            reference,
+            Optional.of(
+                Optional.of("value")
+            )
+        );
+
+        this.checkEquals(
+            values,
+            this.createContext(
+                recorded,
+                new FakeExpressionEvaluationContext() {
+                    @Override
+                    public Map<ExpressionReference, Optional<Optional<Object>>> references(final Collection<ExpressionReference> references) {
+                        checkEquals(
+                            Lists.of(reference),
+                            references,
+                            "references"
+                        );
+                        return values;
+                    }
+                }
+            ).references(
+                Lists.of(reference)
+            )
+        );
+
+        this.checkEquals(
+            Lists.empty(),
+            recorded
+        );
+    }
+
+    @Test
+    public void testConvert() {
+        this.convertAndCheck(
+            Either.left(123),
+            "conversion java.lang.Integer false"
+        );
+    }
+
+    @Test
+    public void testConvertFailed() {
+        this.convertAndCheck(
+            Either.right("Failed"),
+            "conversion java.lang.Integer true"
+        );
+    }
+
+    private void convertAndCheck(final Either<Integer, String> converted,
+                                 final String expected) {
+        final List<String> recorded = Lists.array();
+
+        this.checkEquals(
+            converted,
+            this.createContext(
+                recorded,
+                new FakeExpressionEvaluationContext() {
+                    @Override
+                    public <T> Either<T, String> convert(final Object value,
+                                                         final Class<T> target) {
+                        return Cast.to(converted);
+                    }
+                }
+            ).convert(
+                "123",
+                Integer.class
+            )
+        );
+
+        this.checkEquals(
+            Lists.of(expected),
+            recorded
+        );
+    }
+
+    private ExpressionFunction<Object, ExpressionEvaluationContext> function(final RuntimeException thrown) {
+        return new FakeExpressionFunction<>() {
+            @Override
+            public Optional<ExpressionFunctionName> name() {
+                return Optional.of(NAME);
+            }
+
+            @Override
+            public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+                return NO_PARAMETERS;
+            }
+
+            @Override
+            public Object apply(final List<Object> parameters,
+                                final ExpressionEvaluationContext context) {
+                if (null != thrown) {
+                    throw thrown;
+                }
+                return "result";
+            }
+        };
+    }
+
+    /**
+     * Creates a context with a clock that advances by one every time it is read, recording each metric as a String.
+     */
+    private MetricsExpressionEvaluationContext createContext(final List<String> recorded,
+                                                             final ExpressionEvaluationContext context) {
+        final long[] now = new long[1];
+
+        return MetricsExpressionEvaluationContext.with(
+            new FakeExpressionEvaluationMetrics() {
+                @Override
+                public void function(final Optional<ExpressionFunctionName> name,
+                                     final long nanos,
+                                     final boolean failed) {
+                    recorded.add("function " + name + " " + nanos + " " + failed);
+                }
+
+                @Override
+                public void conversion(final Class<?> target,
+                                       final boolean failed) {
+                    recorded.add("conversion " + target.getName() + " " + failed);
+                }
+
+                @Override
+                public void exception(final RuntimeException exception) {
+                    recorded.add("exception " + exception);
+                }
+            },
+            () -> now[0]++,
+            context
+        );
+    }
+
+    // ExpressionEvaluationContext......................................................................................
+
+    @Override
+    public void testEnterScopeGivesDifferentInstance() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testDateTimeSymbolsForLocaleWithNullFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testDecimalNumberSymbolsForLocaleWithNullFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testFindByLocaleTextWithNullTextFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testFindByLocaleTextWithNegativeOffsetFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testFindByLocaleTextWithInvalidCountFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testLocaleTextWithNullFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public MetricsExpressionEvaluationContext createContext() {
+        return MetricsExpressionEvaluationContext.with(
+            new FakeExpressionEvaluationMetrics(),
+            () -> 0,
+            ExpressionEvaluationContexts.basic(
+                EXPRESSION_NUMBER_KIND,
+                (e, c) -> {
+                    Objects.requireNonNull(e, "expression");
+                    throw new UnsupportedOperationException();
+                },
+                (functionName) -> {
+                    Objects.requireNonNull(functionName, "functionName");
+                    throw functionName.unknownExpressionFunctionException();
+                },
+                (exception) -> exception,
+                (reference) -> {
+                    Objects.requireNonNull(reference, "reference");
+                    throw new UnsupportedOperationException();
+                },
+                (referenceNotFound) -> {
+                    throw new UnsupportedOperationException();
+                },
+                CaseSensitivity.SENSITIVE,
+                ConverterContexts.basic(
+                    false, // canNumbersHaveGroupSeparator
+                    Converters.JAVA_EPOCH_OFFSET,
+                    ',', // valueSeparator
+                    Converters.simple(), // converter
+                    BinaryNumberConverterFunctions.fake(), // multiplier
+                    BINARY_TEXT_CONTEXT,
+                    CurrencyLocaleContexts.fake(),
+                    DATE_TIME_CONTEXT,
+                    this.decimalNumberContext()
+                ),
+                ENVIRONMENT_CONTEXT.cloneEnvironment(),
+                LOCALE_CONTEXT
+            )
+        );
+    }
+
+    // DecimalNumberContextDelegator....................................................................................
+
+    @Override
+    public int decimalNumberDigitCount() {
+        return this.decimalNumberContext()
+            .decimalNumberDigitCount();
+    }
+
+    @Override
+    public DecimalNumberContext decimalNumberContext() {
+        return DECIMAL_NUMBER_CONTEXT;
+    }
+
+    @Override
+    public MathContext mathContext() {
+        return MATH_CONTEXT;
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<MetricsExpressionEvaluationContext> type() {
+        return MetricsExpressionEvaluationContext.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,400 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.convert.BinaryNumberConverterFunctions;
+import walkingkooka.convert.ConverterContexts;
+import walkingkooka.convert.Converters;
+import walkingkooka.currency.CurrencyLocaleContextTesting;
+import walkingkooka.currency.CurrencyLocaleContexts;
+import walkingkooka.datetime.DateTimeContextTesting;
+import walkingkooka.math.DecimalNumberContext;
+import walkingkooka.math.DecimalNumberContextDelegator;
+import walkingkooka.text.CaseSensitivity;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterName;
+
+import java.math.MathContext;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class PrefetchedExpressionEvaluationContextTest implements ExpressionEvaluationContextTesting2<PrefetchedExpressionEvaluationContext>,
+    CurrencyLocaleContextTesting,
+    DateTimeContextTesting,
+    DecimalNumberContextDelegator {
+
+    private final static ExpressionReference PREFETCHED_REFERENCE = new FakeExpressionReference() {
+        @Override
+        public String toString() {
+            return "Prefetched";
+        }
+    };
+
+    private final static String PREFETCHED_REFERENCE_VALUE = "prefetched reference value";
+
+    private final static ExpressionReference MISSING_REFERENCE = new FakeExpressionReference() {
+        @Override
+        public String toString() {
+            return "Missing";
+        }
+    };
+
+    private final static ExpressionReference OTHER_REFERENCE = new FakeExpressionReference() {
+        @Override
+        public String toString() {
+            return "Other";
+        }
+    };
+
+    private final static String OTHER_REFERENCE_VALUE = "other reference value";
+
+    // with.............................................................................................................
+
+    @Test
+    public void testWithNullExpressionsFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> PrefetchedExpressionEvaluationContext.with(
+                null,
+                ExpressionEvaluationContexts.fake()
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullExpressionEvaluationContextFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> PrefetchedExpressionEvaluationContext.with(
+                Lists.empty(),
+                null
+            )
+        );
+    }
+
+    @Test
+    public void testWithSkipsLambdaParameters() {
+        final List<Collection<ExpressionReference>> fetches = Lists.array();
+
+        final ExpressionReference parameter = new FakeExpressionReference() {
+            @Override
+            public boolean testParameterName(final ExpressionFunctionParameterName parameterName) {
+                return parameterName.equals(PARAMETER);
+            }
+
+            @Override
+            public String toString() {
+                return PARAMETER.value();
+            }
+        };
+
+        PrefetchedExpressionEvaluationContext.with(
+            Lists.of(
+                Expression.add(
+                    Expression.lambdaFunction(
+                        Lists.of(
+                            PARAMETER.required(Object.class)
+                        ),
+                        Expression.add(
+                            Expression.reference(parameter),
+                            Expression.reference(OTHER_REFERENCE)
+                        )
+                    ),
+                    Expression.reference(PREFETCHED_REFERENCE)
+                )
+            ),
+            new FakeExpressionEvaluationContext() {
+                @Override
+                public Map<ExpressionReference, Optional<Optional<Object>>> references(final Collection<ExpressionReference> references) {
+                    fetches.add(references);
+                    return PrefetchedExpressionEvaluationContextTest.this.createContext()
+                        .references(references);
+                }
+            }
+        );
+
+        this.checkEquals(
+            Lists.of(
+                Lists.of(
+                    OTHER_REFERENCE,
+                    PREFETCHED_REFERENCE
+                )
+            ),
+            Lists.of(
+                Lists.immutable(fetches.get(0))
+            ),
+            "fetched"
+        );
+    }
+
+    private final static ExpressionFunctionParameterName PARAMETER = ExpressionFunctionParameterName.with("x");
+
+    @Test
+    public void testWithFetchesOnce() {
+        final List<Collection<ExpressionReference>> fetches = Lists.array();
+
+        final PrefetchedExpressionEvaluationContext context = PrefetchedExpressionEvaluationContext.with(
+            Lists.of(
+                Expression.reference(PREFETCHED_REFERENCE),
+                Expression.add(
+                    Expression.reference(MISSING_REFERENCE),
+                    Expression.reference(PREFETCHED_REFERENCE)
+                )
+            ),
+            new FakeExpressionEvaluationContext() {
+                @Override
+                public Map<ExpressionReference, Optional<Optional<Object>>> references(final Collection<ExpressionReference> references) {
+                    fetches.add(references);
+                    return PrefetchedExpressionEvaluationContextTest.this.createContext()
+                        .references(references);
+                }
+
+                @Override
+                public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+                    throw new UnsupportedOperationException();
+                }
+            }
+        );
+
+        this.checkEquals(
+            1,
+            fetches.size(),
+            "fetches"
+        );
+        this.checkEquals(
+            Lists.of(
+                PREFETCHED_REFERENCE,
+                MISSING_REFERENCE
+            ),
+            Lists.immutable(fetches.get(0)),
+            "fetched"
+        );
+
+        this.referenceAndCheck(
+            context,
+            PREFETCHED_REFERENCE,
+            PREFETCHED_REFERENCE_VALUE
+        );
+        this.referenceAndCheck(
+            context,
+            MISSING_REFERENCE
+        );
+    }
+
+    @Test
+    public void testWithNoReferences() {
+        PrefetchedExpressionEvaluationContext.with(
+            Lists.of(
+                Expression.value(1)
+            ),
+            new FakeExpressionEvaluationContext() {
+                @Override
+                public Map<ExpressionReference, Optional<Optional<Object>>> references(final Collection<ExpressionReference> references) {
+                    throw new UnsupportedOperationException();
+                }
+            }
+        );
+    }
+
+    // reference........................................................................................................
+
+    @Test
+    public void testReferenceWithPrefetchedReference() {
+        this.referenceAndCheck(
+            this.createContext(),
+            PREFETCHED_REFERENCE,
+            PREFETCHED_REFERENCE_VALUE
+        );
+    }
+
+    @Test
+    public void testReferenceWithNotPrefetchedReference() {
+        this.referenceAndCheck(
+            this.createContext(),
+            OTHER_REFERENCE,
+            OTHER_REFERENCE_VALUE
+        );
+    }
+
+    @Test
+    public void testReferenceWithUnknownReference() {
+        this.referenceAndCheck(
+            this.createContext(),
+            new FakeExpressionReference()
+        );
+    }
+
+    // references.......................................................................................................
+
+    @Test
+    public void testReferencesOnlyFetchesNotPrefetched() {
+        final List<Collection<ExpressionReference>> fetches = Lists.array();
+
+        final PrefetchedExpressionEvaluationContext context = PrefetchedExpressionEvaluationContext.with(
+            Lists.of(
+                Expression.reference(PREFETCHED_REFERENCE)
+            ),
+            new FakeExpressionEvaluationContext() {
+                @Override
+                public Map<ExpressionReference, Optional<Optional<Object>>> references(final Collection<ExpressionReference> references) {
+                    fetches.add(references);
+                    return PrefetchedExpressionEvaluationContextTest.this.createContext()
+                        .references(references);
+                }
+            }
+        );
+
+        this.checkEquals(
+            Maps.of(
+                PREFETCHED_REFERENCE,
+                Optional.of(
+                    Optional.of(PREFETCHED_REFERENCE_VALUE)
+                ),
+                OTHER_REFERENCE,
+                Optional.of(
+                    Optional.of(OTHER_REFERENCE_VALUE)
+                )
+            ),
+            context.references(
+                Lists.of(
+                    PREFETCHED_REFERENCE,
+                    OTHER_REFERENCE
+                )
+            )
+        );
+        this.checkEquals(
+            Lists.of(
+                Lists.of(PREFETCHED_REFERENCE),
+                Lists.of(OTHER_REFERENCE)
+            ),
+            Lists.of(
+                Lists.immutable(fetches.get(0)),
+                Lists.immutable(fetches.get(1))
+            ),
+            "fetches"
+        );
+    }
+
+    // evaluateExpression...............................................................................................
+
+    @Test
+    public void testEvaluateExpressionWithPrefetchedReference() {
+        this.evaluateExpressionAndCheck(
+            this.createContext(),
+            Expression.reference(PREFETCHED_REFERENCE),
+            PREFETCHED_REFERENCE_VALUE
+        );
+    }
+
+    @Test
+    public void testEvaluateExpressionWithMissingReference() {
+        assertThrows(
+            ExpressionEvaluationReferenceException.class,
+            () -> this.createContext()
+                .evaluateExpression(
+                    Expression.reference(MISSING_REFERENCE)
+                )
+        );
+    }
+
+    // ExpressionEvaluationContext......................................................................................
+
+    @Override
+    public void testEvaluateExpressionUnknownFunctionNameFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PrefetchedExpressionEvaluationContext createContext() {
+        return PrefetchedExpressionEvaluationContext.with(
+            Lists.of(
+                Expression.reference(PREFETCHED_REFERENCE),
+                Expression.reference(MISSING_REFERENCE)
+            ),
+            ExpressionEvaluationContexts.basic(
+                EXPRESSION_NUMBER_KIND,
+                (e, c) -> {
+                    Objects.requireNonNull(e, "expression");
+                    throw new UnsupportedOperationException();
+                },
+                (fn) -> {
+                    Objects.requireNonNull(fn, "fn");
+                    throw new UnsupportedOperationException();
+                },
+                (rr) -> {
+                    Objects.requireNonNull(rr, "rr");
+                    throw rr;
+                },
+                (ref) -> {
+                    Objects.requireNonNull(ref, "ref");
+
+                    return ref.equals(PREFETCHED_REFERENCE) ?
+                        Optional.of(Optional.of(PREFETCHED_REFERENCE_VALUE)) :
+                        ref.equals(OTHER_REFERENCE) ?
+                            Optional.of(Optional.of(OTHER_REFERENCE_VALUE)) :
+                            Optional.empty();
+                },
+                ExpressionEvaluationContexts.referenceNotFound(),
+                CaseSensitivity.SENSITIVE,
+                ConverterContexts.basic(
+                    false, // canNumbersHaveGroupSeparator
+                    0,
+                    ',', // valueSeparator
+                    Converters.fake(),
+                    BinaryNumberConverterFunctions.fake(), // multiplier
+                    BINARY_TEXT_CONTEXT,
+                    CurrencyLocaleContexts.fake(),
+                    DATE_TIME_CONTEXT,
+                    DECIMAL_NUMBER_CONTEXT
+                ),
+                ENVIRONMENT_CONTEXT.cloneEnvironment(),
+                LOCALE_CONTEXT
+            )
+        );
+    }
+
+    // DecimalNumberContextDelegator....................................................................................
+
+    @Override
+    public DecimalNumberContext decimalNumberContext() {
+        return DECIMAL_NUMBER_CONTEXT;
+    }
+
+    @Override
+    public int decimalNumberDigitCount() {
+        return DECIMAL_NUMBER_CONTEXT.decimalNumberDigitCount();
+    }
+
+    @Override
+    public MathContext mathContext() {
+        return DECIMAL_NUMBER_CONTEXT.mathContext();
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<PrefetchedExpressionEvaluationContext> type() {
+        return PrefetchedExpressionEvaluationContext.class;
+    }
+}
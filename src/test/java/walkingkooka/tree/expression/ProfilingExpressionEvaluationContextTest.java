@@ -0,0 +1,391 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.convert.BinaryNumberConverterFunctions;
+import walkingkooka.convert.ConverterContexts;
+import walkingkooka.convert.Converters;
+import walkingkooka.currency.CurrencyLocaleContextTesting;
+import walkingkooka.currency.CurrencyLocaleContexts;
+import walkingkooka.datetime.DateTimeContextTesting;
+import walkingkooka.math.DecimalNumberContext;
+import walkingkooka.math.DecimalNumberContextDelegator;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.CaseSensitivity;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+
+import java.math.MathContext;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ProfilingExpressionEvaluationContextTest implements ExpressionEvaluationContextTesting2<ProfilingExpressionEvaluationContext>,
+    CurrencyLocaleContextTesting,
+    DateTimeContextTesting,
+    DecimalNumberContextDelegator {
+
+    @Test
+    public void testWithNullProfilerFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> ProfilingExpressionEvaluationContext.with(
+                null,
+                ExpressionEvaluationContexts.fake()
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullContextFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> ProfilingExpressionEvaluationContext.with(
+                this.profiler(),
+                null
+            )
+        );
+    }
+
+    @Test
+    public void testEvaluateExpression() {
+        final ExpressionEvaluationProfiler profiler = this.profiler();
+        final Expression expression = Expression.value(123);
+
+        this.checkEquals(
+            123,
+            ProfilingExpressionEvaluationContext.with(
+                profiler,
+                ExpressionEvaluationContexts.fake()
+            ).evaluateExpression(expression)
+        );
+
+        final ExpressionEvaluationProfilerFrame frame = profiler.frames()
+            .get(0);
+        this.checkEquals("ValueExpression /", frame.label(), "label");
+        this.checkEquals(Optional.empty(), frame.function(), "function");
+        this.checkEquals(1L, frame.count(), "count");
+    }
+
+    @Test
+    public void testEvaluateExpressionChildLabel() {
+        final ExpressionEvaluationProfiler profiler = this.profiler();
+        final Expression expression = Expression.add(
+            Expression.value(1),
+            Expression.value(2)
+        ).children()
+            .get(1);
+
+        ProfilingExpressionEvaluationContext.with(
+            profiler,
+            ExpressionEvaluationContexts.fake()
+        ).evaluateExpression(expression);
+
+        this.checkEquals(
+            "ValueExpression /1",
+            profiler.frames()
+                .get(0)
+                .label()
+        );
+    }
+
+    @Test
+    public void testReference() {
+        final ExpressionEvaluationProfiler profiler = this.profiler();
+        final ExpressionReference reference = new FakeExpressionReference() {
+            @Override
+            public String toString() {
+                return "reference1";
+            }
+        };
+
+        ProfilingExpressionEvaluationContext.with(
+            profiler,
+            new FakeExpressionEvaluationContext() {
+                @Override
+                public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+                    return REFERENCE_NULL_VALUE;
+                }
+            }
+        ).reference(reference);
+
+        this.checkEquals(
+            "reference1",
+            profiler.frames()
+                .get(0)
+                .label()
+        );
+    }
+
+    @Test
+    public void testEvaluateFunctionNested() {
+        final ExpressionEvaluationProfiler profiler = this.profiler();
+
+        final ExpressionFunction<Object, ExpressionEvaluationContext> inner = this.function(
+            "inner",
+            null
+        );
+        final ExpressionFunction<Object, ExpressionEvaluationContext> outer = this.function(
+            "outer",
+            inner
+        );
+
+        final ExpressionEvaluationContext context = ProfilingExpressionEvaluationContext.with(
+            profiler,
+            ExpressionEvaluationContexts.fake()
+        );
+        context.evaluateFunction(
+            outer,
+            ExpressionFunction.NO_PARAMETER_VALUES
+        );
+        context.evaluateFunction(
+            outer,
+            ExpressionFunction.NO_PARAMETER_VALUES
+        );
+
+        this.checkEquals(
+            "outer 4\n" +
+                "outer;inner 2\n",
+            profiler.folded()
+        );
+
+        final ExpressionEvaluationProfilerFrame frame = profiler.frames()
+            .get(0);
+        this.checkEquals(
+            Optional.of(
+                ExpressionFunctionName.with("outer")
+            ),
+            frame.function(),
+            "function"
+        );
+        this.checkEquals(2L, frame.count(), "count");
+        this.checkEquals(
+            2L,
+            profiler.functions()
+                .get(ExpressionFunctionName.with("inner"))
+                .count(),
+            "inner count"
+        );
+    }
+
+    @Test
+    public void testEvaluateFunctionRecursiveFolded() {
+        final ExpressionEvaluationProfiler profiler = this.profiler();
+
+        final ExpressionFunction<Object, ExpressionEvaluationContext> function = new FakeExpressionFunction<>() {
+            @Override
+            public Optional<ExpressionFunctionName> name() {
+                return Optional.of(
+                    ExpressionFunctionName.with("recursive")
+                );
+            }
+
+            @Override
+            public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+                return NO_PARAMETERS;
+            }
+
+            @Override
+            public Object apply(final List<Object> parameters,
+                                final ExpressionEvaluationContext context) {
+                return ++this.depth < 100 ?
+                    context.evaluateFunction(
+                        this,
+                        parameters
+                    ) :
+                    this.depth;
+            }
+
+            private int depth;
+        };
+
+        this.checkEquals(
+            100,
+            ProfilingExpressionEvaluationContext.with(
+                profiler,
+                ExpressionEvaluationContexts.fake()
+            ).evaluateFunction(
+                function,
+                ExpressionFunction.NO_PARAMETER_VALUES
+            )
+        );
+
+        this.checkEquals(
+            1,
+            profiler.frames()
+                .size(),
+            "frames"
+        );
+
+        final ExpressionEvaluationProfilerFrame frame = profiler.frames()
+            .get(0);
+        this.checkEquals(100L, frame.count(), "count");
+        this.checkEquals(199L, frame.nanos(), "nanos");
+        this.checkEquals(
+            0,
+            frame.children()
+                .size(),
+            "children"
+        );
+    }
+
+    private ExpressionFunction<Object, ExpressionEvaluationContext> function(final String name,
+                                                                             final ExpressionFunction<Object, ExpressionEvaluationContext> call) {
+        return new FakeExpressionFunction<>() {
+            @Override
+            public Optional<ExpressionFunctionName> name() {
+                return Optional.of(
+                    ExpressionFunctionName.with(name)
+                );
+            }
+
+            @Override
+            public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+                return NO_PARAMETERS;
+            }
+
+            @Override
+            public Object apply(final List<Object> parameters,
+                                final ExpressionEvaluationContext context) {
+                return null != call ?
+                    context.evaluateFunction(
+                        call,
+                        parameters
+                    ) :
+                    name;
+            }
+        };
+    }
+
+    private ExpressionEvaluationProfiler profiler() {
+        final long[] now = new long[1];
+        return ExpressionEvaluationProfiler.with(
+            () -> now[0]++
+        );
+    }
+
+    // ExpressionEvaluationContext......................................................................................
+
+    @Override
+    public void testEnterScopeGivesDifferentInstance() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testDateTimeSymbolsForLocaleWithNullFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testDecimalNumberSymbolsForLocaleWithNullFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testFindByLocaleTextWithNullTextFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testFindByLocaleTextWithNegativeOffsetFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testFindByLocaleTextWithInvalidCountFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void testLocaleTextWithNullFails() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ProfilingExpressionEvaluationContext createContext() {
+        return ProfilingExpressionEvaluationContext.with(
+            this.profiler(),
+            ExpressionEvaluationContexts.basic(
+                EXPRESSION_NUMBER_KIND,
+                (e, c) -> {
+                    Objects.requireNonNull(e, "expression");
+                    throw new UnsupportedOperationException();
+                },
+                (functionName) -> {
+                    Objects.requireNonNull(functionName, "functionName");
+                    throw functionName.unknownExpressionFunctionException();
+                },
+                (exception) -> exception,
+                (reference) -> {
+                    Objects.requireNonNull(reference, "reference");
+                    throw new UnsupportedOperationException();
+                },
+                (referenceNotFound) -> {
+                    throw new UnsupportedOperationException();
+                },
+                CaseSensitivity.SENSITIVE,
+                ConverterContexts.basic(
+                    false, // canNumbersHaveGroupSeparator
+                    Converters.JAVA_EPOCH_OFFSET,
+                    ',', // valueSeparator
+                    Converters.simple(), // converter
+                    BinaryNumberConverterFunctions.fake(), // multiplier
+                    BINARY_TEXT_CONTEXT,
+                    CurrencyLocaleContexts.fake(),
+                    DATE_TIME_CONTEXT,
+                    this.decimalNumberContext()
+                ),
+                ENVIRONMENT_CONTEXT.cloneEnvironment(),
+                LOCALE_CONTEXT
+            )
+        );
+    }
+
+    // DecimalNumberContextDelegator....................................................................................
+
+    @Override
+    public int decimalNumberDigitCount() {
+        return this.decimalNumberContext()
+            .decimalNumberDigitCount();
+    }
+
+    @Override
+    public DecimalNumberContext decimalNumberContext() {
+        return DECIMAL_NUMBER_CONTEXT;
+    }
+
+    @Override
+    public MathContext mathContext() {
+        return MATH_CONTEXT;
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<ProfilingExpressionEvaluationContext> type() {
+        return ProfilingExpressionEvaluationContext.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -19,6 +19,7 @@ package walkingkooka.tree.expression;
 
 import org.junit.jupiter.api.Test;
 import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
 import walkingkooka.convert.BinaryNumberConverterFunctions;
 import walkingkooka.convert.ConverterContexts;
 import walkingkooka.convert.Converters;
@@ -35,6 +36,7 @@ import walkingkooka.tree.expression.function.FakeExpressionFunction;
 
 import java.math.MathContext;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
@@ -143,6 +145,39 @@ public final class ScopedExpressionEvaluationContextTest implements ExpressionEv
         );
     }
 
+    // references.......................................................................................................
+
+    @Test
+    public void testReferencesWithLocalAndGlobalReferences() {
+        final ExpressionReference unknown = new FakeExpressionReference();
+
+        final Map<ExpressionReference, Optional<Optional<Object>>> expected = Maps.hash();
+        expected.put(
+            LOCAL_REFERENCE,
+            Optional.of(Optional.of(LOCAL_REFERENCE_VALUE))
+        );
+        expected.put(
+            GLOBAL_REFERENCE,
+            Optional.of(Optional.of(GLOBAL_REFERENCE_VALUE))
+        );
+        expected.put(
+            unknown,
+            ExpressionEvaluationContext.REFERENCE_NOT_FOUND_VALUE
+        );
+
+        this.checkEquals(
+            expected,
+            this.createContext()
+                .references(
+                    Lists.of(
+                        LOCAL_REFERENCE,
+                        GLOBAL_REFERENCE,
+                        unknown
+                    )
+                )
+        );
+    }
+
     // evaluateExpression...............................................................................................
 
     @Test
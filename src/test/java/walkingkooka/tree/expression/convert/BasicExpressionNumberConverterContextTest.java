@@ -18,6 +18,7 @@
 package walkingkooka.tree.expression.convert;
 
 import org.junit.jupiter.api.Test;
+import walkingkooka.Either;
 import walkingkooka.ToStringTesting;
 import walkingkooka.convert.BinaryNumberConverterFunction;
 import walkingkooka.convert.BinaryNumberConverterFunctions;
@@ -158,6 +159,64 @@ public final class BasicExpressionNumberConverterContextTest implements Expressi
         this.convertAndCheck(123, Float.class, 123f);
     }
 
+    @Test
+    public void testCanConvertThenConvertToExpressionNumberThenConvertsOnce() {
+        final ExpressionNumber expressionNumber = KIND.create(123);
+        final int[] toExpressionNumberCount = new int[1];
+
+        final BasicExpressionNumberConverterContext context = BasicExpressionNumberConverterContext.with(
+            ExpressionNumberConverters.toExpressionNumberThen(
+                new Converter<>() {
+                    @Override
+                    public boolean canConvert(final Object value,
+                                              final Class<?> type,
+                                              final ExpressionNumberConverterContext context) {
+                        return true;
+                    }
+
+                    @Override
+                    public <T> Either<T, String> convert(final Object value,
+                                                         final Class<T> type,
+                                                         final ExpressionNumberConverterContext context) {
+                        toExpressionNumberCount[0]++;
+                        return this.successfulConversion(
+                            expressionNumber,
+                            type
+                        );
+                    }
+                },
+                Converters.fake() // skipped because the target is ExpressionNumber
+            ),
+            MULTIPLER,
+            CONVERTER_CONTEXT,
+            KIND
+        );
+
+        final String value = "123";
+
+        this.checkEquals(
+            true,
+            context.canConvert(
+                value,
+                ExpressionNumber.class
+            ),
+            "canConvert"
+        );
+        this.checkEquals(
+            Either.left(expressionNumber),
+            context.convert(
+                value,
+                ExpressionNumber.class
+            ),
+            "convert"
+        );
+        this.checkEquals(
+            1,
+            toExpressionNumberCount[0],
+            "toExpressionNumber convert count"
+        );
+    }
+
     @Test
     public void testMultiplyNumberNumberInteger() {
         this.multiplyAndCheck(
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression.convert;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.Either;
+import walkingkooka.convert.Converter;
+import walkingkooka.convert.Converters;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+public final class ExpressionNumberConverterRouteCacheTest implements ClassTesting2<ExpressionNumberConverterRouteCache> {
+
+    private final static Converter<ExpressionNumberConverterContext> CONVERTER = Converters.fake();
+
+    private final static Either<ExpressionNumber, String> RESULT = Either.left(
+        ExpressionNumberKind.DEFAULT.create(123)
+    );
+
+    @Test
+    public void testGetMissing() {
+        this.getAndCheck(
+            ExpressionNumberConverterRouteCache.empty(),
+            CONVERTER,
+            "123",
+            Integer.class,
+            null
+        );
+    }
+
+    @Test
+    public void testPutGet() {
+        final ExpressionNumberConverterRouteCache cache = ExpressionNumberConverterRouteCache.empty();
+        final String value = "123";
+        cache.put(
+            CONVERTER,
+            value,
+            Integer.class,
+            RESULT
+        );
+
+        this.getAndCheck(
+            cache,
+            CONVERTER,
+            value,
+            Integer.class,
+            RESULT
+        );
+    }
+
+    @Test
+    public void testPutGetNullValue() {
+        final ExpressionNumberConverterRouteCache cache = ExpressionNumberConverterRouteCache.empty();
+        cache.put(
+            CONVERTER,
+            null,
+            Integer.class,
+            RESULT
+        );
+
+        this.getAndCheck(
+            cache,
+            CONVERTER,
+            null,
+            Integer.class,
+            RESULT
+        );
+    }
+
+    @Test
+    public void testGetDifferentConverter() {
+        final ExpressionNumberConverterRouteCache cache = ExpressionNumberConverterRouteCache.empty();
+        final String value = "123";
+        cache.put(
+            CONVERTER,
+            value,
+            Integer.class,
+            RESULT
+        );
+
+        this.getAndCheck(
+            cache,
+            Converters.fake(),
+            value,
+            Integer.class,
+            null
+        );
+    }
+
+    @Test
+    public void testGetDifferentValueSameClass() {
+        final ExpressionNumberConverterRouteCache cache = ExpressionNumberConverterRouteCache.empty();
+        cache.put(
+            CONVERTER,
+            new String("123"),
+            Integer.class,
+            RESULT
+        );
+
+        this.getAndCheck(
+            cache,
+            CONVERTER,
+            new String("123"),
+            Integer.class,
+            null
+        );
+    }
+
+    @Test
+    public void testGetDifferentType() {
+        final ExpressionNumberConverterRouteCache cache = ExpressionNumberConverterRouteCache.empty();
+        final String value = "123";
+        cache.put(
+            CONVERTER,
+            value,
+            Integer.class,
+            RESULT
+        );
+
+        this.getAndCheck(
+            cache,
+            CONVERTER,
+            value,
+            Long.class,
+            null
+        );
+    }
+
+    @Test
+    public void testWithNotBasicContext() {
+        this.checkEquals(
+            null,
+            ExpressionNumberConverterRouteCache.with(
+                ExpressionNumberConverterContexts.fake()
+            )
+        );
+    }
+
+    private void getAndCheck(final ExpressionNumberConverterRouteCache cache,
+                             final Converter<?> converter,
+                             final Object value,
+                             final Class<?> type,
+                             final Either<?, String> expected) {
+        this.checkEquals(
+            expected,
+            cache.get(
+                converter,
+                value,
+                type
+            )
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<ExpressionNumberConverterRouteCache> type() {
+        return ExpressionNumberConverterRouteCache.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
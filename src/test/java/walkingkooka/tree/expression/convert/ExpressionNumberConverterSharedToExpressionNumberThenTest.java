@@ -406,6 +406,23 @@ public final class ExpressionNumberConverterSharedToExpressionNumberThenTest imp
         );
     }
 
+    @Test
+    public void testConvertExpressionNumberToExpressionNumberSkipsConverters() {
+        final ExpressionNumber value = ExpressionNumberKind.DEFAULT.create(123);
+
+        this.checkEquals(
+            Either.left(value),
+            ExpressionNumberConverterSharedToExpressionNumberThen.with(
+                Converters.fake(),
+                Converters.fake()
+            ).convert(
+                value,
+                ExpressionNumber.class,
+                this.createContext()
+            )
+        );
+    }
+
     // toString.........................................................................................................
 
     @Test
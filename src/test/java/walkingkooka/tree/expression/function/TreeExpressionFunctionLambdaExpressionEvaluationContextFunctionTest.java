@@ -14,14 +14,119 @@
  * limitations under the License.
  *
  */
-
 package walkingkooka.tree.expression.function;
 
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
 import walkingkooka.reflect.ClassTesting;
 import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.Expression;
+import walkingkooka.tree.expression.ExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionReference;
+import walkingkooka.tree.expression.FakeExpressionReference;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public final class TreeExpressionFunctionLambdaExpressionEvaluationContextFunctionTest implements ClassTesting<TreeExpressionFunctionLambdaExpressionEvaluationContextFunction> {
 
+    private final static ExpressionReference X = var("x");
+
+    private final static ExpressionReference Y = var("y");
+
+    private final static ExpressionReference Z = var("z");
+
+    private static ExpressionReference var(final String name) {
+        return new FakeExpressionReference() {
+
+            @Override
+            public boolean testParameterName(final ExpressionFunctionParameterName parameterName) {
+                return name.equals(parameterName.value());
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+
+    @Test
+    public void testApplyNotParameter() {
+        this.checkEquals(
+            ExpressionEvaluationContext.REFERENCE_NOT_FOUND_VALUE,
+            this.createFunction(new int[2])
+                .apply(Z)
+        );
+    }
+
+    @Test
+    public void testApplyNullValue() {
+        this.checkEquals(
+            ExpressionEvaluationContext.REFERENCE_NULL_VALUE,
+            this.createFunction(new int[2])
+                .apply(Y)
+        );
+    }
+
+    @Test
+    public void testApplyTwiceWrapsAndGetsValueOnce() {
+        final int[] gets = new int[2];
+        final TreeExpressionFunctionLambdaExpressionEvaluationContextFunction function = this.createFunction(gets);
+
+        final Optional<Optional<Object>> first = function.apply(X);
+        this.checkEquals(
+            Optional.of(
+                Optional.of("x-value")
+            ),
+            first
+        );
+        assertSame(
+            first,
+            function.apply(X)
+        );
+        this.checkEquals(1, gets[0], "x gets");
+        this.checkEquals(0, gets[1], "y gets");
+    }
+
+    private TreeExpressionFunctionLambdaExpressionEvaluationContextFunction createFunction(final int[] gets) {
+        final List<ExpressionFunctionParameter<?>> parameters = Lists.of(
+            ExpressionFunctionParameterName.with("x")
+                .required(Object.class),
+            ExpressionFunctionParameterName.with("y")
+                .required(Object.class)
+        );
+
+        return TreeExpressionFunctionLambdaExpressionEvaluationContextFunction.with(
+            TreeExpressionFunctionLambdaSlots.with(
+                parameters,
+                Expression.add(
+                    Expression.reference(X),
+                    Expression.reference(Y)
+                )
+            ),
+            new AbstractList<>() {
+                @Override
+                public Object get(final int index) {
+                    gets[index]++;
+                    return 0 == index ?
+                        "x-value" :
+                        null;
+                }
+
+                @Override
+                public int size() {
+                    return 2;
+                }
+            }
+        );
+    }
+
+    // class............................................................................................................
+
     @Override
     public Class<TreeExpressionFunctionLambdaExpressionEvaluationContextFunction> type() {
         return TreeExpressionFunctionLambdaExpressionEvaluationContextFunction.class;
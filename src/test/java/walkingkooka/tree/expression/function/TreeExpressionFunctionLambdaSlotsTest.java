@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.Expression;
+import walkingkooka.tree.expression.ExpressionReference;
+import walkingkooka.tree.expression.FakeExpressionReference;
+
+import java.util.List;
+
+public final class TreeExpressionFunctionLambdaSlotsTest implements ClassTesting<TreeExpressionFunctionLambdaSlots>,
+    ToStringTesting<TreeExpressionFunctionLambdaSlots> {
+
+    private final static List<ExpressionFunctionParameter<?>> PARAMETERS = Lists.of(
+        ExpressionFunctionParameterName.with("x")
+            .required(Object.class),
+        ExpressionFunctionParameterName.with("y")
+            .required(Object.class)
+    );
+
+    private final static ExpressionReference X = var("x");
+
+    private final static ExpressionReference Y = var("y");
+
+    private final static ExpressionReference Z = var("z");
+
+    private static ExpressionReference var(final String name) {
+        return new FakeExpressionReference() {
+
+            @Override
+            public boolean testParameterName(final ExpressionFunctionParameterName parameterName) {
+                return name.equals(parameterName.value());
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+
+    @Test
+    public void testSlotFirstParameter() {
+        this.slotAndCheck(
+            X,
+            0
+        );
+    }
+
+    @Test
+    public void testSlotSecondParameter() {
+        this.slotAndCheck(
+            Y,
+            1
+        );
+    }
+
+    @Test
+    public void testSlotNotParameter() {
+        this.slotAndCheck(
+            Z,
+            TreeExpressionFunctionLambdaSlots.NOT_A_PARAMETER
+        );
+    }
+
+    @Test
+    public void testSlotReferenceAbsentFromExpression() {
+        this.slotAndCheck(
+            var("y"),
+            1
+        );
+    }
+
+    @Test
+    public void testSlotReferenceAbsentFromExpressionNotParameter() {
+        this.slotAndCheck(
+            var("z"),
+            TreeExpressionFunctionLambdaSlots.NOT_A_PARAMETER
+        );
+    }
+
+    private void slotAndCheck(final ExpressionReference reference,
+                              final int expected) {
+        this.checkEquals(
+            expected,
+            this.createSlots()
+                .slot(reference),
+            () -> "slot " + reference
+        );
+    }
+
+    private TreeExpressionFunctionLambdaSlots createSlots() {
+        return TreeExpressionFunctionLambdaSlots.with(
+            PARAMETERS,
+            Expression.add(
+                Expression.reference(X),
+                Expression.multiply(
+                    Expression.reference(Y),
+                    Expression.reference(Z)
+                )
+            )
+        );
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            this.createSlots(),
+            "[x, y]"
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<TreeExpressionFunctionLambdaSlots> type() {
+        return TreeExpressionFunctionLambdaSlots.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
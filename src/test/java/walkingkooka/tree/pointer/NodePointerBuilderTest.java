@@ -0,0 +1,163 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.pointer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.ToStringTesting;
+import walkingkooka.naming.Names;
+import walkingkooka.naming.StringName;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.TestNode;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class NodePointerBuilderTest implements ClassTesting2<NodePointerBuilder<TestNode, StringName>>,
+    ToStringTesting<NodePointerBuilder<TestNode, StringName>> {
+
+    private final static StringName ABC = Names.string("abc");
+    private final static StringName DEF = Names.string("def");
+
+    @BeforeEach
+    public void beforeEach() {
+        TestNode.clear();
+    }
+
+    @Test
+    public void testBuilderNullNodeClassFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> NodePointer.builder(null)
+        );
+    }
+
+    @Test
+    public void testNamedNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.builder()
+                .named(null)
+        );
+    }
+
+    @Test
+    public void testIndexedInvalidIndexFails() {
+        assertThrows(
+            IndexOutOfBoundsException.class,
+            () -> this.builder()
+                .indexed(-1)
+        );
+    }
+
+    @Test
+    public void testBuildEmpty() {
+        this.checkEquals(
+            NodePointer.any(TestNode.class),
+            this.builder()
+                .build()
+        );
+    }
+
+    @Test
+    public void testBuild() {
+        this.checkEquals(
+            NodePointer.named(ABC, TestNode.class)
+                .indexed(1)
+                .named(DEF)
+                .append(),
+            this.builder()
+                .named(ABC)
+                .indexed(1)
+                .named(DEF)
+                .append()
+                .build()
+        );
+    }
+
+    @Test
+    public void testBuildTwice() {
+        final NodePointerBuilder<TestNode, StringName> builder = this.builder()
+            .named(ABC);
+        final NodePointer<TestNode, StringName> first = builder.build();
+
+        builder.indexed(2);
+
+        this.checkEquals(
+            NodePointer.named(ABC, TestNode.class),
+            first,
+            "first"
+        );
+        this.checkEquals(
+            NodePointer.named(ABC, TestNode.class)
+                .indexed(2),
+            builder.build(),
+            "second"
+        );
+    }
+
+    @Test
+    public void testBuildManyComponentsTraverse() {
+        final int count = 100;
+
+        TestNode node = TestNode.with("leaf");
+        final NodePointerBuilder<TestNode, StringName> builder = this.builder();
+
+        for (int i = 0; i < count; i++) {
+            node = TestNode.with("parent" + i, node);
+            builder.indexed(0);
+        }
+
+        this.checkEquals(
+            Optional.of(
+                Names.string("leaf")
+            ),
+            builder.build()
+                .traverse(node)
+                .map(TestNode::name)
+        );
+    }
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            this.builder()
+                .named(ABC)
+                .indexed(1),
+            "/abc/1"
+        );
+    }
+
+    private NodePointerBuilder<TestNode, StringName> builder() {
+        return NodePointer.builder(TestNode.class);
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<NodePointerBuilder<TestNode, StringName>> type() {
+        return Cast.to(NodePointerBuilder.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -24,6 +24,8 @@ import walkingkooka.naming.StringName;
 import walkingkooka.tree.TestNode;
 import walkingkooka.visit.Visiting;
 
+import java.util.Optional;
+
 public final class NodePointerNamedChildTest extends NodePointerTestCase2<NodePointerNamedChild<TestNode, StringName>> {
 
     private final static StringName A1_NAME = Names.string("A1");
@@ -38,6 +40,25 @@ public final class NodePointerNamedChildTest extends NodePointerTestCase2<NodePo
         this.checkEquals(this.name(), pointer.name, "name");
     }
 
+    @Test
+    public void testTraverseWide() {
+        TestNode root = TestNode.with("root");
+        for (int i = 0; i < 1000; i++) {
+            root = root.appendChild(TestNode.with("child" + i));
+        }
+
+        this.checkEquals(
+            Optional.of(root.child(999)),
+            NodePointer.named(Names.string("child999"), TestNode.class)
+                .traverse(root)
+        );
+        this.checkEquals(
+            Optional.empty(),
+            NodePointer.named(Names.string("unknown"), TestNode.class)
+                .traverse(root)
+        );
+    }
+
     // add..............................................................................................................
 
     @Test
@@ -0,0 +1,446 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.pointer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.naming.Names;
+import walkingkooka.naming.StringName;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.TestNode;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class NodePointerPatchTest implements ClassTesting2<NodePointerPatch<TestNode, StringName>> {
+
+    @BeforeEach
+    public void beforeEach() {
+        TestNode.clear();
+    }
+
+    @Test
+    public void testWithNullOperationsFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> NodePointerPatch.with(null)
+        );
+    }
+
+    @Test
+    public void testWithRelativeFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> NodePointerPatch.with(
+                Lists.of(
+                    NodePointerPatchOperation.remove(
+                        NodePointer.relative(
+                            1,
+                            TestNode.class
+                        )
+                    )
+                )
+            )
+        );
+    }
+
+    @Test
+    public void testApplyNullNodeFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> NodePointerPatch.<TestNode, StringName>with(Lists.empty())
+                .apply(null)
+        );
+    }
+
+    @Test
+    public void testApplyEmpty() {
+        final TestNode root = this.root();
+
+        assertSame(
+            root,
+            NodePointerPatch.<TestNode, StringName>with(Lists.empty())
+                .apply(root)
+        );
+    }
+
+    @Test
+    public void testApplyAddAnyFails() {
+        final NodePointer<TestNode, StringName> any = NodePointer.any(TestNode.class);
+
+        final UnsupportedOperationException thrown = assertThrows(
+            UnsupportedOperationException.class,
+            () -> NodePointerPatch.with(
+                Lists.of(
+                    NodePointerPatchOperation.add(
+                        any,
+                        TestNode.with("new")
+                    )
+                )
+            ).apply(this.root())
+        );
+        this.checkEquals(
+            "Add not supported for " + any,
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testApplyRemoveUnknownFails() {
+        this.applyFailsAndCheck(
+            NodePointerPatchOperation.remove(this.parse("/a/unknown"))
+        );
+    }
+
+    @Test
+    public void testApplyRemoveUnknownParentFails() {
+        this.applyFailsAndCheck(
+            NodePointerPatchOperation.remove(this.parse("/unknown/a1"))
+        );
+    }
+
+    @Test
+    public void testApplyRemoveAppendFails() {
+        this.applyFailsAndCheck(
+            NodePointerPatchOperation.remove(this.parse("/-"))
+        );
+    }
+
+    @Test
+    public void testApplyRemoveChildAppendFails() {
+        this.applyFailsAndCheck(
+            NodePointerPatchOperation.remove(this.parse("/a/-"))
+        );
+    }
+
+    @Test
+    public void testApplyAddUnknownParentFails() {
+        this.applyFailsAndCheck(
+            NodePointerPatchOperation.add(
+                this.parse("/a/unknown/-"),
+                TestNode.with("new")
+            )
+        );
+    }
+
+    @Test
+    public void testApplyAddIndexOutOfRangeFails() {
+        this.applyFailsAndCheck(
+            NodePointerPatchOperation.add(
+                this.parse("/0/99"),
+                TestNode.with("new")
+            )
+        );
+    }
+
+    /**
+     * Applies the operations one at a time and then as a patch, checking both fail with the same exception. Only the
+     * last operation should fail, as the message includes the {@link TestNode} it was applied to.
+     */
+    @SafeVarargs
+    private final void applyFailsAndCheck(final NodePointerPatchOperation<TestNode, StringName>... operations) {
+        final List<NodePointerPatchOperation<TestNode, StringName>> list = Lists.of(operations);
+        final TestNode root = this.root();
+
+        final RuntimeException expected = assertThrows(
+            RuntimeException.class,
+            () -> {
+                TestNode node = root;
+                for (final NodePointerPatchOperation<TestNode, StringName> operation : list) {
+                    node = apply(operation, node)
+                        .root();
+                }
+            }
+        );
+
+        final RuntimeException thrown = assertThrows(
+            RuntimeException.class,
+            () -> NodePointerPatch.with(list)
+                .apply(root)
+        );
+
+        this.checkEquals(
+            expected.getClass(),
+            thrown.getClass(),
+            () -> "exception " + list
+        );
+        this.checkEquals(
+            expected.getMessage(),
+            thrown.getMessage(),
+            () -> "message " + list
+        );
+    }
+
+    @Test
+    public void testApplyAddNamedReplace() {
+        this.applyAndCheck(
+            NodePointerPatchOperation.add(
+                this.parse("/a/a1"),
+                TestNode.with("new")
+                    .appendChild(TestNode.with("new1"))
+            )
+        );
+    }
+
+    @Test
+    public void testApplyAddNamedAppend() {
+        this.applyAndCheck(
+            NodePointerPatchOperation.add(
+                this.parse("/b/new"),
+                TestNode.with("new")
+            )
+        );
+    }
+
+    @Test
+    public void testApplyAddIndexed() {
+        this.applyAndCheck(
+            NodePointerPatchOperation.add(
+                this.parse("/1/0"),
+                TestNode.with("new")
+            )
+        );
+    }
+
+    @Test
+    public void testApplyAddAppend() {
+        this.applyAndCheck(
+            NodePointerPatchOperation.add(
+                this.parse("/a/-"),
+                TestNode.with("new")
+            )
+        );
+    }
+
+    @Test
+    public void testApplyRemove() {
+        this.applyAndCheck(
+            NodePointerPatchOperation.remove(this.parse("/a/a2"))
+        );
+    }
+
+    @Test
+    public void testApplyRemoveIndexed() {
+        this.applyAndCheck(
+            NodePointerPatchOperation.remove(this.parse("/1/0"))
+        );
+    }
+
+    @Test
+    public void testApplyRemoveThenAddSameParent() {
+        this.applyAndCheck(
+            NodePointerPatchOperation.remove(this.parse("/a/a1")),
+            NodePointerPatchOperation.add(
+                this.parse("/a/a1"),
+                TestNode.with("new")
+            ),
+            NodePointerPatchOperation.add(
+                this.parse("/a/1/-"),
+                TestNode.with("new2")
+            )
+        );
+    }
+
+    @Test
+    public void testApplyManySiblings() {
+        this.applyAndCheck(
+            NodePointerPatchOperation.remove(this.parse("/a/0")),
+            NodePointerPatchOperation.add(
+                this.parse("/a/-"),
+                TestNode.with("new1")
+            ),
+            NodePointerPatchOperation.add(
+                this.parse("/a/0"),
+                TestNode.with("new2")
+            ),
+            NodePointerPatchOperation.add(
+                this.parse("/a/new1"),
+                TestNode.with("new3")
+            )
+        );
+    }
+
+    @Test
+    public void testApplyManyDifferentBranches() {
+        this.applyAndCheck(
+            NodePointerPatchOperation.add(
+                this.parse("/a/a1/-"),
+                TestNode.with("new1")
+            ),
+            NodePointerPatchOperation.remove(this.parse("/b/b1")),
+            NodePointerPatchOperation.add(
+                this.parse("/-"),
+                TestNode.with("new2")
+            ),
+            NodePointerPatchOperation.add(
+                this.parse("/b/new3"),
+                TestNode.with("new3")
+            )
+        );
+    }
+
+    @Test
+    public void testApplyAddThenDescendIntoAdded() {
+        this.applyAndCheck(
+            NodePointerPatchOperation.add(
+                this.parse("/-"),
+                TestNode.with("new1")
+            ),
+            NodePointerPatchOperation.add(
+                this.parse("/new1/-"),
+                TestNode.with("new2")
+            ),
+            NodePointerPatchOperation.remove(this.parse("/a"))
+        );
+    }
+
+    @Test
+    public void testApplyNonRoot() {
+        final TestNode root = this.root();
+        final TestNode a = root.child(0);
+
+        final List<NodePointerPatchOperation<TestNode, StringName>> operations = Lists.of(
+            NodePointerPatchOperation.remove(this.parse("/a1")),
+            NodePointerPatchOperation.add(
+                this.parse("/-"),
+                TestNode.with("new")
+            )
+        );
+
+        TestNode expected = a;
+        for (final NodePointerPatchOperation<TestNode, StringName> operation : operations) {
+            expected = apply(operation, expected);
+        }
+
+        final TestNode patched = NodePointerPatch.with(operations)
+            .apply(a);
+        this.checkEquals(
+            expected,
+            patched
+        );
+        this.checkEquals(
+            expected.root(),
+            patched.root(),
+            "root"
+        );
+    }
+
+    @Test
+    public void testApplyManyWide() {
+        TestNode root = TestNode.with("root");
+        for (int i = 0; i < 100; i++) {
+            root = root.appendChild(TestNode.with("child" + i));
+        }
+
+        final List<NodePointerPatchOperation<TestNode, StringName>> operations = Lists.array();
+        for (int i = 0; i < 100; i += 2) {
+            operations.add(
+                NodePointerPatchOperation.add(
+                    this.parse("/child" + i + "/-"),
+                    TestNode.with("new" + i)
+                )
+            );
+        }
+
+        this.applyAndCheck(
+            root,
+            operations
+        );
+    }
+
+    @SafeVarargs
+    private final void applyAndCheck(final NodePointerPatchOperation<TestNode, StringName>... operations) {
+        this.applyAndCheck(
+            this.root(),
+            Lists.of(operations)
+        );
+    }
+
+    private void applyAndCheck(final TestNode root,
+                               final List<NodePointerPatchOperation<TestNode, StringName>> operations) {
+        TestNode expected = root;
+        for (final NodePointerPatchOperation<TestNode, StringName> operation : operations) {
+            expected = apply(operation, expected)
+                .root();
+        }
+
+        this.checkEquals(
+            expected,
+            NodePointerPatch.with(operations)
+                .apply(root),
+            () -> operations.toString()
+        );
+    }
+
+    private static TestNode apply(final NodePointerPatchOperation<TestNode, StringName> operation,
+                                  final TestNode node) {
+        final NodePointer<TestNode, StringName> pointer = operation.pointer();
+        return operation.isRemove() ?
+            pointer.remove(node) :
+            pointer.add(
+                node,
+                operation.value()
+                    .get()
+            );
+    }
+
+    private TestNode root() {
+        return TestNode.with("root")
+            .setChildren(
+                Lists.of(
+                    TestNode.with("a")
+                        .setChildren(
+                            Lists.of(
+                                TestNode.with("a1"),
+                                TestNode.with("a2")
+                            )
+                        ),
+                    TestNode.with("b")
+                        .setChildren(
+                            Lists.of(
+                                TestNode.with("b1")
+                            )
+                        )
+                )
+            );
+    }
+
+    private NodePointer<TestNode, StringName> parse(final String pointer) {
+        return NodePointer.parse(
+            pointer,
+            Names::string,
+            TestNode.class
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<NodePointerPatch<TestNode, StringName>> type() {
+        return Cast.to(NodePointerPatch.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -796,6 +796,148 @@ public final class NodePointerTest implements ClassTesting2<NodePointer<TestNode
         );
     }
 
+    @Test
+    public void testParseSlashTilde() {
+        final NodePointer<TestNode, StringName> pointer = parseString("/a~1b~01");
+
+        this.checkEquals(
+            NodePointer.named(Names.string("a/b~1"), TestNode.class),
+            pointer
+        );
+    }
+
+    @Test
+    public void testParseUnknownEscape() {
+        this.checkEquals(
+            NodePointer.named(Names.string("a~2"), TestNode.class),
+            parseString("/a~2")
+        );
+    }
+
+    @Test
+    public void testParseTrailingSlash() {
+        this.checkEquals(
+            NodePointer.named(ABC, TestNode.class),
+            NodePointer.parse(
+                "/abc/",
+                NAME_FACTORY,
+                TestNode.class
+            )
+        );
+    }
+
+    @Test
+    public void testParseSlash() {
+        this.checkEquals(
+            NodePointer.any(TestNode.class),
+            NodePointer.parse(
+                "/",
+                NAME_FACTORY,
+                TestNode.class
+            )
+        );
+    }
+
+    @Test
+    public void testParseSignedIndex() {
+        this.checkEquals(
+            NodePointer.indexed(1, TestNode.class),
+            NodePointer.parse(
+                "/+1",
+                NAME_FACTORY,
+                TestNode.class
+            )
+        );
+    }
+
+    @Test
+    public void testParseIndexTooBigIsName() {
+        this.checkEquals(
+            NodePointer.named(Names.string("99999999999"), TestNode.class),
+            parseString("/99999999999")
+        );
+    }
+
+    @Test
+    public void testParseMany() {
+        final StringBuilder b = new StringBuilder();
+        NodePointer<TestNode, StringName> expected = NodePointer.any(TestNode.class);
+
+        for (int i = 0; i < 1000; i++) {
+            b.append("/name").append(i).append("/").append(i);
+            expected = expected.named(Names.string("name" + i))
+                .indexed(i);
+        }
+
+        this.checkEquals(
+            expected,
+            this.parseString(b.toString())
+        );
+    }
+
+    // path.............................................................................................................
+
+    @Test
+    public void testPathNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> NodePointer.path(null)
+        );
+    }
+
+    @Test
+    public void testPathRoot() {
+        this.checkEquals(
+            NodePointer.any(TestNode.class),
+            NodePointer.path(TestNode.with("root"))
+        );
+    }
+
+    @Test
+    public void testPathGrandChild() {
+        final TestNode root = TestNode.with(
+            "root",
+            TestNode.with("child1"),
+            TestNode.with(
+                "child2",
+                TestNode.with("grandChild")
+            )
+        );
+        final TestNode grandChild = root.child(1)
+            .child(0);
+
+        final NodePointer<TestNode, StringName> pointer = NodePointer.path(grandChild);
+        this.toStringAndCheck(
+            pointer,
+            "/child2/grandChild"
+        );
+        this.checkEquals(
+            Optional.of(grandChild),
+            pointer.traverse(root)
+        );
+    }
+
+    @Test
+    public void testPathDeep() {
+        TestNode.disableUniqueNameChecks();
+
+        TestNode node = TestNode.with("leaf");
+        for (int i = 0; i < 1000; i++) {
+            node = TestNode.with("parent", node);
+        }
+
+        TestNode leaf = node;
+        while (false == leaf.children().isEmpty()) {
+            leaf = leaf.child(0);
+        }
+
+        final NodePointer<TestNode, StringName> pointer = NodePointer.path(leaf);
+        this.checkEquals(
+            Optional.of(leaf),
+            pointer.traverse(node)
+        );
+    }
+
     @Override
     public NodePointer<TestNode, StringName> parseString(final String pointer) {
         final NodePointer<TestNode, StringName> parsed = NodePointer.parse(
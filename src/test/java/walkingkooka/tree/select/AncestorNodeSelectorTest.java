@@ -32,6 +32,19 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 final public class AncestorNodeSelectorTest extends
     AxisNodeSelectorTestCase<AncestorNodeSelector<TestNode, StringName, StringName, Object>> {
 
+    @Test
+    public void testAncestorDeep() {
+        TestNode node = this.deep();
+        while (false == node.isEmpty()) {
+            node = node.children().get(0);
+        }
+
+        this.applyWithSmallStackAndCheckCount(
+            node,
+            DEEP - 1
+        );
+    }
+
     @Test
     public void testAncestorRoot() {
         this.applyAndCheck(TestNode.with("root"));
@@ -21,6 +21,9 @@ import org.junit.jupiter.api.Test;
 import walkingkooka.naming.StringName;
 import walkingkooka.tree.TestNode;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 public abstract class AxisNodeSelectorTestCase<S extends NodeSelector<TestNode, StringName, StringName, Object>>
     extends AbsoluteOrAxisNodeSelectorTestCase<S> {
 
@@ -34,4 +37,89 @@ public abstract class AxisNodeSelectorTestCase<S extends NodeSelector<TestNode,
             TestNode.with("self"),
             () -> true);
     }
+
+    final static int DEEP = 2000;
+
+    /**
+     * Creates a tree {@link #DEEP} levels deep, each node having a single child, returning the root. The tree is built
+     * on a thread with a large stack because {@link TestNode} copies children recursively.
+     */
+    final TestNode deep() {
+        final AtomicReference<TestNode> root = new AtomicReference<>();
+
+        this.runWithStack(
+            () -> {
+                TestNode node = TestNode.with("deep0");
+
+                for (int i = 1; i < DEEP; i++) {
+                    node = TestNode.with(
+                        "deep" + i,
+                        node
+                    );
+                }
+
+                root.set(node);
+            },
+            256 * 1024 * 1024
+        );
+
+        return root.get();
+    }
+
+    /**
+     * Applies the selector on a thread with a small stack, which would overflow if the selector recursed for each level.
+     */
+    final void applyWithSmallStackAndCheckCount(final TestNode start,
+                                                final int count) {
+        final AtomicInteger selected = new AtomicInteger();
+
+        this.runWithStack(
+            () -> this.createSelector()
+                .apply(
+                    start,
+                    this.context(
+                        (n) -> true,
+                        (n) -> selected.incrementAndGet()
+                    )
+                ),
+            128 * 1024
+        );
+
+        this.checkEquals(
+            count,
+            selected.get(),
+            "selected count"
+        );
+    }
+
+    private void runWithStack(final Runnable runnable,
+                              final long stackSize) {
+        final AtomicReference<Throwable> failed = new AtomicReference<>();
+
+        final Thread thread = new Thread(
+            null,
+            () -> {
+                try {
+                    runnable.run();
+                } catch (final Throwable cause) {
+                    failed.set(cause);
+                }
+            },
+            "stack-" + stackSize,
+            stackSize
+        );
+        thread.start();
+
+        try {
+            thread.join();
+        } catch (final InterruptedException cause) {
+            throw new AssertionError(cause);
+        }
+
+        this.checkEquals(
+            null,
+            failed.get(),
+            "failed"
+        );
+    }
 }
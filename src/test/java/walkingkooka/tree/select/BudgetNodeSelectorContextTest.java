@@ -0,0 +1,162 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.select;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.naming.StringName;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.TestNode;
+import walkingkooka.tree.expression.ExpressionEvaluationBudget;
+import walkingkooka.tree.expression.ExpressionEvaluationBudgetExceededException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class BudgetNodeSelectorContextTest implements ClassTesting2<BudgetNodeSelectorContext<TestNode, StringName, StringName, Object>> {
+
+    @BeforeEach
+    public void beforeEach() {
+        TestNode.clear();
+    }
+
+    @Test
+    public void testWithNullBudgetFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> BudgetNodeSelectorContext.with(
+                null,
+                NodeSelectorContexts.fake()
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullContextFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> BudgetNodeSelectorContext.with(
+                this.budget(1),
+                null
+            )
+        );
+    }
+
+    @Test
+    public void testApplyWithinBudget() {
+        final List<TestNode> selected = Lists.array();
+        final ExpressionEvaluationBudget budget = this.budget(100);
+
+        TestNode.relativeNodeSelector()
+            .descendant()
+            .apply(
+                this.tree(),
+                NodeSelectorContexts.budget(
+                    budget,
+                    this.context(selected)
+                )
+            );
+
+        this.checkEquals(4, selected.size(), "selected");
+        this.checkEquals(true, budget.steps() > 0, "steps");
+    }
+
+    @Test
+    public void testApplyExceedsBudget() {
+        final List<TestNode> selected = Lists.array();
+
+        assertThrows(
+            ExpressionEvaluationBudgetExceededException.class,
+            () -> TestNode.relativeNodeSelector()
+                .descendant()
+                .apply(
+                    this.tree(),
+                    NodeSelectorContexts.budget(
+                        this.budget(2),
+                        this.context(selected)
+                    )
+                )
+        );
+    }
+
+    private TestNode tree() {
+        return TestNode.with("root")
+            .setChildren(
+                Lists.of(
+                    TestNode.with("a")
+                        .setChildren(
+                            Lists.of(
+                                TestNode.with("a1"),
+                                TestNode.with("a2")
+                            )
+                        ),
+                    TestNode.with("b")
+                )
+            );
+    }
+
+    private NodeSelectorContext<TestNode, StringName, StringName, Object> context(final List<TestNode> selected) {
+        return new FakeNodeSelectorContext<>() {
+            @Override
+            public boolean isFinished() {
+                return false;
+            }
+
+            @Override
+            public boolean test(final TestNode node) {
+                return true;
+            }
+
+            @Override
+            public void setNode(final TestNode node) {
+                // nop
+            }
+
+            @Override
+            public TestNode selected(final TestNode node) {
+                selected.add(node);
+                return node;
+            }
+        };
+    }
+
+    private ExpressionEvaluationBudget budget(final long maxSteps) {
+        return ExpressionEvaluationBudget.with(
+            maxSteps,
+            ExpressionEvaluationBudget.UNLIMITED,
+            ExpressionEvaluationBudget.NO_DEADLINE,
+            () -> 0,
+            () -> false
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<BudgetNodeSelectorContext<TestNode, StringName, StringName, Object>> type() {
+        return Cast.to(BudgetNodeSelectorContext.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
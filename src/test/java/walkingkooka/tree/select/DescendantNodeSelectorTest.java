@@ -31,6 +31,14 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 final public class DescendantNodeSelectorTest extends
     AxisNodeSelectorTestCase<DescendantNodeSelector<TestNode, StringName, StringName, Object>> {
 
+    @Test
+    public void testDescendantDeep() {
+        this.applyWithSmallStackAndCheckCount(
+            this.deep(),
+            DEEP - 1
+        );
+    }
+
     @Test
     public void testDescendantChildless() {
         this.applyAndCheck(TestNode.with("only"));
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.select;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.naming.Names;
+import walkingkooka.naming.StringName;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.printer.TreePrintableTesting;
+import walkingkooka.tree.TestNode;
+import walkingkooka.tree.expression.Expression;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class NodeSelectorStatisticsTest implements ClassTesting2<NodeSelectorStatistics>,
+    TreePrintableTesting {
+
+    @BeforeEach
+    public void beforeEach() {
+        TestNode.clear();
+    }
+
+    @Test
+    public void testExplainNullNodeFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> TestNode.relativeNodeSelector()
+                .explain(
+                    null,
+                    this.context(Lists.array()),
+                    this.clock()
+                )
+        );
+    }
+
+    @Test
+    public void testExplainNullContextFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> TestNode.relativeNodeSelector()
+                .explain(
+                    TestNode.with("root"),
+                    null,
+                    this.clock()
+                )
+        );
+    }
+
+    @Test
+    public void testExplainNullClockFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> TestNode.relativeNodeSelector()
+                .explain(
+                    TestNode.with("root"),
+                    this.context(Lists.array()),
+                    null
+                )
+        );
+    }
+
+    @Test
+    public void testExplainDescendant() {
+        final List<TestNode> selected = Lists.array();
+
+        final NodeSelectorStatistics statistics = TestNode.relativeNodeSelector()
+            .descendant()
+            .explain(
+                this.tree(),
+                this.context(selected),
+                this.clock()
+            );
+
+        this.checkEquals(4, selected.size(), "selected");
+
+        final List<NodeSelectorStepStatistics> steps = statistics.steps();
+        this.checkEquals(2, steps.size(), "steps");
+
+        final NodeSelectorStepStatistics descendant = steps.get(0);
+        this.checkEquals("Descendant", descendant.label(), "label");
+        this.checkEquals(1L, descendant.visited(), "visited");
+        this.checkEquals(5L, descendant.tested(), "tested");
+        this.checkEquals(0L, descendant.selected(), "selected");
+
+        final NodeSelectorStepStatistics terminal = steps.get(1);
+        this.checkEquals("Terminal", terminal.label(), "label");
+        this.checkEquals(4L, terminal.visited(), "visited");
+        this.checkEquals(4L, terminal.tested(), "tested");
+        this.checkEquals(4L, terminal.selected(), "selected");
+
+        this.checkEquals(Lists.empty(), statistics.suggestions(), "suggestions");
+    }
+
+    @Test
+    public void testExplainExpressionThenNamed() {
+        final Expression expression = Expression.value(true);
+
+        final NodeSelectorStatistics statistics = ExpressionNodeSelector.<TestNode, StringName, StringName, Object>with(expression)
+            .named(Names.string("b"))
+            .explain(
+                this.tree(),
+                this.context(Lists.array()),
+                this.clock()
+            );
+
+        final List<NodeSelectorStepStatistics> steps = statistics.steps();
+        this.checkEquals(3, steps.size(), "steps");
+
+        final NodeSelectorStepStatistics expressionStep = steps.get(0);
+        this.checkEquals("Expression " + expression, expressionStep.label(), "label");
+        this.checkEquals(1L, expressionStep.visited(), "visited");
+        this.checkEquals(1L, expressionStep.evaluated(), "evaluated");
+
+        final NodeSelectorStepStatistics named = steps.get(1);
+        this.checkEquals("Named b", named.label(), "label");
+        this.checkEquals(1L, named.visited(), "visited");
+
+        this.checkEquals(0L, steps.get(2).visited(), "terminal visited");
+
+        this.checkEquals(
+            Lists.of(
+                "Move Named b before Expression " + expression + " unless the expression uses the node position, to avoid evaluating it for nodes with other names"
+            ),
+            statistics.suggestions(),
+            "suggestions"
+        );
+    }
+
+    @Test
+    public void testPrintTree() {
+        this.treePrintAndCheck(
+            TestNode.relativeNodeSelector()
+                .descendant()
+                .explain(
+                    this.tree(),
+                    this.context(Lists.array()),
+                    this.clock()
+                ),
+            "Descendant visited=1 tested=5 evaluated=0 selected=0 nanos=9 self=5\n" +
+                "  Terminal visited=4 tested=4 evaluated=0 selected=4 nanos=4 self=4\n"
+        );
+    }
+
+    private TestNode tree() {
+        return TestNode.with("root")
+            .setChildren(
+                Lists.of(
+                    TestNode.with("a")
+                        .setChildren(
+                            Lists.of(
+                                TestNode.with("a1"),
+                                TestNode.with("a2")
+                            )
+                        ),
+                    TestNode.with("b")
+                )
+            );
+    }
+
+    private NodeSelectorContext<TestNode, StringName, StringName, Object> context(final List<TestNode> selected) {
+        return new FakeNodeSelectorContext<>() {
+            @Override
+            public boolean isFinished() {
+                return false;
+            }
+
+            @Override
+            public boolean test(final TestNode node) {
+                return true;
+            }
+
+            @Override
+            public void setNode(final TestNode node) {
+                // nop
+            }
+
+            @Override
+            public TestNode selected(final TestNode node) {
+                selected.add(node);
+                return node;
+            }
+
+            @Override
+            public Object evaluate(final Expression expression) {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * A clock that advances by one every time it is read.
+     */
+    private LongSupplier clock() {
+        final long[] now = new long[1];
+        return () -> now[0]++;
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<NodeSelectorStatistics> type() {
+        return NodeSelectorStatistics.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.select;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+public final class NodeSelectorStepStatisticsTest implements ClassTesting2<NodeSelectorStepStatistics>,
+    ToStringTesting<NodeSelectorStepStatistics> {
+
+    @Test
+    public void testSelfNanosLast() {
+        final NodeSelectorStepStatistics step = NodeSelectorStepStatistics.with("Terminal");
+        step.nanos = 10;
+
+        this.checkEquals(10L, step.selfNanos());
+    }
+
+    @Test
+    public void testSelfNanosWithNext() {
+        final NodeSelectorStepStatistics step = NodeSelectorStepStatistics.with("Children");
+        step.nanos = 10;
+
+        final NodeSelectorStepStatistics next = NodeSelectorStepStatistics.with("Terminal");
+        next.nanos = 4;
+        step.next = next;
+
+        this.checkEquals(6L, step.selfNanos());
+    }
+
+    @Test
+    public void testToString() {
+        final NodeSelectorStepStatistics step = NodeSelectorStepStatistics.with("Children");
+        step.visited = 1;
+        step.tested = 2;
+        step.evaluated = 3;
+        step.selected = 4;
+        step.nanos = 5;
+
+        this.toStringAndCheck(
+            step,
+            "Children visited=1 tested=2 evaluated=3 selected=4 nanos=5 self=5"
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<NodeSelectorStepStatistics> type() {
+        return NodeSelectorStepStatistics.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.select;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.naming.StringName;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.TestNode;
+import walkingkooka.tree.expression.Expression;
+
+public final class StatisticsNodeSelectorContextTest implements ClassTesting2<StatisticsNodeSelectorContext<TestNode, StringName, StringName, Object>> {
+
+    @BeforeEach
+    public void beforeEach() {
+        TestNode.clear();
+    }
+
+    @Test
+    public void testCountsCurrentStep() {
+        final NodeSelectorStatistics statistics = NodeSelectorStatistics.with(() -> 0);
+        final NodeSelectorStepStatistics first = statistics.add("first");
+        final NodeSelectorStepStatistics second = statistics.add("second");
+
+        final StatisticsNodeSelectorContext<TestNode, StringName, StringName, Object> context = StatisticsNodeSelectorContext.with(
+            statistics,
+            new FakeNodeSelectorContext<>() {
+                @Override
+                public boolean test(final TestNode node) {
+                    return true;
+                }
+
+                @Override
+                public TestNode selected(final TestNode node) {
+                    return node;
+                }
+
+                @Override
+                public Object evaluate(final Expression expression) {
+                    return true;
+                }
+            }
+        );
+
+        final TestNode node = TestNode.with("node");
+        context.test(node);
+
+        statistics.current = second;
+        context.test(node);
+        context.evaluate(Expression.value(true));
+        context.selected(node);
+
+        this.checkEquals(1L, first.tested(), "first tested");
+        this.checkEquals(1L, second.tested(), "second tested");
+        this.checkEquals(1L, second.evaluated(), "second evaluated");
+        this.checkEquals(1L, second.selected(), "second selected");
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<StatisticsNodeSelectorContext<TestNode, StringName, StringName, Object>> type() {
+        return Cast.to(StatisticsNodeSelectorContext.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
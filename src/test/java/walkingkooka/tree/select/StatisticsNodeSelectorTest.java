@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.select;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.naming.Names;
+import walkingkooka.naming.StringName;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.TestNode;
+
+import java.util.stream.Collectors;
+
+public final class StatisticsNodeSelectorTest implements ClassTesting2<StatisticsNodeSelector<TestNode, StringName, StringName, Object>> {
+
+    @Test
+    public void testWrap() {
+        this.wrapAndCheck(
+            TestNode.relativeNodeSelector()
+                .children()
+                .named(Names.string("a")),
+            "Children, Named a, Terminal"
+        );
+    }
+
+    @Test
+    public void testWrapCustomToString() {
+        this.wrapAndCheck(
+            TestNode.relativeNodeSelector()
+                .children()
+                .setToString("custom"),
+            "Children, Terminal"
+        );
+    }
+
+    @Test
+    public void testWrapAbsolute() {
+        this.wrapAndCheck(
+            TestNode.absoluteNodeSelector()
+                .children(),
+            "Absolute, Children, Terminal"
+        );
+    }
+
+    private void wrapAndCheck(final NodeSelector<TestNode, StringName, StringName, Object> selector,
+                              final String labels) {
+        final NodeSelectorStatistics statistics = NodeSelectorStatistics.with(() -> 0);
+        StatisticsNodeSelector.wrap(
+            selector,
+            statistics
+        );
+
+        this.checkEquals(
+            labels,
+            statistics.steps()
+                .stream()
+                .map(NodeSelectorStepStatistics::label)
+                .collect(Collectors.joining(", ")),
+            () -> selector.toString()
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<StatisticsNodeSelector<TestNode, StringName, StringName, Object>> type() {
+        return Cast.to(StatisticsNodeSelector.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}